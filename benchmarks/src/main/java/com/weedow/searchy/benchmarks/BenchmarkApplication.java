@@ -0,0 +1,53 @@
+package com.weedow.searchy.benchmarks;
+
+import com.weedow.searchy.common.model.Person;
+import com.weedow.searchy.config.SearchyConfigurer;
+import com.weedow.searchy.descriptor.SearchyDescriptorBuilder;
+import com.weedow.searchy.descriptor.SearchyDescriptorRegistry;
+import com.weedow.searchy.mongodb.autoconfigure.EmbeddedMongoSearchyAutoConfiguration;
+import com.weedow.searchy.mongodb.autoconfigure.MongoReactiveSearchyAutoConfiguration;
+import com.weedow.searchy.mongodb.autoconfigure.MongoSearchyAutoConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.data.mongo.MongoDataAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.mongo.MongoRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.mongo.MongoAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Application searching the {@link Person Persons} of the {@code common} model, stored in an H2 in-memory Database.
+ * <p>
+ * The MongoDB module is only used to build the MongoDB queries: its auto-configurations are excluded, and no MongoDB server is required.
+ */
+@SpringBootApplication(exclude = {
+        MongoAutoConfiguration.class,
+        MongoDataAutoConfiguration.class,
+        MongoRepositoriesAutoConfiguration.class,
+        EmbeddedMongoSearchyAutoConfiguration.class,
+        MongoSearchyAutoConfiguration.class,
+        MongoReactiveSearchyAutoConfiguration.class
+})
+@EntityScan("com.weedow.searchy.common.model")
+public class BenchmarkApplication implements SearchyConfigurer {
+
+    public static final String PERSON_DESCRIPTOR_ID = "person";
+
+    /**
+     * Starts the application without web server.
+     *
+     * @return the application context
+     */
+    public static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(BenchmarkApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.config.name=benchmarks")
+                .run();
+    }
+
+    @Override
+    public void addSearchyDescriptors(SearchyDescriptorRegistry registry) {
+        registry.addSearchyDescriptor(new SearchyDescriptorBuilder<>(Person.class).id(PERSON_DESCRIPTOR_ID).build());
+    }
+}
@@ -0,0 +1,52 @@
+package com.weedow.searchy.benchmarks;
+
+import com.weedow.searchy.benchmarks.fixture.Fixtures;
+import com.weedow.searchy.benchmarks.fixture.SearchyState;
+import com.weedow.searchy.common.model.Person;
+import com.weedow.searchy.expression.ExpressionMapper;
+import com.weedow.searchy.expression.RootExpression;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the conversion of the search parameters to a {@link RootExpression}: {@link ExpressionMapper#toExpression(Map, Class)}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExpressionMapperBenchmark {
+
+    @Param({"short", "long"})
+    public String queryLength;
+
+    private ExpressionMapper expressionMapper;
+    private Map<String, List<String>> params;
+
+    @Setup(Level.Trial)
+    public void setUp(SearchyState searchyState) {
+        expressionMapper = searchyState.getBean(ExpressionMapper.class);
+        params = Fixtures.params(queryLength);
+    }
+
+    @Benchmark
+    public RootExpression<Person> toExpression() {
+        return expressionMapper.toExpression(params, Person.class);
+    }
+}
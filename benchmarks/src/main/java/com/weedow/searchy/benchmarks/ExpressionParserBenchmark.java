@@ -0,0 +1,50 @@
+package com.weedow.searchy.benchmarks;
+
+import com.weedow.searchy.benchmarks.fixture.Fixtures;
+import com.weedow.searchy.benchmarks.fixture.SearchyState;
+import com.weedow.searchy.common.model.Person;
+import com.weedow.searchy.expression.Expression;
+import com.weedow.searchy.expression.parser.ExpressionParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the parsing of the {@code query} parameter: {@link ExpressionParser#parse(String, Class)}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExpressionParserBenchmark {
+
+    @Param({"short", "long"})
+    public String queryLength;
+
+    private ExpressionParser expressionParser;
+    private String query;
+
+    @Setup(Level.Trial)
+    public void setUp(SearchyState searchyState) {
+        expressionParser = searchyState.getBean(ExpressionParser.class);
+        query = Fixtures.query(queryLength);
+    }
+
+    @Benchmark
+    public Expression parse() {
+        return expressionParser.parse(query, Person.class);
+    }
+}
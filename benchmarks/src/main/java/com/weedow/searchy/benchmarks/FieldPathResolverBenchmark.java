@@ -0,0 +1,60 @@
+package com.weedow.searchy.benchmarks;
+
+import com.weedow.searchy.alias.AliasResolutionService;
+import com.weedow.searchy.benchmarks.fixture.SearchyState;
+import com.weedow.searchy.common.model.Person;
+import com.weedow.searchy.fieldpath.FieldPathInfo;
+import com.weedow.searchy.fieldpath.FieldPathResolver;
+import com.weedow.searchy.fieldpath.FieldPathResolverImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the resolution of the field paths: {@link FieldPathResolver#resolveFieldPath(Class, String)}.
+ * <p>
+ * The field paths go from a field of the root Entity to a field of a Map nested in two to-many associations.
+ * They are resolved by the {@link FieldPathResolverImpl}, and by the {@link FieldPathResolver} configured by Searchy,
+ * which precompiles the field paths of the Search Descriptors.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FieldPathResolverBenchmark {
+
+    @Param({"firstName", "jobEntity.company", "vehicles.brand", "vehicles.features.value.metadata.value"})
+    public String fieldPath;
+
+    @Param({"impl", "configured"})
+    public String resolver;
+
+    private FieldPathResolver fieldPathResolver;
+
+    @Setup(Level.Trial)
+    public void setUp(SearchyState searchyState) {
+        if ("impl".equals(resolver)) {
+            fieldPathResolver = new FieldPathResolverImpl(searchyState.getBean(AliasResolutionService.class));
+        } else {
+            fieldPathResolver = searchyState.getBean(FieldPathResolver.class);
+        }
+    }
+
+    @Benchmark
+    public FieldPathInfo resolveFieldPath() {
+        return fieldPathResolver.resolveFieldPath(Person.class, fieldPath);
+    }
+}
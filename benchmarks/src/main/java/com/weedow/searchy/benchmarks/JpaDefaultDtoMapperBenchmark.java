@@ -0,0 +1,79 @@
+package com.weedow.searchy.benchmarks;
+
+import com.weedow.searchy.benchmarks.fixture.SearchyState;
+import com.weedow.searchy.common.model.Person;
+import com.weedow.searchy.dto.InitializationGraph;
+import com.weedow.searchy.jpa.dto.JpaDefaultDtoMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the initialization of the Entity graphs: {@link JpaDefaultDtoMapper#map(Object, InitializationGraph)}.
+ * <p>
+ * Each invocation maps all the Persons freshly loaded by a new {@link EntityManager}, so that their lazy associations are not initialized yet:
+ * addresses, job, tasks, vehicles, features of the vehicles and their metadata.
+ * The {@code maxDepth} parameter limits the depth of the initialized associations ({@code -1} initializes all the associations).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class JpaDefaultDtoMapperBenchmark {
+
+    @Param({"-1", "1", "2"})
+    public int maxDepth;
+
+    private EntityManagerFactory entityManagerFactory;
+    private JpaDefaultDtoMapper<Person> dtoMapper;
+    private InitializationGraph initializationGraph;
+
+    private EntityManager entityManager;
+    private List<Person> persons;
+
+    @Setup(Level.Trial)
+    public void setUp(SearchyState searchyState) {
+        entityManagerFactory = searchyState.getBean(EntityManagerFactory.class);
+        dtoMapper = new JpaDefaultDtoMapper<>();
+        initializationGraph = maxDepth < 0 ? InitializationGraph.ALL : new InitializationGraph(Set.of(), Set.of(), maxDepth);
+    }
+
+    @Setup(Level.Invocation)
+    public void loadPersons() {
+        entityManager = entityManagerFactory.createEntityManager();
+        entityManager.getTransaction().begin();
+        persons = entityManager.createQuery("select p from Person p", Person.class).getResultList();
+    }
+
+    @TearDown(Level.Invocation)
+    public void closeEntityManager() {
+        entityManager.getTransaction().rollback();
+        entityManager.close();
+    }
+
+    @Benchmark
+    public void map(Blackhole blackhole) {
+        for (Person person : persons) {
+            blackhole.consume(dtoMapper.map(person, initializationGraph));
+        }
+    }
+}
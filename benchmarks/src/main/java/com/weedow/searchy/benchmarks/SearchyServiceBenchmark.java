@@ -0,0 +1,58 @@
+package com.weedow.searchy.benchmarks;
+
+import com.weedow.searchy.benchmarks.fixture.Fixtures;
+import com.weedow.searchy.benchmarks.fixture.SearchyState;
+import com.weedow.searchy.query.pagination.Page;
+import com.weedow.searchy.query.pagination.PageRequest;
+import com.weedow.searchy.service.SearchyService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end benchmark of the search of Persons in the H2 Database: {@link SearchyService#search},
+ * from the search parameters to the DTOs, as executed by the Searchy controllers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SearchyServiceBenchmark {
+
+    @Param({"short", "long"})
+    public String queryLength;
+
+    private SearchyService searchyService;
+    private Map<String, List<String>> params;
+
+    @Setup(Level.Trial)
+    public void setUp(SearchyState searchyState) {
+        searchyService = searchyState.getBean(SearchyService.class);
+        params = Fixtures.params(queryLength);
+    }
+
+    @Benchmark
+    public List<?> search() {
+        return searchyService.search(BenchmarkApplication.PERSON_DESCRIPTOR_ID, params);
+    }
+
+    @Benchmark
+    public Page<?> searchPage() {
+        return searchyService.search(BenchmarkApplication.PERSON_DESCRIPTOR_ID, params, new PageRequest(0, 20), true);
+    }
+}
@@ -0,0 +1,121 @@
+package com.weedow.searchy.benchmarks;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.weedow.searchy.benchmarks.fixture.Fixtures;
+import com.weedow.searchy.benchmarks.fixture.SearchyState;
+import com.weedow.searchy.common.model.Address;
+import com.weedow.searchy.common.model.Feature;
+import com.weedow.searchy.common.model.Job;
+import com.weedow.searchy.common.model.Person;
+import com.weedow.searchy.common.model.Task;
+import com.weedow.searchy.common.model.Vehicle;
+import com.weedow.searchy.context.ConfigurableSearchyContext;
+import com.weedow.searchy.context.SearchyContext;
+import com.weedow.searchy.descriptor.SearchyDescriptor;
+import com.weedow.searchy.descriptor.SearchyDescriptorService;
+import com.weedow.searchy.expression.ExpressionMapper;
+import com.weedow.searchy.expression.RootExpression;
+import com.weedow.searchy.join.EntityJoinManagerImpl;
+import com.weedow.searchy.jpa.query.JpaQueryBuilder;
+import com.weedow.searchy.mongodb.context.MongoSearchyContext;
+import com.weedow.searchy.mongodb.query.MongoQueryBuilder;
+import com.weedow.searchy.query.querytype.QEntity;
+import com.weedow.searchy.query.querytype.QEntityRootImpl;
+import com.weedow.searchy.query.specification.Specification;
+import com.weedow.searchy.query.specification.SpecificationService;
+import com.weedow.searchy.query.specification.SpecificationServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.repository.support.SpringDataMongodbQuery;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the conversion of a {@link Specification} to a Querydsl {@link Predicate}: {@link Specification#toPredicate},
+ * with the {@link JpaQueryBuilder} and with the {@link MongoQueryBuilder}.
+ * <p>
+ * The queries are built, but not executed: no MongoDB server is required.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SpecificationBenchmark {
+
+    private static final List<Class<?>> MODEL_CLASSES = List.of(Person.class, Address.class, Job.class, Task.class, Vehicle.class, Feature.class);
+
+    @Param({"short", "long"})
+    public String queryLength;
+
+    private SearchyContext jpaSearchyContext;
+    private QEntity<Person> jpaQEntity;
+    private EntityManager entityManager;
+    private Specification<Person> jpaSpecification;
+
+    private MongoSearchyContext mongoSearchyContext;
+    private QEntity<Person> mongoQEntity;
+    private MongoClient mongoClient;
+    private MongoOperations mongoOperations;
+    private Specification<Person> mongoSpecification;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp(SearchyState searchyState) {
+        SearchyDescriptor<Person> searchyDescriptor = (SearchyDescriptor<Person>) searchyState.getBean(SearchyDescriptorService.class)
+                .getSearchyDescriptor(BenchmarkApplication.PERSON_DESCRIPTOR_ID);
+        RootExpression<Person> rootExpression = searchyState.getBean(ExpressionMapper.class).toExpression(Fixtures.params(queryLength), Person.class);
+
+        jpaSearchyContext = searchyState.getBean(SearchyContext.class);
+        jpaQEntity = ((ConfigurableSearchyContext) jpaSearchyContext).add(Person.class);
+        entityManager = searchyState.getBean(EntityManagerFactory.class).createEntityManager();
+        jpaSpecification = searchyState.getBean(SpecificationService.class).createSpecification(rootExpression, searchyDescriptor);
+
+        // The model classes are not MongoDB Documents: they are registered explicitly
+        mongoSearchyContext = new MongoSearchyContext();
+        MODEL_CLASSES.forEach(mongoSearchyContext::add);
+        mongoQEntity = mongoSearchyContext.add(Person.class);
+        mongoClient = MongoClients.create();
+        mongoOperations = new MongoTemplate(mongoClient, "searchy-benchmarks");
+        EntityJoinManagerImpl mongoEntityJoinManager = new EntityJoinManagerImpl(mongoSearchyContext, EntityJoinManagerImpl.DEFAULT_MAX_COLLECTION_FETCH_JOINS);
+        mongoSpecification = new SpecificationServiceImpl(mongoEntityJoinManager).createSpecification(rootExpression, searchyDescriptor);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        entityManager.close();
+        mongoClient.close();
+    }
+
+    @Benchmark
+    public Predicate jpaToPredicate() {
+        JPAQuery<Person> query = new JPAQuery<Person>(entityManager).from(jpaQEntity);
+        return jpaSpecification.toPredicate(new JpaQueryBuilder<>(jpaSearchyContext, query, new QEntityRootImpl<>(jpaQEntity)));
+    }
+
+    @Benchmark
+    public Predicate mongoToPredicate() {
+        SpringDataMongodbQuery<Person> query = new SpringDataMongodbQuery<>(mongoOperations, Person.class);
+        return mongoSpecification.toPredicate(new MongoQueryBuilder<>(mongoSearchyContext, query, new QEntityRootImpl<>(mongoQEntity)));
+    }
+}
@@ -0,0 +1,167 @@
+package com.weedow.searchy.benchmarks.fixture;
+
+import com.neovisionaries.i18n.CountryCode;
+import com.weedow.searchy.common.model.Address;
+import com.weedow.searchy.common.model.Feature;
+import com.weedow.searchy.common.model.Job;
+import com.weedow.searchy.common.model.Person;
+import com.weedow.searchy.common.model.Task;
+import com.weedow.searchy.common.model.Vehicle;
+import com.weedow.searchy.common.model.VehicleType;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Fixtures of the benchmarks, based on the {@code common} model.
+ */
+public final class Fixtures {
+
+    /**
+     * Short query: a single criterion on a field of the root Entity.
+     */
+    public static final String SHORT_QUERY = "firstName='John'";
+
+    /**
+     * Long query: nested logical operators and criteria on the fields of the joined Entities and of the collections.
+     */
+    public static final String LONG_QUERY = "(firstName='John' OR firstName IN ('Jane', 'Jim')) "
+            + "AND (vehicles.vehicleType='CAR' OR vehicles.brand MATCHES 'Ren*') "
+            + "AND height > 160 AND birthday < '2000-01-01T00:00:00' "
+            + "AND jobEntity.active=true AND jobEntity.salary >= 30000 "
+            + "AND NOT addressEntities.country='IT' "
+            + "AND characteristics.key='eyes' AND characteristics.value='blue' "
+            + "AND nickNames IS NOT NULL";
+
+    private static final String[] FIRST_NAMES = {"John", "Jane", "Jim", "Bob"};
+    private static final String[] BRANDS = {"Renault", "Porsche", "Harley-Davidson"};
+    private static final VehicleType[] VEHICLE_TYPES = {VehicleType.CAR, VehicleType.CAR, VehicleType.MOTORBIKE};
+    private static final CountryCode[] COUNTRIES = {CountryCode.FR, CountryCode.IT, CountryCode.US};
+
+    private Fixtures() {
+    }
+
+    /**
+     * Returns the query of the given length.
+     *
+     * @param length {@code short} or {@code long}
+     * @return the query
+     */
+    public static String query(String length) {
+        switch (length) {
+            case "short":
+                return SHORT_QUERY;
+            case "long":
+                return LONG_QUERY;
+            default:
+                throw new IllegalArgumentException("Unknown query length: " + length);
+        }
+    }
+
+    /**
+     * Returns the search parameters of the given length, as received by the Searchy controllers.
+     *
+     * @param length {@code short} or {@code long}
+     * @return the search parameters
+     */
+    public static Map<String, List<String>> params(String length) {
+        Map<String, List<String>> params = new LinkedHashMap<>();
+        switch (length) {
+            case "short":
+                params.put("firstName", List.of("John"));
+                break;
+            case "long":
+                params.put("query", List.of(LONG_QUERY));
+                params.put("lastName", List.of("Doe0", "Doe1", "Doe2", "Doe3"));
+                params.put("vehicles.brand", List.of("Renault", "Porsche"));
+                params.put("sort", List.of("lastName,desc"));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown query length: " + length);
+        }
+        return params;
+    }
+
+    /**
+     * Stores the given number of Persons with their associations: addresses, job, tasks, vehicles, features of the vehicles and their metadata.
+     *
+     * @param entityManagerFactory {@link EntityManagerFactory} of the Database
+     * @param personCount          number of Persons
+     */
+    public static void populate(EntityManagerFactory entityManagerFactory, int personCount) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+
+            List<Address> addresses = new ArrayList<>();
+            for (int i = 0; i < COUNTRIES.length; i++) {
+                Address address = new Address(i + " rue de la Paix", "City" + i, "7500" + i, COUNTRIES[i], new HashSet<>());
+                entityManager.persist(address);
+                addresses.add(address);
+            }
+
+            List<Task> tasks = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                Task task = new Task("task" + i, "Task " + i);
+                entityManager.persist(task);
+                tasks.add(task);
+            }
+
+            for (int i = 0; i < personCount; i++) {
+                Person person = createPerson(i, addresses, tasks);
+                entityManager.persist(person);
+                entityManager.persist(new Job(i % 2 == 0, "Developer", "Acme", 30000 + i * 100, OffsetDateTime.of(2019, 9, 1, 9, 0, 0, 0, ZoneOffset.UTC), person));
+            }
+
+            entityManager.getTransaction().commit();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private static Person createPerson(int index, List<Address> addresses, List<Task> tasks) {
+        // The Vehicles are compared by identifier, which is not generated yet
+        Set<Vehicle> vehicles = Collections.newSetFromMap(new IdentityHashMap<>());
+        Map<Task, LocalDateTime> personTasks = new HashMap<>();
+        tasks.forEach(task -> personTasks.put(task, LocalDateTime.of(2020, 1, 1 + index % 28, 9, 0)));
+
+        Person person = new Person(
+                FIRST_NAMES[index % FIRST_NAMES.length],
+                "Doe" + index,
+                "person" + index + "@acme.com",
+                LocalDateTime.of(1970 + index % 40, 1 + index % 12, 1 + index % 28, 10, 30),
+                150.0 + index % 50,
+                50.0 + index % 40,
+                Set.of("nickName" + index),
+                Set.of("+3361234" + String.format("%04d", index)),
+                Set.of(addresses.get(index % addresses.size())),
+                null,
+                vehicles,
+                Map.of("eyes", index % 2 == 0 ? "blue" : "brown", "hair", "brown"),
+                personTasks
+        );
+
+        for (int i = 0; i < BRANDS.length; i++) {
+            Map<String, Feature> features = new HashMap<>();
+            for (String featureName : List.of("gps", "airbag")) {
+                String name = featureName + "-" + index + "-" + i;
+                features.put(name, new Feature(name, "Description of " + featureName, Map.of("version", String.valueOf(i), "vendor", BRANDS[i])));
+            }
+            vehicles.add(new Vehicle(VEHICLE_TYPES[i], BRANDS[i], "Model" + i, person, features));
+        }
+
+        return person;
+    }
+}
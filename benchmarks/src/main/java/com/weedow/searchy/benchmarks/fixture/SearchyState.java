@@ -0,0 +1,49 @@
+package com.weedow.searchy.benchmarks.fixture;
+
+import com.weedow.searchy.benchmarks.BenchmarkApplication;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * State sharing the {@link BenchmarkApplication} context between the benchmark threads, with the Database populated by the {@link Fixtures}.
+ */
+@State(Scope.Benchmark)
+public class SearchyState {
+
+    /**
+     * Number of Persons stored in the Database.
+     */
+    @Param("100")
+    public int personCount;
+
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        Fixtures.populate(getBean(EntityManagerFactory.class), personCount);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Returns the bean of the given type from the application context.
+     *
+     * @param type type of the bean
+     * @param <T>  type of the bean
+     * @return the bean
+     */
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+}
@@ -18,4 +18,12 @@ interface AliasResolutionService {
      */
     fun resolve(parentClass: Class<*>, alias: String): String
 
+    /**
+     * Returns all the aliases of the fields present in the given Class.
+     *
+     * @param parentClass Class where to find the fields
+     * @return Map of the field names associated to the aliases. Empty if there is no alias.
+     */
+    fun getAliases(parentClass: Class<*>): Map<String, String> = emptyMap()
+
 }
\ No newline at end of file
@@ -1,47 +1,49 @@
 package com.weedow.searchy.alias
 
 import org.apache.commons.lang3.reflect.FieldUtils
-import java.util.*
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ConcurrentMap
+import java.util.concurrent.CopyOnWriteArrayList
 
 /**
  * Default [AliasResolutionService] implementation suitable for use in most environments.
  *
  * Indirectly implements [AliasResolverRegistry] as registration API through the [ConfigurableAliasResolutionService] interface.
+ *
+ * The aliases of a Class are computed once, the first time they are requested, and can be safely resolved by concurrent threads.
  */
 class DefaultAliasResolutionService : ConfigurableAliasResolutionService {
 
-    companion object {
-        private const val ALIAS_SEPARATOR = "."
-    }
-
-    private val aliasResolvers: MutableList<AliasResolver> = ArrayList()
+    private val aliasResolvers: MutableList<AliasResolver> = CopyOnWriteArrayList()
 
-    private val processedEntityClasses: MutableList<Class<*>> = ArrayList()
-    private val aliases: MutableMap<String, String> = HashMap()
+    private val aliasesByEntityClass: ConcurrentMap<Class<*>, Map<String, String>> = ConcurrentHashMap()
 
     override fun addAliasResolver(aliasResolver: AliasResolver) {
         aliasResolvers.add(aliasResolver)
     }
 
     override fun resolve(parentClass: Class<*>, alias: String): String {
-        if (!aliasResolvers.isNullOrEmpty() && !processedEntityClasses.contains(parentClass)) {
-            initAliases(parentClass)
-            processedEntityClasses.add(parentClass)
+        return getAliases(parentClass).getOrDefault(alias, alias)
+    }
+
+    override fun getAliases(parentClass: Class<*>): Map<String, String> {
+        if (aliasResolvers.isEmpty()) {
+            return emptyMap()
         }
-        return aliases.getOrDefault(parentClass.simpleName + ALIAS_SEPARATOR + alias, alias)
+        return aliasesByEntityClass.computeIfAbsent(parentClass) { initAliases(it) }
     }
 
-    private fun initAliases(entityClass: Class<*>) {
+    private fun initAliases(entityClass: Class<*>): Map<String, String> {
+        val aliases = mutableMapOf<String, String>()
         for (field in FieldUtils.getAllFieldsList(entityClass)) {
             val fieldName = field.name
             aliasResolvers.forEach { aliasResolver ->
                 if (aliasResolver.supports(entityClass, field)) {
-                    val aliases: List<String?> = aliasResolver.resolve(entityClass, field)
-                    if (!aliases.isNullOrEmpty()) {
-                        aliases.forEach { alias -> this.aliases[entityClass.simpleName + ALIAS_SEPARATOR + alias] = fieldName }
-                    }
+                    val fieldAliases: List<String?> = aliasResolver.resolve(entityClass, field)
+                    fieldAliases.filterNotNull().forEach { alias -> aliases[alias] = fieldName }
                 }
             }
         }
+        return aliases.toMap()
     }
-}
\ No newline at end of file
+}
@@ -1,13 +1,25 @@
 package com.weedow.searchy.autoconfigure
 
+import com.fasterxml.jackson.databind.ObjectMapper
 import com.weedow.searchy.config.DelegatingSearchyConfiguration
 import com.weedow.searchy.config.SearchyConfigurationSupport
 import com.weedow.searchy.config.SearchyConfigurer
 import com.weedow.searchy.config.SearchyProperties
 import com.weedow.searchy.controller.reactive.SearchyReactiveController
 import com.weedow.searchy.controller.servlet.SearchyServletController
+import com.weedow.searchy.descriptor.SearchyDescriptorService
+import com.weedow.searchy.dto.DtoConverterService
+import com.weedow.searchy.expression.ExpressionMapper
+import com.weedow.searchy.expression.optimizer.ExpressionOptimizer
+import com.weedow.searchy.metrics.SearchyMetrics
+import com.weedow.searchy.query.specification.ReactiveSpecificationExecutorFactory
+import com.weedow.searchy.query.specification.SpecificationService
+import com.weedow.searchy.service.ReactiveSearchyService
+import com.weedow.searchy.service.ReactiveSearchyServiceImpl
 import com.weedow.searchy.service.SearchyService
 import com.weedow.searchy.utils.klogger
+import com.weedow.searchy.validation.SearchyValidationService
+import org.springframework.beans.factory.ObjectProvider
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean
@@ -15,6 +27,7 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplicat
 import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.context.annotation.Bean
 import org.springframework.context.annotation.Configuration
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder
 
 /**
  * Auto-Configuration for Searchy.
@@ -44,8 +57,14 @@ class SearchyAutoConfiguration {
             searchyService: SearchyService,
             searchyProperties: SearchyProperties,
             requestMappingHandlerMapping: org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping,
+            objectMapper: ObjectProvider<ObjectMapper>,
         ): SearchyServletController {
-            return SearchyServletController(searchyService, searchyProperties, requestMappingHandlerMapping)
+            return SearchyServletController(
+                searchyService,
+                searchyProperties,
+                requestMappingHandlerMapping,
+                objectMapper.getIfAvailable { Jackson2ObjectMapperBuilder.json().build() }
+            )
         }
     }
 
@@ -66,10 +85,37 @@ class SearchyAutoConfiguration {
         @ConditionalOnMissingBean
         fun searchyReactiveController(
             searchyService: SearchyService,
+            reactiveSearchyService: ReactiveSearchyService,
             searchyProperties: SearchyProperties,
             requestMappingHandlerMapping: org.springframework.web.reactive.result.method.annotation.RequestMappingHandlerMapping,
         ): SearchyReactiveController {
-            return SearchyReactiveController(searchyService, searchyProperties, requestMappingHandlerMapping)
+            return SearchyReactiveController(searchyService, reactiveSearchyService, searchyProperties, requestMappingHandlerMapping)
+        }
+
+        @Bean
+        @ConditionalOnMissingBean
+        fun <T, DTO> reactiveSearchyService(
+            searchyService: SearchyService,
+            searchyDescriptorService: SearchyDescriptorService,
+            expressionMapper: ExpressionMapper,
+            searchyValidationService: SearchyValidationService,
+            specificationService: SpecificationService,
+            expressionOptimizer: ExpressionOptimizer,
+            dtoConverterService: DtoConverterService<T, DTO>,
+            searchyMetrics: SearchyMetrics,
+            reactiveSpecificationExecutorFactory: ObjectProvider<ReactiveSpecificationExecutorFactory>,
+        ): ReactiveSearchyService {
+            return ReactiveSearchyServiceImpl(
+                searchyService,
+                searchyDescriptorService,
+                expressionMapper,
+                searchyValidationService,
+                specificationService,
+                expressionOptimizer,
+                dtoConverterService,
+                searchyMetrics,
+                reactiveSpecificationExecutorFactory.ifAvailable
+            )
         }
     }
 
@@ -0,0 +1,32 @@
+package com.weedow.searchy.autoconfigure
+
+import com.weedow.searchy.metrics.MicrometerSearchyMetrics
+import com.weedow.searchy.metrics.SearchyMetrics
+import io.micrometer.core.instrument.MeterRegistry
+import org.springframework.boot.autoconfigure.AutoConfigureAfter
+import org.springframework.boot.autoconfigure.AutoConfigureBefore
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean
+import org.springframework.context.annotation.Bean
+import org.springframework.context.annotation.Configuration
+
+/**
+ * Auto-Configuration for the metrics of Searchy.
+ *
+ * The metrics are recorded with Micrometer when a [MeterRegistry] is available, for example when Spring Boot Actuator is present.
+ */
+@Configuration
+@ConditionalOnClass(MeterRegistry::class)
+@ConditionalOnBean(MeterRegistry::class)
+@AutoConfigureAfter(name = ["org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration"])
+@AutoConfigureBefore(SearchyAutoConfiguration::class)
+class SearchyMetricsAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    fun searchyMetrics(meterRegistry: MeterRegistry): SearchyMetrics {
+        return MicrometerSearchyMetrics(meterRegistry)
+    }
+
+}
@@ -0,0 +1,132 @@
+package com.weedow.searchy.cache
+
+import com.weedow.searchy.utils.klogger
+import java.time.Clock
+import java.time.Duration
+import java.util.concurrent.Executor
+import java.util.concurrent.ForkJoinPool
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Bounded in-memory cache: the least recently used entries are evicted when the maximum size is reached,
+ * and each entry expires after the given time to live.
+ *
+ * The values are loaded outside the lock, so that the slow loads don't block the other ones.
+ * A value loaded before the cache is [cleared][clear] is not cached, since it could be stale.
+ * The values which cannot be loaded are not cached.
+ *
+ * An entry requested during the [refreshAheadTime] preceding its expiration is reloaded in the background by the given [executor].
+ *
+ * @param name name of the cache, used in the logs
+ * @param maxSize Maximum number of entries in the cache
+ * @param timeToLive [Duration] after which an entry expires
+ * @param refreshAheadTime [Duration] before the expiration of an entry during which it is reloaded in the background. [Duration.ZERO] disables the refresh-ahead
+ * @param executor [Executor] used to reload the entries in the background
+ * @param clock [Clock] used to check if an entry is expired
+ */
+class BoundedCache<K : Any, V>(
+    private val name: String,
+    private val maxSize: Int,
+    private val timeToLive: Duration,
+    private val refreshAheadTime: Duration = Duration.ZERO,
+    private val executor: Executor = ForkJoinPool.commonPool(),
+    private val clock: Clock = Clock.systemUTC()
+) {
+
+    companion object {
+        private val log by klogger()
+    }
+
+    private val entries = object : LinkedHashMap<K, CacheEntry<V>>(16, 0.75f, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<K, CacheEntry<V>>): Boolean = size > maxSize
+    }
+
+    // Incremented on each clear, so that a value loaded before a clear is not cached
+    private var generation = 0L
+
+    private val hits = AtomicLong()
+    private val misses = AtomicLong()
+
+    /**
+     * Number of values found in the cache.
+     */
+    val hitCount: Long
+        get() = hits.get()
+
+    /**
+     * Number of values which have been loaded because they were not found in the cache.
+     */
+    val missCount: Long
+        get() = misses.get()
+
+    init {
+        require(maxSize > 0) { "The maximum size of the cache must be greater than 0" }
+    }
+
+    /**
+     * Returns the value cached for the given key, or loads it with the given loader and caches it.
+     *
+     * @param key key of the value. It must implement `equals` and `hashCode`
+     * @param loader function loading the value
+     * @param reloader function reloading the value in the background. Default is the [loader]
+     * @return the value
+     */
+    fun get(key: K, loader: () -> V, reloader: () -> V = loader): V {
+        val now = clock.millis()
+
+        val (cachedEntry, currentGeneration) = synchronized(entries) { entries[key] to generation }
+        if (cachedEntry != null && cachedEntry.expiresAt > now) {
+            hits.incrementAndGet()
+            if (cachedEntry.expiresAt - now <= refreshAheadTime.toMillis() && cachedEntry.refreshing.compareAndSet(false, true)) {
+                refresh(key, reloader, cachedEntry, currentGeneration)
+            }
+            return cachedEntry.value
+        }
+        misses.incrementAndGet()
+
+        val value = loader()
+        put(key, value, currentGeneration, now)
+        return value
+    }
+
+    /**
+     * Removes all the entries.
+     */
+    fun clear() {
+        synchronized(entries) {
+            generation++
+            entries.clear()
+        }
+    }
+
+    private fun refresh(key: K, reloader: () -> V, cachedEntry: CacheEntry<V>, currentGeneration: Long) {
+        val now = clock.millis()
+        try {
+            executor.execute {
+                try {
+                    put(key, reloader(), currentGeneration, now)
+                } catch (e: Exception) {
+                    cachedEntry.refreshing.set(false)
+                    log.warn("Could not refresh a cached value of {}", name, e)
+                }
+            }
+        } catch (e: Exception) {
+            cachedEntry.refreshing.set(false)
+            log.warn("Could not schedule the refresh of a cached value of {}", name, e)
+        }
+    }
+
+    private fun put(key: K, value: V, loadedGeneration: Long, loadedAt: Long) {
+        synchronized(entries) {
+            if (generation == loadedGeneration) {
+                entries[key] = CacheEntry(value, loadedAt + timeToLive.toMillis())
+            }
+        }
+    }
+
+    private class CacheEntry<V>(val value: V, val expiresAt: Long) {
+        val refreshing = AtomicBoolean()
+    }
+
+}
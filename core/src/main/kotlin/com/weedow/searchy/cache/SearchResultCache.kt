@@ -0,0 +1,121 @@
+package com.weedow.searchy.cache
+
+import com.weedow.searchy.descriptor.SearchyDescriptor
+import com.weedow.searchy.join.EntityJoinManager
+import com.weedow.searchy.utils.klogger
+import org.springframework.transaction.support.TransactionOperations
+import java.time.Clock
+import java.time.Duration
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ConcurrentMap
+import java.util.concurrent.Executor
+import java.util.concurrent.ForkJoinPool
+
+/**
+ * Cache of the results of the searches, with a [BoundedCache] for each Search Descriptor.
+ *
+ * The entries of a Search Descriptor are evicted as soon as an Entity touched by the Search Descriptor is created, updated or deleted.
+ * The touched Entities are the Entity of the Search Descriptor and the Entities joined to it, computed by the [EntityJoinManager].
+ *
+ * An entry requested during the [refreshAheadTime] preceding its expiration is reloaded in the background,
+ * so that the popular searches are never executed while a request is waiting for them.
+ * The background reload runs outside of the transaction of the request, so it is executed by the given [TransactionOperations].
+ *
+ * @param entityJoinManager [EntityJoinManager] used to find the Entities touched by each Search Descriptor
+ * @param defaultBounds [Bounds] of the cache of each Search Descriptor
+ * @param descriptorBounds [Bounds] overriding the [defaultBounds] for some Search Descriptors, by Search Descriptor ID
+ * @param refreshAheadTime [Duration] before the expiration of an entry during which it is reloaded in the background. [Duration.ZERO] disables the refresh-ahead
+ * @param executor [Executor] used to reload the entries in the background
+ * @param transactionOperations [TransactionOperations] used to execute the reload of the entries in the background within a transaction
+ * @param clock [Clock] used to check if an entry is expired
+ */
+class SearchResultCache(
+    private val entityJoinManager: EntityJoinManager,
+    private val defaultBounds: Bounds,
+    private val descriptorBounds: Map<String, Bounds> = emptyMap(),
+    private val refreshAheadTime: Duration = Duration.ZERO,
+    private val executor: Executor = ForkJoinPool.commonPool(),
+    private val transactionOperations: TransactionOperations = TransactionOperations.withoutTransaction(),
+    private val clock: Clock = Clock.systemUTC()
+) {
+
+    companion object {
+        private val log by klogger()
+    }
+
+    private val descriptorCaches: ConcurrentMap<String, DescriptorCache> = ConcurrentHashMap()
+
+    /**
+     * Whether the results of at least one Search Descriptor can be cached.
+     */
+    val enabled: Boolean
+        get() = defaultBounds.maxSize > 0 || descriptorBounds.values.any { it.maxSize > 0 }
+
+    /**
+     * Number of results found in the cache.
+     */
+    val hitCount: Long
+        get() = descriptorCaches.values.sumOf { it.cache.hitCount }
+
+    /**
+     * Number of results which have been loaded because they were not found in the cache.
+     */
+    val missCount: Long
+        get() = descriptorCaches.values.sumOf { it.cache.missCount }
+
+    /**
+     * Returns the result cached for the given Search Descriptor and key, or loads it with the given loader and caches it.
+     *
+     * @param searchyDescriptor [SearchyDescriptor] of the search
+     * @param key key of the search. It must implement `equals` and `hashCode`
+     * @param loader function executing the search
+     * @return the result of the search
+     */
+    fun <R> get(searchyDescriptor: SearchyDescriptor<*>, key: Any, loader: () -> R): R {
+        val bounds = descriptorBounds[searchyDescriptor.id] ?: defaultBounds
+        if (bounds.maxSize <= 0) {
+            return loader()
+        }
+
+        val descriptorCache = descriptorCaches.computeIfAbsent(searchyDescriptor.id) {
+            val cache = BoundedCache<Any, Any?>("the Search Descriptor '$it'", bounds.maxSize, bounds.timeToLive, refreshAheadTime, executor, clock)
+            DescriptorCache(it, entityJoinManager.computeEntityJoins(searchyDescriptor).getEntityClasses(), cache)
+        }
+
+        // The background reload runs outside of the transaction of the request
+        @Suppress("UNCHECKED_CAST")
+        return descriptorCache.cache.get(key, loader) { transactionOperations.execute { loader() } } as R
+    }
+
+    /**
+     * Evicts the results of the Search Descriptors touching the given Entity class.
+     *
+     * @param entityClass class of the created, updated or deleted Entity
+     */
+    fun evict(entityClass: Class<*>) {
+        descriptorCaches.values
+            .filter { descriptorCache -> descriptorCache.entityClasses.any { it.isAssignableFrom(entityClass) } }
+            .forEach {
+                if (log.isDebugEnabled) log.debug("Evicting the cached results of the Search Descriptor '{}' after a change of {}", it.searchyDescriptorId, entityClass.name)
+                it.cache.clear()
+            }
+    }
+
+    /**
+     * Evicts all the results.
+     */
+    fun evictAll() {
+        descriptorCaches.values.forEach { it.cache.clear() }
+    }
+
+    /**
+     * Bounds of the cache of a Search Descriptor.
+     *
+     * @param maxSize Maximum number of results in the cache. `0` disables the cache
+     * @param timeToLive [Duration] after which a result expires
+     */
+    data class Bounds(val maxSize: Int, val timeToLive: Duration)
+
+    private class DescriptorCache(val searchyDescriptorId: String, val entityClasses: Set<Class<*>>, val cache: BoundedCache<Any, Any?>)
+
+}
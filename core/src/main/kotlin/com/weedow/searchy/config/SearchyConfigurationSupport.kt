@@ -1,6 +1,7 @@
 package com.weedow.searchy.config
 
 import com.weedow.searchy.alias.*
+import com.weedow.searchy.cache.SearchResultCache
 import com.weedow.searchy.context.ConfigurableSearchyContext
 import com.weedow.searchy.context.SearchyContext
 import com.weedow.searchy.converter.StringToDateConverter
@@ -14,21 +15,34 @@ import com.weedow.searchy.expression.ExpressionMapper
 import com.weedow.searchy.expression.ExpressionMapperImpl
 import com.weedow.searchy.expression.ExpressionResolver
 import com.weedow.searchy.expression.ExpressionResolverImpl
+import com.weedow.searchy.expression.optimizer.ExpressionOptimizer
+import com.weedow.searchy.expression.optimizer.ExpressionOptimizerImpl
 import com.weedow.searchy.expression.parser.ExpressionParser
+import com.weedow.searchy.expression.parser.ExpressionParserCachingDecorator
 import com.weedow.searchy.expression.parser.ExpressionParserImpl
+import com.weedow.searchy.expression.parser.ExpressionParserMetricsDecorator
 import com.weedow.searchy.expression.parser.ExpressionParserVisitorFactory
 import com.weedow.searchy.expression.parser.ExpressionParserVisitorFactoryImpl
 import com.weedow.searchy.fieldpath.FieldPathResolver
 import com.weedow.searchy.fieldpath.FieldPathResolverImpl
+import com.weedow.searchy.fieldpath.PrecompiledFieldPathResolver
 import com.weedow.searchy.join.EntityJoinManager
 import com.weedow.searchy.join.EntityJoinManagerImpl
+import com.weedow.searchy.metrics.NoOpSearchyMetrics
+import com.weedow.searchy.metrics.SearchyMetrics
+import com.weedow.searchy.query.pagination.PageRequest
+import com.weedow.searchy.query.querytype.ElementType
 import com.weedow.searchy.query.specification.SpecificationExecutorFactory
 import com.weedow.searchy.query.specification.SpecificationService
 import com.weedow.searchy.query.specification.SpecificationServiceImpl
+import com.weedow.searchy.service.NoOpSearchCoalescer
+import com.weedow.searchy.service.SearchCoalescer
 import com.weedow.searchy.service.SearchyService
 import com.weedow.searchy.service.SearchyServiceImpl
+import com.weedow.searchy.service.SingleFlightSearchCoalescer
 import com.weedow.searchy.service.EntitySearchService
 import com.weedow.searchy.service.EntitySearchServiceImpl
+import com.weedow.searchy.utils.klogger
 import com.weedow.searchy.validation.SearchyErrorsFactory
 import com.weedow.searchy.validation.SearchyErrorsFactoryImpl
 import com.weedow.searchy.validation.SearchyValidationService
@@ -36,6 +50,7 @@ import com.weedow.searchy.validation.SearchyValidationServiceImpl
 import org.springframework.beans.factory.ObjectProvider
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean
 import org.springframework.boot.autoconfigure.domain.EntityScanner
+import org.springframework.context.ApplicationContext
 import org.springframework.context.annotation.Bean
 import org.springframework.context.event.ContextRefreshedEvent
 import org.springframework.context.event.EventListener
@@ -45,6 +60,9 @@ import org.springframework.core.convert.converter.ConverterRegistry
 import org.springframework.core.convert.support.ConfigurableConversionService
 import org.springframework.core.convert.support.DefaultConversionService
 import org.springframework.data.convert.Jsr310Converters
+import org.springframework.transaction.PlatformTransactionManager
+import org.springframework.transaction.support.TransactionOperations
+import org.springframework.transaction.support.TransactionTemplate
 
 /**
  * Main class providing the configuration of Searchy.
@@ -54,22 +72,115 @@ import org.springframework.data.convert.Jsr310Converters
  */
 open class SearchyConfigurationSupport {
 
+    companion object {
+        private val log by klogger()
+    }
+
     @EventListener
     fun handleContextRefreshEvent(cre: ContextRefreshedEvent) {
-        val searchyContext = cre.applicationContext.getBean(SearchyContext::class.java)
+        val applicationContext = cre.applicationContext
+        val searchyContext = applicationContext.getBean(SearchyContext::class.java)
 
         if (searchyContext is ConfigurableSearchyContext) {
-            val entityClasses = EntityScanner(cre.applicationContext).scan(*searchyContext.entityAnnotations.toTypedArray())
+            val entityClasses = EntityScanner(applicationContext).scan(*searchyContext.entityAnnotations.toTypedArray())
             entityClasses.forEach { entityClass ->
                 searchyContext.add(entityClass)
             }
         }
+
+        val searchyDescriptors = applicationContext.getBean(SearchyDescriptorService::class.java).getAllSearchyDescriptors()
+
+        val fieldPathResolver = applicationContext.getBeanProvider(FieldPathResolver::class.java).ifAvailable
+        if (fieldPathResolver is PrecompiledFieldPathResolver) {
+            searchyDescriptors.forEach { searchyDescriptor ->
+                fieldPathResolver.precompile(searchyDescriptor.entityClass)
+            }
+        }
+
+        val warmup = applicationContext.getBeanProvider(SearchyProperties::class.java).getIfAvailable { SearchyProperties() }.warmup
+        if (warmup.enabled) {
+            warmUp(applicationContext, searchyContext, searchyDescriptors, warmup.probeQuery)
+        }
+    }
+
+    /**
+     * Computes the metadata of the given [SearchyDescriptor]s ([QEntities][com.weedow.searchy.query.querytype.QEntity], Entity joins and aliases),
+     * so that the first requests don't have to do it.
+     *
+     * The [ContextRefreshedEvent] is published before the application is marked as ready, so the readiness probe waits for the end of the warm-up.
+     */
+    private fun warmUp(
+        applicationContext: ApplicationContext,
+        searchyContext: SearchyContext,
+        searchyDescriptors: Collection<SearchyDescriptor<*>>,
+        probeQuery: Boolean
+    ) {
+        val entityJoinManager = applicationContext.getBean(EntityJoinManager::class.java)
+        val aliasResolutionService = applicationContext.getBean(AliasResolutionService::class.java)
+        val searchyService = if (probeQuery) applicationContext.getBean(SearchyService::class.java) else null
+
+        val warmedUpEntityClasses = mutableSetOf<Class<*>>()
+        searchyDescriptors.forEach { searchyDescriptor ->
+            if (log.isDebugEnabled) log.debug("Warming up the Search Descriptor '{}'", searchyDescriptor.id)
+
+            if (searchyContext is ConfigurableSearchyContext) {
+                searchyContext.add(searchyDescriptor.entityClass)
+            }
+            entityJoinManager.computeEntityJoins(searchyDescriptor)
+            warmUpAliases(searchyDescriptor.entityClass, searchyContext, aliasResolutionService, warmedUpEntityClasses)
+
+            if (searchyService != null) {
+                try {
+                    // Loads the caches of the Data Access Layer (statements, connections, ...) with a query returning at most 1 result
+                    searchyService.search(searchyDescriptor.id, emptyMap(), PageRequest(0, 1), false)
+                } catch (e: Exception) {
+                    log.warn("Could not execute the probe query of the Search Descriptor '${searchyDescriptor.id}': ${e.message}", e)
+                }
+            }
+        }
+    }
+
+    private fun warmUpAliases(
+        entityClass: Class<*>,
+        searchyContext: SearchyContext,
+        aliasResolutionService: AliasResolutionService,
+        warmedUpEntityClasses: MutableSet<Class<*>>
+    ) {
+        if (!warmedUpEntityClasses.add(entityClass)) {
+            return
+        }
+
+        aliasResolutionService.getAliases(entityClass)
+
+        searchyContext.getAllPropertyInfos(entityClass).forEach { propertyInfos ->
+            val fieldClass = when (propertyInfos.elementType) {
+                ElementType.SET,
+                ElementType.LIST,
+                ElementType.COLLECTION,
+                ElementType.ARRAY
+                -> propertyInfos.parameterizedTypes[0]
+                ElementType.MAP -> propertyInfos.parameterizedTypes[1]
+                else -> propertyInfos.type
+            }
+            if (searchyContext.isEntity(fieldClass)) {
+                warmUpAliases(fieldClass, searchyContext, aliasResolutionService, warmedUpEntityClasses)
+            }
+        }
     }
 
     @Bean
     @ConditionalOnMissingBean
-    open fun fieldPathResolver(searchAliasResolutionService: AliasResolutionService): FieldPathResolver {
-        return FieldPathResolverImpl(searchAliasResolutionService)
+    open fun fieldPathResolver(
+        searchAliasResolutionService: AliasResolutionService,
+        searchyProperties: ObjectProvider<SearchyProperties>
+    ): FieldPathResolver {
+        val fieldPathResolver = FieldPathResolverImpl(searchAliasResolutionService)
+        val precompiledDepth = searchyProperties.getIfAvailable { SearchyProperties() }.fieldPath.precompiledDepth
+        return if (precompiledDepth > 0) {
+            PrecompiledFieldPathResolver(fieldPathResolver, searchAliasResolutionService, precompiledDepth)
+        } else {
+            fieldPathResolver
+        }
     }
 
     @Bean
@@ -84,6 +195,12 @@ open class SearchyConfigurationSupport {
         return ExpressionMapperImpl(expressionResolver, expressionParser)
     }
 
+    @Bean
+    @ConditionalOnMissingBean
+    open fun expressionOptimizer(): ExpressionOptimizer {
+        return ExpressionOptimizerImpl()
+    }
+
     @Bean
     @ConditionalOnMissingBean
     open fun expressionParserVisitorFactory(expressionResolver: ExpressionResolver): ExpressionParserVisitorFactory {
@@ -92,8 +209,19 @@ open class SearchyConfigurationSupport {
 
     @Bean
     @ConditionalOnMissingBean
-    open fun expressionParser(expressionParserVisitorFactory: ExpressionParserVisitorFactory): ExpressionParser {
-        return ExpressionParserImpl(expressionParserVisitorFactory)
+    open fun expressionParser(
+        expressionParserVisitorFactory: ExpressionParserVisitorFactory,
+        searchyProperties: ObjectProvider<SearchyProperties>,
+        searchyMetrics: SearchyMetrics
+    ): ExpressionParser {
+        val expressionParser = ExpressionParserMetricsDecorator(ExpressionParserImpl(expressionParserVisitorFactory), searchyMetrics)
+        val queryCache = searchyProperties.getIfAvailable { SearchyProperties() }.queryCache
+        return if (queryCache.maxSize > 0) {
+            ExpressionParserCachingDecorator(expressionParser, queryCache.maxSize, queryCache.timeToLive)
+                .also { searchyMetrics.monitorQueryCache(it) }
+        } else {
+            expressionParser
+        }
     }
 
     @Bean
@@ -103,9 +231,30 @@ open class SearchyConfigurationSupport {
         expressionMapper: ExpressionMapper,
         searchyValidationService: SearchyValidationService,
         entitySearchService: EntitySearchService,
-        dtoConverterService: DtoConverterService<T, DTO>
+        dtoConverterService: DtoConverterService<T, DTO>,
+        searchyMetrics: SearchyMetrics,
+        searchCoalescer: SearchCoalescer,
+        searchResultCache: SearchResultCache,
+        expressionOptimizer: ExpressionOptimizer
     ): SearchyService {
-        return SearchyServiceImpl(searchyDescriptorService, expressionMapper, searchyValidationService, entitySearchService, dtoConverterService)
+        return SearchyServiceImpl(
+            searchyDescriptorService,
+            expressionMapper,
+            searchyValidationService,
+            entitySearchService,
+            dtoConverterService,
+            searchyMetrics,
+            searchCoalescer,
+            searchResultCache,
+            expressionOptimizer
+        )
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    open fun searchCoalescer(searchyProperties: ObjectProvider<SearchyProperties>): SearchCoalescer {
+        val coalescing = searchyProperties.getIfAvailable { SearchyProperties() }.coalescing
+        return if (coalescing.enabled) SingleFlightSearchCoalescer(coalescing.perCallerConversion) else NoOpSearchCoalescer()
     }
 
     @Bean
@@ -124,9 +273,38 @@ open class SearchyConfigurationSupport {
     @ConditionalOnMissingBean
     open fun entitySearchService(
         specificationService: SpecificationService,
-        specificationExecutorFactory: SpecificationExecutorFactory
+        specificationExecutorFactory: SpecificationExecutorFactory,
+        expressionOptimizer: ExpressionOptimizer,
+        searchyMetrics: SearchyMetrics
     ): EntitySearchService {
-        return EntitySearchServiceImpl(specificationService, specificationExecutorFactory)
+        return EntitySearchServiceImpl(specificationService, specificationExecutorFactory, expressionOptimizer, searchyMetrics)
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    open fun searchResultCache(
+        entityJoinManager: EntityJoinManager,
+        searchyProperties: ObjectProvider<SearchyProperties>,
+        transactionManager: ObjectProvider<PlatformTransactionManager>,
+        searchyMetrics: SearchyMetrics
+    ): SearchResultCache {
+        val resultCache = searchyProperties.getIfAvailable { SearchyProperties() }.resultCache
+        val defaultBounds = SearchResultCache.Bounds(resultCache.maxSize, resultCache.timeToLive)
+        val descriptorBounds = resultCache.descriptors.mapValues { (_, bounds) ->
+            SearchResultCache.Bounds(bounds.maxSize ?: defaultBounds.maxSize, bounds.timeToLive ?: defaultBounds.timeToLive)
+        }
+        // The cached results are refreshed in the background, outside of the transaction of the request
+        val transactionOperations = transactionManager.ifUnique
+            ?.let { TransactionTemplate(it).apply { isReadOnly = true } }
+            ?: TransactionOperations.withoutTransaction()
+        return SearchResultCache(entityJoinManager, defaultBounds, descriptorBounds, resultCache.refreshAheadTime, transactionOperations = transactionOperations)
+            .also { if (it.enabled) searchyMetrics.monitorResultCache(it) }
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    open fun searchyMetrics(): SearchyMetrics {
+        return NoOpSearchyMetrics()
     }
 
     @Bean
@@ -138,9 +316,11 @@ open class SearchyConfigurationSupport {
     @Bean
     @ConditionalOnMissingBean
     open fun <T, DTO> dtoConverterService(
-        defaultDtoMapper: DtoMapper<T, DTO>
+        defaultDtoMapper: DtoMapper<T, DTO>,
+        searchyProperties: ObjectProvider<SearchyProperties>
     ): DtoConverterService<T, DTO> {
-        return DefaultDtoConverterServiceImpl(defaultDtoMapper)
+        val dtoConversion = searchyProperties.getIfAvailable { SearchyProperties() }.dtoConversion
+        return DefaultDtoConverterServiceImpl(defaultDtoMapper, dtoConversion.batchSize, dtoConversion.parallelThreshold, dtoConversion.parallelism)
     }
 
     @Bean
@@ -151,8 +331,9 @@ open class SearchyConfigurationSupport {
 
     @Bean
     @ConditionalOnMissingBean
-    open fun entityJoinManager(searchyContext: SearchyContext): EntityJoinManager {
-        return EntityJoinManagerImpl(searchyContext)
+    open fun entityJoinManager(searchyContext: SearchyContext, searchyProperties: ObjectProvider<SearchyProperties>): EntityJoinManager {
+        val fetchPlan = searchyProperties.getIfAvailable { SearchyProperties() }.fetchPlan
+        return EntityJoinManagerImpl(searchyContext, fetchPlan.maxCollectionFetchJoins)
     }
 
     /**
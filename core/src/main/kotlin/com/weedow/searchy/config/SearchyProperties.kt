@@ -1,8 +1,11 @@
 package com.weedow.searchy.config
 
+import com.weedow.searchy.dto.DefaultDtoConverterServiceImpl
+import com.weedow.searchy.join.EntityJoinManagerImpl
 import org.springframework.boot.context.properties.ConfigurationProperties
 import org.springframework.boot.context.properties.ConstructorBinding
 import org.springframework.boot.context.properties.NestedConfigurationProperty
+import java.time.Duration
 
 /**
  * [Properties][ConfigurationProperties] for Searchy.
@@ -16,7 +19,34 @@ data class SearchyProperties(
     val basePath: String = DEFAULT_BASE_PATH,
 
     @NestedConfigurationProperty
-    val defaultAliasResolver: DefaultAliasResolver = DefaultAliasResolver()
+    val defaultAliasResolver: DefaultAliasResolver = DefaultAliasResolver(),
+
+    @NestedConfigurationProperty
+    val pagination: Pagination = Pagination(),
+
+    @NestedConfigurationProperty
+    val queryCache: QueryCache = QueryCache(),
+
+    @NestedConfigurationProperty
+    val fieldPath: FieldPath = FieldPath(),
+
+    @NestedConfigurationProperty
+    val warmup: Warmup = Warmup(),
+
+    @NestedConfigurationProperty
+    val facets: Facets = Facets(),
+
+    @NestedConfigurationProperty
+    val resultCache: ResultCache = ResultCache(),
+
+    @NestedConfigurationProperty
+    val coalescing: Coalescing = Coalescing(),
+
+    @NestedConfigurationProperty
+    val fetchPlan: FetchPlan = FetchPlan(),
+
+    @NestedConfigurationProperty
+    val dtoConversion: DtoConversion = DtoConversion()
 ) {
     companion object {
         /** Default Base Path */
@@ -43,3 +73,209 @@ data class DefaultAliasResolver(
         )
     }
 }
+
+
+@ConstructorBinding
+data class Pagination(
+    /**
+     * Page size used when the `page` request parameter is present without the `size` request parameter. Default is `20`.
+     */
+    val defaultPageSize: Int = DEFAULT_PAGE_SIZE,
+
+    /**
+     * Maximum number of results returned by a search.
+     * The `size` request parameter is capped to this value, and the searches without `page` and `size` request parameters are limited to this number of results.
+     * Default is `null` (no limit).
+     */
+    val maxResults: Int? = null,
+
+    /**
+     * Whether the total number of results is counted when a page is requested. Default is `true`.
+     */
+    val countTotal: Boolean = true,
+
+    /**
+     * Secret used to sign the cursors of the keyset pagination.
+     * It must be shared by all the instances of the application. Default is `null` (a random secret is generated at startup).
+     */
+    val cursorSecret: String? = null
+) {
+
+    companion object {
+        /**
+         * Default page size
+         */
+        const val DEFAULT_PAGE_SIZE = 20
+    }
+}
+
+@ConstructorBinding
+data class QueryCache(
+    /**
+     * Maximum number of parsed queries (`query` request parameter) kept in the cache.
+     * The least recently used queries are evicted when the cache is full. `0` disables the cache. Default is `0`.
+     */
+    val maxSize: Int = 0,
+
+    /**
+     * Time after which a parsed query is removed from the cache. Default is `10m`.
+     */
+    val timeToLive: Duration = DEFAULT_TIME_TO_LIVE
+) {
+
+    companion object {
+        /**
+         * Default time to live of a parsed query
+         */
+        val DEFAULT_TIME_TO_LIVE: Duration = Duration.ofMinutes(10)
+    }
+}
+
+@ConstructorBinding
+data class FieldPath(
+    /**
+     * Maximum depth of the field paths resolved at startup for the entity of each Search Descriptor.
+     * The field paths which are not resolved at startup are resolved on each request. `0` disables the resolution at startup. Default is `3`.
+     */
+    val precompiledDepth: Int = DEFAULT_PRECOMPILED_DEPTH
+) {
+
+    companion object {
+        /**
+         * Default maximum depth of the field paths resolved at startup
+         */
+        const val DEFAULT_PRECOMPILED_DEPTH = 3
+    }
+}
+
+@ConstructorBinding
+data class Warmup(
+    /**
+     * Whether the metadata of each Search Descriptor (query entities, entity joins and aliases) is computed at startup,
+     * instead of during the first requests. Default is `false`.
+     */
+    val enabled: Boolean = false,
+
+    /**
+     * Whether a query returning at most one result is executed for each Search Descriptor during the warm-up,
+     * to initialize the caches of the data access layer before the application is ready. Default is `false`.
+     */
+    val probeQuery: Boolean = false
+)
+
+@ConstructorBinding
+data class Facets(
+    /**
+     * Maximum number of buckets returned for each facet. Default is `10`.
+     */
+    val maxBuckets: Int = DEFAULT_MAX_BUCKETS
+) {
+
+    companion object {
+        /**
+         * Default maximum number of buckets of a facet
+         */
+        const val DEFAULT_MAX_BUCKETS = 10
+    }
+}
+
+@ConstructorBinding
+data class ResultCache(
+    /**
+     * Maximum number of search results kept in the cache of each Search Descriptor.
+     * The least recently used results are evicted when the cache is full. `0` disables the cache. Default is `0`.
+     */
+    val maxSize: Int = 0,
+
+    /**
+     * Time after which a search result is removed from the cache. Default is `1m`.
+     */
+    val timeToLive: Duration = DEFAULT_TIME_TO_LIVE,
+
+    /**
+     * Time before the expiration of a search result during which a request for this result reloads it in the background.
+     * `0` disables the refresh-ahead. Default is `0`.
+     */
+    val refreshAheadTime: Duration = Duration.ZERO,
+
+    /**
+     * Bounds of the cache overriding the default ones for some Search Descriptors, by Search Descriptor ID.
+     */
+    val descriptors: Map<String, ResultCacheBounds> = emptyMap()
+) {
+
+    /**
+     * Whether the results of at least one Search Descriptor are cached.
+     */
+    val enabled: Boolean
+        get() = maxSize > 0 || descriptors.values.any { (it.maxSize ?: maxSize) > 0 }
+
+    companion object {
+        /**
+         * Default time to live of a search result
+         */
+        val DEFAULT_TIME_TO_LIVE: Duration = Duration.ofMinutes(1)
+    }
+}
+
+@ConstructorBinding
+data class ResultCacheBounds(
+    /**
+     * Maximum number of search results kept in the cache of the Search Descriptor. `0` disables the cache. Default is the global `max-size`.
+     */
+    val maxSize: Int? = null,
+
+    /**
+     * Time after which a search result of the Search Descriptor is removed from the cache. Default is the global `time-to-live`.
+     */
+    val timeToLive: Duration? = null
+)
+
+@ConstructorBinding
+data class Coalescing(
+    /**
+     * Whether the identical searches executed concurrently share the result of a single query. Default is `false`.
+     */
+    val enabled: Boolean = false,
+
+    /**
+     * Whether each coalesced search converts the shared entities to DTOs, instead of sharing the DTOs. Default is `false`.
+     * The entities are loaded by the transaction of another search, so the DTO Mapper must not load their lazy associations.
+     */
+    val perCallerConversion: Boolean = false
+)
+
+@ConstructorBinding
+data class FetchPlan(
+    /**
+     * Maximum number of collections fetched with joins by the main query of a search.
+     * The next collections requested as fetched are loaded by secondary queries after the main query. A negative value disables the limit. Default is `1`.
+     */
+    val maxCollectionFetchJoins: Int = EntityJoinManagerImpl.DEFAULT_MAX_COLLECTION_FETCH_JOINS
+)
+
+@ConstructorBinding
+data class DtoConversion(
+    /**
+     * Maximum number of entities converted by a single call to [com.weedow.searchy.dto.BatchDtoMapper.mapAll].
+     * A value less than or equal to 0 disables the limit. Default is `500`.
+     */
+    val batchSize: Int = DefaultDtoConverterServiceImpl.DEFAULT_BATCH_SIZE,
+
+    /**
+     * Minimum number of entities converted to DTOs in parallel. A value less than or equal to 0 disables the parallel conversion. Default is `0`.
+     * The DTO Mappers bound to the session of the persistence context ([com.weedow.searchy.dto.SessionBoundDtoMapper]) never convert in parallel.
+     */
+    val parallelThreshold: Int = 0,
+
+    /**
+     * Maximum number of threads converting the entities to DTOs in parallel. Default is the number of available processors.
+     */
+    val parallelism: Int = DefaultDtoConverterServiceImpl.DEFAULT_PARALLELISM,
+
+    /**
+     * Whether the JSON serialization of the JPA Entities writes the lazy associations which are not initialized (see [com.weedow.searchy.dto.InitializationGraph])
+     * with their identifier, or `null` for the collections, instead of loading them. Default is `false`.
+     */
+    val lazySerialization: Boolean = false
+)
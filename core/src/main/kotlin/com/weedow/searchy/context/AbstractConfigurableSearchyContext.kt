@@ -9,6 +9,8 @@ import com.weedow.searchy.utils.EntityUtils
 import org.apache.commons.lang3.reflect.FieldUtils
 import java.lang.reflect.Field
 import java.lang.reflect.Modifier
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ConcurrentMap
 
 /**
  * Convenient superclass for [SearchyContext] implementations.
@@ -21,18 +23,18 @@ abstract class AbstractConfigurableSearchyContext : ConfigurableSearchyContext {
         private const val JOIN_NAME_SEPARATOR = "."
     }
 
-    private val qEntities = mutableMapOf<Class<*>, QEntity<*>>()
+    private val qEntities: ConcurrentMap<Class<*>, QEntity<*>> = ConcurrentHashMap()
 
     @Suppress("UNCHECKED_CAST")
     override fun <E> add(entityClass: Class<E>): QEntity<E> {
-        return qEntities.getOrPut(entityClass) {
+        return qEntities.computeIfAbsent(entityClass) {
             QEntityImpl(this, entityClass, entityClass.simpleName.decapitalize())
         } as QEntity<E>
     }
 
     @Suppress("UNCHECKED_CAST")
     override fun <E> get(entityClass: Class<E>, default: (entityClazz: Class<E>) -> QEntity<E>): QEntity<E> {
-        return qEntities.getOrElse(entityClass) { default(entityClass) } as QEntity<E>
+        return (qEntities[entityClass] ?: default(entityClass)) as QEntity<E>
     }
 
     override fun getAllPropertyInfos(entityClass: Class<*>): List<PropertyInfos> {
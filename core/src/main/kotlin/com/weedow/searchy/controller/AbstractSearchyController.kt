@@ -2,10 +2,20 @@ package com.weedow.searchy.controller
 
 import com.weedow.searchy.config.SearchyProperties
 import com.weedow.searchy.descriptor.SearchyDescriptor
+import com.weedow.searchy.exception.InvalidCursorException
 import com.weedow.searchy.exception.SearchyDescriptorNotFound
+import com.weedow.searchy.exception.ValidationException
+import com.weedow.searchy.query.pagination.Cursor
+import com.weedow.searchy.query.pagination.CursorCodec
+import com.weedow.searchy.query.pagination.CursorPage
+import com.weedow.searchy.query.pagination.HmacCursorCodec
+import com.weedow.searchy.query.pagination.PageRequest
 import com.weedow.searchy.service.SearchyService
 import com.weedow.searchy.utils.klogger
+import com.weedow.searchy.validation.SearchyError
+import org.springframework.http.MediaType
 import org.springframework.http.ResponseEntity
+import org.springframework.util.LinkedMultiValueMap
 import org.springframework.util.MultiValueMap
 import org.springframework.web.bind.annotation.PathVariable
 import org.springframework.web.bind.annotation.RequestParam
@@ -21,6 +31,27 @@ import java.lang.reflect.Method
  * * If the Search Descriptor ID is found, the related [SearchyDescriptor] is retrieved and used to perform the search.
  * * If the Search Descriptor ID is not found, An exception of type [SearchyDescriptorNotFound] is thrown.
  *
+ * The special request parameters `page` and `size` allow to request a page of results. In this case, the response is a
+ * [Page][com.weedow.searchy.query.pagination.Page] instead of a List.
+ *
+ * The special request parameter `cursor` allows to request the results with the keyset pagination. In this case, the response is a
+ * [CursorPage] containing the opaque token to be sent in the `cursor` request parameter to fetch the next results.
+ * An empty `cursor` request parameter fetches the first results. The `cursor` request parameter cannot be used with the `page` request parameter.
+ *
+ * The special request parameter `sort` allows to sort the results: `sort=field.path,asc` or `sort=field.path,desc`.
+ *
+ * The number of results is capped by the [maximum results][com.weedow.searchy.config.Pagination.maxResults] from [SearchyProperties].
+ *
+ * It also exposes the endpoints to count the data (`{searchyDescriptorId}/count`) and to check whether data exists (`{searchyDescriptorId}/exists`).
+ * These endpoints are resolved by the Database, without loading the Entities. The pagination request parameters are ignored.
+ *
+ * It also exposes the endpoint to compute the facets requested by the special request parameter `facet` (`{searchyDescriptorId}/facets`).
+ * Each facet is computed by an aggregate query of the Database. The number of buckets of each facet is capped by the
+ * [maximum buckets][com.weedow.searchy.config.Facets.maxBuckets] from [SearchyProperties].
+ *
+ * When the request accepts [MediaType.APPLICATION_NDJSON], the results are streamed: each result is written as soon as it is fetched and converted,
+ * so the memory used does not depend on the number of results. The pagination request parameters are ignored.
+ *
  * @param searchyService [SearchyService]
  * @param searchyProperties [SearchyProperties]
  * @param mappingRegistrationFunction Function to register the Request Mapping for the current Controller
@@ -33,10 +64,25 @@ abstract class AbstractSearchyController<M>(
 
     companion object {
         private val log by klogger()
+
+        /** Path completing the Searchy path to count the data */
+        const val COUNT_PATH = "count"
+
+        /** Path completing the Searchy path to check whether data exists */
+        const val EXISTS_PATH = "exists"
+
+        /** Path completing the Searchy path to compute the facets */
+        const val FACETS_PATH = "facets"
     }
 
+    private val cursorCodec: CursorCodec = HmacCursorCodec(searchyProperties.pagination.cursorSecret)
+
     init {
         registerMapping("${searchyProperties.basePath}/{searchyDescriptorId}")
+        registerStreamMapping("${searchyProperties.basePath}/{searchyDescriptorId}")
+        registerMapping("${searchyProperties.basePath}/{searchyDescriptorId}/$COUNT_PATH", "count")
+        registerMapping("${searchyProperties.basePath}/{searchyDescriptorId}/$EXISTS_PATH", "exists")
+        registerMapping("${searchyProperties.basePath}/{searchyDescriptorId}/$FACETS_PATH", "facets")
 
         if (log.isDebugEnabled) log.debug("Controller \"$javaClass\" initialized")
     }
@@ -46,10 +92,25 @@ abstract class AbstractSearchyController<M>(
      */
     protected abstract fun createRequestMappingInfo(searchyPath: String): M
 
-    private fun registerMapping(searchyPath: String) {
+    /**
+     * Implement this method to create the Request Mapping Information object used to register the request mapping of the streamed results.
+     *
+     * The request mapping must produce [MediaType.APPLICATION_NDJSON].
+     */
+    protected abstract fun createStreamRequestMappingInfo(searchyPath: String): M
+
+    private fun registerMapping(searchyPath: String, methodName: String = "search") {
         val mapping = createRequestMappingInfo(searchyPath)
 
-        val method = javaClass.getMethod("search", String::class.java, MultiValueMap::class.java)
+        val method = javaClass.getMethod(methodName, String::class.java, MultiValueMap::class.java)
+
+        doRegisterMapping(mapping, this, method)
+    }
+
+    private fun registerStreamMapping(searchyPath: String) {
+        val mapping = createStreamRequestMappingInfo(searchyPath)
+
+        val method = javaClass.getMethod("stream", String::class.java, MultiValueMap::class.java)
 
         doRegisterMapping(mapping, this, method)
     }
@@ -66,14 +127,186 @@ abstract class AbstractSearchyController<M>(
      *
      * @param searchyDescriptorId: Search Descriptor Identifier specified by a [SearchyDescriptor] and present in the URI
      * @param params Map of request parameters representing Entity fields used to search data
+     * @throws ValidationException if the `page`, `size`, `cursor` or `sort` request parameters are invalid
      */
     @ResponseBody
-    fun search(@PathVariable searchyDescriptorId: String, @RequestParam params: MultiValueMap<String, String>): ResponseEntity<List<*>> {
+    open fun search(@PathVariable searchyDescriptorId: String, @RequestParam params: MultiValueMap<String, String>): ResponseEntity<*> {
         if (log.isDebugEnabled) log.debug("Searching data from URI ${searchyProperties.basePath}/$searchyDescriptorId and following request parameters: $params")
 
-        val result = searchyService.search(searchyDescriptorId, params)
+        val pagination = searchyProperties.pagination
+        if (params.containsKey(Cursor.CURSOR_PARAMETER)) {
+            checkNotPresent(params, PageRequest.PAGE_PARAMETER)
+
+            val token = params.getFirst(Cursor.CURSOR_PARAMETER)
+            val cursor = if (token.isNullOrEmpty()) null else decodeCursor(token, searchyDescriptorId)
+            val size = toPageSize(params)
+
+            val slice = searchyService.search(searchyDescriptorId, withoutPaginationParams(params), cursor, size)
+
+            val nextToken = slice.nextCursor?.let { cursorCodec.encode(it.copy(searchyDescriptorId = searchyDescriptorId)) }
+            return ResponseEntity.ok(CursorPage(slice.content, size, nextToken))
+        }
+
+        val pageRequest = toPageRequest(params)
+        if (pageRequest != null) {
+            val page = searchyService.search(searchyDescriptorId, withoutPaginationParams(params), pageRequest, pagination.countTotal)
+
+            return ResponseEntity.ok(page)
+        }
+
+        val maxResults = pagination.maxResults
+        val result = if (maxResults != null) {
+            searchyService.search(searchyDescriptorId, params, PageRequest(0, maxResults), false).content
+        } else {
+            searchyService.search(searchyDescriptorId, params)
+        }
 
         return ResponseEntity.ok(result)
     }
 
+    /**
+     * Method called by the registered request mapping to count the data.
+     *
+     * The expected mapping HTTP request is: GET /${searchProperties.basePath}/{searchyDescriptorId}/count.
+     *
+     * @param searchyDescriptorId: Search Descriptor Identifier specified by a [SearchyDescriptor] and present in the URI
+     * @param params Map of request parameters representing Entity fields used to count data
+     */
+    @ResponseBody
+    open fun count(@PathVariable searchyDescriptorId: String, @RequestParam params: MultiValueMap<String, String>): ResponseEntity<*> {
+        if (log.isDebugEnabled) log.debug("Counting data from URI ${searchyProperties.basePath}/$searchyDescriptorId/$COUNT_PATH and following request parameters: $params")
+
+        return ResponseEntity.ok(searchyService.count(searchyDescriptorId, withoutPaginationParams(params)))
+    }
+
+    /**
+     * Method called by the registered request mapping to check whether data exists.
+     *
+     * The expected mapping HTTP request is: GET /${searchProperties.basePath}/{searchyDescriptorId}/exists.
+     *
+     * @param searchyDescriptorId: Search Descriptor Identifier specified by a [SearchyDescriptor] and present in the URI
+     * @param params Map of request parameters representing Entity fields used to search data
+     */
+    @ResponseBody
+    open fun exists(@PathVariable searchyDescriptorId: String, @RequestParam params: MultiValueMap<String, String>): ResponseEntity<*> {
+        if (log.isDebugEnabled) log.debug("Checking data from URI ${searchyProperties.basePath}/$searchyDescriptorId/$EXISTS_PATH and following request parameters: $params")
+
+        return ResponseEntity.ok(searchyService.exists(searchyDescriptorId, withoutPaginationParams(params)))
+    }
+
+    /**
+     * Method called by the registered request mapping to compute the facets.
+     *
+     * The expected mapping HTTP request is: GET /${searchProperties.basePath}/{searchyDescriptorId}/facets?facet=field.path.
+     *
+     * @param searchyDescriptorId: Search Descriptor Identifier specified by a [SearchyDescriptor] and present in the URI
+     * @param params Map of request parameters representing Entity fields used to filter data, and the `facet` request parameters
+     * @throws ValidationException if the `facet` request parameters are missing or invalid
+     */
+    @ResponseBody
+    open fun facets(@PathVariable searchyDescriptorId: String, @RequestParam params: MultiValueMap<String, String>): ResponseEntity<*> {
+        if (log.isDebugEnabled) log.debug("Computing facets from URI ${searchyProperties.basePath}/$searchyDescriptorId/$FACETS_PATH and following request parameters: $params")
+
+        return ResponseEntity.ok(searchyService.facets(searchyDescriptorId, withoutPaginationParams(params), searchyProperties.facets.maxBuckets))
+    }
+
+    /**
+     * Method called by the registered request mapping of the streamed results.
+     *
+     * The expected mapping HTTP request is: GET /${searchProperties.basePath}/{searchyDescriptorId} with the header `Accept: application/x-ndjson`.
+     *
+     * Implement this method to write the results in the response body as soon as they are found, using [prepareStream].
+     *
+     * @param searchyDescriptorId: Search Descriptor Identifier specified by a [SearchyDescriptor] and present in the URI
+     * @param params Map of request parameters representing Entity fields used to search data
+     */
+    abstract fun stream(searchyDescriptorId: String, params: MultiValueMap<String, String>): ResponseEntity<*>
+
+    /**
+     * Validates the search of the data, and returns the function searching the data and performing the given action for each result, one at a time.
+     *
+     * The Search Descriptor and the request parameters are validated immediately, so that the errors are returned with their HTTP status
+     * before the response is committed: only the returned function must be called while the response body is written.
+     *
+     * @param searchyDescriptorId: Search Descriptor Identifier specified by a [SearchyDescriptor] and present in the URI
+     * @param params Map of request parameters representing Entity fields used to search data
+     * @return the function searching the data and performing the given action for each result
+     */
+    protected fun prepareStream(searchyDescriptorId: String, params: MultiValueMap<String, String>): ((Any?) -> Unit) -> Unit {
+        if (log.isDebugEnabled) log.debug("Streaming data from URI ${searchyProperties.basePath}/$searchyDescriptorId and following request parameters: $params")
+
+        val streamParams = withoutPaginationParams(params)
+        searchyService.validateStream(searchyDescriptorId, streamParams)
+
+        return { action -> searchyService.stream(searchyDescriptorId, streamParams, action) }
+    }
+
+    /**
+     * Returns `true` if the given request parameters contain any of the pagination request parameters: `page`, `size` or `cursor`.
+     *
+     * @param params Map of request parameters
+     */
+    protected fun isPaginated(params: MultiValueMap<String, String>): Boolean {
+        return params.containsKey(PageRequest.PAGE_PARAMETER) || params.containsKey(PageRequest.SIZE_PARAMETER) || params.containsKey(Cursor.CURSOR_PARAMETER)
+    }
+
+    private fun checkNotPresent(params: MultiValueMap<String, String>, paramName: String) {
+        if (params.containsKey(paramName)) {
+            throw ValidationException(
+                listOf(SearchyError("invalid-pagination", "The parameters ''{0}'' and ''{1}'' cannot be used together.", arrayOf(Cursor.CURSOR_PARAMETER, paramName)))
+            )
+        }
+    }
+
+    private fun decodeCursor(token: String, searchyDescriptorId: String): Cursor {
+        val cursor = cursorCodec.decode(token)
+        // A cursor returned by the search of another Search Descriptor contains the keyset of another Entity
+        if (cursor.searchyDescriptorId != searchyDescriptorId) {
+            throw InvalidCursorException(token)
+        }
+        return cursor
+    }
+
+    private fun toPageRequest(params: MultiValueMap<String, String>): PageRequest? {
+        if (!params.containsKey(PageRequest.PAGE_PARAMETER) && !params.containsKey(PageRequest.SIZE_PARAMETER)) {
+            return null
+        }
+
+        val page = toInt(params, PageRequest.PAGE_PARAMETER, 0, 0)
+
+        return PageRequest(page, toPageSize(params))
+    }
+
+    private fun toPageSize(params: MultiValueMap<String, String>): Int {
+        val pagination = searchyProperties.pagination
+        val size = toInt(params, PageRequest.SIZE_PARAMETER, pagination.defaultPageSize, 1)
+        val maxResults = pagination.maxResults
+
+        return if (maxResults != null) size.coerceAtMost(maxResults) else size
+    }
+
+    /**
+     * Returns a copy of the given request parameters without the pagination request parameters.
+     *
+     * @param params Map of request parameters
+     */
+    protected fun withoutPaginationParams(params: MultiValueMap<String, String>): MultiValueMap<String, String> {
+        val searchParams = LinkedMultiValueMap(params)
+        searchParams.remove(PageRequest.PAGE_PARAMETER)
+        searchParams.remove(PageRequest.SIZE_PARAMETER)
+        searchParams.remove(Cursor.CURSOR_PARAMETER)
+        return searchParams
+    }
+
+    private fun toInt(params: MultiValueMap<String, String>, paramName: String, defaultValue: Int, minValue: Int): Int {
+        val value = params.getFirst(paramName) ?: return defaultValue
+        val intValue = value.toIntOrNull()
+        if (intValue == null || intValue < minValue) {
+            throw ValidationException(
+                listOf(SearchyError("invalid-pagination", "Invalid value for the parameter ''{0}'': {1}. The expected value is an integer greater than or equal to {2}.", arrayOf(paramName, value, minValue)))
+            )
+        }
+        return intValue
+    }
+
 }
\ No newline at end of file
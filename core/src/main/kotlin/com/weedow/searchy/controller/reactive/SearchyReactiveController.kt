@@ -2,8 +2,21 @@ package com.weedow.searchy.controller.reactive
 
 import com.weedow.searchy.config.SearchyProperties
 import com.weedow.searchy.controller.AbstractSearchyController
+import com.weedow.searchy.expression.ExpressionMapper
+import com.weedow.searchy.query.pagination.PageRequest
+import com.weedow.searchy.service.ReactiveSearchyService
 import com.weedow.searchy.service.SearchyService
+import com.weedow.searchy.utils.klogger
+import org.springframework.http.MediaType
+import org.springframework.http.ResponseEntity
+import org.springframework.util.MultiValueMap
+import org.springframework.web.bind.annotation.PathVariable
 import org.springframework.web.bind.annotation.RequestMethod
+import org.springframework.web.bind.annotation.RequestParam
+import org.springframework.web.bind.annotation.ResponseBody
+import reactor.core.publisher.Flux
+import reactor.core.publisher.Mono
+import reactor.core.scheduler.Schedulers
 
 
 /**
@@ -11,13 +24,19 @@ import org.springframework.web.bind.annotation.RequestMethod
  *
  * Registers the request mapping for Searchy in Reactive environment.
  *
+ * The search does not block the event loop:
+ * * The results are emitted by the [ReactiveSearchyService] in a [Flux], which is also used to stream the results.
+ * * The paginated searches, the searches of the requested [fields][ExpressionMapper.FIELDS_PARAMETER], the counts, the existence checks and the facets are performed by the [SearchyService] on a [bounded elastic][Schedulers.boundedElastic] thread.
+ *
  * @param searchyService [SearchyService]
+ * @param reactiveSearchyService [ReactiveSearchyService]
  * @param searchyProperties [SearchyProperties]
  * @param requestMappingHandlerMapping [org.springframework.web.reactive.result.method.annotation.RequestMappingHandlerMapping]
  */
 class SearchyReactiveController(
     searchyService: SearchyService,
-    searchyProperties: SearchyProperties,
+    private val reactiveSearchyService: ReactiveSearchyService,
+    private val searchyProperties: SearchyProperties,
     requestMappingHandlerMapping: org.springframework.web.reactive.result.method.annotation.RequestMappingHandlerMapping
 ) : AbstractSearchyController<org.springframework.web.reactive.result.method.RequestMappingInfo>(
     searchyService,
@@ -25,6 +44,10 @@ class SearchyReactiveController(
     requestMappingHandlerMapping::registerMapping
 ) {
 
+    companion object {
+        private val log by klogger()
+    }
+
     override fun createRequestMappingInfo(searchyPath: String): org.springframework.web.reactive.result.method.RequestMappingInfo {
         return org.springframework.web.reactive.result.method.RequestMappingInfo
             .paths(searchyPath)
@@ -32,4 +55,67 @@ class SearchyReactiveController(
             .build()
     }
 
-}
\ No newline at end of file
+    override fun createStreamRequestMappingInfo(searchyPath: String): org.springframework.web.reactive.result.method.RequestMappingInfo {
+        return org.springframework.web.reactive.result.method.RequestMappingInfo
+            .paths(searchyPath)
+            .methods(RequestMethod.GET)
+            .produces(MediaType.APPLICATION_NDJSON_VALUE)
+            .build()
+    }
+
+    @ResponseBody
+    override fun search(@PathVariable searchyDescriptorId: String, @RequestParam params: MultiValueMap<String, String>): ResponseEntity<*> {
+        if (isPaginated(params) || params.containsKey(ExpressionMapper.FIELDS_PARAMETER)) {
+            // The page and its total, or the requested fields, are built by the blocking SearchyService
+            val page = Mono.fromCallable { super.search(searchyDescriptorId, params).body!! }
+                .subscribeOn(Schedulers.boundedElastic())
+
+            return ResponseEntity.ok(page)
+        }
+
+        if (log.isDebugEnabled) log.debug("Searching data from URI ${searchyProperties.basePath}/$searchyDescriptorId and following request parameters: $params")
+
+        val maxResults = searchyProperties.pagination.maxResults
+        val results = if (maxResults != null) {
+            reactiveSearchyService.search(searchyDescriptorId, params, PageRequest(0, maxResults))
+        } else {
+            reactiveSearchyService.search(searchyDescriptorId, params)
+        }
+
+        return ResponseEntity.ok(results)
+    }
+
+    @ResponseBody
+    override fun count(@PathVariable searchyDescriptorId: String, @RequestParam params: MultiValueMap<String, String>): ResponseEntity<*> {
+        val count = Mono.fromCallable { super.count(searchyDescriptorId, params).body!! }
+            .subscribeOn(Schedulers.boundedElastic())
+
+        return ResponseEntity.ok(count)
+    }
+
+    @ResponseBody
+    override fun exists(@PathVariable searchyDescriptorId: String, @RequestParam params: MultiValueMap<String, String>): ResponseEntity<*> {
+        val exists = Mono.fromCallable { super.exists(searchyDescriptorId, params).body!! }
+            .subscribeOn(Schedulers.boundedElastic())
+
+        return ResponseEntity.ok(exists)
+    }
+
+    @ResponseBody
+    override fun facets(@PathVariable searchyDescriptorId: String, @RequestParam params: MultiValueMap<String, String>): ResponseEntity<*> {
+        val facets = Mono.fromCallable { super.facets(searchyDescriptorId, params).body!! }
+            .subscribeOn(Schedulers.boundedElastic())
+
+        return ResponseEntity.ok(facets)
+    }
+
+    @ResponseBody
+    override fun stream(@PathVariable searchyDescriptorId: String, @RequestParam params: MultiValueMap<String, String>): ResponseEntity<Flux<Any>> {
+        if (log.isDebugEnabled) log.debug("Streaming data from URI ${searchyProperties.basePath}/$searchyDescriptorId and following request parameters: $params")
+
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(reactiveSearchyService.search(searchyDescriptorId, withoutPaginationParams(params)))
+    }
+
+}
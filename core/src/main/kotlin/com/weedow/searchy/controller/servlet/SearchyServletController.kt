@@ -1,9 +1,17 @@
 package com.weedow.searchy.controller.servlet
 
+import com.fasterxml.jackson.databind.ObjectMapper
 import com.weedow.searchy.config.SearchyProperties
 import com.weedow.searchy.controller.AbstractSearchyController
 import com.weedow.searchy.service.SearchyService
+import org.springframework.http.MediaType
+import org.springframework.http.ResponseEntity
+import org.springframework.util.MultiValueMap
+import org.springframework.web.bind.annotation.PathVariable
 import org.springframework.web.bind.annotation.RequestMethod
+import org.springframework.web.bind.annotation.RequestParam
+import org.springframework.web.bind.annotation.ResponseBody
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody
 
 
 /**
@@ -11,20 +19,28 @@ import org.springframework.web.bind.annotation.RequestMethod
  *
  * Registers the request mapping for Searchy in Servlet environment.
  *
+ * The streamed results are written in the response body with the given [ObjectMapper], one JSON object per line.
+ *
  * @param searchyService [SearchyService]
  * @param searchyProperties [SearchyProperties]
  * @param requestMappingHandlerMapping [org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping]
+ * @param objectMapper [ObjectMapper] used to write the streamed results
  */
 class SearchyServletController(
     searchyService: SearchyService,
     searchyProperties: SearchyProperties,
-    requestMappingHandlerMapping: org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping
+    requestMappingHandlerMapping: org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping,
+    private val objectMapper: ObjectMapper
 ) : AbstractSearchyController<org.springframework.web.servlet.mvc.method.RequestMappingInfo>(
     searchyService,
     searchyProperties,
     requestMappingHandlerMapping::registerMapping
 ) {
 
+    companion object {
+        private const val LINE_SEPARATOR = '\n'.code
+    }
+
     override fun createRequestMappingInfo(searchyPath: String): org.springframework.web.servlet.mvc.method.RequestMappingInfo {
         return org.springframework.web.servlet.mvc.method.RequestMappingInfo
             .paths(searchyPath)
@@ -32,4 +48,29 @@ class SearchyServletController(
             .build()
     }
 
-}
\ No newline at end of file
+    override fun createStreamRequestMappingInfo(searchyPath: String): org.springframework.web.servlet.mvc.method.RequestMappingInfo {
+        return org.springframework.web.servlet.mvc.method.RequestMappingInfo
+            .paths(searchyPath)
+            .methods(RequestMethod.GET)
+            .produces(MediaType.APPLICATION_NDJSON_VALUE)
+            .build()
+    }
+
+    @ResponseBody
+    override fun stream(@PathVariable searchyDescriptorId: String, @RequestParam params: MultiValueMap<String, String>): ResponseEntity<StreamingResponseBody> {
+        // The errors are thrown before the response is committed, only the iteration is done while the body is written
+        val stream = prepareStream(searchyDescriptorId, params)
+
+        val body = StreamingResponseBody { outputStream ->
+            stream { result ->
+                outputStream.write(objectMapper.writeValueAsBytes(result))
+                outputStream.write(LINE_SEPARATOR)
+            }
+        }
+
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(body)
+    }
+
+}
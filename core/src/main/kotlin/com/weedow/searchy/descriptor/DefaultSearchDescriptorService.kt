@@ -1,5 +1,8 @@
 package com.weedow.searchy.descriptor
 
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ConcurrentMap
+
 /**
  * Default [SearchyDescriptorService] implementation suitable for use in most environments.
  *
@@ -7,7 +10,7 @@ package com.weedow.searchy.descriptor
  */
 class DefaultSearchyDescriptorService : ConfigurableSearchyDescriptorService {
 
-    private val searchyDescriptors = mutableMapOf<String, SearchyDescriptor<*>>()
+    private val searchyDescriptors: ConcurrentMap<String, SearchyDescriptor<*>> = ConcurrentHashMap()
 
     override fun addSearchyDescriptor(searchyDescriptor: SearchyDescriptor<*>) {
         searchyDescriptors[searchyDescriptor.id] = searchyDescriptor
@@ -17,4 +20,8 @@ class DefaultSearchyDescriptorService : ConfigurableSearchyDescriptorService {
         return searchyDescriptors[id]
     }
 
+    override fun getAllSearchyDescriptors(): Collection<SearchyDescriptor<*>> {
+        return searchyDescriptors.values.toList()
+    }
+
 }
\ No newline at end of file
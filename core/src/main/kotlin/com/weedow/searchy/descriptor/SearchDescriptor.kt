@@ -1,6 +1,9 @@
 package com.weedow.searchy.descriptor
 
 import com.weedow.searchy.dto.DtoMapper
+import com.weedow.searchy.dto.InitializationGraph
+import com.weedow.searchy.join.JoinInfo
+import com.weedow.searchy.join.JoinStrategy
 import com.weedow.searchy.join.handler.EntityJoinHandler
 import com.weedow.searchy.query.specification.SpecificationExecutor
 import com.weedow.searchy.validation.SearchyValidator
@@ -97,4 +100,31 @@ interface SearchyDescriptor<T> {
     @JvmDefault
     val entityJoinHandlers: List<EntityJoinHandler>
         get() = listOf()
+
+    /**
+     * Returns the paths of the fields stored with a case-insensitive collation (eg. a column declared with a `_ci` collation).
+     *
+     * These fields are searched ignoring case by comparing them as is, instead of converting them to lower case: the Database can use their index.
+     */
+    @JvmDefault
+    val caseInsensitiveFields: Set<String>
+        get() = setOf()
+
+    /**
+     * Returns the [JoinStrategy] used to search by the fields of the to-many joins.
+     *
+     * An [EntityJoinHandler] can override it for some joins with [JoinInfo.strategy].
+     */
+    @JvmDefault
+    val joinStrategy: JoinStrategy
+        get() = JoinInfo.DEFAULT_STRATEGY
+
+    /**
+     * Returns the [InitializationGraph] of the associations to be initialized before the Entities are converted to DTO and serialized.
+     *
+     * The associations which are not included are never loaded. By default, all the associations are included.
+     */
+    @JvmDefault
+    val initializationGraph: InitializationGraph
+        get() = InitializationGraph.ALL
 }
\ No newline at end of file
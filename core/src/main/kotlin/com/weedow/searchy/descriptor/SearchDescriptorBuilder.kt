@@ -1,6 +1,9 @@
 package com.weedow.searchy.descriptor
 
 import com.weedow.searchy.dto.DtoMapper
+import com.weedow.searchy.dto.InitializationGraph
+import com.weedow.searchy.join.JoinInfo
+import com.weedow.searchy.join.JoinStrategy
 import com.weedow.searchy.join.handler.EntityJoinHandler
 import com.weedow.searchy.query.specification.SpecificationExecutor
 import com.weedow.searchy.utils.TypeReference
@@ -21,6 +24,9 @@ class SearchyDescriptorBuilder<T>(
     private var dtoMapper: DtoMapper<T, *>? = null
     private var specificationExecutor: SpecificationExecutor<T>? = null
     private var entityJoinHandlers: MutableList<EntityJoinHandler> = mutableListOf()
+    private var caseInsensitiveFields: MutableSet<String> = mutableSetOf()
+    private var joinStrategy: JoinStrategy = JoinInfo.DEFAULT_STRATEGY
+    private var initializationGraph: InitializationGraph = InitializationGraph.ALL
 
     companion object {
         /**
@@ -66,6 +72,23 @@ class SearchyDescriptorBuilder<T>(
      */
     fun entityJoinHandlers(vararg entityJoinHandlers: EntityJoinHandler) = apply { this.entityJoinHandlers.addAll(entityJoinHandlers) }
 
+    /**
+     * Set the paths of the fields stored with a case-insensitive collation, so that they are searched ignoring case without being converted to lower case.
+     */
+    fun caseInsensitiveFields(vararg fieldPaths: String) = apply { this.caseInsensitiveFields.addAll(fieldPaths) }
+
+    /**
+     * Set the [JoinStrategy] used to search by the fields of the to-many joins.
+     * If this method is not called, the default value is [JoinStrategy.JOIN].
+     */
+    fun joinStrategy(joinStrategy: JoinStrategy) = apply { this.joinStrategy = joinStrategy }
+
+    /**
+     * Set the [InitializationGraph] of the associations to be initialized before the Entities are converted to DTO and serialized.
+     * If this method is not called, all the associations are initialized.
+     */
+    fun initializationGraph(initializationGraph: InitializationGraph) = apply { this.initializationGraph = initializationGraph }
+
     /**
      * Builds a new [SearchyDescriptor] according to the specified options.
      */
@@ -76,7 +99,10 @@ class SearchyDescriptorBuilder<T>(
             validators,
             dtoMapper,
             specificationExecutor,
-            entityJoinHandlers
+            entityJoinHandlers,
+            caseInsensitiveFields,
+            joinStrategy,
+            initializationGraph
         )
     }
 
@@ -90,5 +116,8 @@ class SearchyDescriptorBuilder<T>(
         override val dtoMapper: DtoMapper<T, *>?,
         override val specificationExecutor: SpecificationExecutor<T>?,
         override val entityJoinHandlers: List<EntityJoinHandler>,
+        override val caseInsensitiveFields: Set<String>,
+        override val joinStrategy: JoinStrategy,
+        override val initializationGraph: InitializationGraph,
     ) : SearchyDescriptor<T>
 }
\ No newline at end of file
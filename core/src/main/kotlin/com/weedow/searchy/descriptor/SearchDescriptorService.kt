@@ -13,4 +13,11 @@ interface SearchyDescriptorService {
      */
     fun getSearchyDescriptor(id: String): SearchyDescriptor<*>?
 
+    /**
+     * Returns all the registered [SearchyDescriptor]s.
+     *
+     * @return Collection of [SearchyDescriptor]s. Empty if the implementation does not allow to list them.
+     */
+    fun getAllSearchyDescriptors(): Collection<SearchyDescriptor<*>> = emptyList()
+
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.weedow.searchy.dto
+
+/**
+ * [DtoMapper] converting a list of entity beans at once.
+ *
+ * The [DtoConverterService] calls [mapAll] with chunks of the entities found, instead of calling [map] for each entity,
+ * so that the related data of a whole chunk can be loaded with a single query (see [BulkLoader]).
+ *
+ * @param T Entity bean to be converted
+ * @param DTO DTO bean produced from Entity bean
+ */
+interface BatchDtoMapper<T, DTO> : DtoMapper<T, DTO> {
+
+    /**
+     * Maps the given source entities to target DTOs.
+     *
+     * @param entities Entity beans to be converted
+     *
+     * @return DTO beans produced from Entity beans, in the same order and with the same size as [entities]
+     */
+    fun mapAll(entities: @JvmSuppressWildcards List<T>): List<DTO>
+
+    /**
+     * Maps the given source entity to a target DTO, by calling [mapAll] with a list containing only this entity.
+     */
+    @JvmDefault
+    override fun map(source: T): DTO {
+        return mapAll(listOf(source)).single()
+    }
+
+}
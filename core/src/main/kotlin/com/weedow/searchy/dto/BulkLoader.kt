@@ -0,0 +1,71 @@
+package com.weedow.searchy.dto
+
+/**
+ * Helper loading the related data of a list of entity beans in bulk, to be used by the [BatchDtoMapper] implementations.
+ *
+ * The keys of the related data are collected from all entities, the related data are loaded once for the distinct keys,
+ * then the results are distributed to the entities.
+ *
+ * Example:
+ * ```
+ * class PersonDtoMapper(private val jobRepository: JobRepository) : BatchDtoMapper<Person, PersonDto> {
+ *     private val jobLoader = BulkLoader<Long, Job> { ids -> jobRepository.findAllByPersonIdIn(ids).associateBy { it.person.id } }
+ *
+ *     override fun mapAll(entities: List<Person>): List<PersonDto> {
+ *         return jobLoader.mapAll(entities, { it.id }) { person, job -> PersonDto(person, job) }
+ *     }
+ * }
+ * ```
+ *
+ * @param K type of the keys of the related data. It must implement `equals` and `hashCode`
+ * @param V type of the related data
+ * @param loader function loading the related data of the given keys. The keys without related data may be absent from the returned Map
+ */
+class BulkLoader<K : Any, V>(
+    private val loader: (Set<K>) -> Map<K, V>
+) {
+
+    /**
+     * Loads the related data of the given entities.
+     *
+     * @param entities Entity beans
+     * @param keyExtractor function returning the key of the related data of an entity, or `null` if the entity has no related data
+     * @return the related data of each entity, in the same order as [entities]. The element is `null` when the entity has no related data
+     */
+    fun <T> load(entities: List<T>, keyExtractor: (T) -> K?): List<V?> {
+        val keys = entities.map(keyExtractor)
+        val values = loadValues(keys.filterNotNullTo(LinkedHashSet()))
+        return keys.map { key -> key?.let { values[it] } }
+    }
+
+    /**
+     * Loads the related data of the given entities, when each entity references several related data.
+     *
+     * @param entities Entity beans
+     * @param keysExtractor function returning the keys of the related data of an entity
+     * @return the related data of each entity, in the same order as [entities]. The keys without related data are ignored
+     */
+    fun <T> loadAll(entities: List<T>, keysExtractor: (T) -> Collection<K>): List<List<V>> {
+        val keys = entities.map(keysExtractor)
+        val values = loadValues(keys.flatMapTo(LinkedHashSet()) { it })
+        return keys.map { entityKeys -> entityKeys.mapNotNull { values[it] } }
+    }
+
+    /**
+     * Loads the related data of the given entities, then maps each entity with its related data.
+     *
+     * @param entities Entity beans to be converted
+     * @param keyExtractor function returning the key of the related data of an entity, or `null` if the entity has no related data
+     * @param mapper function converting an entity with its related data
+     * @return DTO beans produced from Entity beans, in the same order as [entities]
+     */
+    fun <T, DTO> mapAll(entities: List<T>, keyExtractor: (T) -> K?, mapper: (T, V?) -> DTO): List<DTO> {
+        val values = load(entities, keyExtractor)
+        return entities.mapIndexed { index, entity -> mapper(entity, values[index]) }
+    }
+
+    private fun loadValues(keys: Set<K>): Map<K, V> {
+        return if (keys.isEmpty()) emptyMap() else loader(keys)
+    }
+
+}
@@ -1,24 +1,114 @@
 package com.weedow.searchy.dto
 
 import com.weedow.searchy.descriptor.SearchyDescriptor
+import java.util.concurrent.Callable
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.ForkJoinPool
+import java.util.concurrent.atomic.AtomicReference
 import java.util.stream.Collectors
 
 /**
  * Default [DtoConverterService] implementation.
  *
+ * The [InitializationGraphDtoMapper]s receive the [InitializationGraph][SearchyDescriptor.initializationGraph] of the [SearchyDescriptor].
+ *
+ * The [BatchDtoMapper]s receive the entities by chunks of [batchSize] entities.
+ * When they are also [InitializationGraphDtoMapper]s, each chunk is mapped with the [InitializationGraph][SearchyDescriptor.initializationGraph].
+ *
+ * The other [DtoMapper]s convert the entities in parallel when there are at least [parallelThreshold] entities, with a dedicated [ForkJoinPool].
+ * The order of the entities is preserved. The [SessionBoundDtoMapper]s always convert the entities sequentially, in the thread executing the search.
+ *
  * @param defaultDtoMapper Default [DtoMapper] to be used when the given [SearchyDescriptor] does not define a specific [DtoMapper]
+ * @param batchSize Maximum number of entities converted by a single call to [BatchDtoMapper.mapAll]. A value less than or equal to 0 disables the limit
+ * @param parallelThreshold Minimum number of entities converted in parallel. A value less than or equal to 0 disables the parallel conversion
+ * @param parallelism Maximum number of threads converting the entities in parallel
  */
 class DefaultDtoConverterServiceImpl<T, DTO>(
-    private val defaultDtoMapper: DtoMapper<T, DTO>
+    private val defaultDtoMapper: DtoMapper<T, DTO>,
+    private val batchSize: Int = DEFAULT_BATCH_SIZE,
+    private val parallelThreshold: Int = 0,
+    private val parallelism: Int = DEFAULT_PARALLELISM
 ) : DtoConverterService<T, DTO> {
 
+    companion object {
+        /** Default maximum number of entities converted by a single call to [BatchDtoMapper.mapAll] */
+        const val DEFAULT_BATCH_SIZE = 500
+
+        /** Default maximum number of threads converting the entities in parallel: the number of available processors */
+        @JvmField
+        val DEFAULT_PARALLELISM = Runtime.getRuntime().availableProcessors()
+    }
+
+    private val forkJoinPool: ForkJoinPool by lazy { ForkJoinPool(parallelism) }
+
     @Suppress("UNCHECKED_CAST")
     override fun convert(entities: List<T>, searchyDescriptor: SearchyDescriptor<T>): List<DTO> {
         val dtoMapper = searchyDescriptor.dtoMapper ?: defaultDtoMapper
+        if (dtoMapper is BatchDtoMapper<*, *>) {
+            val mapAll: (List<T>) -> List<DTO> = if (dtoMapper is InitializationGraphDtoMapper<*, *>) {
+                val initializationGraph = searchyDescriptor.initializationGraph
+                { chunk -> (dtoMapper as InitializationGraphDtoMapper<T, DTO>).mapAll(chunk, initializationGraph) }
+            } else {
+                { chunk -> (dtoMapper as BatchDtoMapper<T, DTO>).mapAll(chunk) }
+            }
+            return mapAll(entities, dtoMapper, mapAll)
+        }
+
+        val map: (T) -> Any? = if (dtoMapper is InitializationGraphDtoMapper<*, *>) {
+            val initializationGraph = searchyDescriptor.initializationGraph
+            { entity -> (dtoMapper as InitializationGraphDtoMapper<T, *>).map(entity, initializationGraph) }
+        } else {
+            { entity -> dtoMapper.map(entity) }
+        }
+
+        if (isParallel(entities, dtoMapper)) {
+            return convertInParallel(entities, map) as List<DTO>
+        }
 
         return entities.stream()
-            .map { entity -> dtoMapper.map(entity) }
+            .map { entity -> map(entity) }
             .collect(Collectors.toList()) as List<DTO>
     }
 
-}
\ No newline at end of file
+    private fun isParallel(entities: List<T>, dtoMapper: DtoMapper<T, *>): Boolean {
+        return parallelThreshold > 0 && entities.size >= parallelThreshold && dtoMapper !is SessionBoundDtoMapper
+    }
+
+    private fun convertInParallel(entities: List<T>, map: (T) -> Any?): List<Any?> {
+        // The ForkJoinPool rebuilds the exceptions thrown by its threads, so the original exception of the DtoMapper is kept here
+        val failure = AtomicReference<Throwable>()
+
+        // The parallel stream submitted to the ForkJoinPool is executed by the threads of this pool, and the collected List keeps the order of the entities
+        val task = forkJoinPool.submit(Callable {
+            entities.parallelStream()
+                .map { entity ->
+                    try {
+                        map(entity)
+                    } catch (e: Throwable) {
+                        failure.compareAndSet(null, e)
+                        throw e
+                    }
+                }
+                .collect(Collectors.toList())
+        })
+        try {
+            return task.get()
+        } catch (e: ExecutionException) {
+            // The exception thrown by the DtoMapper is rethrown as is
+            throw failure.get() ?: e.cause ?: e
+        }
+    }
+
+    private fun mapAll(entities: List<T>, dtoMapper: DtoMapper<*, *>, mapAll: (List<T>) -> List<DTO>): List<DTO> {
+        if (entities.isEmpty()) {
+            return emptyList()
+        }
+        val chunks = if (batchSize > 0) entities.chunked(batchSize) else listOf(entities)
+        return chunks.flatMap { chunk ->
+            val dtos = mapAll(chunk)
+            check(dtos.size == chunk.size) { "The BatchDtoMapper ${dtoMapper.javaClass.name} returned ${dtos.size} DTOs for ${chunk.size} entities" }
+            dtos
+        }
+    }
+
+}
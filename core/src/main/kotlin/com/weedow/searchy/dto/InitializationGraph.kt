@@ -0,0 +1,51 @@
+package com.weedow.searchy.dto
+
+import com.weedow.searchy.utils.FIELD_PATH_SEPARATOR
+
+/**
+ * Graph of the associations to be initialized before an Entity is converted to DTO or serialized.
+ *
+ * An association is identified by its field path relative to the Entity (eg. `vehicles.features`). It is initialized when:
+ * * its depth (number of fields of its path) does not exceed [maxDepth],
+ * * neither it nor one of its parents is excluded,
+ * * there are no [includes], or it is included, or it is the parent or a child of an included association.
+ *
+ * The other associations are not loaded.
+ *
+ * @param includes field paths of the associations to be initialized with their children. Default is empty: all associations are included
+ * @param excludes field paths of the associations not to be initialized, nor their children. Default is empty
+ * @param maxDepth maximum depth of the initialized associations. Default is `null` (no limit)
+ */
+data class InitializationGraph @JvmOverloads constructor(
+    val includes: Set<String> = emptySet(),
+    val excludes: Set<String> = emptySet(),
+    val maxDepth: Int? = null
+) {
+
+    companion object {
+        /** Graph initializing all the associations */
+        @JvmField
+        val ALL = InitializationGraph()
+    }
+
+    /**
+     * Returns whether the association located at the given field path must be initialized.
+     *
+     * @param fieldPath path of the association. The nested field path contains dots to separate the parents fields (eg. vehicles.features)
+     * @return `true` if the association must be initialized, `false` otherwise
+     */
+    fun isIncluded(fieldPath: String): Boolean {
+        if (maxDepth != null && fieldPath.split(FIELD_PATH_SEPARATOR).size > maxDepth) {
+            return false
+        }
+        if (excludes.any { isSameOrParent(it, fieldPath) }) {
+            return false
+        }
+        return includes.isEmpty() || includes.any { isSameOrParent(it, fieldPath) || isSameOrParent(fieldPath, it) }
+    }
+
+    private fun isSameOrParent(parentPath: String, fieldPath: String): Boolean {
+        return fieldPath == parentPath || fieldPath.startsWith(parentPath + FIELD_PATH_SEPARATOR)
+    }
+
+}
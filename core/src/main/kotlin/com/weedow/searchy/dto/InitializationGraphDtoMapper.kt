@@ -0,0 +1,47 @@
+package com.weedow.searchy.dto
+
+/**
+ * [DtoMapper] initializing the associations of the Entities according to an [InitializationGraph].
+ *
+ * The [DtoConverterService] calls [map] with the [InitializationGraph] of the [SearchyDescriptor][com.weedow.searchy.descriptor.SearchyDescriptor].
+ *
+ * @param T Entity bean to be converted
+ * @param DTO DTO bean produced from Entity bean
+ */
+interface InitializationGraphDtoMapper<T, DTO> : DtoMapper<T, DTO> {
+
+    /**
+     * Maps the given source entity to a target DTO, by initializing only the associations of the given [InitializationGraph].
+     *
+     * @param source Entity bean to be converted
+     * @param initializationGraph [InitializationGraph] of the associations to be initialized
+     *
+     * @return DTO bean produced from Entity bean
+     */
+    fun map(source: T, initializationGraph: InitializationGraph): DTO
+
+    /**
+     * Maps the given source entities to target DTOs, by initializing only the associations of the given [InitializationGraph].
+     *
+     * The [DtoConverterService] calls this method instead of [map] when this [DtoMapper] is also a [BatchDtoMapper].
+     * By default, this method calls [map] for each entity.
+     *
+     * @param entities Entity beans to be converted
+     * @param initializationGraph [InitializationGraph] of the associations to be initialized
+     *
+     * @return DTO beans produced from Entity beans, in the same order and with the same size as [entities]
+     */
+    @JvmDefault
+    fun mapAll(entities: @JvmSuppressWildcards List<T>, initializationGraph: InitializationGraph): List<DTO> {
+        return entities.map { map(it, initializationGraph) }
+    }
+
+    /**
+     * Maps the given source entity to a target DTO, by initializing all its associations.
+     */
+    @JvmDefault
+    override fun map(source: T): DTO {
+        return map(source, InitializationGraph.ALL)
+    }
+
+}
@@ -0,0 +1,9 @@
+package com.weedow.searchy.dto
+
+/**
+ * Marker interface for the [DtoMapper]s bound to the session of the persistence context, like the Hibernate session.
+ *
+ * The session is not thread-safe and is bound to the thread executing the search,
+ * so the [DtoConverterService] never converts the entities in parallel with these [DtoMapper]s.
+ */
+interface SessionBoundDtoMapper
@@ -0,0 +1,15 @@
+package com.weedow.searchy.exception
+
+import org.springframework.http.HttpStatus
+import org.springframework.web.server.ResponseStatusException
+
+/**
+ * Exception thrown when a cursor sent for the keyset pagination is malformed or its signature is invalid.
+ *
+ * @param cursor the invalid cursor
+ * @param status HTTP Status used for the response. Default is [HttpStatus.BAD_REQUEST]
+ */
+class InvalidCursorException(
+    cursor: String,
+    status: HttpStatus = HttpStatus.BAD_REQUEST
+) : ResponseStatusException(status, "Invalid cursor: $cursor")
@@ -1,5 +1,8 @@
 package com.weedow.searchy.expression
 
+import com.weedow.searchy.query.facet.FacetRequest
+import com.weedow.searchy.query.projection.Projection
+
 /**
  * Interface to map the given parameters to [Expressions][Expression] wrapped into a [RootExpression].
  */
@@ -10,9 +13,50 @@ interface ExpressionMapper {
      *
      * The [parameters map][params] contains a field path as a key and a value list associated with the field as value.
      *
+     * The special parameter [SORT_PARAMETER] contains the field paths used to sort the results, optionally followed by the sort direction:
+     * `field.path,asc` or `field.path,desc`.
+     *
+     * The special parameter [FIELDS_PARAMETER] is ignored: it is converted by [toProjection].
+     * The special parameter [FACET_PARAMETER] is ignored: it is converted by [toFacetRequests].
+     *
      * @param params to be converted to [Expression]
      * @param rootClass Root entity class from which to look for fields
      */
     fun <T> toExpression(params: Map<String, List<String>>, rootClass: Class<T>): RootExpression<T>
 
+    /**
+     * Convert the special parameter [FIELDS_PARAMETER] of the specified [parameters][params] to a [Projection].
+     *
+     * The parameter contains the comma-separated field paths to be returned: `fields=firstName,lastName,jobEntity.company`.
+     *
+     * @param params containing the parameter to be converted to [Projection]
+     * @param rootClass Root entity class from which to look for fields
+     * @return [Projection] with the resolved field paths, or `null` if the parameter is not present
+     */
+    fun <T> toProjection(params: Map<String, List<String>>, rootClass: Class<T>): Projection?
+
+    /**
+     * Convert the special parameter [FACET_PARAMETER] of the specified [parameters][params] to [FacetRequests][FacetRequest].
+     *
+     * Each value of the parameter contains a field path, optionally followed by the type of the facet:
+     * `field.path` or `field.path,terms` (number of entities by value), `field.path,stats` (minimum and maximum values),
+     * `field.path,histogram,10` (number of entities by numeric interval) or `field.path,histogram,month` (number of entities by `year`, `month` or `day`).
+     *
+     * @param params containing the parameter to be converted to [FacetRequests][FacetRequest]
+     * @param rootClass Root entity class from which to look for fields
+     * @return List of [FacetRequests][FacetRequest] with the resolved field paths. Empty if the parameter is not present
+     */
+    fun <T> toFacetRequests(params: Map<String, List<String>>, rootClass: Class<T>): List<FacetRequest>
+
+    companion object {
+        /** Name of the special parameter to sort the results */
+        const val SORT_PARAMETER = "sort"
+
+        /** Name of the special parameter to select the fields to be returned */
+        const val FIELDS_PARAMETER = "fields"
+
+        /** Name of the special parameter to request the facets */
+        const val FACET_PARAMETER = "facet"
+    }
+
 }
\ No newline at end of file
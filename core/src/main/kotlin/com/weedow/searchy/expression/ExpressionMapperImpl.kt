@@ -1,7 +1,17 @@
 package com.weedow.searchy.expression
 
+import com.querydsl.core.types.Order
+import com.weedow.searchy.exception.ValidationException
+import com.weedow.searchy.expression.ExpressionMapper.Companion.FACET_PARAMETER
+import com.weedow.searchy.expression.ExpressionMapper.Companion.FIELDS_PARAMETER
+import com.weedow.searchy.expression.ExpressionMapper.Companion.SORT_PARAMETER
 import com.weedow.searchy.expression.parser.ExpressionParser
+import com.weedow.searchy.query.facet.DateInterval
+import com.weedow.searchy.query.facet.FacetRequest
+import com.weedow.searchy.query.facet.FacetType
+import com.weedow.searchy.query.projection.Projection
 import com.weedow.searchy.utils.klogger
+import com.weedow.searchy.validation.SearchyError
 import java.util.*
 
 /**
@@ -17,6 +27,10 @@ class ExpressionMapperImpl(
 
     companion object {
         private val log by klogger()
+
+        private const val SORT_DIRECTION_SEPARATOR = ","
+        private const val FIELDS_SEPARATOR = ","
+        private const val FACET_SEPARATOR = ","
     }
 
     init {
@@ -26,16 +40,100 @@ class ExpressionMapperImpl(
     override fun <T> toExpression(params: Map<String, List<String>>, rootClass: Class<T>): RootExpression<T> {
         val expressions: MutableList<Expression> = ArrayList()
         params.forEach { (paramName, paramValues) ->
-            if (paramName != "query") {
-                val operator = if (paramValues.size == 1) Operator.EQUALS else Operator.IN
-                val expression = expressionResolver.resolveExpression(rootClass, paramName, paramValues, operator, false)
-                expressions.add(expression)
-            } else {
-                // Processing special 'query' parameter
-                paramValues.forEach { expressions.add(expressionParser.parse(it, rootClass)) }
+            when (paramName) {
+                "query" -> {
+                    // Processing special 'query' parameter
+                    paramValues.forEach { expressions.add(expressionParser.parse(it, rootClass)) }
+                }
+                SORT_PARAMETER -> {
+                    // Processing special 'sort' parameter
+                    paramValues.forEach { expressions.add(toSortExpression(it, rootClass)) }
+                }
+                FIELDS_PARAMETER -> {
+                    // Special 'fields' parameter is processed by toProjection()
+                }
+                FACET_PARAMETER -> {
+                    // Special 'facet' parameter is processed by toFacetRequests()
+                }
+                else -> {
+                    val operator = if (paramValues.size == 1) Operator.EQUALS else Operator.IN
+                    val expression = expressionResolver.resolveExpression(rootClass, paramName, paramValues, operator, false)
+                    expressions.add(expression)
+                }
             }
         }
         return RootExpressionImpl(*expressions.toTypedArray())
     }
 
+    override fun <T> toProjection(params: Map<String, List<String>>, rootClass: Class<T>): Projection? {
+        val fields = params[FIELDS_PARAMETER] ?: return null
+
+        val fieldPaths = fields
+            .flatMap { it.split(FIELDS_SEPARATOR) }
+            .map { it.trim() }
+            .filter { it.isNotEmpty() }
+        if (fieldPaths.isEmpty()) {
+            throw ValidationException(
+                listOf(SearchyError("invalid-fields", "Invalid value for the parameter ''{0}'': {1}. The expected value is a comma-separated list of field paths.", arrayOf(FIELDS_PARAMETER, fields.joinToString(FIELDS_SEPARATOR))))
+            )
+        }
+
+        return Projection(fieldPaths.map { expressionResolver.resolveFieldInfo(rootClass, it).fieldPath }.distinct())
+    }
+
+    override fun <T> toFacetRequests(params: Map<String, List<String>>, rootClass: Class<T>): List<FacetRequest> {
+        return params[FACET_PARAMETER].orEmpty().map { toFacetRequest(it, rootClass) }
+    }
+
+    private fun toFacetRequest(facet: String, rootClass: Class<*>): FacetRequest {
+        val parts = facet.split(FACET_SEPARATOR).map { it.trim() }
+        val name = parts[0]
+        val type = parts.getOrNull(1)?.toLowerCase()
+        val interval = parts.getOrNull(2)
+
+        val invalidFacet = {
+            ValidationException(
+                listOf(
+                    SearchyError(
+                        "invalid-facet",
+                        "Invalid value for the parameter ''{0}'': {1}. The expected value is ''field.path'', ''field.path,terms'', ''field.path,stats'', ''field.path,histogram,number'' or ''field.path,histogram,year|month|day''.",
+                        arrayOf(FACET_PARAMETER, facet)
+                    )
+                )
+            )
+        }
+        if (name.isEmpty() || parts.size > 3 || (interval != null) != (type == "histogram")) {
+            throw invalidFacet()
+        }
+
+        val dateInterval = interval?.let { DateInterval.of(it) }
+        val numericInterval = if (interval != null && dateInterval == null) {
+            interval.toBigDecimalOrNull()?.takeIf { it.signum() > 0 } ?: throw invalidFacet()
+        } else null
+        val facetType = when (type) {
+            null, "terms" -> FacetType.TERMS
+            "stats" -> FacetType.STATS
+            "histogram" -> if (dateInterval != null) FacetType.DATE_HISTOGRAM else FacetType.HISTOGRAM
+            else -> throw invalidFacet()
+        }
+
+        val fieldPath = expressionResolver.resolveFieldInfo(rootClass, name).fieldPath
+        return FacetRequest(name, fieldPath, facetType, numericInterval, dateInterval)
+    }
+
+    private fun toSortExpression(sort: String, rootClass: Class<*>): Expression {
+        val parts = sort.split(SORT_DIRECTION_SEPARATOR)
+        val order = when (parts.getOrNull(1)?.toLowerCase()) {
+            null, "asc" -> Order.ASC
+            "desc" -> Order.DESC
+            else -> null
+        }
+        if (parts.size > 2 || parts[0].isBlank() || order == null) {
+            throw ValidationException(
+                listOf(SearchyError("invalid-sort", "Invalid value for the parameter ''{0}'': {1}. The expected value is ''field.path'', ''field.path,asc'' or ''field.path,desc''.", arrayOf(SORT_PARAMETER, sort)))
+            )
+        }
+        return expressionResolver.resolveSortExpression(rootClass, parts[0], order)
+    }
+
 }
\ No newline at end of file
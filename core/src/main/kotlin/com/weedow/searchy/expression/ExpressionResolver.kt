@@ -1,5 +1,7 @@
 package com.weedow.searchy.expression
 
+import com.querydsl.core.types.Order
+
 /**
  * Interface to resolve the [Expression] from the given parameters.
  */
@@ -17,4 +19,25 @@ interface ExpressionResolver {
      */
     fun resolveExpression(rootClass: Class<*>, fieldPath: String, fieldValues: List<String>, operator: Operator, negated: Boolean): Expression
 
+    /**
+     * Resolves the given parameters to an [Expression] sorting the results.
+     *
+     * @param rootClass Root entity class from which to look for fields
+     * @param fieldPath Path of a field. The nested field path contains dots to separate the parents fields (eg. vehicle.brand)
+     * @param order [Order] used to sort the results by the field value
+     * @return Resolved [Expression]
+     */
+    fun resolveSortExpression(rootClass: Class<*>, fieldPath: String, order: Order): Expression
+
+    /**
+     * Resolves the given field path to a [FieldInfo].
+     *
+     * The aliases contained in the field path are replaced by the names of the fields.
+     *
+     * @param rootClass Root entity class from which to look for fields
+     * @param fieldPath Path of a field. The nested field path contains dots to separate the parents fields (eg. vehicle.brand)
+     * @return Resolved [FieldInfo]
+     */
+    fun resolveFieldInfo(rootClass: Class<*>, fieldPath: String): FieldInfo
+
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.weedow.searchy.expression
 
+import com.querydsl.core.types.Order
 import com.weedow.searchy.fieldpath.FieldPathInfo
 import com.weedow.searchy.fieldpath.FieldPathResolver
 import com.weedow.searchy.utils.Keyword.CURRENT_DATE
@@ -8,6 +9,14 @@ import com.weedow.searchy.utils.Keyword.CURRENT_TIME
 import com.weedow.searchy.utils.NullValue
 import com.weedow.searchy.utils.NullValue.NULL_VALUE
 import org.springframework.core.convert.ConversionService
+import java.time.Instant
+import java.time.LocalDate
+import java.time.LocalDateTime
+import java.time.OffsetDateTime
+import java.time.ZoneId
+import java.time.ZonedDateTime
+import java.time.format.DateTimeParseException
+import java.util.*
 import java.util.stream.Collectors
 
 /**
@@ -29,10 +38,16 @@ class ExpressionResolverImpl(
         negated: Boolean
     ): Expression {
         val fieldPathInfo = toFieldKey(rootClass, fieldPath)
-        val values = toFieldValues(fieldPathInfo, fieldValues)
 
         val fieldInfo = FieldInfo(fieldPathInfo.fieldPath, fieldPathInfo.fieldName, fieldPathInfo.parentClass)
-        val expression = when (operator) {
+        val expression = resolveDayRange(fieldInfo, fieldPathInfo.fieldClass, fieldValues, operator)
+            ?: resolveExpression(fieldInfo, toFieldValues(fieldPathInfo, fieldValues), operator)
+
+        return if (negated) ExpressionUtils.not(expression) else expression
+    }
+
+    private fun resolveExpression(fieldInfo: FieldInfo, values: List<Any>, operator: Operator): Expression {
+        return when (operator) {
             Operator.EQUALS -> ExpressionUtils.equals(fieldInfo, values.first())
             Operator.MATCHES -> ExpressionUtils.matches(fieldInfo, values.first())
             Operator.IMATCHES -> ExpressionUtils.imatches(fieldInfo, values.first())
@@ -41,9 +56,63 @@ class ExpressionResolverImpl(
             Operator.GREATER_THAN -> ExpressionUtils.greaterThan(fieldInfo, values.first())
             Operator.GREATER_THAN_OR_EQUALS -> ExpressionUtils.greaterThanOrEquals(fieldInfo, values.first())
             Operator.IN -> ExpressionUtils.`in`(fieldInfo, values)
+            Operator.BETWEEN -> ExpressionUtils.and(
+                ExpressionUtils.greaterThanOrEquals(fieldInfo, values.first()),
+                ExpressionUtils.lessThanOrEquals(fieldInfo, values.last())
+            )
+        }
+    }
+
+    /**
+     * Resolves the equality between a date-time field and a date (eg. `birthday=1981-03-12`) to the half-open range of the day:
+     * `birthday >= 1981-03-12T00:00 AND birthday < 1981-03-13T00:00`.
+     *
+     * Unlike a comparison of the date part of the field, the range can be searched by the index of the field.
+     *
+     * @return the range of the day, or `null` if the given parameters are not an equality between a date-time field and a date
+     */
+    private fun resolveDayRange(fieldInfo: FieldInfo, fieldClass: Class<*>, fieldValues: List<String>, operator: Operator): Expression? {
+        if (operator != Operator.EQUALS || fieldValues.size != 1) {
+            return null
         }
+        val date = parseDate(fieldValues.first()) ?: return null
+        val startOfDay = toDateTime(date.atStartOfDay(), fieldClass) ?: return null
+        val startOfNextDay = toDateTime(date.plusDays(1).atStartOfDay(), fieldClass)!!
+        return ExpressionUtils.and(
+            ExpressionUtils.greaterThanOrEquals(fieldInfo, startOfDay),
+            ExpressionUtils.lessThan(fieldInfo, startOfNextDay)
+        )
+    }
 
-        return if (negated) ExpressionUtils.not(expression) else expression
+    private fun parseDate(value: String): LocalDate? {
+        return try {
+            LocalDate.parse(value)
+        } catch (e: DateTimeParseException) {
+            null
+        }
+    }
+
+    private fun toDateTime(localDateTime: LocalDateTime, clazz: Class<*>): Any? {
+        // Same time zone as the StringToDateConverter
+        val zonedDateTime = localDateTime.atZone(ZoneId.systemDefault())
+        return when (clazz) {
+            LocalDateTime::class.java -> localDateTime
+            OffsetDateTime::class.java -> zonedDateTime.toOffsetDateTime()
+            ZonedDateTime::class.java -> zonedDateTime
+            Instant::class.java -> zonedDateTime.toInstant()
+            Date::class.java -> Date.from(zonedDateTime.toInstant())
+            else -> null
+        }
+    }
+
+    override fun resolveSortExpression(rootClass: Class<*>, fieldPath: String, order: Order): Expression {
+        return ExpressionUtils.sort(resolveFieldInfo(rootClass, fieldPath), order)
+    }
+
+    override fun resolveFieldInfo(rootClass: Class<*>, fieldPath: String): FieldInfo {
+        val fieldPathInfo = toFieldKey(rootClass, fieldPath)
+
+        return FieldInfo(fieldPathInfo.fieldPath, fieldPathInfo.fieldName, fieldPathInfo.parentClass)
     }
 
     private fun toFieldKey(rootClass: Class<*>, fieldPath: String): FieldPathInfo {
@@ -1,5 +1,7 @@
 package com.weedow.searchy.expression
 
+import com.querydsl.core.types.Order
+
 /**
  * [Expression] utility methods.
  */
@@ -95,6 +97,16 @@ object ExpressionUtils {
         return SimpleExpression(Operator.IN, fieldInfo, values)
     }
 
+    /**
+     * Create an [Expression] to sort the results by the field value, according to the given [order].
+     *
+     * @param fieldInfo Field information
+     * @param order sort order
+     */
+    fun sort(fieldInfo: FieldInfo, order: Order): Expression {
+        return SortExpression(fieldInfo, order)
+    }
+
     /**
      * Create a negation of the given [expression].
      */
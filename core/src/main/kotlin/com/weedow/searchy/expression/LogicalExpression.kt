@@ -10,8 +10,8 @@ import com.weedow.searchy.query.specification.Specification
  * @param expressions List of [Expression]
  */
 internal data class LogicalExpression(
-    private val logicalOperator: LogicalOperator,
-    private val expressions: List<Expression>
+    val logicalOperator: LogicalOperator,
+    val expressions: List<Expression>
 ) : Expression {
 
     override fun toFieldExpressions(negated: Boolean): Collection<FieldExpression> {
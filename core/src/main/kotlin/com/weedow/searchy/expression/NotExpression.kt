@@ -8,7 +8,7 @@ import com.weedow.searchy.query.specification.Specification
  *
  * @param expression Expression to be negated
  */
-internal data class NotExpression(private val expression: Expression) : Expression {
+internal data class NotExpression(val expression: Expression) : Expression {
 
     override fun toFieldExpressions(negated: Boolean): Collection<FieldExpression> {
         return expression.toFieldExpressions(!negated)
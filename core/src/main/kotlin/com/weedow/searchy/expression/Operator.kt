@@ -11,6 +11,7 @@ enum class Operator {
     LESS_THAN_OR_EQUALS,
     GREATER_THAN,
     GREATER_THAN_OR_EQUALS,
-    IN
+    IN,
+    BETWEEN
 }
 
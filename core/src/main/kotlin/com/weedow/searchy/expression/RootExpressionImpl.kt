@@ -1,5 +1,6 @@
 package com.weedow.searchy.expression
 
+import com.querydsl.core.JoinType
 import com.weedow.searchy.join.EntityJoin
 import com.weedow.searchy.join.EntityJoins
 import com.weedow.searchy.query.QueryBuilder
@@ -15,8 +16,8 @@ class RootExpressionImpl<T>(
 ) : RootExpression<T> {
 
     companion object {
-        /** Filter the joins and return the fetched joins */
-        val FILTER_FETCH_JOINS = { entityJoin: EntityJoin -> entityJoin.fetched }
+        /** Filter the joins and return the fetched joins, including the batch fetched joins */
+        val FILTER_FETCH_JOINS = { entityJoin: EntityJoin -> entityJoin.fetched || entityJoin.batchFetched }
     }
 
     override fun toFieldExpressions(negated: Boolean): Collection<FieldExpression> {
@@ -24,12 +25,21 @@ class RootExpressionImpl<T>(
     }
 
     override fun <T> toSpecification(entityJoins: EntityJoins): Specification<T> {
+        // The duplicate results are eliminated by the QueryBuilder, only when a to-many join is added to the query
         var specification = Specification { builder: QueryBuilder<T> ->
-            builder.distinct()
-
             val fetchJoins = entityJoins.getJoins(FILTER_FETCH_JOINS)
             fetchJoins.values.forEach {
-                entityJoins.getQPath(it.fieldPath, builder.qEntityRoot, builder)
+                // A fetched left join does not filter the results: it's useless when the associations are not loaded
+                if (it.joinType == JoinType.LEFTJOIN && !builder.fetchJoins) {
+                    return@forEach
+                }
+                // A batch fetched join is loaded after the query: it's only joined when it filters the results
+                if (!it.batchFetched || it.joinType != JoinType.LEFTJOIN) {
+                    entityJoins.getQPath(it.fieldPath, builder.qEntityRoot, builder)
+                }
+                if (it.batchFetched) {
+                    builder.batchFetch(it.fieldPath)
+                }
             }
 
             Specification.NO_PREDICATE
@@ -7,6 +7,7 @@ import com.weedow.searchy.join.EntityJoins
 import com.weedow.searchy.query.QueryBuilder
 import com.weedow.searchy.query.specification.Specification
 import com.weedow.searchy.utils.NullValue
+import com.weedow.searchy.utils.PatternUtils
 
 /**
  * Expression to compare the field value with the given [value] according to the given [Operator].
@@ -14,11 +15,13 @@ import com.weedow.searchy.utils.NullValue
  * @param operator [Operator] to be used by the expression
  * @param fieldInfo Field Information
  * @param value Value to be compared
+ * @param caseInsensitiveCollation Whether the field is stored with a case-insensitive collation
  */
 internal data class SimpleExpression(
-    private val operator: Operator,
-    private val fieldInfo: FieldInfo,
-    private val value: Any
+    val operator: Operator,
+    val fieldInfo: FieldInfo,
+    val value: Any,
+    val caseInsensitiveCollation: Boolean = false
 ) : Expression {
 
     override fun toFieldExpressions(negated: Boolean): Collection<FieldExpression> {
@@ -27,17 +30,18 @@ internal data class SimpleExpression(
 
     override fun <T> toSpecification(entityJoins: EntityJoins): Specification<T> {
         return Specification { builder: QueryBuilder<T> ->
-            val qpath = entityJoins.getQPath(fieldInfo.fieldPath, builder.qEntityRoot, builder)
-
-            when (operator) {
-                EQUALS -> equals(builder, qpath.path, value)
-                MATCHES -> @Suppress("UNCHECKED_CAST") like(builder, qpath.path as Path<String>, value as String)
-                IMATCHES -> @Suppress("UNCHECKED_CAST") ilike(builder, qpath.path as Path<String>, value as String)
-                LESS_THAN -> lessThan(builder, qpath.path, value)
-                LESS_THAN_OR_EQUALS -> lessThanOrEquals(builder, qpath.path, value)
-                GREATER_THAN -> greaterThan(builder, qpath.path, value)
-                GREATER_THAN_OR_EQUALS -> greaterThanOrEquals(builder, qpath.path, value)
-                IN -> inPredicate(builder, qpath.path, value as List<*>)
+            entityJoins.getPredicate(fieldInfo.fieldPath, builder.qEntityRoot, builder) { queryBuilder, qpath ->
+                when (operator) {
+                    EQUALS -> equals(queryBuilder, qpath.path, value)
+                    MATCHES -> @Suppress("UNCHECKED_CAST") like(queryBuilder, qpath.path as Path<String>, value as String)
+                    IMATCHES -> @Suppress("UNCHECKED_CAST") ilike(queryBuilder, qpath.path as Path<String>, value as String)
+                    LESS_THAN -> lessThan(queryBuilder, qpath.path, value)
+                    LESS_THAN_OR_EQUALS -> lessThanOrEquals(queryBuilder, qpath.path, value)
+                    GREATER_THAN -> greaterThan(queryBuilder, qpath.path, value)
+                    GREATER_THAN_OR_EQUALS -> greaterThanOrEquals(queryBuilder, qpath.path, value)
+                    IN -> inPredicate(queryBuilder, qpath.path, value as List<*>)
+                    BETWEEN -> between(queryBuilder, qpath.path, value as List<*>)
+                }
             }
         }
     }
@@ -51,11 +55,13 @@ internal data class SimpleExpression(
     }
 
     private fun like(queryBuilder: QueryBuilder<*>, path: Path<String>, value: String): Predicate {
-        return queryBuilder.like(path, value)
+        // A pattern with a trailing wildcard only is searched as a prefix, which can use the index of the field
+        val prefix = PatternUtils.getPrefix(value)
+        return if (prefix != null) queryBuilder.startsWith(path, prefix) else queryBuilder.like(path, value)
     }
 
     private fun ilike(queryBuilder: QueryBuilder<*>, path: Path<String>, value: String): Predicate {
-        return queryBuilder.ilike(path, value)
+        return if (caseInsensitiveCollation) queryBuilder.ilikeWithCollation(path, value) else queryBuilder.ilike(path, value)
     }
 
     private fun lessThan(queryBuilder: QueryBuilder<*>, path: Path<*>, value: Any): Predicate {
@@ -78,4 +84,8 @@ internal data class SimpleExpression(
         return queryBuilder.`in`(path, value)
     }
 
+    private fun between(queryBuilder: QueryBuilder<*>, path: Path<*>, value: List<*>): Predicate {
+        return queryBuilder.between(path, value[0]!!, value[1]!!)
+    }
+
 }
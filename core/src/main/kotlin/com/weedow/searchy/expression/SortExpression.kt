@@ -0,0 +1,37 @@
+package com.weedow.searchy.expression
+
+import com.querydsl.core.types.Order
+import com.weedow.searchy.join.EntityJoins
+import com.weedow.searchy.query.QueryBuilder
+import com.weedow.searchy.query.specification.Specification
+
+/**
+ * Expression to sort the results by the field value according to the given [Order].
+ *
+ * This expression does not filter the results: it does not contain any [FieldExpression], and its [Specification] returns [Specification.NO_PREDICATE].
+ *
+ * The field path is resolved with the [EntityJoins], so the joins already created for the other expressions are reused.
+ *
+ * @param fieldInfo Field Information
+ * @param order [Order] to be used to sort the results
+ */
+internal data class SortExpression(
+    private val fieldInfo: FieldInfo,
+    private val order: Order
+) : Expression {
+
+    override fun toFieldExpressions(negated: Boolean): Collection<FieldExpression> {
+        return emptyList()
+    }
+
+    override fun <T> toSpecification(entityJoins: EntityJoins): Specification<T> {
+        return Specification { builder: QueryBuilder<T> ->
+            val qpath = entityJoins.getQPath(fieldInfo.fieldPath, builder.qEntityRoot, builder)
+
+            builder.orderBy(qpath.path, order)
+
+            Specification.NO_PREDICATE
+        }
+    }
+
+}
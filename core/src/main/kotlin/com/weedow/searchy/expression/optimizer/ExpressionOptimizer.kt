@@ -0,0 +1,19 @@
+package com.weedow.searchy.expression.optimizer
+
+import com.weedow.searchy.expression.RootExpression
+
+/**
+ * Interface to simplify the [RootExpression] before converting it to a [Specification][com.weedow.searchy.query.specification.Specification].
+ */
+interface ExpressionOptimizer {
+
+    /**
+     * Returns a [RootExpression] equivalent to the given [RootExpression], whose query is simpler for the Database.
+     *
+     * @param rootExpression [RootExpression] to be optimized
+     * @param rootClass Root entity class of the fields found in the [RootExpression]
+     * @return the optimized [RootExpression], or `null` if the [RootExpression] can never be satisfied: there is no result to be searched
+     */
+    fun <T> optimize(rootExpression: RootExpression<T>, rootClass: Class<T>): RootExpression<T>?
+
+}
@@ -0,0 +1,265 @@
+package com.weedow.searchy.expression.optimizer
+
+import com.weedow.searchy.expression.Expression
+import com.weedow.searchy.expression.FieldInfo
+import com.weedow.searchy.expression.LogicalExpression
+import com.weedow.searchy.expression.LogicalOperator
+import com.weedow.searchy.expression.NotExpression
+import com.weedow.searchy.expression.Operator
+import com.weedow.searchy.expression.RootExpression
+import com.weedow.searchy.expression.RootExpressionImpl
+import com.weedow.searchy.expression.SimpleExpression
+import com.weedow.searchy.expression.SortExpression
+import com.weedow.searchy.utils.EntityUtils
+import com.weedow.searchy.utils.Keyword
+import com.weedow.searchy.utils.NullValue
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ConcurrentMap
+
+/**
+ * Default [ExpressionOptimizer] implementation.
+ *
+ * The [Expressions][Expression] are rewritten as follows:
+ * * The nested conjunctions and disjunctions are flattened, and their duplicate terms are removed.
+ * * The negations are pushed down to the field expressions, according to De Morgan's laws.
+ * * The disjunction of equalities on the same field is merged into a single [IN][Operator.IN] expression,
+ * and the conjunction of negated equalities on the same field into a single negated [IN][Operator.IN] expression.
+ * * The ranges on the same field are intersected, and a range with inclusive bounds is collapsed into a single [BETWEEN][Operator.BETWEEN] expression.
+ * * The conjunctions that can never be satisfied, such as `a = 1 AND a = 2`, are detected.
+ *
+ * Each value of a multi-valued field (eg. a field of a collection) may match a different term of the same conjunction:
+ * the equalities and the ranges of these fields are neither intersected nor checked for contradictions.
+ *
+ * The [Expressions][Expression] which are not implemented by Searchy, the `null` values and the keywords (eg. `CURRENT_DATE`) are kept as is.
+ */
+class ExpressionOptimizerImpl : ExpressionOptimizer {
+
+    companion object {
+        /** Conjunction without term: it is always satisfied */
+        private val TRUE = LogicalExpression(LogicalOperator.AND, emptyList())
+
+        /** Disjunction without term: it is never satisfied */
+        private val FALSE = LogicalExpression(LogicalOperator.OR, emptyList())
+
+        private val KEYWORDS = listOf(Keyword.CURRENT_DATE, Keyword.CURRENT_TIME, Keyword.CURRENT_DATE_TIME)
+    }
+
+    /** Whether each field path of each root class is single-valued: the field path is walked by reflection only once */
+    private val singleValuedFieldPaths: ConcurrentMap<Class<*>, ConcurrentMap<String, Boolean>> = ConcurrentHashMap()
+
+    override fun <T> optimize(rootExpression: RootExpression<T>, rootClass: Class<T>): RootExpression<T>? {
+        if (rootExpression !is RootExpressionImpl<T>) {
+            return rootExpression
+        }
+
+        // The sort expressions do not filter the results
+        val (sortExpressions, expressions) = rootExpression.expressions.partition { it is SortExpression }
+
+        val optimizedExpressions = when (val expression = normalize(LogicalExpression(LogicalOperator.AND, expressions), false, rootClass)) {
+            FALSE -> return null
+            is LogicalExpression -> if (expression.logicalOperator == LogicalOperator.AND) expression.expressions else listOf(expression)
+            else -> listOf(expression)
+        }
+        return RootExpressionImpl(*(optimizedExpressions + sortExpressions).toTypedArray())
+    }
+
+    private fun normalize(expression: Expression, negated: Boolean, rootClass: Class<*>): Expression {
+        return when (expression) {
+            is NotExpression -> normalize(expression.expression, !negated, rootClass)
+            is LogicalExpression -> {
+                // NOT (a AND b) = NOT a OR NOT b, and NOT (a OR b) = NOT a AND NOT b
+                val logicalOperator = if (negated) opposite(expression.logicalOperator) else expression.logicalOperator
+                simplify(logicalOperator, expression.expressions.map { normalize(it, negated, rootClass) }, rootClass)
+            }
+            else -> if (negated) NotExpression(expression) else expression
+        }
+    }
+
+    private fun simplify(logicalOperator: LogicalOperator, expressions: List<Expression>, rootClass: Class<*>): Expression {
+        // (a AND b) AND c = a AND b AND c
+        val terms = expressions
+            .flatMap { if (it is LogicalExpression && it.logicalOperator == logicalOperator) it.expressions else listOf(it) }
+            .distinct()
+
+        val mergedTerms = if (logicalOperator == LogicalOperator.AND) {
+            if (FALSE in terms) return FALSE
+            mergeByField(terms, ::getConstrainedField) { fieldInfo, fieldTerms ->
+                mergeConjunction(fieldInfo, fieldTerms, isSingleValued(rootClass, fieldInfo.fieldPath))
+            } ?: return FALSE
+        } else {
+            if (TRUE in terms) return TRUE
+            mergeByField(terms, { term -> if (term is SimpleExpression && getEqualityValues(term) != null) term.fieldInfo else null }) { fieldInfo, fieldTerms ->
+                // a = 1 OR a IN (2, 3) = a IN (1, 2, 3)
+                listOf(toEquality(fieldInfo, fieldTerms.flatMap { getEqualityValues(it)!! }.distinct()))
+            }!!
+        }
+
+        return mergedTerms.singleOrNull() ?: LogicalExpression(logicalOperator, mergedTerms)
+    }
+
+    private fun isSingleValued(rootClass: Class<*>, fieldPath: String): Boolean {
+        return singleValuedFieldPaths
+            .computeIfAbsent(rootClass) { ConcurrentHashMap() }
+            .computeIfAbsent(fieldPath) { EntityUtils.isSingleValued(rootClass, it) }
+    }
+
+    /**
+     * Replaces the terms of each field returned by [getField] with the terms returned by [merge], at the position of the first term of the field.
+     *
+     * @return the merged terms, or `null` if [merge] returns `null` for a field
+     */
+    private fun mergeByField(
+        terms: List<Expression>,
+        getField: (Expression) -> FieldInfo?,
+        merge: (FieldInfo, List<Expression>) -> List<Expression>?
+    ): List<Expression>? {
+        val termsByField = LinkedHashMap<FieldInfo, MutableList<Expression>>()
+        // Contains the terms which are not merged, and the fields at the position of their first term
+        val positions = mutableListOf<Any>()
+        terms.forEach { term ->
+            val fieldInfo = getField(term)
+            if (fieldInfo == null) {
+                positions.add(term)
+            } else {
+                termsByField.getOrPut(fieldInfo) {
+                    positions.add(fieldInfo)
+                    mutableListOf()
+                }.add(term)
+            }
+        }
+        return positions.flatMap { if (it is FieldInfo) merge(it, termsByField.getValue(it)) ?: return null else listOf(it as Expression) }
+    }
+
+    private fun mergeConjunction(fieldInfo: FieldInfo, terms: List<Expression>, singleValued: Boolean): List<Expression>? {
+        val simpleExpressions = terms.filterIsInstance<SimpleExpression>()
+        val valueSets = simpleExpressions.mapNotNull { getEqualityValues(it) }.distinct()
+        // NOT a = 1 AND NOT a IN (2, 3) = NOT a IN (1, 2, 3)
+        val excludedValues = terms.filterIsInstance<NotExpression>().flatMap { getEqualityValues(it.expression)!! }.distinct()
+
+        val bounds = simpleExpressions.mapNotNull { toBound(it) }
+        // The bounds of different types cannot be compared
+        val comparable = (bounds.map { it.value } + valueSets.flatten()).map { it.javaClass }.distinct().size <= 1
+        val lowerBound = if (comparable) bounds.filter { it.lower }.reduceOrNull { a, b -> if (compare(a, b) >= 0) a else b } else null
+        val upperBound = if (comparable) bounds.filterNot { it.lower }.reduceOrNull { a, b -> if (compare(a, b) <= 0) a else b } else null
+        val rangeTerms = if (comparable) toRange(fieldInfo, lowerBound, upperBound) else simpleExpressions.filter { toBound(it) != null }
+
+        if (!singleValued) {
+            // Each value of the field may match a different term: a > 5 AND a < 2 is satisfied by the values 1 and 6
+            val exclusion = if (excludedValues.isEmpty()) emptyList() else listOf(NotExpression(toEquality(fieldInfo, excludedValues)))
+            return valueSets.map { toEquality(fieldInfo, it) } + exclusion + simpleExpressions.filter { toBound(it) != null }
+        }
+
+        if (lowerBound != null && upperBound != null) {
+            val comparison = compare(lowerBound, upperBound)
+            if (comparison > 0 || (comparison == 0 && !(lowerBound.inclusive && upperBound.inclusive))) {
+                // a > 5 AND a < 2
+                return null
+            }
+        }
+
+        if (valueSets.isEmpty()) {
+            val exclusion = if (excludedValues.isEmpty()) emptyList() else listOf(NotExpression(toEquality(fieldInfo, excludedValues)))
+            return exclusion + rangeTerms
+        }
+
+        // The single value of the field must match all the terms: a IN (1, 2) AND a > 1 AND NOT a = 3 = a = 2
+        val values = valueSets
+            .reduce { values, otherValues -> values.filter { it in otherValues } }
+            .filter { it !in excludedValues && (!comparable || isInRange(it, lowerBound, upperBound)) }
+        if (values.isEmpty()) {
+            // a = 1 AND a = 2
+            return null
+        }
+        return listOf(toEquality(fieldInfo, values)) + if (comparable) emptyList() else rangeTerms
+    }
+
+    /**
+     * Returns the values of the given [IN][Operator.IN] or [EQUALS][Operator.EQUALS] expression,
+     * or `null` if the expression is not an equality or if one of its values cannot be merged.
+     */
+    private fun getEqualityValues(expression: Expression): List<Any>? {
+        if (expression !is SimpleExpression) {
+            return null
+        }
+        val values = when (expression.operator) {
+            Operator.EQUALS -> listOf(expression.value)
+            Operator.IN -> (expression.value as List<*>).filterNotNull()
+            else -> return null
+        }
+        return values.takeIf { it.none(::isSpecialValue) }
+    }
+
+    private fun getConstrainedField(expression: Expression): FieldInfo? {
+        return when {
+            expression is SimpleExpression && (getEqualityValues(expression) != null || toBound(expression) != null) -> expression.fieldInfo
+            expression is NotExpression && expression.expression is SimpleExpression && getEqualityValues(expression.expression) != null -> expression.expression.fieldInfo
+            else -> null
+        }
+    }
+
+    private fun toBound(expression: SimpleExpression): Bound? {
+        val value = expression.value
+        if (value !is Comparable<*> || isSpecialValue(value)) {
+            return null
+        }
+        @Suppress("UNCHECKED_CAST")
+        return when (expression.operator) {
+            Operator.GREATER_THAN -> Bound(value as Comparable<Any>, inclusive = false, lower = true)
+            Operator.GREATER_THAN_OR_EQUALS -> Bound(value as Comparable<Any>, inclusive = true, lower = true)
+            Operator.LESS_THAN -> Bound(value as Comparable<Any>, inclusive = false, lower = false)
+            Operator.LESS_THAN_OR_EQUALS -> Bound(value as Comparable<Any>, inclusive = true, lower = false)
+            else -> null
+        }
+    }
+
+    private fun toRange(fieldInfo: FieldInfo, lowerBound: Bound?, upperBound: Bound?): List<Expression> {
+        if (lowerBound != null && upperBound != null && lowerBound.inclusive && upperBound.inclusive) {
+            return listOf(SimpleExpression(Operator.BETWEEN, fieldInfo, listOf(lowerBound.value, upperBound.value)))
+        }
+        return listOfNotNull(
+            lowerBound?.let { SimpleExpression(if (it.inclusive) Operator.GREATER_THAN_OR_EQUALS else Operator.GREATER_THAN, fieldInfo, it.value) },
+            upperBound?.let { SimpleExpression(if (it.inclusive) Operator.LESS_THAN_OR_EQUALS else Operator.LESS_THAN, fieldInfo, it.value) }
+        )
+    }
+
+    private fun toEquality(fieldInfo: FieldInfo, values: List<Any>): SimpleExpression {
+        return if (values.size == 1) SimpleExpression(Operator.EQUALS, fieldInfo, values.single()) else SimpleExpression(Operator.IN, fieldInfo, values)
+    }
+
+    /**
+     * Compares two bounds of the same side: the tightest bound is the greatest.
+     */
+    private fun compare(bound: Bound, otherBound: Bound): Int {
+        val comparison = bound.value.compareTo(otherBound.value)
+        if (comparison != 0 || bound.lower != otherBound.lower || bound.inclusive == otherBound.inclusive) {
+            return comparison
+        }
+        // a > 1 is tighter than a >= 1, and a < 1 is tighter than a <= 1
+        return if (bound.inclusive == bound.lower) -1 else 1
+    }
+
+    private fun isInRange(value: Any, lowerBound: Bound?, upperBound: Bound?): Boolean {
+        val lowerComparison = lowerBound?.value?.compareTo(value)
+        val upperComparison = upperBound?.value?.compareTo(value)
+        return (lowerComparison == null || lowerComparison < 0 || (lowerComparison == 0 && lowerBound.inclusive))
+                && (upperComparison == null || upperComparison > 0 || (upperComparison == 0 && upperBound.inclusive))
+    }
+
+    private fun isSpecialValue(value: Any): Boolean {
+        return value === NullValue || KEYWORDS.any { it === value }
+    }
+
+    private fun opposite(logicalOperator: LogicalOperator): LogicalOperator {
+        return if (logicalOperator == LogicalOperator.AND) LogicalOperator.OR else LogicalOperator.AND
+    }
+
+    /**
+     * Bound of a range.
+     *
+     * @param value Value of the bound
+     * @param inclusive Whether the value belongs to the range
+     * @param lower Whether the bound is the lower bound of the range
+     */
+    private class Bound(val value: Comparable<Any>, val inclusive: Boolean, val lower: Boolean)
+
+}
@@ -0,0 +1,60 @@
+package com.weedow.searchy.expression.parser
+
+import com.weedow.searchy.cache.BoundedCache
+import com.weedow.searchy.expression.Expression
+import com.weedow.searchy.utils.klogger
+import java.time.Clock
+import java.time.Duration
+
+/**
+ * [ExpressionParser] implementation which wraps a given [ExpressionParser]
+ * and cache the result of the [parse] method for each root class and query.
+ *
+ * The cache is a [BoundedCache]: the least recently used entries are evicted when the maximum size is reached,
+ * and each entry expires after the given time to live.
+ *
+ * The resolved [Expression] does not depend on the time of the request:
+ * the keywords like `CURRENT_DATE` are kept as is in the [Expression], and are evaluated each time the query is executed.
+ *
+ * The queries which cannot be parsed are not cached.
+ *
+ * @param decoratedExpressionParser [ExpressionParser] to be wrapped
+ * @param maxSize Maximum number of entries in the cache
+ * @param timeToLive [Duration] after which an entry expires
+ * @param clock [Clock] used to check if an entry is expired
+ */
+class ExpressionParserCachingDecorator(
+    private val decoratedExpressionParser: ExpressionParser,
+    private val maxSize: Int,
+    private val timeToLive: Duration,
+    private val clock: Clock = Clock.systemUTC()
+) : ExpressionParser {
+
+    companion object {
+        private val log by klogger()
+    }
+
+    private val cache = BoundedCache<CacheKey, Expression>("the queries", maxSize, timeToLive, clock = clock)
+
+    /**
+     * Number of queries found in the cache.
+     */
+    val hitCount: Long
+        get() = cache.hitCount
+
+    /**
+     * Number of queries which have been parsed because they were not found in the cache.
+     */
+    val missCount: Long
+        get() = cache.missCount
+
+    override fun parse(query: String, rootClass: Class<*>): Expression {
+        return cache.get(CacheKey(rootClass, query), {
+            decoratedExpressionParser.parse(query, rootClass)
+                .also { if (log.isDebugEnabled) log.debug("Parsed query cached for {}: {}", rootClass.name, query) }
+        })
+    }
+
+    private data class CacheKey(val rootClass: Class<*>, val query: String)
+
+}
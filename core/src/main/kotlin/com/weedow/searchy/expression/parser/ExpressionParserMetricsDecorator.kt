@@ -0,0 +1,22 @@
+package com.weedow.searchy.expression.parser
+
+import com.weedow.searchy.expression.Expression
+import com.weedow.searchy.metrics.SearchyMetrics
+
+/**
+ * [ExpressionParser] implementation which wraps a given [ExpressionParser]
+ * and records the duration of the [parse] method with the given [SearchyMetrics].
+ *
+ * @param decoratedExpressionParser [ExpressionParser] to be wrapped
+ * @param searchyMetrics [SearchyMetrics]
+ */
+class ExpressionParserMetricsDecorator(
+    private val decoratedExpressionParser: ExpressionParser,
+    private val searchyMetrics: SearchyMetrics
+) : ExpressionParser {
+
+    override fun parse(query: String, rootClass: Class<*>): Expression {
+        return searchyMetrics.recordParsing(rootClass) { decoratedExpressionParser.parse(query, rootClass) }
+    }
+
+}
@@ -0,0 +1,115 @@
+package com.weedow.searchy.fieldpath
+
+import com.weedow.searchy.alias.AliasResolutionService
+import com.weedow.searchy.utils.FIELD_PATH_SEPARATOR
+import com.weedow.searchy.utils.MAP_KEY
+import com.weedow.searchy.utils.MAP_VALUE
+import com.weedow.searchy.utils.klogger
+import java.lang.reflect.Modifier
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ConcurrentMap
+
+/**
+ * [FieldPathResolver] implementation which wraps a given [FieldPathResolver] and uses a table of field paths resolved in advance.
+ *
+ * The [precompile] method walks the fields of a root class up to the maximum depth, including the aliases and the `key`/`value` parts of the Maps,
+ * and stores the field paths resolved by the wrapped [FieldPathResolver] in an immutable table.
+ * A precompiled field path is then resolved with a single lookup, without reflection.
+ *
+ * The field paths which are not found in the table are resolved by the wrapped [FieldPathResolver].
+ *
+ * @param decoratedFieldPathResolver [FieldPathResolver] to be wrapped
+ * @param aliasResolutionService [AliasResolutionService] used to get the aliases of the fields
+ * @param maxDepth Maximum number of parts of the precompiled field paths
+ */
+class PrecompiledFieldPathResolver(
+    private val decoratedFieldPathResolver: FieldPathResolver,
+    private val aliasResolutionService: AliasResolutionService,
+    private val maxDepth: Int
+) : FieldPathResolver {
+
+    companion object {
+        private val log by klogger()
+
+        private val NON_NAVIGABLE_PACKAGES = listOf("java.", "javax.", "kotlin.")
+    }
+
+    private val fieldPathTables: ConcurrentMap<Class<*>, Map<String, FieldPathInfo>> = ConcurrentHashMap()
+
+    init {
+        require(maxDepth > 0) { "The maximum depth of the precompiled field paths must be greater than 0" }
+    }
+
+    override fun resolveFieldPath(rootClass: Class<*>, fieldPath: String): FieldPathInfo {
+        return fieldPathTables[rootClass]?.get(fieldPath)
+            ?: decoratedFieldPathResolver.resolveFieldPath(rootClass, fieldPath)
+    }
+
+    /**
+     * Resolves all the field paths of the given root class up to the maximum depth, and stores them in the table of this root class.
+     *
+     * @param rootClass root class
+     */
+    fun precompile(rootClass: Class<*>) {
+        fieldPathTables.computeIfAbsent(rootClass) {
+            val fieldPathTable = mutableMapOf<String, FieldPathInfo>()
+            collectFieldPaths(rootClass, null, rootClass, 1, fieldPathTable)
+
+            if (log.isDebugEnabled) log.debug("Precompiled {} field paths for {}", fieldPathTable.size, rootClass.name)
+
+            fieldPathTable.toMap()
+        }
+    }
+
+    private fun collectFieldPaths(
+        rootClass: Class<*>,
+        parentFieldPath: String?,
+        parentClass: Class<*>,
+        depth: Int,
+        fieldPathTable: MutableMap<String, FieldPathInfo>
+    ) {
+        for (fieldPart in getFieldParts(parentClass)) {
+            val fieldPath = if (parentFieldPath != null) parentFieldPath + FIELD_PATH_SEPARATOR + fieldPart else fieldPart
+
+            val fieldPathInfo = try {
+                decoratedFieldPathResolver.resolveFieldPath(rootClass, fieldPath)
+            } catch (e: IllegalArgumentException) {
+                // The field path is resolved on each request, and will fail in the same way
+                if (log.isDebugEnabled) log.debug("Could not precompile the field path [{}] from [{}]: {}", fieldPath, rootClass, e.message)
+                continue
+            }
+            fieldPathTable[fieldPath] = fieldPathInfo
+
+            if (depth < maxDepth && isNavigable(fieldPathInfo.fieldClass)) {
+                collectFieldPaths(rootClass, fieldPath, fieldPathInfo.fieldClass, depth + 1, fieldPathTable)
+            }
+        }
+    }
+
+    private fun getFieldParts(parentClass: Class<*>): Collection<String> {
+        if (Map::class.java.isAssignableFrom(parentClass)) {
+            return listOf(MAP_KEY, MAP_VALUE)
+        }
+
+        val fieldNames = parentClass.declaredFields
+            .filter { !it.isSynthetic && !Modifier.isStatic(it.modifiers) }
+            .map { it.name }
+
+        val aliases = aliasResolutionService.getAliases(parentClass)
+            .filterValues { it in fieldNames }
+            .keys
+
+        return fieldNames + aliases
+    }
+
+    private fun isNavigable(fieldClass: Class<*>): Boolean {
+        if (Map::class.java.isAssignableFrom(fieldClass)) {
+            return true
+        }
+        return !fieldClass.isPrimitive
+                && !fieldClass.isEnum
+                && !fieldClass.isArray
+                && NON_NAVIGABLE_PACKAGES.none { fieldClass.name.startsWith(it) }
+    }
+
+}
@@ -9,10 +9,15 @@ import com.querydsl.core.JoinType
  * @param joinName Name of the join associated to the field
  * @param joinType Join type. Default is [JoinInfo.DEFAULT_JOIN_TYPE]
  * @param fetched Whether the fetch mode is enabled. Default is [JoinInfo.DEFAULT_FETCH_MODE]
+ * @param strategy Strategy used to search by the fields of the join when it's a to-many join. Default is [JoinInfo.DEFAULT_STRATEGY]
+ * @param batchFetched Whether the join is requested as fetched, but the association is loaded by a secondary query after the main query,
+ * to limit the number of collections fetched by the main query. Default is `false`
  */
 data class EntityJoin(
     val fieldPath: String,
     val joinName: String,
     val joinType: JoinType = JoinInfo.DEFAULT_JOIN_TYPE,
-    val fetched: Boolean = JoinInfo.DEFAULT_FETCH_MODE
+    val fetched: Boolean = JoinInfo.DEFAULT_FETCH_MODE,
+    val strategy: JoinStrategy = JoinInfo.DEFAULT_STRATEGY,
+    val batchFetched: Boolean = false
 )
\ No newline at end of file
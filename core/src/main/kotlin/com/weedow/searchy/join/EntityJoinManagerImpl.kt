@@ -6,21 +6,37 @@ import com.weedow.searchy.join.handler.DefaultEntityJoinHandler
 import com.weedow.searchy.join.handler.EntityJoinHandler
 import com.weedow.searchy.query.querytype.ElementType
 import com.weedow.searchy.utils.klogger
-import java.util.*
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ConcurrentMap
 
 /**
  * Default [EntityJoinManager] implementation.
  *
  * This implementation computes the Entity joins for a given [SearchyDescriptor], and cache the result.
+ * The Entity joins are computed once per [SearchyDescriptor], even if they are requested by concurrent threads.
+ *
+ * Fetching several collections in the same query produces the cartesian product of their elements.
+ * When the [EntityJoinHandlers][EntityJoinHandler] request more fetched to-many joins than [maxCollectionFetchJoins],
+ * the next ones (and the joins nested in them) are [batch fetched][EntityJoin.batchFetched]: they are loaded by secondary queries after the main query.
  *
  * @param searchyContext [SearchyContext]
+ * @param maxCollectionFetchJoins maximum number of to-many joins fetched by the main query. A negative value disables the limit.
+ * Default is [DEFAULT_MAX_COLLECTION_FETCH_JOINS]
  */
-class EntityJoinManagerImpl(private val searchyContext: SearchyContext) : EntityJoinManager {
+class EntityJoinManagerImpl(
+    private val searchyContext: SearchyContext,
+    private val maxCollectionFetchJoins: Int = DEFAULT_MAX_COLLECTION_FETCH_JOINS
+) : EntityJoinManager {
 
-    private val joinsBySearchyDescriptorId: MutableMap<String, EntityJoins> = HashMap()
+    private val joinsBySearchyDescriptorId: ConcurrentMap<String, EntityJoins> = ConcurrentHashMap()
 
     companion object {
         private val log by klogger()
+
+        /** Default maximum number of to-many joins fetched by the main query */
+        const val DEFAULT_MAX_COLLECTION_FETCH_JOINS = 1
+
+        private val TO_MANY_ELEMENT_TYPES = listOf(ElementType.SET, ElementType.LIST, ElementType.COLLECTION, ElementType.MAP)
     }
 
     init {
@@ -28,15 +44,15 @@ class EntityJoinManagerImpl(private val searchyContext: SearchyContext) : Entity
     }
 
     override fun <T> computeEntityJoins(searchyDescriptor: SearchyDescriptor<T>): EntityJoins {
-        return joinsBySearchyDescriptorId.getOrPut(searchyDescriptor.id) { initEntityJoins(searchyDescriptor) }
+        return joinsBySearchyDescriptorId.computeIfAbsent(searchyDescriptor.id) { initEntityJoins(searchyDescriptor) }
     }
 
     private fun <T> initEntityJoins(searchyDescriptor: SearchyDescriptor<T>): EntityJoins {
         val entityJoinHandlers = mutableListOf(*searchyDescriptor.entityJoinHandlers.toTypedArray())
         entityJoinHandlers.add(DefaultEntityJoinHandler())
 
-        val entityJoins = EntityJoinsImpl(searchyDescriptor.entityClass)
-        doInitEntityJoins(searchyDescriptor.entityClass, "", entityJoins, entityJoinHandlers)
+        val entityJoins = EntityJoinsImpl(searchyDescriptor.entityClass, searchyDescriptor.joinStrategy)
+        doInitEntityJoins(searchyDescriptor.entityClass, "", entityJoins, entityJoinHandlers, searchyDescriptor.joinStrategy, CollectionFetchJoinCounter(), false)
 
         return entityJoins
     }
@@ -45,7 +61,10 @@ class EntityJoinManagerImpl(private val searchyContext: SearchyContext) : Entity
         entityClass: Class<*>,
         parentPath: String,
         entityJoins: EntityJoinsImpl,
-        entityJoinHandlers: List<EntityJoinHandler>
+        entityJoinHandlers: List<EntityJoinHandler>,
+        defaultStrategy: JoinStrategy,
+        counter: CollectionFetchJoinCounter,
+        parentBatchFetched: Boolean
     ) {
         val allPropertyInfos = searchyContext.getAllPropertyInfos(entityClass)
         for (propertyInfos in allPropertyInfos) {
@@ -64,7 +83,12 @@ class EntityJoinManagerImpl(private val searchyContext: SearchyContext) : Entity
                     if (entityJoinHandler.supports(propertyInfos)) {
                         val joinInfo = entityJoinHandler.handle(propertyInfos)
 
-                        val entityJoin = EntityJoin(fieldPath, propertyInfos.qName, joinInfo.joinType, joinInfo.fetched)
+                        val strategy = joinInfo.strategy ?: defaultStrategy
+                        // The joins nested in a batch fetched join cannot be fetched by the main query, which does not fetch their owner
+                        val fetched = joinInfo.fetched && !parentBatchFetched
+                                && (propertyInfos.elementType !in TO_MANY_ELEMENT_TYPES || counter.add())
+                        val batchFetched = joinInfo.fetched && !fetched
+                        val entityJoin = EntityJoin(fieldPath, propertyInfos.qName, joinInfo.joinType, fetched, strategy, batchFetched)
                         entityJoins.add(entityJoin)
 
                         // Recursive loop to handle nested Entity joins
@@ -80,7 +104,8 @@ class EntityJoinManagerImpl(private val searchyContext: SearchyContext) : Entity
                             else -> propertyInfos.type
                         }
                         if (searchyContext.isEntity(fieldClass)) {
-                            doInitEntityJoins(fieldClass, entityJoin.fieldPath, entityJoins, entityJoinHandlers)
+                            entityJoins.addEntityClass(fieldClass)
+                            doInitEntityJoins(fieldClass, entityJoin.fieldPath, entityJoins, entityJoinHandlers, defaultStrategy, counter, batchFetched)
                         }
 
                         break
@@ -90,4 +115,24 @@ class EntityJoinManagerImpl(private val searchyContext: SearchyContext) : Entity
         }
     }
 
+    /**
+     * Counts the to-many joins fetched by the main query.
+     */
+    private inner class CollectionFetchJoinCounter {
+        private var collectionFetchJoins = 0
+
+        /**
+         * Adds a fetched to-many join to the main query.
+         *
+         * @return `true` if the main query can fetch the to-many join, `false` if it must be loaded by a secondary query
+         */
+        fun add(): Boolean {
+            if (maxCollectionFetchJoins >= 0 && collectionFetchJoins >= maxCollectionFetchJoins) {
+                return false
+            }
+            collectionFetchJoins++
+            return true
+        }
+    }
+
 }
@@ -1,5 +1,6 @@
 package com.weedow.searchy.join
 
+import com.querydsl.core.types.Predicate
 import com.weedow.searchy.query.QueryBuilder
 import com.weedow.searchy.query.querytype.QEntityRoot
 import com.weedow.searchy.query.querytype.QPath
@@ -19,6 +20,28 @@ interface EntityJoins {
      */
     fun <T> getQPath(fieldPath: String, qEntityRoot: QEntityRoot<T>, queryBuilder: QueryBuilder<T>): QPath<*>
 
+    /**
+     * Returns the [Predicate] created by the given function for the [QPath] corresponding to the given [field path][fieldPath]
+     * relative to the specified [QEntityRoot].
+     *
+     * By default, the function is called with the [QPath] returned by [getQPath].
+     *
+     * @param fieldPath path of a field. The nested field path contains dots to separate the parents fields (eg. vehicle.brand)
+     * @param qEntityRoot [QEntityRoot] object
+     * @param queryBuilder [QueryBuilder] instance to find or create joins
+     * @param predicate function creating the [Predicate] with the given [QueryBuilder] for the given [QPath]
+     * @return [Predicate] on the field found from the [field path][fieldPath]
+     */
+    @JvmDefault
+    fun <T> getPredicate(
+        fieldPath: String,
+        qEntityRoot: QEntityRoot<T>,
+        queryBuilder: QueryBuilder<T>,
+        predicate: (QueryBuilder<*>, QPath<*>) -> Predicate
+    ): Predicate {
+        return predicate(queryBuilder, getQPath(fieldPath, qEntityRoot, queryBuilder))
+    }
+
     /**
      * Returns every computed joins for the root Entity.
      *
@@ -26,4 +49,11 @@ interface EntityJoins {
      * @return Map collection that contains join name as key and EntityJoin as value
      */
     fun getJoins(filter: (EntityJoin) -> Boolean = { true }): Map<String, EntityJoin>
+
+    /**
+     * Returns the Entity classes reachable from the root Entity through the computed joins, including the root Entity class.
+     *
+     * @return Set of Entity classes
+     */
+    fun getEntityClasses(): Set<Class<*>>
 }
\ No newline at end of file
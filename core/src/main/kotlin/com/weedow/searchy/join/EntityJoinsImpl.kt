@@ -1,5 +1,6 @@
 package com.weedow.searchy.join
 
+import com.querydsl.core.types.Predicate
 import com.weedow.searchy.query.QueryBuilder
 import com.weedow.searchy.query.querytype.*
 import com.weedow.searchy.utils.FIELD_PATH_SEPARATOR
@@ -7,13 +8,26 @@ import com.weedow.searchy.utils.klogger
 
 /**
  * Default [EntityJoins] implementation.
+ *
+ * The predicates on the fields of a to-many join using the [JoinStrategy.EXISTS] strategy are created with [QueryBuilder.exists]:
+ * the to-many join is not joined to the query.
+ *
+ * @param rootClass root Entity class
+ * @param defaultStrategy [JoinStrategy] of the fields without [EntityJoin]. Default is [JoinInfo.DEFAULT_STRATEGY]
  */
-class EntityJoinsImpl(private val rootClass: Class<*>) : EntityJoins {
+class EntityJoinsImpl(
+    private val rootClass: Class<*>,
+    private val defaultStrategy: JoinStrategy = JoinInfo.DEFAULT_STRATEGY
+) : EntityJoins {
 
     private val joins = mutableMapOf<String, EntityJoin>()
 
+    private val entityClasses = mutableSetOf<Class<*>>(rootClass)
+
     companion object {
         private val log by klogger()
+
+        private val TO_MANY_ELEMENT_TYPES = listOf(ElementType.SET, ElementType.LIST, ElementType.COLLECTION, ElementType.MAP)
     }
 
     init {
@@ -56,6 +70,13 @@ class EntityJoinsImpl(private val rootClass: Class<*>) : EntityJoins {
         joins[entityJoin.joinName] = entityJoin
     }
 
+    /**
+     * Add the class of a joined Entity.
+     */
+    fun addEntityClass(entityClass: Class<*>) {
+        entityClasses.add(entityClass)
+    }
+
     override fun <T> getQPath(fieldPath: String, qEntityRoot: QEntityRoot<T>, queryBuilder: QueryBuilder<T>): QPath<*> {
         val parts = fieldPath.split(FIELD_PATH_SEPARATOR)
         val fieldName = parts[parts.size - 1]
@@ -64,10 +85,7 @@ class EntityJoinsImpl(private val rootClass: Class<*>) : EntityJoins {
         var join: QEntity<*> = qEntityRoot
         for (parent in parents) {
             val qPath = join.get(parent)
-            val qName = qPath.propertyInfos.qName
-            val entityJoin = joins.getOrElse(qName) {
-                EntityJoin(qPath.path.toString(), qName)
-            }
+            val entityJoin = getEntityJoin(qPath)
             join = queryBuilder.join(qPath, entityJoin.joinType, entityJoin.fetched)
         }
 
@@ -80,8 +98,63 @@ class EntityJoinsImpl(private val rootClass: Class<*>) : EntityJoins {
         return qPath
     }
 
+    override fun <T> getPredicate(
+        fieldPath: String,
+        qEntityRoot: QEntityRoot<T>,
+        queryBuilder: QueryBuilder<T>,
+        predicate: (QueryBuilder<*>, QPath<*>) -> Predicate
+    ): Predicate {
+        return getPredicate(fieldPath.split(FIELD_PATH_SEPARATOR), qEntityRoot, queryBuilder, predicate)
+    }
+
+    private fun getPredicate(
+        parts: List<String>,
+        qEntity: QEntity<*>,
+        queryBuilder: QueryBuilder<*>,
+        predicate: (QueryBuilder<*>, QPath<*>) -> Predicate
+    ): Predicate {
+        val fieldName = parts[parts.size - 1]
+        val parents = parts.subList(0, parts.size - 1)
+
+        var join: QEntity<*> = qEntity
+        for ((index, parent) in parents.withIndex()) {
+            val qPath = join.get(parent)
+            val entityJoin = getEntityJoin(qPath)
+            if (isExistsStrategy(qPath, entityJoin)) {
+                // The next fields are relative to the element of the to-many join, which is tested by a subquery
+                val elementParts = parts.subList(index + 1, parts.size)
+                return queryBuilder.exists(qPath) { subQueryBuilder, element -> getPredicate(elementParts, element, subQueryBuilder, predicate) }
+            }
+            join = queryBuilder.join(qPath, entityJoin.joinType, entityJoin.fetched)
+        }
+
+        val qPath = join.get(fieldName)
+        val qName = qPath.propertyInfos.qName
+        val entityJoin = joins[qName]
+        // The predicate on a to-many join itself (member of, is empty) does not need to join it
+        if (entityJoin != null && !isExistsStrategy(qPath, entityJoin)) {
+            queryBuilder.join(qPath, entityJoin.joinType, entityJoin.fetched)
+        }
+        return predicate(queryBuilder, qPath)
+    }
+
+    private fun getEntityJoin(qPath: QPath<*>): EntityJoin {
+        val qName = qPath.propertyInfos.qName
+        return joins.getOrElse(qName) {
+            EntityJoin(qPath.path.toString(), qName, strategy = defaultStrategy)
+        }
+    }
+
+    private fun isExistsStrategy(qPath: QPath<*>, entityJoin: EntityJoin): Boolean {
+        return entityJoin.strategy == JoinStrategy.EXISTS && qPath.propertyInfos.elementType in TO_MANY_ELEMENT_TYPES
+    }
+
     override fun getJoins(filter: (EntityJoin) -> Boolean): Map<String, EntityJoin> {
         return joins.filter { filter(it.value) }
     }
 
-}
\ No newline at end of file
+    override fun getEntityClasses(): Set<Class<*>> {
+        return entityClasses
+    }
+
+}
@@ -9,10 +9,12 @@ import com.weedow.searchy.join.JoinInfo.Companion.DEFAULT_JOIN_TYPE
  *
  * @param joinType [JoinType] object. Default is [DEFAULT_JOIN_TYPE]
  * @param fetched [Boolean] object. Default is [DEFAULT_FETCH_MODE]
+ * @param strategy [JoinStrategy] used to search by the fields of a to-many join. Default is `null`: the [JoinStrategy] of the Search Descriptor is used
  */
-data class JoinInfo(
+data class JoinInfo @JvmOverloads constructor(
     val joinType: JoinType = DEFAULT_JOIN_TYPE,
-    val fetched: Boolean = DEFAULT_FETCH_MODE
+    val fetched: Boolean = DEFAULT_FETCH_MODE,
+    val strategy: JoinStrategy? = null
 ) {
 
     companion object {
@@ -20,6 +22,9 @@ data class JoinInfo(
         val DEFAULT_JOIN_TYPE = JoinType.LEFTJOIN
 
         const val DEFAULT_FETCH_MODE = false
+
+        @JvmField
+        val DEFAULT_STRATEGY = JoinStrategy.JOIN
     }
 
 }
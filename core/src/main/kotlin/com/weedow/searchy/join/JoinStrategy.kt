@@ -0,0 +1,25 @@
+package com.weedow.searchy.join
+
+/**
+ * Strategy used to search the Entities by the fields of a to-many join (collection or map).
+ */
+enum class JoinStrategy {
+
+    /**
+     * The to-many join is joined to the query.
+     *
+     * An Entity is returned once per matching element, so the query eliminates the duplicate results with `DISTINCT`.
+     */
+    JOIN,
+
+    /**
+     * The predicates on the fields of the to-many join are tested by a correlated `EXISTS` subquery with JPA,
+     * or by an `$elemMatch` with MongoDB.
+     *
+     * The query does not multiply the Entities, so it does not need `DISTINCT`.
+     * Each criterion is tested independently: `vehicles.brand=Renault&vehicles.model=Clio` returns the Entities having a vehicle of brand `Renault`
+     * and a vehicle of model `Clio`, which may be two different vehicles.
+     */
+    EXISTS
+
+}
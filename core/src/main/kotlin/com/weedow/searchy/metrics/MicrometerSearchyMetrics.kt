@@ -0,0 +1,110 @@
+package com.weedow.searchy.metrics
+
+import com.weedow.searchy.cache.SearchResultCache
+import com.weedow.searchy.expression.parser.ExpressionParserCachingDecorator
+import io.micrometer.core.instrument.DistributionSummary
+import io.micrometer.core.instrument.FunctionCounter
+import io.micrometer.core.instrument.MeterRegistry
+import io.micrometer.core.instrument.Timer
+
+/**
+ * [SearchyMetrics] implementation which records the metrics with Micrometer.
+ *
+ * Here are the recorded meters:
+ *   - `searchy.search.stage`: [Timer] of each step of a search, tagged by `descriptor`, `stage` and `exception`
+ *   - `searchy.search.results`: [DistributionSummary] of the number of results returned by a search, tagged by `descriptor`
+ *   - `searchy.query.parse`: [Timer] of the parsing of the `query` parameter, tagged by `entity` and `exception`
+ *   - `searchy.query.cache`: [FunctionCounter] of the requests to the cache of parsed queries, tagged by `result` (`hit` or `miss`)
+ *   - `searchy.result.cache`: [FunctionCounter] of the requests to the cache of search results, tagged by `result` (`hit` or `miss`)
+ *
+ * @param meterRegistry [MeterRegistry] where to register the meters
+ */
+class MicrometerSearchyMetrics(
+    private val meterRegistry: MeterRegistry
+) : SearchyMetrics {
+
+    companion object {
+        /** Name of the [Timer] of each step of a search */
+        const val STAGE_TIMER = "searchy.search.stage"
+
+        /** Name of the [DistributionSummary] of the number of results */
+        const val RESULTS_SUMMARY = "searchy.search.results"
+
+        /** Name of the [Timer] of the parsing of the queries */
+        const val PARSE_TIMER = "searchy.query.parse"
+
+        /** Name of the [FunctionCounter] of the requests to the cache of parsed queries */
+        const val QUERY_CACHE_COUNTER = "searchy.query.cache"
+
+        /** Name of the [FunctionCounter] of the requests to the cache of search results */
+        const val RESULT_CACHE_COUNTER = "searchy.result.cache"
+
+        private const val NO_EXCEPTION = "none"
+    }
+
+    override fun <R> record(searchyDescriptorId: String, stage: SearchyStage, action: () -> R): R {
+        return time(action) { exception ->
+            Timer.builder(STAGE_TIMER)
+                .description("Duration of the steps of the searches")
+                .tag("descriptor", searchyDescriptorId)
+                .tag("stage", stage.tagValue)
+                .tag("exception", exception)
+                .register(meterRegistry)
+        }
+    }
+
+    override fun <R> recordParsing(rootClass: Class<*>, action: () -> R): R {
+        return time(action) { exception ->
+            Timer.builder(PARSE_TIMER)
+                .description("Duration of the parsing of the queries")
+                .tag("entity", rootClass.simpleName)
+                .tag("exception", exception)
+                .register(meterRegistry)
+        }
+    }
+
+    override fun recordResultSize(searchyDescriptorId: String, size: Int) {
+        DistributionSummary.builder(RESULTS_SUMMARY)
+            .description("Number of results returned by the searches")
+            .baseUnit("results")
+            .tag("descriptor", searchyDescriptorId)
+            .register(meterRegistry)
+            .record(size.toDouble())
+    }
+
+    override fun monitorQueryCache(queryCache: ExpressionParserCachingDecorator) {
+        FunctionCounter.builder(QUERY_CACHE_COUNTER, queryCache) { it.hitCount.toDouble() }
+            .description("Number of requests to the cache of parsed queries")
+            .tag("result", "hit")
+            .register(meterRegistry)
+        FunctionCounter.builder(QUERY_CACHE_COUNTER, queryCache) { it.missCount.toDouble() }
+            .description("Number of requests to the cache of parsed queries")
+            .tag("result", "miss")
+            .register(meterRegistry)
+    }
+
+    override fun monitorResultCache(resultCache: SearchResultCache) {
+        FunctionCounter.builder(RESULT_CACHE_COUNTER, resultCache) { it.hitCount.toDouble() }
+            .description("Number of requests to the cache of search results")
+            .tag("result", "hit")
+            .register(meterRegistry)
+        FunctionCounter.builder(RESULT_CACHE_COUNTER, resultCache) { it.missCount.toDouble() }
+            .description("Number of requests to the cache of search results")
+            .tag("result", "miss")
+            .register(meterRegistry)
+    }
+
+    private fun <R> time(action: () -> R, timer: (exception: String) -> Timer): R {
+        val sample = Timer.start(meterRegistry)
+        var exception = NO_EXCEPTION
+        try {
+            return action()
+        } catch (e: Exception) {
+            exception = e::class.java.simpleName
+            throw e
+        } finally {
+            sample.stop(timer(exception))
+        }
+    }
+
+}
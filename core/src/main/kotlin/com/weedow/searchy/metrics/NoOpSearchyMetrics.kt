@@ -0,0 +1,29 @@
+package com.weedow.searchy.metrics
+
+import com.weedow.searchy.cache.SearchResultCache
+import com.weedow.searchy.expression.parser.ExpressionParserCachingDecorator
+
+/**
+ * [SearchyMetrics] implementation which records nothing.
+ *
+ * Used when no metrics registry is available.
+ */
+class NoOpSearchyMetrics : SearchyMetrics {
+
+    override fun <R> record(searchyDescriptorId: String, stage: SearchyStage, action: () -> R): R = action()
+
+    override fun <R> recordParsing(rootClass: Class<*>, action: () -> R): R = action()
+
+    override fun recordResultSize(searchyDescriptorId: String, size: Int) {
+        // Nothing to record
+    }
+
+    override fun monitorQueryCache(queryCache: ExpressionParserCachingDecorator) {
+        // Nothing to record
+    }
+
+    override fun monitorResultCache(resultCache: SearchResultCache) {
+        // Nothing to record
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.weedow.searchy.metrics
+
+import com.weedow.searchy.cache.SearchResultCache
+import com.weedow.searchy.expression.parser.ExpressionParserCachingDecorator
+
+/**
+ * Interface to record the metrics of the searches.
+ *
+ * The metrics are tagged by Search Descriptor ID, so that the slow steps can be found for each Search Descriptor.
+ */
+interface SearchyMetrics {
+
+    /**
+     * Executes the given action and records its duration as the given [step][SearchyStage] of a search.
+     *
+     * @param searchyDescriptorId Search Descriptor ID
+     * @param stage [SearchyStage] representing the step of the search
+     * @param action the step of the search to be executed
+     * @return the result of the action
+     */
+    fun <R> record(searchyDescriptorId: String, stage: SearchyStage, action: () -> R): R
+
+    /**
+     * Executes the given action and records its duration as the parsing of a query.
+     *
+     * The Search Descriptor is not known when the query is parsed, so the duration is recorded for the root class of the query.
+     *
+     * @param rootClass Root entity class of the query
+     * @param action the parsing to be executed
+     * @return the result of the action
+     */
+    fun <R> recordParsing(rootClass: Class<*>, action: () -> R): R
+
+    /**
+     * Records the number of results returned by a search.
+     *
+     * @param searchyDescriptorId Search Descriptor ID
+     * @param size number of results
+     */
+    fun recordResultSize(searchyDescriptorId: String, size: Int)
+
+    /**
+     * Records the hits and misses of the given cache of parsed queries.
+     *
+     * @param queryCache [ExpressionParserCachingDecorator]
+     */
+    fun monitorQueryCache(queryCache: ExpressionParserCachingDecorator)
+
+    /**
+     * Records the hits and misses of the given cache of search results.
+     *
+     * @param resultCache [SearchResultCache]
+     */
+    fun monitorResultCache(resultCache: SearchResultCache)
+
+}
@@ -0,0 +1,34 @@
+package com.weedow.searchy.metrics
+
+/**
+ * Steps of a search, measured by [SearchyMetrics].
+ *
+ * @param tagValue Value of the tag identifying the step
+ */
+enum class SearchyStage(val tagValue: String) {
+
+    /** Mapping of the request parameters to [Expressions][com.weedow.searchy.expression.Expression], including the parsing of the `query` parameter */
+    MAPPING("mapping"),
+
+    /** Validation of the [Expressions][com.weedow.searchy.expression.Expression] */
+    VALIDATION("validation"),
+
+    /** Creation of the [Specification][com.weedow.searchy.query.specification.Specification] */
+    SPECIFICATION("specification"),
+
+    /** Execution of the query returning the entities */
+    QUERY("query"),
+
+    /** Execution of the query counting the entities */
+    COUNT("count"),
+
+    /** Execution of the query checking whether an entity exists */
+    EXISTS("exists"),
+
+    /** Execution of the queries computing the facets */
+    FACETS("facets"),
+
+    /** Conversion of the entities to DTOs */
+    CONVERSION("conversion")
+
+}
@@ -2,10 +2,14 @@ package com.weedow.searchy.query
 
 import com.querydsl.core.JoinType
 import com.querydsl.core.types.Expression
+import com.querydsl.core.types.Order
 import com.querydsl.core.types.Predicate
+import com.weedow.searchy.join.JoinInfo
+import com.weedow.searchy.query.querytype.QEntity
 import com.weedow.searchy.query.querytype.QEntityJoin
 import com.weedow.searchy.query.querytype.QEntityRoot
 import com.weedow.searchy.query.querytype.QPath
+import com.weedow.searchy.utils.PatternUtils
 
 /**
  * Interface to construct criteria queries, compound selections, expressions, predicates, orderings, joins.
@@ -19,6 +23,14 @@ interface QueryBuilder<T> {
      */
     val qEntityRoot: QEntityRoot<T>
 
+    /**
+     * Whether the joins requested as fetched load the associations with the query results. Default is `true`.
+     *
+     * When `false` (eg. to count the results), the fetched left joins are not added to the query: they don't filter the results.
+     */
+    val fetchJoins: Boolean
+        get() = true
+
     /**
      * Specify whether duplicate query results will be eliminated.
      */
@@ -27,6 +39,8 @@ interface QueryBuilder<T> {
     /**
      * Create a join or a fetch join to the specified [QPath] using the given [join type][JoinType].
      *
+     * When the join multiplies the query results (to-many join), the implementation eliminates the duplicate results.
+     *
      * @param qPath target of the join
      * @param joinType join type
      * @param fetched whether the join is fetched
@@ -34,6 +48,44 @@ interface QueryBuilder<T> {
      */
     fun join(qPath: QPath<*>, joinType: JoinType, fetched: Boolean): QEntityJoin<*>
 
+    /**
+     * Request the association at the specified field path to be loaded with the query results, by a secondary query executed after the query.
+     *
+     * By default, the association is not loaded by the query: it's loaded when it's accessed.
+     *
+     * @param fieldPath path of the association. The nested field path contains dots to separate the parents fields (eg. vehicles.features)
+     */
+    fun batchFetch(fieldPath: String) {
+        // Nothing to do by default
+    }
+
+    /**
+     * Create a predicate for testing whether at least one element of the specified to-many [QPath] satisfies the predicate created by the given function.
+     *
+     * The function receives the [QueryBuilder] to be used to create the predicate, and the [QEntity] representing the element.
+     *
+     * By default, the element is joined to the query, and the duplicate query results are eliminated.
+     *
+     * @param qPath to-many [QPath] (collection or map)
+     * @param predicate function creating the predicate on the element
+     * @return exists predicate
+     */
+    fun exists(qPath: QPath<*>, predicate: (QueryBuilder<*>, QEntity<*>) -> Predicate): Predicate {
+        distinct()
+        return predicate(this, join(qPath, JoinInfo.DEFAULT_JOIN_TYPE, false))
+    }
+
+    /**
+     * Add an ordering of the query results by the given expression.
+     *
+     * The orderings are applied in the order they are added.
+     * The `null` values are the lowest values: they are sorted first in ascending order, and last in descending order.
+     *
+     * @param x Expression used to sort the results
+     * @param order sort order
+     */
+    fun orderBy(x: Expression<*>, order: Order)
+
     /**
      * Create a conjunction of the given boolean expressions.
      *
@@ -115,6 +167,35 @@ interface QueryBuilder<T> {
      */
     fun ilike(x: Expression<String>, value: String): Predicate
 
+    /**
+     * Create a predicate for testing whether the expression starts with the given prefix.
+     *
+     * By default, the [like] predicate with a trailing wildcard: the Databases search such a pattern by the index of the expression when its collation allows it.
+     * The pattern is not bounded by a range of values, since the order of the characters depends on the collation.
+     *
+     * @param x Expression to check
+     * @param prefix prefix - string without wildcard
+     * @return starts-with predicate
+     */
+    fun startsWith(x: Expression<String>, prefix: String): Predicate {
+        return like(x, prefix + PatternUtils.WILDCARD)
+    }
+
+    /**
+     * Create a predicate for testing whether the expression satisfies the given pattern, ignoring case,
+     * where the expression is stored with a case-insensitive collation.
+     *
+     * By default, the expression is compared as is with [like] or [startsWith]: it is not converted to lower case, so that its index can be used.
+     *
+     * @param x Expression to check
+     * @param value pattern - string
+     * @return ilike predicate
+     */
+    fun ilikeWithCollation(x: Expression<String>, value: String): Predicate {
+        val prefix = PatternUtils.getPrefix(value)
+        return if (prefix != null) startsWith(x, prefix) else like(x, value)
+    }
+
     /**
      * Create a predicate for testing whether the first argument is less than the second.
      *
@@ -160,4 +241,18 @@ interface QueryBuilder<T> {
      */
     fun `in`(x: Expression<*>, values: Collection<*>): Predicate
 
+    /**
+     * Create a predicate for testing whether the first argument is between the given values, inclusive.
+     *
+     * By default, the predicate is the conjunction of [greaterThanOrEquals] and [lessThanOrEquals].
+     *
+     * @param x Expression to check
+     * @param lowValue Lower bound
+     * @param highValue Upper bound
+     * @return between predicate
+     */
+    fun between(x: Expression<*>, lowValue: Any, highValue: Any): Predicate {
+        return and(greaterThanOrEquals(x, lowValue), lessThanOrEquals(x, highValue))
+    }
+
 }
\ No newline at end of file
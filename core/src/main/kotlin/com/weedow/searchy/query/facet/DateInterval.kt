@@ -0,0 +1,64 @@
+package com.weedow.searchy.query.facet
+
+import java.time.ZoneOffset
+import java.time.format.DateTimeFormatter
+import java.time.temporal.TemporalAccessor
+import java.util.*
+
+/**
+ * Intervals of the [date histograms][FacetType.DATE_HISTOGRAM].
+ *
+ * The key of each bucket is the date truncated to the interval and formatted with the [pattern].
+ *
+ * @param value Value of the interval in the `facet` request parameter
+ * @param pattern Pattern of the keys, as used by [DateTimeFormatter]
+ */
+enum class DateInterval(val value: String, val pattern: String) {
+
+    /** Buckets by year (eg. `2021`) */
+    YEAR("year", "yyyy"),
+
+    /** Buckets by month (eg. `2021-03`) */
+    MONTH("month", "yyyy-MM"),
+
+    /** Buckets by day (eg. `2021-03-14`) */
+    DAY("day", "yyyy-MM-dd");
+
+    private val formatter = DateTimeFormatter.ofPattern(pattern)
+
+    /**
+     * Returns the key of the bucket containing the given date.
+     *
+     * @param date [TemporalAccessor] or [Date]. The [Dates][Date] are formatted in UTC
+     * @return the formatted key
+     */
+    fun format(date: Any): String {
+        val temporal = if (date is Date) date.toInstant().atOffset(ZoneOffset.UTC) else date as TemporalAccessor
+        return formatter.format(temporal)
+    }
+
+    /**
+     * Returns the key of the bucket from the given numeric key computed by the Database: `yyyy`, `yyyyMM` or `yyyyMMdd`.
+     *
+     * @param key numeric key
+     * @return the formatted key
+     */
+    fun format(key: Int): String {
+        return when (this) {
+            YEAR -> "%04d".format(key)
+            MONTH -> "%04d-%02d".format(key / 100, key % 100)
+            DAY -> "%04d-%02d-%02d".format(key / 10000, key / 100 % 100, key % 100)
+        }
+    }
+
+    companion object {
+        /**
+         * Returns the [DateInterval] with the given [value], ignoring the case.
+         *
+         * @param value Value of the interval in the `facet` request parameter
+         * @return the [DateInterval], or `null` if the value does not match any [DateInterval]
+         */
+        fun of(value: String): DateInterval? = values().firstOrNull { it.value.equals(value, ignoreCase = true) }
+    }
+
+}
@@ -0,0 +1,40 @@
+package com.weedow.searchy.query.facet
+
+/**
+ * Data Class representing a computed [facet][FacetRequest].
+ *
+ * @param name Name of the facet: the field path as requested
+ * @param type [FacetType]
+ * @param buckets Buckets of the [terms][FacetType.TERMS] and the histograms. Empty for the [statistics][FacetType.STATS]
+ * @param stats Statistics of the field. `null` for the other types
+ */
+data class Facet(
+    val name: String,
+    val type: FacetType,
+    val buckets: List<FacetBucket> = emptyList(),
+    val stats: FacetStats? = null
+)
+
+/**
+ * Data Class representing a bucket of a [Facet].
+ *
+ * @param key Value of the field, or lower bound of the interval of the histograms
+ * @param count Number of entities in the bucket
+ */
+data class FacetBucket(
+    val key: Any?,
+    val count: Long
+)
+
+/**
+ * Data Class representing the statistics of a [Facet].
+ *
+ * @param count Number of non-null values of the field
+ * @param min Minimum value of the field, or `null` if there is no value
+ * @param max Maximum value of the field, or `null` if there is no value
+ */
+data class FacetStats(
+    val count: Long,
+    val min: Any?,
+    val max: Any?
+)
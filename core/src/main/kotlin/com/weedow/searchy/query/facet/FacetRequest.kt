@@ -0,0 +1,79 @@
+package com.weedow.searchy.query.facet
+
+import com.weedow.searchy.utils.EntityUtils
+import java.math.BigDecimal
+import kotlin.math.floor
+
+/**
+ * Value object representing a [Facet] to be computed for the entities matching a search.
+ *
+ * @param name Name of the facet: the field path as requested, possibly an alias
+ * @param fieldPath Path of the field. The nested field path contains dots to separate the parents fields (eg. vehicle.brand)
+ * @param type [FacetType]. Default is [FacetType.TERMS]
+ * @param interval Interval of the [numeric histogram][FacetType.HISTOGRAM]. `null` for the other types
+ * @param dateInterval Interval of the [date histogram][FacetType.DATE_HISTOGRAM]. `null` for the other types
+ */
+data class FacetRequest(
+    val name: String,
+    val fieldPath: String,
+    val type: FacetType = FacetType.TERMS,
+    val interval: BigDecimal? = null,
+    val dateInterval: DateInterval? = null
+) {
+
+    init {
+        require(type != FacetType.HISTOGRAM || (interval != null && interval.signum() > 0)) { "The histogram of '$name' requires a positive interval" }
+        require(type != FacetType.DATE_HISTOGRAM || dateInterval != null) { "The date histogram of '$name' requires a date interval" }
+    }
+
+    /**
+     * Computes the [Facet] by reading the values of the field in the given entities.
+     *
+     * Used when the facet cannot be computed by the Database.
+     *
+     * @param entities entities matching the search
+     * @param maxBuckets maximum number of buckets to be returned
+     * @return the computed [Facet]
+     */
+    fun compute(entities: List<*>, maxBuckets: Int): Facet {
+        val valuesByEntity = entities.map { entity -> flatten(EntityUtils.getFieldValue(entity, fieldPath)) }
+
+        if (type == FacetType.STATS) {
+            val values = valuesByEntity.flatten()
+            return Facet(name, type, stats = FacetStats(values.size.toLong(), values.minWithOrNull(NATURAL_ORDER), values.maxWithOrNull(NATURAL_ORDER)))
+        }
+
+        // Each entity is counted once per bucket, even if several values of a collection fall into the same bucket
+        val counts = LinkedHashMap<Any, Long>()
+        valuesByEntity.forEach { values -> values.map { toBucketKey(it) }.distinct().forEach { counts.merge(it, 1L, Long::plus) } }
+
+        val buckets = counts.map { FacetBucket(it.key, it.value) }
+        val sortedBuckets = if (type == FacetType.TERMS) buckets.sortedByDescending { it.count } else buckets.sortedWith(compareBy(NATURAL_ORDER) { it.key })
+        return Facet(name, type, sortedBuckets.take(maxBuckets))
+    }
+
+    private fun toBucketKey(value: Any): Any {
+        return when (type) {
+            FacetType.HISTOGRAM -> {
+                val step = interval!!.toDouble()
+                floor((value as Number).toDouble() / step) * step
+            }
+            FacetType.DATE_HISTOGRAM -> dateInterval!!.format(value)
+            else -> value
+        }
+    }
+
+    private fun flatten(value: Any?): List<Any> {
+        return when (value) {
+            null -> emptyList()
+            is Collection<*> -> value.flatMap { flatten(it) }
+            else -> listOf(value)
+        }
+    }
+
+    companion object {
+        @Suppress("UNCHECKED_CAST")
+        private val NATURAL_ORDER = Comparator<Any?> { a, b -> (a as Comparable<Any>).compareTo(b as Any) }
+    }
+
+}
@@ -0,0 +1,20 @@
+package com.weedow.searchy.query.facet
+
+/**
+ * Types of [Facets][Facet].
+ */
+enum class FacetType {
+
+    /** Number of entities for each distinct value of the field, sorted by descending number of entities */
+    TERMS,
+
+    /** Number of entities for each interval of the numeric values of the field, sorted by interval */
+    HISTOGRAM,
+
+    /** Number of entities for each [DateInterval] of the date values of the field, sorted by interval */
+    DATE_HISTOGRAM,
+
+    /** Minimum value, maximum value and number of values of the field */
+    STATS
+
+}
@@ -0,0 +1,25 @@
+package com.weedow.searchy.query.pagination
+
+import com.weedow.searchy.descriptor.SearchyDescriptor
+
+/**
+ * Data Class representing the position after which the next results are fetched with the keyset pagination.
+ *
+ * It contains the values of the keyset of the last fetched result, in their String representation:
+ * the values of the sorted fields, in the sort order, followed by the identifier. A sorted field without value is represented by `null`.
+ *
+ * @param values the values of the keyset of the last fetched result
+ * @param searchyDescriptorId the Id of the [SearchyDescriptor] whose results are paginated, so that the cursor is not used for another search.
+ * `null` if the cursor is not bound to a [SearchyDescriptor]
+ */
+data class Cursor(
+    val values: List<String?>,
+    val searchyDescriptorId: String? = null
+) {
+
+    companion object {
+        /** Name of the request parameter representing the cursor */
+        const val CURSOR_PARAMETER = "cursor"
+    }
+
+}
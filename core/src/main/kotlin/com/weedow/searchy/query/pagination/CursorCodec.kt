@@ -0,0 +1,28 @@
+package com.weedow.searchy.query.pagination
+
+import com.weedow.searchy.exception.InvalidCursorException
+
+/**
+ * Interface to convert a [Cursor] to an opaque token sent to the client, and vice versa.
+ */
+interface CursorCodec {
+
+    /**
+     * Encodes the given [Cursor] to an opaque token.
+     *
+     * @param cursor [Cursor] to encode
+     * @return the opaque token
+     */
+    fun encode(cursor: Cursor): String
+
+    /**
+     * Decodes the given opaque token to a [Cursor].
+     *
+     * @param token opaque token to decode
+     * @return the decoded [Cursor]
+     * @throws InvalidCursorException if the token is malformed or has been tampered with
+     */
+    @Throws(InvalidCursorException::class)
+    fun decode(token: String): Cursor
+
+}
@@ -0,0 +1,14 @@
+package com.weedow.searchy.query.pagination
+
+/**
+ * Data Class representing a page of results fetched with the keyset pagination, as returned to the client.
+ *
+ * @param content the results of the current page
+ * @param size the requested page size
+ * @param nextCursor the opaque token to be sent to fetch the next page, or `null` if there are no more results
+ */
+data class CursorPage<T>(
+    val content: List<T>,
+    val size: Int,
+    val nextCursor: String?
+)
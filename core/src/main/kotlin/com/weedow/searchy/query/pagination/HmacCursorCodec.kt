@@ -0,0 +1,76 @@
+package com.weedow.searchy.query.pagination
+
+import com.weedow.searchy.exception.InvalidCursorException
+import java.nio.charset.StandardCharsets
+import java.security.MessageDigest
+import java.security.SecureRandom
+import java.util.*
+import javax.crypto.Mac
+import javax.crypto.spec.SecretKeySpec
+
+/**
+ * [CursorCodec] implementation that signs the tokens with HMAC-SHA256, so that the clients cannot forge a [Cursor].
+ *
+ * The token has the following format: `<searchyDescriptorId>~<value1>~<value2>~...~<valueN>.<signature>`, where each part is encoded in Base64 URL-safe without padding.
+ * A `null` part is represented by `*`, which does not belong to the Base64 URL-safe alphabet.
+ *
+ * @param secret the secret used to sign the tokens. If `null`, a random secret is generated: in this case, the tokens are only valid for the current instance.
+ */
+class HmacCursorCodec(secret: String? = null) : CursorCodec {
+
+    companion object {
+        private const val ALGORITHM = "HmacSHA256"
+        private const val VALUE_SEPARATOR = "~"
+        private const val SIGNATURE_SEPARATOR = "."
+        private const val NULL_VALUE = "*"
+
+        private val ENCODER = Base64.getUrlEncoder().withoutPadding()
+        private val DECODER = Base64.getUrlDecoder()
+
+        private fun randomSecret(): ByteArray {
+            val secret = ByteArray(32)
+            SecureRandom().nextBytes(secret)
+            return secret
+        }
+    }
+
+    private val key = SecretKeySpec(secret?.toByteArray(StandardCharsets.UTF_8) ?: randomSecret(), ALGORITHM)
+
+    override fun encode(cursor: Cursor): String {
+        val payload = (listOf(cursor.searchyDescriptorId) + cursor.values).joinToString(VALUE_SEPARATOR) { encodePart(it) }
+        return payload + SIGNATURE_SEPARATOR + ENCODER.encodeToString(sign(payload))
+    }
+
+    override fun decode(token: String): Cursor {
+        val payload = token.substringBeforeLast(SIGNATURE_SEPARATOR, "")
+        val signature = token.substringAfterLast(SIGNATURE_SEPARATOR, "")
+        if (payload.isEmpty() || signature.isEmpty()) {
+            throw InvalidCursorException(token)
+        }
+
+        try {
+            if (!MessageDigest.isEqual(sign(payload), DECODER.decode(signature))) {
+                throw InvalidCursorException(token)
+            }
+            val parts = payload.split(VALUE_SEPARATOR).map { decodePart(it) }
+            return Cursor(parts.drop(1), parts.first())
+        } catch (e: IllegalArgumentException) {
+            throw InvalidCursorException(token)
+        }
+    }
+
+    private fun encodePart(part: String?): String {
+        return if (part == null) NULL_VALUE else ENCODER.encodeToString(part.toByteArray(StandardCharsets.UTF_8))
+    }
+
+    private fun decodePart(part: String): String? {
+        return if (part == NULL_VALUE) null else String(DECODER.decode(part), StandardCharsets.UTF_8)
+    }
+
+    private fun sign(payload: String): ByteArray {
+        val mac = Mac.getInstance(ALGORITHM)
+        mac.init(key)
+        return mac.doFinal(payload.toByteArray(StandardCharsets.UTF_8))
+    }
+
+}
@@ -0,0 +1,140 @@
+package com.weedow.searchy.query.pagination
+
+import com.querydsl.core.types.Expression
+import com.querydsl.core.types.Order
+import com.querydsl.core.types.OrderSpecifier
+import com.querydsl.core.types.Predicate
+import com.weedow.searchy.exception.InvalidCursorException
+import com.weedow.searchy.exception.ValidationException
+import com.weedow.searchy.query.QueryBuilder
+import com.weedow.searchy.query.specification.Specification
+import com.weedow.searchy.validation.SearchyError
+import org.springframework.core.convert.ConversionException
+import org.springframework.core.convert.ConversionService
+import org.springframework.core.convert.support.DefaultConversionService
+import org.springframework.data.convert.Jsr310Converters
+
+/**
+ * [Specification] to fetch the results located after a keyset.
+ *
+ * The resulting predicate is equivalent to `(key1, key2, ...) > (value1, value2, ...)`, written in a portable way:
+ * `key1 > value1 OR (key1 = value1 AND key2 > value2) OR ...`
+ *
+ * The comparison is reversed for the keys sorted in [descending order][Order.DESC].
+ * The `null` values are considered lower than any other value: they are sorted first in ascending order, and last in descending order.
+ *
+ * @param keys the [Key]s of the keyset, in the sort order
+ */
+class KeysetSpecification<T>(
+    private val keys: List<Key>
+) : Specification<T> {
+
+    companion object {
+        /** [ConversionService] converting the values of the keyset to String and vice versa, including the dates of the `java.time` API */
+        private val CONVERSION_SERVICE: ConversionService = DefaultConversionService().apply {
+            Jsr310Converters.getConvertersToRegister().forEach { addConverter(it) }
+        }
+
+        /**
+         * Creates the [Key]s of the keyset sorted by the given [OrderSpecifier]s, from the values of the given [Cursor].
+         *
+         * @param orders [OrderSpecifier]s of the keyset
+         * @param cursor [Cursor] containing the values of the keyset, in the same order
+         * @return the [Key]s of the keyset
+         * @throws InvalidCursorException if the values of the [Cursor] do not match the sorted fields
+         */
+        @Throws(InvalidCursorException::class)
+        fun keys(orders: List<OrderSpecifier<*>>, cursor: Cursor): List<Key> {
+            if (cursor.values.size != orders.size) {
+                throw InvalidCursorException(cursor.values.toString())
+            }
+
+            return orders.mapIndexed { index, order ->
+                val value = cursor.values[index]?.let { convert(it, order.target.type, cursor) }
+                Key(order.target, value, order.order)
+            }
+        }
+
+        private fun convert(value: String, type: Class<*>, cursor: Cursor): Any {
+            val convertedValue = try {
+                CONVERSION_SERVICE.convert(value, type)
+            } catch (e: ConversionException) {
+                null
+            }
+            return convertedValue ?: throw InvalidCursorException(cursor.values.toString())
+        }
+
+        /**
+         * Creates the [Cursor] representing the given values of the keyset.
+         *
+         * @param values values of the keyset of the last fetched result
+         * @return the [Cursor]
+         */
+        fun cursor(values: List<Any?>): Cursor {
+            return Cursor(values.map { value -> value?.let { CONVERSION_SERVICE.convert(it, String::class.java) } })
+        }
+
+        /**
+         * Returns the [ValidationException] thrown when the results are paginated with a cursor and sorted by a field of a to-many association:
+         * such a field has several values for a single result, so the result has no position in the keyset.
+         */
+        fun toManySortException(): ValidationException {
+            return ValidationException(
+                listOf(SearchyError("invalid-sort", "The parameter ''{0}'' cannot be used with a sort on a field of a to-many association.", arrayOf(Cursor.CURSOR_PARAMETER)))
+            )
+        }
+
+        /**
+         * Returns the [ValidationException] thrown when the results are paginated with a cursor but the entities have no keyset,
+         * or their Database does not support the keyset pagination.
+         */
+        fun unsupportedCursorException(): ValidationException {
+            return ValidationException(
+                listOf(SearchyError("invalid-pagination", "The parameter ''{0}'' is not supported by this search.", arrayOf(Cursor.CURSOR_PARAMETER)))
+            )
+        }
+    }
+
+    init {
+        require(keys.isNotEmpty()) { "The keyset must contain at least one key" }
+    }
+
+    override fun toPredicate(queryBuilder: QueryBuilder<T>): Predicate {
+        val predicates = keys.indices.mapNotNull { index ->
+            val previousKeysEqual = keys.subList(0, index).map { key -> equal(queryBuilder, key) }
+            after(queryBuilder, keys[index])?.let { queryBuilder.and(*(previousKeysEqual + it).toTypedArray()) }
+        }
+        return queryBuilder.or(*predicates.toTypedArray())
+    }
+
+    private fun equal(queryBuilder: QueryBuilder<T>, key: Key): Predicate {
+        val value = key.value
+        return if (value == null) queryBuilder.isNull(key.path) else queryBuilder.equal(key.path, value)
+    }
+
+    /**
+     * Returns the predicate of the values located after the value of the given [Key], or `null` if there is no such value.
+     */
+    private fun after(queryBuilder: QueryBuilder<T>, key: Key): Predicate? {
+        val value = key.value
+        return when {
+            value == null -> if (key.order == Order.DESC) null else queryBuilder.not(queryBuilder.isNull(key.path))
+            key.order == Order.DESC -> queryBuilder.or(queryBuilder.lessThan(key.path, value), queryBuilder.isNull(key.path))
+            else -> queryBuilder.greaterThan(key.path, value)
+        }
+    }
+
+    /**
+     * Data Class representing a key of the keyset.
+     *
+     * @param path [Expression] of the sorted field
+     * @param value value of the field for the last fetched result, or `null` if the field has no value
+     * @param order sort order of the field. Default is [Order.ASC]
+     */
+    data class Key(
+        val path: Expression<*>,
+        val value: Any?,
+        val order: Order = Order.ASC
+    )
+
+}
@@ -0,0 +1,24 @@
+package com.weedow.searchy.query.pagination
+
+/**
+ * Data Class representing a page of results.
+ *
+ * @param content the results of the current page
+ * @param page zero-based page index
+ * @param size the requested page size
+ * @param totalElements the total number of results, or `null` if the total has not been counted
+ */
+data class Page<T>(
+    val content: List<T>,
+    val page: Int,
+    val size: Int,
+    val totalElements: Long?
+) {
+
+    /**
+     * The total number of pages, or `null` if the [total number of results][totalElements] has not been counted.
+     */
+    val totalPages: Int?
+        get() = totalElements?.let { ((it + size - 1) / size).toInt() }
+
+}
@@ -0,0 +1,33 @@
+package com.weedow.searchy.query.pagination
+
+/**
+ * Data Class representing the page of results to be fetched.
+ *
+ * @param page zero-based page index. Must not be negative
+ * @param size the number of results per page. Must be greater than 0
+ */
+data class PageRequest(
+    val page: Int,
+    val size: Int
+) {
+
+    companion object {
+        /** Name of the request parameter representing the zero-based page index */
+        const val PAGE_PARAMETER = "page"
+
+        /** Name of the request parameter representing the page size */
+        const val SIZE_PARAMETER = "size"
+    }
+
+    init {
+        require(page >= 0) { "Page index must not be less than zero: $page" }
+        require(size >= 1) { "Page size must not be less than one: $size" }
+    }
+
+    /**
+     * Offset of the first result to be fetched, according to the [page] and the [size].
+     */
+    val offset: Long
+        get() = page.toLong() * size.toLong()
+
+}
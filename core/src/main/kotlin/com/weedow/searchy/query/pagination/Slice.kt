@@ -0,0 +1,12 @@
+package com.weedow.searchy.query.pagination
+
+/**
+ * Data Class representing a slice of results fetched with the keyset pagination.
+ *
+ * @param content the results of the current slice
+ * @param nextCursor the [Cursor] to fetch the next slice, or `null` if there are no more results
+ */
+data class Slice<T>(
+    val content: List<T>,
+    val nextCursor: Cursor?
+)
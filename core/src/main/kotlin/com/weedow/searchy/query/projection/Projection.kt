@@ -0,0 +1,58 @@
+package com.weedow.searchy.query.projection
+
+import com.weedow.searchy.utils.EntityUtils
+import com.weedow.searchy.utils.FIELD_PATH_SEPARATOR
+
+/**
+ * Value object representing the fields to be returned by a search, instead of the whole Entities.
+ *
+ * Each result is returned as a [Map] containing the projected fields. The nested fields are returned in nested [Maps][Map]:
+ * the field path `jobEntity.company` is returned as `{"jobEntity": {"company": "..."}}`.
+ *
+ * @param fieldPaths Paths of the fields to be returned. The nested field path contains dots to separate the parents fields (eg. vehicle.brand)
+ */
+data class Projection(
+    val fieldPaths: List<String>
+) {
+
+    init {
+        require(fieldPaths.isNotEmpty()) { "A projection must contain at least one field path" }
+    }
+
+    /**
+     * Returns a [Map] containing the given values of the projected fields.
+     *
+     * @param values values of the projected fields, in the same order as the [field paths][fieldPaths]
+     * @return [Map] with the field names as keys, and the field values or the [Maps][Map] of the nested fields as values
+     */
+    fun toMap(values: List<Any?>): Map<String, Any?> {
+        require(values.size == fieldPaths.size) { "Expected ${fieldPaths.size} values but got ${values.size}" }
+
+        val result = LinkedHashMap<String, Any?>()
+        fieldPaths.forEachIndexed { index, fieldPath -> put(result, fieldPath.split(FIELD_PATH_SEPARATOR), values[index]) }
+        return result
+    }
+
+    /**
+     * Returns a [Map] containing the values of the projected fields read from the given Entity.
+     *
+     * When a parent field is a [Collection], the values of the nested field are returned in a [List].
+     *
+     * @param entity Entity from which to read the values
+     * @return [Map] with the field names as keys, and the field values or the [Maps][Map] of the nested fields as values
+     */
+    fun toMap(entity: Any): Map<String, Any?> {
+        return toMap(fieldPaths.map { EntityUtils.getFieldValue(entity, it) })
+    }
+
+    @Suppress("UNCHECKED_CAST")
+    private fun put(result: MutableMap<String, Any?>, parts: List<String>, value: Any?) {
+        var map = result
+        for (parent in parts.subList(0, parts.size - 1)) {
+            // A parent field already projected as a whole includes the nested field
+            map = map.getOrPut(parent) { LinkedHashMap<String, Any?>() } as? MutableMap<String, Any?> ?: return
+        }
+        map[parts.last()] = value
+    }
+
+}
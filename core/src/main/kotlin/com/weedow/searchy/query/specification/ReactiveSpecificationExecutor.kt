@@ -0,0 +1,30 @@
+package com.weedow.searchy.query.specification
+
+import com.weedow.searchy.query.pagination.PageRequest
+import reactor.core.publisher.Flux
+
+/**
+ * Interface to allow the non-blocking execution of [Specification]s.
+ *
+ * The entities are emitted as soon as they are read from the Database, according to the demand of the subscriber.
+ */
+interface ReactiveSpecificationExecutor<T> {
+
+    /**
+     * Returns all entities matching the given [Specification].
+     *
+     * @param specification can be `null`
+     * @return Flux of entities. Never `null`
+     */
+    fun findAll(specification: Specification<T>?): Flux<T>
+
+    /**
+     * Returns the entities matching the given [Specification] and included in the given [page][PageRequest].
+     *
+     * @param specification can be `null`
+     * @param pageRequest [PageRequest] representing the offset and the maximum number of entities to be returned
+     * @return Flux of entities. Never `null`
+     */
+    fun findAll(specification: Specification<T>?, pageRequest: PageRequest): Flux<T>
+
+}
@@ -0,0 +1,18 @@
+package com.weedow.searchy.query.specification
+
+/**
+ * Factory interface to create new [ReactiveSpecificationExecutor] from an Entity Class.
+ *
+ * Only the Database implementations providing a non-blocking driver define a [ReactiveSpecificationExecutorFactory].
+ */
+interface ReactiveSpecificationExecutorFactory {
+
+    /**
+     * Returns a new [ReactiveSpecificationExecutor] instance from the given Entity Class.
+     *
+     * @param entityClass Entity Class used to initialize the [ReactiveSpecificationExecutor]
+     * @return [ReactiveSpecificationExecutor] instance
+     */
+    fun <T> getReactiveSpecificationExecutor(entityClass: Class<T>): ReactiveSpecificationExecutor<T>
+
+}
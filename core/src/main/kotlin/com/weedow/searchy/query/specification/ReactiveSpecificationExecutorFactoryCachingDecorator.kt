@@ -0,0 +1,25 @@
+package com.weedow.searchy.query.specification
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ConcurrentMap
+
+/**
+ * [ReactiveSpecificationExecutorFactory] implementation which wraps a given [ReactiveSpecificationExecutorFactory]
+ * and cache the result of the [getReactiveSpecificationExecutor] method.
+ *
+ * @param decoratedReactiveSpecificationExecutorFactory [ReactiveSpecificationExecutorFactory] to be wrapped
+ */
+class ReactiveSpecificationExecutorFactoryCachingDecorator(
+    private val decoratedReactiveSpecificationExecutorFactory: ReactiveSpecificationExecutorFactory
+) : ReactiveSpecificationExecutorFactory {
+
+    private val cache: ConcurrentMap<Class<*>, ReactiveSpecificationExecutor<*>> = ConcurrentHashMap()
+
+    @Suppress("UNCHECKED_CAST")
+    override fun <T> getReactiveSpecificationExecutor(entityClass: Class<T>): ReactiveSpecificationExecutor<T> {
+        return cache.getOrPut(entityClass) {
+            decoratedReactiveSpecificationExecutorFactory.getReactiveSpecificationExecutor(entityClass)
+        } as ReactiveSpecificationExecutor<T>
+    }
+
+}
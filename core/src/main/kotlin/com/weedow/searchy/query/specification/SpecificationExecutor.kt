@@ -1,5 +1,15 @@
 package com.weedow.searchy.query.specification
 
+import com.weedow.searchy.exception.ValidationException
+import com.weedow.searchy.query.facet.Facet
+import com.weedow.searchy.query.facet.FacetRequest
+import com.weedow.searchy.query.pagination.Cursor
+import com.weedow.searchy.query.pagination.KeysetSpecification
+import com.weedow.searchy.query.pagination.PageRequest
+import com.weedow.searchy.query.pagination.Slice
+import com.weedow.searchy.query.projection.Projection
+import java.util.stream.Stream
+
 /**
  * Interface to allow execution of [Specification]s.
  */
@@ -13,4 +23,127 @@ interface SpecificationExecutor<T> {
      */
     fun findAll(specification: Specification<T>?): List<T>
 
-}
\ No newline at end of file
+    /**
+     * Returns the entities matching the given [Specification] and included in the given [page][PageRequest].
+     *
+     * The default implementation loads all the entities and paginates them in memory.
+     * Implementations should paginate the entities in the Database, ordered by a unique key so that the pages neither overlap nor skip entities.
+     *
+     * @param specification can be `null`
+     * @param pageRequest [PageRequest] representing the offset and the maximum number of entities to be returned
+     * @return List of entities. Never `null`
+     */
+    @JvmDefault
+    fun findAll(specification: Specification<T>?, pageRequest: PageRequest): List<T> {
+        val entities = findAll(specification)
+        return entities.drop(pageRequest.offset.coerceAtMost(entities.size.toLong()).toInt()).take(pageRequest.size)
+    }
+
+    /**
+     * Returns the projected fields of the entities matching the given [Specification], optionally included in the given [page][PageRequest].
+     *
+     * The default implementation loads the entities and reads the projected fields.
+     * Implementations should only select the projected fields from the Database.
+     *
+     * @param specification can be `null`
+     * @param projection [Projection] representing the fields to be returned
+     * @param pageRequest [PageRequest] representing the offset and the maximum number of results to be returned. `null` to return all the results
+     * @return List of [Maps][Map] containing the projected fields. Never `null`
+     * @see Projection.toMap
+     */
+    @JvmDefault
+    fun findAll(specification: Specification<T>?, projection: Projection, pageRequest: PageRequest?): List<Map<String, Any?>> {
+        val entities = if (pageRequest != null) findAll(specification, pageRequest) else findAll(specification)
+        return entities.map { projection.toMap(it as Any) }
+    }
+
+    /**
+     * Returns the number of entities matching the given [Specification].
+     *
+     * The default implementation loads the entities and counts them.
+     * Implementations should count the entities with an aggregate query executed by the Database.
+     *
+     * @param specification can be `null`
+     * @return the number of entities
+     */
+    @JvmDefault
+    fun count(specification: Specification<T>?): Long {
+        return findAll(specification).size.toLong()
+    }
+
+    /**
+     * Returns whether an entity matches the given [Specification].
+     *
+     * The default implementation loads the entities.
+     * Implementations should stop at the first matching entity.
+     *
+     * @param specification can be `null`
+     * @return `true` if at least one entity matches the given [Specification], `false` otherwise
+     */
+    @JvmDefault
+    fun exists(specification: Specification<T>?): Boolean {
+        return findAll(specification).isNotEmpty()
+    }
+
+    /**
+     * Returns the [Facets][Facet] computed for the entities matching the given [Specification].
+     *
+     * The default implementation loads the entities and computes the facets in memory.
+     * Implementations should compute each facet with an aggregate query executed by the Database.
+     *
+     * @param specification can be `null`
+     * @param facetRequests [FacetRequests][FacetRequest] representing the facets to be computed
+     * @param maxBuckets maximum number of buckets returned for each facet
+     * @return List of [Facets][Facet], in the same order as the [FacetRequests][FacetRequest]. Never `null`
+     * @see FacetRequest.compute
+     */
+    @JvmDefault
+    fun facets(specification: Specification<T>?, facetRequests: List<FacetRequest>, maxBuckets: Int): List<Facet> {
+        val entities = findAll(specification)
+        return facetRequests.map { it.compute(entities, maxBuckets) }
+    }
+
+    /**
+     * Returns the entities matching the given [Specification] and located after the given [Cursor], using the keyset pagination.
+     *
+     * The entities are sorted by their keyset, and the returned [Slice] contains the [Cursor] to fetch the next entities.
+     *
+     * The keyset of the entities is unknown by default: the default implementation throws a [ValidationException].
+     *
+     * @param specification can be `null`
+     * @param cursor [Cursor] representing the keyset of the last entity previously fetched. `null` to fetch the first entities.
+     * @param size the maximum number of entities to be returned
+     * @return [Slice] of entities. Never `null`
+     * @throws ValidationException if the keyset pagination is not supported
+     */
+    @JvmDefault
+    @Throws(ValidationException::class)
+    fun findSlice(specification: Specification<T>?, cursor: Cursor?, size: Int): Slice<T> {
+        throw KeysetSpecification.unsupportedCursorException()
+    }
+
+    /**
+     * Returns all entities matching the given [Specification] as a [Stream].
+     *
+     * The entities are fetched from the Database while the [Stream] is consumed, instead of being loaded all at once.
+     * The [Stream] must be consumed within a transaction, and must be closed after use to release the underlying resources.
+     *
+     * The entities are fetched by chunks of [STREAM_CHUNK_SIZE] entities: the lazy associations of an entity can be loaded
+     * until the first entity of the next chunk is consumed, so that the entities of a chunk can be converted together.
+     *
+     * The default implementation loads all the entities before returning the [Stream].
+     *
+     * @param specification can be `null`
+     * @return Stream of entities. Never `null`
+     */
+    @JvmDefault
+    fun stream(specification: Specification<T>?): Stream<T> {
+        return findAll(specification).stream()
+    }
+
+    companion object {
+        /** Number of entities fetched together by [stream] */
+        const val STREAM_CHUNK_SIZE = 100
+    }
+
+}
@@ -18,4 +18,19 @@ interface SpecificationService {
      */
     fun <T> createSpecification(rootExpression: RootExpression<T>, searchyDescriptor: SearchyDescriptor<T>): Specification<T>
 
+    /**
+     * Create a new [Specification] from the given [RootExpression] and the [EntityJoins].
+     *
+     * When the joins are not fetched, the left joins only used to fetch the associations of the Entity are not added to the query:
+     * it is useful when the Entities are not loaded, for example when only some fields are selected.
+     *
+     * @param rootExpression [RootExpression] object that contains the [Expressions][com.weedow.searchy.expression.Expression]
+     * @param searchyDescriptor [SearchyDescriptor] object that contains the configuration for a specific Entity Class
+     * @param fetchJoins whether the joins to fetch the associations of the Entity are added to the query
+     * @return a [Specification]
+     */
+    fun <T> createSpecification(rootExpression: RootExpression<T>, searchyDescriptor: SearchyDescriptor<T>, fetchJoins: Boolean): Specification<T> {
+        return createSpecification(rootExpression, searchyDescriptor)
+    }
+
 }
\ No newline at end of file
@@ -1,8 +1,17 @@
 package com.weedow.searchy.query.specification
 
+import com.querydsl.core.JoinType
 import com.weedow.searchy.descriptor.SearchyDescriptor
+import com.weedow.searchy.expression.Expression
+import com.weedow.searchy.expression.LogicalExpression
+import com.weedow.searchy.expression.NotExpression
+import com.weedow.searchy.expression.Operator
 import com.weedow.searchy.expression.RootExpression
+import com.weedow.searchy.expression.RootExpressionImpl
+import com.weedow.searchy.expression.SimpleExpression
+import com.weedow.searchy.join.EntityJoin
 import com.weedow.searchy.join.EntityJoinManager
+import com.weedow.searchy.join.EntityJoins
 import com.weedow.searchy.utils.klogger
 
 /**
@@ -25,11 +34,45 @@ class SpecificationServiceImpl(
     }
 
     override fun <T> createSpecification(rootExpression: RootExpression<T>, searchyDescriptor: SearchyDescriptor<T>): Specification<T> {
+        return createSpecification(rootExpression, searchyDescriptor, true)
+    }
+
+    override fun <T> createSpecification(rootExpression: RootExpression<T>, searchyDescriptor: SearchyDescriptor<T>, fetchJoins: Boolean): Specification<T> {
         if (log.isDebugEnabled) log.debug("Creating specifications for the following expression: {}", rootExpression)
 
         val entityJoins = entityJoinManager.computeEntityJoins(searchyDescriptor)
 
-        return rootExpression.toSpecification(entityJoins)
+        val expression = withCaseInsensitiveCollations(rootExpression, searchyDescriptor.caseInsensitiveFields)
+
+        return expression.toSpecification(if (fetchJoins) entityJoins else withoutFetchedLeftJoins(entityJoins))
+    }
+
+    private fun <T> withCaseInsensitiveCollations(rootExpression: RootExpression<T>, fieldPaths: Set<String>): RootExpression<T> {
+        if (fieldPaths.isEmpty() || rootExpression !is RootExpressionImpl<T>) {
+            return rootExpression
+        }
+        return RootExpressionImpl(*rootExpression.expressions.map { withCaseInsensitiveCollations(it, fieldPaths) }.toTypedArray())
+    }
+
+    private fun withCaseInsensitiveCollations(expression: Expression, fieldPaths: Set<String>): Expression {
+        return when (expression) {
+            // The fields with a case-insensitive collation are not converted to lower case to be searched ignoring case
+            is SimpleExpression ->
+                if (expression.operator == Operator.IMATCHES && expression.fieldInfo.fieldPath in fieldPaths) expression.copy(caseInsensitiveCollation = true) else expression
+            is LogicalExpression -> expression.copy(expressions = expression.expressions.map { withCaseInsensitiveCollations(it, fieldPaths) })
+            is NotExpression -> NotExpression(withCaseInsensitiveCollations(expression.expression, fieldPaths))
+            else -> expression
+        }
+    }
+
+    private fun withoutFetchedLeftJoins(entityJoins: EntityJoins): EntityJoins {
+        // A fetched left join does not filter the root Entities: it is only used to load the associations
+        val isFetchedLeftJoin = { entityJoin: EntityJoin -> (entityJoin.fetched || entityJoin.batchFetched) && entityJoin.joinType == JoinType.LEFTJOIN }
+        return object : EntityJoins by entityJoins {
+            override fun getJoins(filter: (EntityJoin) -> Boolean): Map<String, EntityJoin> {
+                return entityJoins.getJoins { !isFetchedLeftJoin(it) && filter(it) }
+            }
+        }
     }
 
 }
\ No newline at end of file
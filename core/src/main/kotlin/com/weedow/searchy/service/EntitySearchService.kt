@@ -2,6 +2,13 @@ package com.weedow.searchy.service
 
 import com.weedow.searchy.descriptor.SearchyDescriptor
 import com.weedow.searchy.expression.RootExpression
+import com.weedow.searchy.query.facet.Facet
+import com.weedow.searchy.query.facet.FacetRequest
+import com.weedow.searchy.query.pagination.Cursor
+import com.weedow.searchy.query.pagination.PageRequest
+import com.weedow.searchy.query.pagination.Slice
+import com.weedow.searchy.query.projection.Projection
+import java.util.stream.Stream
 
 /**
  * Service interface to find all Entities according to the given [RootExpression] and the [SearchyDescriptor].
@@ -21,4 +28,80 @@ interface EntitySearchService {
      */
     fun <T> findAll(rootExpression: RootExpression<T>, searchyDescriptor: SearchyDescriptor<T>): List<T>
 
+    /**
+     * Finds the Entities from the given arguments, included in the given [page][PageRequest], and returns the found Entities.
+     *
+     * @param rootExpression [RootExpression] object that contains the criteria to filter the result
+     * @param searchyDescriptor [SearchyDescriptor] object that contains the configuration for a specific Entity Class
+     * @param pageRequest [PageRequest] object that contains the offset and the maximum number of Entities to be returned
+     * @return List of Entities
+     */
+    fun <T> findAll(rootExpression: RootExpression<T>, searchyDescriptor: SearchyDescriptor<T>, pageRequest: PageRequest): List<T>
+
+    /**
+     * Finds the projected fields of the Entities from the given arguments, optionally included in the given [page][PageRequest].
+     *
+     * The Entities are not loaded: only the projected fields are selected, and the joins only used to fetch the associations are not added.
+     *
+     * @param rootExpression [RootExpression] object that contains the criteria to filter the result
+     * @param searchyDescriptor [SearchyDescriptor] object that contains the configuration for a specific Entity Class
+     * @param projection [Projection] object that contains the fields to be returned
+     * @param pageRequest [PageRequest] object that contains the offset and the maximum number of results to be returned. `null` to return all the results
+     * @return List of [Maps][Map] containing the projected fields
+     */
+    fun <T> findAll(rootExpression: RootExpression<T>, searchyDescriptor: SearchyDescriptor<T>, projection: Projection, pageRequest: PageRequest?): List<Map<String, Any?>>
+
+    /**
+     * Counts the Entities matching the given arguments.
+     *
+     * @param rootExpression [RootExpression] object that contains the criteria to filter the result
+     * @param searchyDescriptor [SearchyDescriptor] object that contains the configuration for a specific Entity Class
+     * @return the number of Entities
+     */
+    fun <T> count(rootExpression: RootExpression<T>, searchyDescriptor: SearchyDescriptor<T>): Long
+
+    /**
+     * Checks whether an Entity matches the given arguments.
+     *
+     * @param rootExpression [RootExpression] object that contains the criteria to filter the result
+     * @param searchyDescriptor [SearchyDescriptor] object that contains the configuration for a specific Entity Class
+     * @return `true` if at least one Entity matches, `false` otherwise
+     */
+    fun <T> exists(rootExpression: RootExpression<T>, searchyDescriptor: SearchyDescriptor<T>): Boolean
+
+    /**
+     * Computes the [Facets][Facet] of the Entities matching the given arguments.
+     *
+     * The joins only used to fetch the associations are not added to the queries.
+     *
+     * @param rootExpression [RootExpression] object that contains the criteria to filter the result
+     * @param searchyDescriptor [SearchyDescriptor] object that contains the configuration for a specific Entity Class
+     * @param facetRequests [FacetRequests][FacetRequest] representing the facets to be computed
+     * @param maxBuckets maximum number of buckets returned for each facet
+     * @return List of [Facets][Facet], in the same order as the [FacetRequests][FacetRequest]
+     */
+    fun <T> facets(rootExpression: RootExpression<T>, searchyDescriptor: SearchyDescriptor<T>, facetRequests: List<FacetRequest>, maxBuckets: Int): List<Facet>
+
+    /**
+     * Finds the Entities from the given arguments, located after the given [Cursor], and returns a [Slice] of found Entities.
+     *
+     * @param rootExpression [RootExpression] object that contains the criteria to filter the result
+     * @param searchyDescriptor [SearchyDescriptor] object that contains the configuration for a specific Entity Class
+     * @param cursor [Cursor] object that contains the keyset of the last Entity previously found. `null` to find the first Entities.
+     * @param size the maximum number of Entities to be returned
+     * @return [Slice] of Entities
+     */
+    fun <T> findSlice(rootExpression: RootExpression<T>, searchyDescriptor: SearchyDescriptor<T>, cursor: Cursor?, size: Int): Slice<T>
+
+    /**
+     * Finds all Entities from the given arguments and returns a [Stream] of found Entities.
+     *
+     * The [Stream] must be consumed within a transaction, and must be closed after use.
+     *
+     * @param rootExpression [RootExpression] object that contains the criteria to filter the result
+     * @param searchyDescriptor [SearchyDescriptor] object that contains the configuration for a specific Entity Class
+     * @return Stream of Entities
+     */
+    fun <T> stream(rootExpression: RootExpression<T>, searchyDescriptor: SearchyDescriptor<T>): Stream<T>
+
 }
\ No newline at end of file
@@ -2,19 +2,40 @@ package com.weedow.searchy.service
 
 import com.weedow.searchy.descriptor.SearchyDescriptor
 import com.weedow.searchy.expression.RootExpression
+import com.weedow.searchy.expression.optimizer.ExpressionOptimizer
+import com.weedow.searchy.metrics.SearchyMetrics
+import com.weedow.searchy.metrics.SearchyStage
+import com.weedow.searchy.query.facet.Facet
+import com.weedow.searchy.query.facet.FacetRequest
+import com.weedow.searchy.query.pagination.Cursor
+import com.weedow.searchy.query.pagination.PageRequest
+import com.weedow.searchy.query.pagination.Slice
+import com.weedow.searchy.query.projection.Projection
+import com.weedow.searchy.query.specification.Specification
+import com.weedow.searchy.query.specification.SpecificationExecutor
 import com.weedow.searchy.query.specification.SpecificationExecutorFactory
 import com.weedow.searchy.query.specification.SpecificationService
 import com.weedow.searchy.utils.klogger
+import java.util.stream.Stream
 
 /**
  * Default [EntitySearchService] implementation.
  *
+ * The [RootExpression] is simplified by the given [ExpressionOptimizer] before creating the [Specification].
+ * When the [RootExpression] can never be satisfied, the empty results are returned without querying the Database.
+ *
+ * The duration of the creation of the [Specification] and of the queries is recorded with the given [SearchyMetrics].
+ *
  * @param specificationService [SpecificationService]
  * @param specificationExecutorFactory [SpecificationExecutorFactory]
+ * @param expressionOptimizer [ExpressionOptimizer]
+ * @param searchyMetrics [SearchyMetrics]
  */
 class EntitySearchServiceImpl(
     private val specificationService: SpecificationService,
-    private val specificationExecutorFactory: SpecificationExecutorFactory
+    private val specificationExecutorFactory: SpecificationExecutorFactory,
+    private val expressionOptimizer: ExpressionOptimizer,
+    private val searchyMetrics: SearchyMetrics
 ) : EntitySearchService {
 
     companion object {
@@ -26,12 +47,86 @@ class EntitySearchServiceImpl(
     }
 
     override fun <T> findAll(rootExpression: RootExpression<T>, searchyDescriptor: SearchyDescriptor<T>): List<T> {
-        val specification = specificationService.createSpecification(rootExpression, searchyDescriptor)
+        val specification = createSpecification(rootExpression, searchyDescriptor) ?: return emptyList()
 
-        val specificationExecutor = searchyDescriptor.specificationExecutor
-            ?: specificationExecutorFactory.getSpecificationExecutor(searchyDescriptor.entityClass)
+        return searchyMetrics.record(searchyDescriptor.id, SearchyStage.QUERY) {
+            getSpecificationExecutor(searchyDescriptor).findAll(specification)
+        }
+    }
+
+    override fun <T> findAll(rootExpression: RootExpression<T>, searchyDescriptor: SearchyDescriptor<T>, pageRequest: PageRequest): List<T> {
+        val specification = createSpecification(rootExpression, searchyDescriptor) ?: return emptyList()
+
+        return searchyMetrics.record(searchyDescriptor.id, SearchyStage.QUERY) {
+            getSpecificationExecutor(searchyDescriptor).findAll(specification, pageRequest)
+        }
+    }
+
+    override fun <T> findAll(rootExpression: RootExpression<T>, searchyDescriptor: SearchyDescriptor<T>, projection: Projection, pageRequest: PageRequest?): List<Map<String, Any?>> {
+        val specification = createSpecification(rootExpression, searchyDescriptor, false) ?: return emptyList()
+
+        return searchyMetrics.record(searchyDescriptor.id, SearchyStage.QUERY) {
+            getSpecificationExecutor(searchyDescriptor).findAll(specification, projection, pageRequest)
+        }
+    }
+
+    override fun <T> count(rootExpression: RootExpression<T>, searchyDescriptor: SearchyDescriptor<T>): Long {
+        val specification = createSpecification(rootExpression, searchyDescriptor, false) ?: return 0L
+
+        return searchyMetrics.record(searchyDescriptor.id, SearchyStage.COUNT) {
+            getSpecificationExecutor(searchyDescriptor).count(specification)
+        }
+    }
+
+    override fun <T> exists(rootExpression: RootExpression<T>, searchyDescriptor: SearchyDescriptor<T>): Boolean {
+        val specification = createSpecification(rootExpression, searchyDescriptor, false) ?: return false
 
-        return specificationExecutor.findAll(specification)
+        return searchyMetrics.record(searchyDescriptor.id, SearchyStage.EXISTS) {
+            getSpecificationExecutor(searchyDescriptor).exists(specification)
+        }
+    }
+
+    override fun <T> facets(rootExpression: RootExpression<T>, searchyDescriptor: SearchyDescriptor<T>, facetRequests: List<FacetRequest>, maxBuckets: Int): List<Facet> {
+        val specification = createSpecification(rootExpression, searchyDescriptor, false) ?: return facetRequests.map { it.compute(emptyList<T>(), maxBuckets) }
+
+        return searchyMetrics.record(searchyDescriptor.id, SearchyStage.FACETS) {
+            getSpecificationExecutor(searchyDescriptor).facets(specification, facetRequests, maxBuckets)
+        }
+    }
+
+    override fun <T> findSlice(rootExpression: RootExpression<T>, searchyDescriptor: SearchyDescriptor<T>, cursor: Cursor?, size: Int): Slice<T> {
+        val specification = createSpecification(rootExpression, searchyDescriptor, false) ?: return Slice(emptyList(), null)
+
+        return searchyMetrics.record(searchyDescriptor.id, SearchyStage.QUERY) {
+            getSpecificationExecutor(searchyDescriptor).findSlice(specification, cursor, size)
+        }
+    }
+
+    override fun <T> stream(rootExpression: RootExpression<T>, searchyDescriptor: SearchyDescriptor<T>): Stream<T> {
+        val specification = createSpecification(rootExpression, searchyDescriptor) ?: return Stream.empty()
+
+        return getSpecificationExecutor(searchyDescriptor).stream(specification)
+    }
+
+    /**
+     * Creates the [Specification] of the optimized [RootExpression].
+     *
+     * @return the [Specification], or `null` if the [RootExpression] can never be satisfied
+     */
+    private fun <T> createSpecification(rootExpression: RootExpression<T>, searchyDescriptor: SearchyDescriptor<T>, fetchJoins: Boolean = true): Specification<T>? {
+        return searchyMetrics.record(searchyDescriptor.id, SearchyStage.SPECIFICATION) {
+            val optimizedExpression = expressionOptimizer.optimize(rootExpression, searchyDescriptor.entityClass)
+            when {
+                optimizedExpression == null -> null
+                fetchJoins -> specificationService.createSpecification(optimizedExpression, searchyDescriptor)
+                else -> specificationService.createSpecification(optimizedExpression, searchyDescriptor, false)
+            }
+        }
+    }
+
+    private fun <T> getSpecificationExecutor(searchyDescriptor: SearchyDescriptor<T>): SpecificationExecutor<T> {
+        return searchyDescriptor.specificationExecutor
+            ?: specificationExecutorFactory.getSpecificationExecutor(searchyDescriptor.entityClass)
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package com.weedow.searchy.service
+
+/**
+ * [SearchCoalescer] implementation which executes each search.
+ */
+class NoOpSearchCoalescer : SearchCoalescer {
+
+    override fun <R, C> coalesce(searchKey: Any, search: () -> R, conversion: (R) -> C): C {
+        return conversion(search())
+    }
+
+}
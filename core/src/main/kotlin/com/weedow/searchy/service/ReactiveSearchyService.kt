@@ -0,0 +1,35 @@
+package com.weedow.searchy.service
+
+import com.weedow.searchy.descriptor.SearchyDescriptor
+import com.weedow.searchy.exception.SearchyDescriptorNotFound
+import com.weedow.searchy.query.pagination.PageRequest
+import reactor.core.publisher.Flux
+
+/**
+ * Service interface to search data without blocking the calling thread.
+ *
+ * The search is the same as [SearchyService], but the results are emitted in a [Flux] according to the demand of the subscriber.
+ *
+ * @see SearchyService
+ * @see SearchyDescriptor
+ */
+interface ReactiveSearchyService {
+
+    /**
+     * Search data related to the given [searchyDescriptorId] and filtered according to the given [parameters Map][params].
+     *
+     * @throws SearchyDescriptorNotFound whether the [SearchyDescriptor] is not found
+     */
+    @Throws(SearchyDescriptorNotFound::class)
+    fun search(searchyDescriptorId: String, params: Map<String, List<String>>): Flux<Any>
+
+    /**
+     * Search data related to the given [searchyDescriptorId], filtered according to the given [parameters Map][params]
+     * and included in the given [page][pageRequest].
+     *
+     * @throws SearchyDescriptorNotFound whether the [SearchyDescriptor] is not found
+     */
+    @Throws(SearchyDescriptorNotFound::class)
+    fun search(searchyDescriptorId: String, params: Map<String, List<String>>, pageRequest: PageRequest): Flux<Any>
+
+}
@@ -0,0 +1,169 @@
+package com.weedow.searchy.service
+
+import com.weedow.searchy.descriptor.SearchyDescriptor
+import com.weedow.searchy.descriptor.SearchyDescriptorService
+import com.weedow.searchy.dto.DtoConverterService
+import com.weedow.searchy.exception.SearchyDescriptorNotFound
+import com.weedow.searchy.exception.ValidationException
+import com.weedow.searchy.expression.ExpressionMapper
+import com.weedow.searchy.expression.optimizer.ExpressionOptimizer
+import com.weedow.searchy.metrics.SearchyMetrics
+import com.weedow.searchy.metrics.SearchyStage
+import com.weedow.searchy.query.pagination.Cursor
+import com.weedow.searchy.query.pagination.PageRequest
+import com.weedow.searchy.query.pagination.Slice
+import com.weedow.searchy.query.specification.ReactiveSpecificationExecutor
+import com.weedow.searchy.query.specification.ReactiveSpecificationExecutorFactory
+import com.weedow.searchy.query.specification.SpecificationExecutor
+import com.weedow.searchy.query.specification.SpecificationService
+import com.weedow.searchy.utils.klogger
+import com.weedow.searchy.validation.SearchyValidationService
+import reactor.core.publisher.Flux
+import reactor.core.publisher.Mono
+import reactor.core.scheduler.Scheduler
+import reactor.core.scheduler.Schedulers
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Default [ReactiveSearchyService] implementation.
+ *
+ * When a [ReactiveSpecificationExecutorFactory] is available and the [SearchyDescriptor] does not define its own
+ * [SpecificationExecutor], all the entities are found with a non-blocking [ReactiveSpecificationExecutor],
+ * and converted to DTO by the chunks of [SpecificationExecutor.STREAM_CHUNK_SIZE] entities emitted together.
+ * The duration of each step and the number of results are recorded with the given [SearchyMetrics].
+ *
+ * The pages are bounded: they are searched by the blocking [SearchyService] on the given [Scheduler],
+ * so that they are coalesced, cached and measured like the pages of the other controllers.
+ *
+ * Otherwise, all the entities are searched by the blocking [SearchyService] on the given [Scheduler], by slices of [SpecificationExecutor.STREAM_CHUNK_SIZE] entities
+ * fetched with the keyset pagination: each slice is fetched in its own transaction when it is requested by the subscriber,
+ * so neither a transaction nor a Database cursor is held open between two slices.
+ *
+ * @param searchyService [SearchyService] used to search the pages, and all the entities when they cannot be found with a [ReactiveSpecificationExecutor]
+ * @param searchyDescriptorService [SearchyDescriptorService]
+ * @param expressionMapper [ExpressionMapper]
+ * @param searchyValidationService [SearchyValidationService]
+ * @param specificationService [SpecificationService]
+ * @param expressionOptimizer [ExpressionOptimizer]
+ * @param dtoConverterService [DtoConverterService]
+ * @param searchyMetrics [SearchyMetrics]
+ * @param reactiveSpecificationExecutorFactory [ReactiveSpecificationExecutorFactory]. `null` if there is no non-blocking implementation.
+ * @param scheduler [Scheduler] used to call the blocking [SearchyService]. Default is [Schedulers.boundedElastic]
+ */
+class ReactiveSearchyServiceImpl<T, DTO>(
+    private val searchyService: SearchyService,
+    private val searchyDescriptorService: SearchyDescriptorService,
+    private val expressionMapper: ExpressionMapper,
+    private val searchyValidationService: SearchyValidationService,
+    private val specificationService: SpecificationService,
+    private val expressionOptimizer: ExpressionOptimizer,
+    private val dtoConverterService: DtoConverterService<T, DTO>,
+    private val searchyMetrics: SearchyMetrics,
+    private val reactiveSpecificationExecutorFactory: ReactiveSpecificationExecutorFactory?,
+    private val scheduler: Scheduler = Schedulers.boundedElastic()
+) : ReactiveSearchyService {
+
+    companion object {
+        private val log by klogger()
+    }
+
+    init {
+        if (log.isDebugEnabled) log.debug("Initialized ReactiveSearchyService: {}", this::class.qualifiedName)
+    }
+
+    /**
+     * {@inheritDoc}
+     * @throws ValidationException when there are any validation errors
+     */
+    @Throws(SearchyDescriptorNotFound::class, ValidationException::class)
+    override fun search(searchyDescriptorId: String, params: Map<String, List<String>>): Flux<Any> {
+        val searchyDescriptor = getSearchyDescriptor(searchyDescriptorId)
+
+        val reactiveSpecificationExecutor = getReactiveSpecificationExecutor(searchyDescriptor)
+            ?: return searchBlocking(searchyDescriptorId, params)
+
+        return doSearch(params, searchyDescriptor, reactiveSpecificationExecutor)
+    }
+
+    /**
+     * {@inheritDoc}
+     * @throws ValidationException when there are any validation errors
+     */
+    @Throws(SearchyDescriptorNotFound::class, ValidationException::class)
+    override fun search(searchyDescriptorId: String, params: Map<String, List<String>>, pageRequest: PageRequest): Flux<Any> {
+        getSearchyDescriptor(searchyDescriptorId)
+
+        // The page is bounded: it is fetched at once, through the cache and the coalescer of the SearchyService
+        return Mono.fromCallable { searchyService.search(searchyDescriptorId, params, pageRequest, false).content }
+            .subscribeOn(scheduler)
+            .flatMapIterable { results -> results.filterNotNull() }
+    }
+
+    private fun getSearchyDescriptor(searchyDescriptorId: String): SearchyDescriptor<T> {
+        // Find Entity Search Descriptor
+        val searchyDescriptor = searchyDescriptorService.getSearchyDescriptor(searchyDescriptorId)
+            ?: throw SearchyDescriptorNotFound(searchyDescriptorId)
+
+        @Suppress("UNCHECKED_CAST")
+        return searchyDescriptor as SearchyDescriptor<T>
+    }
+
+    private fun getReactiveSpecificationExecutor(searchyDescriptor: SearchyDescriptor<T>): ReactiveSpecificationExecutor<T>? {
+        // A specific SpecificationExecutor is blocking, it must be used by the SearchyService
+        if (searchyDescriptor.specificationExecutor != null) {
+            return null
+        }
+        return reactiveSpecificationExecutorFactory?.getReactiveSpecificationExecutor(searchyDescriptor.entityClass)
+    }
+
+    private fun doSearch(
+        params: Map<String, List<String>>,
+        searchyDescriptor: SearchyDescriptor<T>,
+        reactiveSpecificationExecutor: ReactiveSpecificationExecutor<T>
+    ): Flux<Any> {
+        // Mapping the given parameters to the associated expressions
+        val rootExpression = searchyMetrics.record(searchyDescriptor.id, SearchyStage.MAPPING) {
+            expressionMapper.toExpression(params, searchyDescriptor.entityClass)
+        }
+
+        // Validate the resulting expressions with the found Search Descriptor
+        searchyMetrics.record(searchyDescriptor.id, SearchyStage.VALIDATION) {
+            searchyValidationService.validate(rootExpression.toFieldExpressions(false), searchyDescriptor)
+        }
+
+        // The expressions that can never be satisfied have no result: the Database is not queried
+        val optimizedExpression = expressionOptimizer.optimize(rootExpression, searchyDescriptor.entityClass) ?: return Flux.empty()
+
+        val specification = searchyMetrics.record(searchyDescriptor.id, SearchyStage.SPECIFICATION) {
+            specificationService.createSpecification(optimizedExpression, searchyDescriptor)
+        }
+
+        return Flux.defer {
+            val resultSize = AtomicInteger()
+
+            // Find filtered entities from the Expressions, and convert them to DTOs by the chunks emitted together
+            reactiveSpecificationExecutor.findAll(specification)
+                .buffer(SpecificationExecutor.STREAM_CHUNK_SIZE)
+                .concatMapIterable<Any> { entities ->
+                    resultSize.addAndGet(entities.size)
+                    searchyMetrics.record(searchyDescriptor.id, SearchyStage.CONVERSION) {
+                        dtoConverterService.convert(entities, searchyDescriptor).filterNotNull()
+                    }
+                }
+                .doOnComplete { searchyMetrics.recordResultSize(searchyDescriptor.id, resultSize.get()) }
+        }
+    }
+
+    private fun searchBlocking(searchyDescriptorId: String, params: Map<String, List<String>>): Flux<Any> {
+        // Each slice is requested once the results of the previous one have been consumed
+        return searchSliceBlocking(searchyDescriptorId, params, null)
+            .expand { slice -> slice.nextCursor?.let { searchSliceBlocking(searchyDescriptorId, params, it) } ?: Mono.empty() }
+            .concatMapIterable<Any>({ slice -> slice.content.filterNotNull() }, 1)
+    }
+
+    private fun searchSliceBlocking(searchyDescriptorId: String, params: Map<String, List<String>>, cursor: Cursor?): Mono<Slice<*>> {
+        return Mono.fromCallable<Slice<*>> { searchyService.search(searchyDescriptorId, params, cursor, SpecificationExecutor.STREAM_CHUNK_SIZE) }
+            .subscribeOn(scheduler)
+    }
+
+}
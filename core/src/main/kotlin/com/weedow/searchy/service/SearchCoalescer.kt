@@ -0,0 +1,18 @@
+package com.weedow.searchy.service
+
+/**
+ * Interface to coalesce the identical searches executed concurrently.
+ */
+interface SearchCoalescer {
+
+    /**
+     * Executes the given search and converts its result, or shares the result of the identical search in flight.
+     *
+     * @param searchKey key identifying the identical searches. It must implement `equals` and `hashCode`
+     * @param search search to be executed
+     * @param conversion conversion of the result of the search
+     * @return the converted result of the search
+     */
+    fun <R, C> coalesce(searchKey: Any, search: () -> R, conversion: (R) -> C): C
+
+}
@@ -2,6 +2,11 @@ package com.weedow.searchy.service
 
 import com.weedow.searchy.descriptor.SearchyDescriptor
 import com.weedow.searchy.exception.SearchyDescriptorNotFound
+import com.weedow.searchy.query.facet.Facet
+import com.weedow.searchy.query.pagination.Cursor
+import com.weedow.searchy.query.pagination.Page
+import com.weedow.searchy.query.pagination.PageRequest
+import com.weedow.searchy.query.pagination.Slice
 
 /**
  * Service interface to search data related to the given [SearchyDescriptor Id][SearchyDescriptor] and filtered according to the given parameters Map.
@@ -20,4 +25,79 @@ interface SearchyService {
     @Throws(SearchyDescriptorNotFound::class)
     fun search(searchyDescriptorId: String, params: Map<String, List<String>>): List<*>
 
+    /**
+     * Search data related to the given [searchyDescriptorId], filtered according to the given [parameters Map][params]
+     * and included in the given [page][pageRequest].
+     *
+     * @param countTotal whether the total number of results must be counted. If `false`, [Page.totalElements] is `null`
+     * @throws SearchyDescriptorNotFound whether the [SearchyDescriptor] is not found
+     */
+    @Throws(SearchyDescriptorNotFound::class)
+    fun search(searchyDescriptorId: String, params: Map<String, List<String>>, pageRequest: PageRequest, countTotal: Boolean): Page<*>
+
+    /**
+     * Search data related to the given [searchyDescriptorId], filtered according to the given [parameters Map][params]
+     * and located after the given [cursor] (keyset pagination).
+     *
+     * @param cursor [Cursor] representing the last result previously returned. `null` to search the first results
+     * @param size the maximum number of results
+     * @throws SearchyDescriptorNotFound whether the [SearchyDescriptor] is not found
+     */
+    @Throws(SearchyDescriptorNotFound::class)
+    fun search(searchyDescriptorId: String, params: Map<String, List<String>>, cursor: Cursor?, size: Int): Slice<*>
+
+    /**
+     * Count the data related to the given [searchyDescriptorId] and filtered according to the given [parameters Map][params].
+     *
+     * The data is counted by the Database: the Entities are not loaded.
+     *
+     * @throws SearchyDescriptorNotFound whether the [SearchyDescriptor] is not found
+     */
+    @Throws(SearchyDescriptorNotFound::class)
+    fun count(searchyDescriptorId: String, params: Map<String, List<String>>): Long
+
+    /**
+     * Check whether data related to the given [searchyDescriptorId] and filtered according to the given [parameters Map][params] exists.
+     *
+     * The Database stops at the first matching data: the Entities are not loaded.
+     *
+     * @throws SearchyDescriptorNotFound whether the [SearchyDescriptor] is not found
+     */
+    @Throws(SearchyDescriptorNotFound::class)
+    fun exists(searchyDescriptorId: String, params: Map<String, List<String>>): Boolean
+
+    /**
+     * Compute the [Facets][Facet] requested by the special parameter `facet`, for the data related to the given [searchyDescriptorId]
+     * and filtered according to the given [parameters Map][params].
+     *
+     * Each facet is computed by the Database: the Entities are not loaded.
+     *
+     * @param maxBuckets maximum number of buckets returned for each facet
+     * @throws SearchyDescriptorNotFound whether the [SearchyDescriptor] is not found
+     */
+    @Throws(SearchyDescriptorNotFound::class)
+    fun facets(searchyDescriptorId: String, params: Map<String, List<String>>, maxBuckets: Int): List<Facet>
+
+    /**
+     * Search data related to the given [searchyDescriptorId], filtered according to the given [parameters Map][params],
+     * and performs the given [action] for each result.
+     *
+     * The results are fetched and converted one at a time, so the memory used does not depend on the number of results.
+     *
+     * @param action action to be performed for each result
+     * @throws SearchyDescriptorNotFound whether the [SearchyDescriptor] is not found
+     */
+    @Throws(SearchyDescriptorNotFound::class)
+    fun stream(searchyDescriptorId: String, params: Map<String, List<String>>, action: (Any?) -> Unit)
+
+    /**
+     * Checks that the data related to the given [searchyDescriptorId] can be streamed with the given [parameters Map][params], without searching it.
+     *
+     * The errors of a streamed search are thrown before the first result is written, so that they can be returned with their HTTP status.
+     *
+     * @throws SearchyDescriptorNotFound whether the [SearchyDescriptor] is not found
+     */
+    @Throws(SearchyDescriptorNotFound::class)
+    fun validateStream(searchyDescriptorId: String, params: Map<String, List<String>>)
+
 }
\ No newline at end of file
@@ -1,12 +1,32 @@
 package com.weedow.searchy.service
 
+import com.weedow.searchy.cache.SearchResultCache
 import com.weedow.searchy.descriptor.SearchyDescriptor
 import com.weedow.searchy.descriptor.SearchyDescriptorService
 import com.weedow.searchy.dto.DtoConverterService
 import com.weedow.searchy.exception.SearchyDescriptorNotFound
 import com.weedow.searchy.exception.ValidationException
+import com.weedow.searchy.expression.Expression
 import com.weedow.searchy.expression.ExpressionMapper
+import com.weedow.searchy.expression.LogicalExpression
+import com.weedow.searchy.expression.NotExpression
+import com.weedow.searchy.expression.RootExpression
+import com.weedow.searchy.expression.RootExpressionImpl
+import com.weedow.searchy.expression.SimpleExpression
+import com.weedow.searchy.expression.SortExpression
+import com.weedow.searchy.expression.optimizer.ExpressionOptimizer
+import com.weedow.searchy.metrics.SearchyMetrics
+import com.weedow.searchy.metrics.SearchyStage
+import com.weedow.searchy.query.facet.Facet
+import com.weedow.searchy.query.pagination.Cursor
+import com.weedow.searchy.query.pagination.Page
+import com.weedow.searchy.query.pagination.PageRequest
+import com.weedow.searchy.query.pagination.Slice
+import com.weedow.searchy.query.projection.Projection
+import com.weedow.searchy.query.specification.SpecificationExecutor
+import com.weedow.searchy.utils.Keyword
 import com.weedow.searchy.utils.klogger
+import com.weedow.searchy.validation.SearchyError
 import com.weedow.searchy.validation.SearchyValidationService
 import org.springframework.transaction.annotation.Transactional
 
@@ -17,9 +37,25 @@ import org.springframework.transaction.annotation.Transactional
  *   - Get the [SearchyDescriptor] from the given SearchyDescriptor Id
  *   - Convert the given map of parameters to [Expression][com.weedow.searchy.expression.Expression]s
  *   - Validate the resulting expressions with the [SearchyDescriptor]
- *   - Find filtered entities from the Expressions
+ *   - Find filtered entities from the Expressions, optionally limited to the requested page or located after the given cursor
  *   - Convert found entities to DTO
  *
+ * When the [fields][ExpressionMapper.FIELDS_PARAMETER] parameter is present, only the requested fields are selected
+ * and they are returned as [Maps][Map], without being converted to DTO.
+ *
+ * When the results are streamed, the entities are fetched and converted to DTO by chunks of [SpecificationExecutor.STREAM_CHUNK_SIZE].
+ *
+ * The identical searches (same Search Descriptor, parameters and page) executed concurrently are coalesced by the given [SearchCoalescer],
+ * so that the Database is queried only once.
+ *
+ * The DTOs of the searches are cached in the given [SearchResultCache], for the normalized [RootExpression]:
+ * the [RootExpression] is simplified by the given [ExpressionOptimizer], and the order of its criteria is ignored.
+ * The DTOs are cached rather than the entities, so that a cached result never loads a lazy association outside of its persistence context.
+ * The results of the [RootExpressions][RootExpression] containing a keyword like `CURRENT_DATE` depend on the time of the request, so they are not cached.
+ * The projected fields, the slices and the streamed results are not cached.
+ *
+ * The duration of each step and the number of results are recorded with the given [SearchyMetrics].
+ *
  * This implementation uses transactions for any calls to methods of this class.
  * The transactions are `read-only` by default.
  *
@@ -27,6 +63,11 @@ import org.springframework.transaction.annotation.Transactional
  * @param expressionMapper [ExpressionMapper]
  * @param searchyValidationService [SearchyValidationService]
  * @param entitySearchService [EntitySearchService]
+ * @param dtoConverterService [DtoConverterService]
+ * @param searchyMetrics [SearchyMetrics]
+ * @param searchCoalescer [SearchCoalescer]
+ * @param searchResultCache [SearchResultCache]
+ * @param expressionOptimizer [ExpressionOptimizer] used to normalize the [RootExpression] before caching its results
  */
 @Transactional(readOnly = true)
 class SearchyServiceImpl<T, DTO>(
@@ -34,11 +75,17 @@ class SearchyServiceImpl<T, DTO>(
     private val expressionMapper: ExpressionMapper,
     private val searchyValidationService: SearchyValidationService,
     private val entitySearchService: EntitySearchService,
-    private val dtoConverterService: DtoConverterService<T, DTO>
+    private val dtoConverterService: DtoConverterService<T, DTO>,
+    private val searchyMetrics: SearchyMetrics,
+    private val searchCoalescer: SearchCoalescer,
+    private val searchResultCache: SearchResultCache,
+    private val expressionOptimizer: ExpressionOptimizer
 ) : SearchyService {
 
     companion object {
         private val log by klogger()
+
+        private val KEYWORDS = listOf(Keyword.CURRENT_DATE, Keyword.CURRENT_TIME, Keyword.CURRENT_DATE_TIME)
     }
 
     init {
@@ -51,26 +98,292 @@ class SearchyServiceImpl<T, DTO>(
      */
     @Throws(SearchyDescriptorNotFound::class, ValidationException::class)
     override fun search(searchyDescriptorId: String, params: Map<String, List<String>>): List<*> {
+        val searchyDescriptor = getSearchyDescriptor(searchyDescriptorId)
+
+        return doSearch(params, searchyDescriptor)
+    }
+
+    /**
+     * {@inheritDoc}
+     * @throws ValidationException when there are any validation errors
+     */
+    @Throws(SearchyDescriptorNotFound::class, ValidationException::class)
+    override fun search(searchyDescriptorId: String, params: Map<String, List<String>>, pageRequest: PageRequest, countTotal: Boolean): Page<*> {
+        val searchyDescriptor = getSearchyDescriptor(searchyDescriptorId)
+
+        return doSearch(params, searchyDescriptor, pageRequest, countTotal)
+    }
+
+    /**
+     * {@inheritDoc}
+     * @throws ValidationException when there are any validation errors
+     */
+    @Throws(SearchyDescriptorNotFound::class, ValidationException::class)
+    override fun search(searchyDescriptorId: String, params: Map<String, List<String>>, cursor: Cursor?, size: Int): Slice<*> {
+        val searchyDescriptor = getSearchyDescriptor(searchyDescriptorId)
+
+        checkNoProjection(params)
+
+        return doSearch(params, searchyDescriptor, cursor, size)
+    }
+
+    /**
+     * {@inheritDoc}
+     * @throws ValidationException when there are any validation errors
+     */
+    @Throws(SearchyDescriptorNotFound::class, ValidationException::class)
+    override fun count(searchyDescriptorId: String, params: Map<String, List<String>>): Long {
+        val searchyDescriptor = getSearchyDescriptor(searchyDescriptorId)
+
+        val rootExpression = toRootExpression(params, searchyDescriptor)
+
+        // Count filtered entities from the Expressions, without loading them
+        return entitySearchService.count(rootExpression, searchyDescriptor)
+    }
+
+    /**
+     * {@inheritDoc}
+     * @throws ValidationException when there are any validation errors
+     */
+    @Throws(SearchyDescriptorNotFound::class, ValidationException::class)
+    override fun exists(searchyDescriptorId: String, params: Map<String, List<String>>): Boolean {
+        val searchyDescriptor = getSearchyDescriptor(searchyDescriptorId)
+
+        val rootExpression = toRootExpression(params, searchyDescriptor)
+
+        // Check whether an entity matches the Expressions, without loading it
+        return entitySearchService.exists(rootExpression, searchyDescriptor)
+    }
+
+    /**
+     * {@inheritDoc}
+     * @throws ValidationException when there are any validation errors, or when the special parameter `facet` is not present
+     */
+    @Throws(SearchyDescriptorNotFound::class, ValidationException::class)
+    override fun facets(searchyDescriptorId: String, params: Map<String, List<String>>, maxBuckets: Int): List<Facet> {
+        val searchyDescriptor = getSearchyDescriptor(searchyDescriptorId)
+
+        val facetRequests = expressionMapper.toFacetRequests(params, searchyDescriptor.entityClass)
+        if (facetRequests.isEmpty()) {
+            throw ValidationException(
+                listOf(SearchyError("missing-facet", "The parameter ''{0}'' is required to compute the facets.", arrayOf(ExpressionMapper.FACET_PARAMETER)))
+            )
+        }
+
+        // The facets are not sorted: the Database could not group the results sorted by another field
+        val rootExpression = toRootExpression(params - ExpressionMapper.SORT_PARAMETER, searchyDescriptor)
+
+        // Compute the facets of the filtered entities from the Expressions, without loading them
+        return entitySearchService.facets(rootExpression, searchyDescriptor, facetRequests, maxBuckets)
+    }
+
+    /**
+     * {@inheritDoc}
+     * @throws ValidationException when there are any validation errors
+     */
+    @Throws(SearchyDescriptorNotFound::class, ValidationException::class)
+    override fun stream(searchyDescriptorId: String, params: Map<String, List<String>>, action: (Any?) -> Unit) {
+        val searchyDescriptor = getSearchyDescriptor(searchyDescriptorId)
+
+        val rootExpression = toStreamRootExpression(params, searchyDescriptor)
+
+        // Find filtered entities from the Expressions, and convert them to DTOs by the chunks fetched together
+        entitySearchService.stream(rootExpression, searchyDescriptor).use { entities ->
+            entities.iterator().asSequence()
+                .chunked(SpecificationExecutor.STREAM_CHUNK_SIZE)
+                .forEach { chunk -> dtoConverterService.convert(chunk, searchyDescriptor).forEach(action) }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * @throws ValidationException when there are any validation errors
+     */
+    @Throws(SearchyDescriptorNotFound::class, ValidationException::class)
+    override fun validateStream(searchyDescriptorId: String, params: Map<String, List<String>>) {
+        val searchyDescriptor = getSearchyDescriptor(searchyDescriptorId)
+
+        toStreamRootExpression(params, searchyDescriptor)
+    }
+
+    private fun getSearchyDescriptor(searchyDescriptorId: String): SearchyDescriptor<T> {
         // Find Entity Search Descriptor
         val searchyDescriptor = searchyDescriptorService.getSearchyDescriptor(searchyDescriptorId)
             ?: throw SearchyDescriptorNotFound(searchyDescriptorId)
 
         @Suppress("UNCHECKED_CAST")
-        return doSearch(params, searchyDescriptor as SearchyDescriptor<T>)
+        return searchyDescriptor as SearchyDescriptor<T>
     }
 
     private fun doSearch(params: Map<String, List<String>>, searchyDescriptor: SearchyDescriptor<T>): List<*> {
+        val rootExpression = toRootExpression(params, searchyDescriptor)
+        val searchKey = SearchKey(searchyDescriptor.id, params, null, false)
+
+        val projection = expressionMapper.toProjection(params, searchyDescriptor.entityClass)
+        if (projection != null) {
+            // Find the requested fields of the filtered entities from the Expressions
+            return searchCoalescer.coalesce(searchKey, { project(rootExpression, searchyDescriptor, projection, null) }) { it }
+        }
+
+        return cached(rootExpression, searchyDescriptor, null, false) {
+            searchCoalescer.coalesce(
+                searchKey,
+                // Find filtered entities from the Expressions
+                { entitySearchService.findAll(rootExpression, searchyDescriptor) },
+                // Convert found entities to DTOs
+                { entities -> convert(entities, searchyDescriptor) }
+            )
+        }
+    }
+
+    private fun doSearch(params: Map<String, List<String>>, searchyDescriptor: SearchyDescriptor<T>, pageRequest: PageRequest, countTotal: Boolean): Page<*> {
+        val rootExpression = toRootExpression(params, searchyDescriptor)
+        val searchKey = SearchKey(searchyDescriptor.id, params, pageRequest, countTotal)
+
+        val projection = expressionMapper.toProjection(params, searchyDescriptor.entityClass)
+        if (projection != null) {
+            return searchCoalescer.coalesce(searchKey, {
+                // Find the requested fields of the filtered entities from the Expressions, limited to the requested page
+                val content = project(rootExpression, searchyDescriptor, projection, pageRequest)
+
+                val totalElements = if (countTotal) countTotal(rootExpression, searchyDescriptor, pageRequest, content.size) else null
+
+                Page(content, pageRequest.page, pageRequest.size, totalElements)
+            }) { it }
+        }
+
+        return cached(rootExpression, searchyDescriptor, pageRequest, countTotal) {
+            searchCoalescer.coalesce(
+                searchKey,
+                {
+                    // Find filtered entities from the Expressions, limited to the requested page
+                    val entities = entitySearchService.findAll(rootExpression, searchyDescriptor, pageRequest)
+
+                    val totalElements = if (countTotal) countTotal(rootExpression, searchyDescriptor, pageRequest, entities.size) else null
+
+                    Page(entities, pageRequest.page, pageRequest.size, totalElements)
+                },
+                // Convert found entities to DTOs
+                { page -> Page(convert(page.content, searchyDescriptor), page.page, page.size, page.totalElements) }
+            )
+        }
+    }
+
+    private fun doSearch(params: Map<String, List<String>>, searchyDescriptor: SearchyDescriptor<T>, cursor: Cursor?, size: Int): Slice<*> {
+        val rootExpression = toRootExpression(params, searchyDescriptor)
+
+        // Find filtered entities from the Expressions, located after the given cursor
+        val slice = entitySearchService.findSlice(rootExpression, searchyDescriptor, cursor, size)
+
+        // Convert found entities to DTOs
+        return Slice(convert(slice.content, searchyDescriptor), slice.nextCursor)
+    }
+
+    private fun toRootExpression(params: Map<String, List<String>>, searchyDescriptor: SearchyDescriptor<T>): RootExpression<T> {
         // Mapping the given parameters to the associated expressions
-        val rootExpression = expressionMapper.toExpression(params, searchyDescriptor.entityClass)
+        val rootExpression = searchyMetrics.record(searchyDescriptor.id, SearchyStage.MAPPING) {
+            expressionMapper.toExpression(params, searchyDescriptor.entityClass)
+        }
 
         // Validate the resulting expressions with the found Search Descriptor
-        searchyValidationService.validate(rootExpression.toFieldExpressions(false), searchyDescriptor)
+        searchyMetrics.record(searchyDescriptor.id, SearchyStage.VALIDATION) {
+            searchyValidationService.validate(rootExpression.toFieldExpressions(false), searchyDescriptor)
+        }
 
-        // Find filtered entities from the Expressions
-        val entities = entitySearchService.findAll(rootExpression, searchyDescriptor)
+        return rootExpression
+    }
 
-        // Convert found entities to DTOs
-        return dtoConverterService.convert(entities, searchyDescriptor)
+    private fun toStreamRootExpression(params: Map<String, List<String>>, searchyDescriptor: SearchyDescriptor<T>): RootExpression<T> {
+        checkNoProjection(params)
+
+        return toRootExpression(params, searchyDescriptor)
     }
 
-}
\ No newline at end of file
+    private fun checkNoProjection(params: Map<String, List<String>>) {
+        if (params.containsKey(ExpressionMapper.FIELDS_PARAMETER)) {
+            throw ValidationException(
+                listOf(SearchyError("invalid-projection", "The parameter ''{0}'' is not supported by this search.", arrayOf(ExpressionMapper.FIELDS_PARAMETER)))
+            )
+        }
+    }
+
+    private fun project(rootExpression: RootExpression<T>, searchyDescriptor: SearchyDescriptor<T>, projection: Projection, pageRequest: PageRequest?): List<Map<String, Any?>> {
+        val results = entitySearchService.findAll(rootExpression, searchyDescriptor, projection, pageRequest)
+
+        searchyMetrics.recordResultSize(searchyDescriptor.id, results.size)
+
+        return results
+    }
+
+    private fun convert(entities: List<T>, searchyDescriptor: SearchyDescriptor<T>): List<DTO> {
+        searchyMetrics.recordResultSize(searchyDescriptor.id, entities.size)
+
+        return searchyMetrics.record(searchyDescriptor.id, SearchyStage.CONVERSION) {
+            dtoConverterService.convert(entities, searchyDescriptor)
+        }
+    }
+
+    private fun countTotal(rootExpression: RootExpression<T>, searchyDescriptor: SearchyDescriptor<T>, pageRequest: PageRequest, pageContentSize: Int): Long {
+        // The total can be deduced without a count query when the last page has been reached
+        if (pageContentSize in 1 until pageRequest.size || (pageContentSize == 0 && pageRequest.page == 0)) {
+            return pageRequest.offset + pageContentSize
+        }
+        return entitySearchService.count(rootExpression, searchyDescriptor)
+    }
+
+    /**
+     * Returns the DTOs cached for the given [RootExpression], or executes the given search and caches its DTOs.
+     */
+    private fun <R> cached(rootExpression: RootExpression<T>, searchyDescriptor: SearchyDescriptor<T>, pageRequest: PageRequest?, countTotal: Boolean, search: () -> R): R {
+        val cacheKey = getCacheKey(rootExpression, searchyDescriptor, pageRequest, countTotal) ?: return search()
+        return searchResultCache.get(searchyDescriptor, cacheKey, search)
+    }
+
+    /**
+     * Returns the key of the results of the given [RootExpression], or `null` if they must not be cached.
+     */
+    private fun getCacheKey(rootExpression: RootExpression<T>, searchyDescriptor: SearchyDescriptor<T>, pageRequest: PageRequest?, countTotal: Boolean): CacheKey? {
+        if (!searchResultCache.enabled || rootExpression !is RootExpressionImpl<T>) {
+            return null
+        }
+
+        // The RootExpression which can never be satisfied is not queried, so there is nothing to cache
+        val optimizedRootExpression = expressionOptimizer.optimize(rootExpression, searchyDescriptor.entityClass) as? RootExpressionImpl<T> ?: return null
+
+        val (sortExpressions, expressions) = optimizedRootExpression.expressions.partition { it is SortExpression }
+        if (!expressions.all { isCacheable(it) }) {
+            return null
+        }
+
+        // The criteria are combined with AND, so their order does not change the results, contrary to the order of the sort expressions
+        return CacheKey(expressions.toSet(), sortExpressions, pageRequest, countTotal)
+    }
+
+    private fun isCacheable(expression: Expression): Boolean {
+        return when (expression) {
+            is SimpleExpression -> {
+                val values = expression.value as? Collection<*> ?: listOf(expression.value)
+                values.none { it in KEYWORDS }
+            }
+            is LogicalExpression -> expression.expressions.all { isCacheable(it) }
+            is NotExpression -> isCacheable(expression.expression)
+            else -> false
+        }
+    }
+
+    /**
+     * Key of the identical searches. The order of the parameters is ignored, contrary to the order of their values.
+     */
+    private data class SearchKey(
+        val searchyDescriptorId: String,
+        val params: Map<String, List<String>>,
+        val pageRequest: PageRequest?,
+        val countTotal: Boolean
+    )
+
+    /**
+     * Key of the cached results. The order of the criteria is ignored, contrary to the order of the sort expressions.
+     */
+    private data class CacheKey(val expressions: Set<Expression>, val sortExpressions: List<Expression>, val pageRequest: PageRequest?, val countTotal: Boolean)
+
+}
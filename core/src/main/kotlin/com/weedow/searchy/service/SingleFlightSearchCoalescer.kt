@@ -0,0 +1,38 @@
+package com.weedow.searchy.service
+
+import com.weedow.searchy.utils.SingleFlight
+
+/**
+ * [SearchCoalescer] implementation which executes only the first of the identical concurrent searches:
+ * the other ones wait for it and receive its result, without querying the Database.
+ *
+ * The results are not kept after the end of the search, so they are never stale.
+ *
+ * By default, the converted result is shared. When [perCallerConversion] is `true`, the result of the search is shared,
+ * and each caller converts it. The Entities are loaded by the transaction of another caller,
+ * so the [DtoMapper][com.weedow.searchy.dto.DtoMapper] must not load their lazy associations.
+ *
+ * @param perCallerConversion whether each caller converts the shared result of the search. Default is `false`
+ */
+class SingleFlightSearchCoalescer(
+    private val perCallerConversion: Boolean = false
+) : SearchCoalescer {
+
+    private val inFlightSearches = SingleFlight<Any, Any?>()
+
+    /**
+     * Number of searches which have received the result of an identical concurrent search.
+     */
+    val coalescedCount: Long
+        get() = inFlightSearches.coalescedCount
+
+    override fun <R, C> coalesce(searchKey: Any, search: () -> R, conversion: (R) -> C): C {
+        @Suppress("UNCHECKED_CAST")
+        return if (perCallerConversion) {
+            conversion(inFlightSearches.execute(searchKey) { search() } as R)
+        } else {
+            inFlightSearches.execute(searchKey) { conversion(search()) } as C
+        }
+    }
+
+}
@@ -1,6 +1,7 @@
 package com.weedow.searchy.utils
 
 import org.apache.commons.lang3.reflect.FieldUtils
+import org.springframework.util.ReflectionUtils
 import java.lang.reflect.Field
 import java.lang.reflect.ParameterizedType
 import java.lang.reflect.WildcardType
@@ -40,4 +41,54 @@ object EntityUtils {
         }
     }
 
-}
\ No newline at end of file
+    /**
+     * Gets the value of the given field path in the given entity.
+     *
+     * When a parent field is a [Collection], the values of the nested field are returned in a [List].
+     *
+     * @param entity the entity from which to read the value
+     * @param fieldPath Path of the field. The nested field path contains dots to separate the parents fields (eg. vehicle.brand)
+     * @return the value of the field, or `null` if a parent field is `null`
+     * @throws IllegalArgumentException if a field is not found
+     */
+    fun getFieldValue(entity: Any?, fieldPath: String): Any? {
+        return getFieldValue(entity, fieldPath.split(FIELD_PATH_SEPARATOR))
+    }
+
+    /**
+     * Checks whether the given field path has at most one value for each entity.
+     *
+     * The field path is multi-valued when the field or one of its parents is a [Collection], a [Map] or an array.
+     *
+     * @param clazz the [Class] of the entity
+     * @param fieldPath Path of the field. The nested field path contains dots to separate the parents fields (eg. vehicle.brand)
+     * @return `true` if the field path is single-valued, `false` if it is multi-valued or if a field is not found
+     */
+    fun isSingleValued(clazz: Class<*>, fieldPath: String): Boolean {
+        var parentClass = clazz
+        fieldPath.split(FIELD_PATH_SEPARATOR).forEach { fieldName ->
+            val field = ReflectionUtils.findField(parentClass, fieldName) ?: return false
+            if (Collection::class.java.isAssignableFrom(field.type) || Map::class.java.isAssignableFrom(field.type) || field.type.isArray) {
+                return false
+            }
+            parentClass = field.type
+        }
+        return true
+    }
+
+    private fun getFieldValue(value: Any?, parts: List<String>): Any? {
+        if (value == null || parts.isEmpty()) {
+            return value
+        }
+        if (value is Collection<*>) {
+            return value.map { getFieldValue(it, parts) }
+        }
+
+        val field = ReflectionUtils.findField(value.javaClass, parts[0])
+            ?: throw IllegalArgumentException("Could not find the field '${parts[0]}' in ${value.javaClass.name}")
+        ReflectionUtils.makeAccessible(field)
+
+        return getFieldValue(field.get(value), parts.subList(1, parts.size))
+    }
+
+}
@@ -0,0 +1,31 @@
+package com.weedow.searchy.utils
+
+/**
+ * Utility methods for the patterns of the [MATCHES][com.weedow.searchy.expression.Operator.MATCHES] and
+ * [IMATCHES][com.weedow.searchy.expression.Operator.IMATCHES] operators.
+ */
+object PatternUtils {
+
+    /**
+     * Wildcard matching any sequence of characters
+     */
+    const val WILDCARD = '*'
+
+    /**
+     * Returns the prefix of the given pattern if its only wildcard is the trailing one (eg. `John*`).
+     *
+     * The values matching such a pattern can be searched by an index.
+     *
+     * @param pattern pattern of a [MATCHES][com.weedow.searchy.expression.Operator.MATCHES] expression
+     * @return the prefix, or `null` if the pattern is not a prefix pattern
+     */
+    fun getPrefix(pattern: String): String? {
+        if (pattern.length < 2 || pattern.last() != WILDCARD) {
+            return null
+        }
+        val prefix = pattern.dropLast(1)
+        // The characters '%' and '_' are also wildcards for SQL
+        return prefix.takeIf { it.none { c -> c == WILDCARD || c == '%' || c == '_' } }
+    }
+
+}
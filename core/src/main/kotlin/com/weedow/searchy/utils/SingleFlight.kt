@@ -0,0 +1,70 @@
+package com.weedow.searchy.utils
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CompletionException
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ConcurrentMap
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Coalesces the concurrent executions of identical actions.
+ *
+ * The first caller executes the action, and the callers arriving with the same key while the action is in flight
+ * wait for it and receive the same result, or the same exception.
+ * Once the action is completed, the next caller executes it again: the results are never reused after their computation.
+ *
+ * @param K type of the keys identifying the identical actions. It must implement `equals` and `hashCode`
+ * @param V type of the results
+ */
+class SingleFlight<K : Any, V> {
+
+    private val inFlightCalls: ConcurrentMap<K, CompletableFuture<V>> = ConcurrentHashMap()
+
+    private val coalescedCalls = AtomicLong()
+
+    /**
+     * Number of callers which have received the result of an action executed by another caller.
+     */
+    val coalescedCount: Long
+        get() = coalescedCalls.get()
+
+    /**
+     * Executes the given action, or waits for the identical action in flight and returns its result.
+     *
+     * @param key key identifying the action
+     * @param action action to be executed
+     * @return the result of the action
+     */
+    fun execute(key: K, action: () -> V): V {
+        val call = CompletableFuture<V>()
+        val inFlightCall = inFlightCalls.putIfAbsent(key, call)
+        if (inFlightCall != null) {
+            coalescedCalls.incrementAndGet()
+            return await(inFlightCall)
+        }
+
+        try {
+            val result = action()
+            call.complete(result)
+            return result
+        } catch (e: Throwable) {
+            call.completeExceptionally(e)
+            throw e
+        } finally {
+            inFlightCalls.remove(key, call)
+        }
+    }
+
+    private fun await(call: CompletableFuture<V>): V {
+        try {
+            return call.get()
+        } catch (e: ExecutionException) {
+            // The exception thrown by the action is rethrown as is
+            throw e.cause ?: e
+        } catch (e: CompletionException) {
+            throw e.cause ?: e
+        }
+    }
+
+}
@@ -50,6 +50,31 @@ internal class DefaultAliasResolutionServiceTest {
         Assertions.assertThat(fieldName).isEqualTo(alias)
     }
 
+    @Test
+    fun get_aliases() {
+        val aliasResolutionService = DefaultAliasResolutionService()
+
+        val personAliasResolver = PersonAliasResolver()
+        aliasResolutionService.addAliasResolver(personAliasResolver)
+
+        val result = aliasResolutionService.getAliases(Person::class.java)
+        Assertions.assertThat(result).containsOnly(
+            Assertions.entry("first_name", "firstName"),
+            Assertions.entry("last_name", "lastName"),
+            Assertions.entry("address", "addressEntities"),
+            Assertions.entry("addresses", "addressEntities")
+        )
+    }
+
+    @Test
+    fun get_aliases_when_no_alias_resolver() {
+        val aliasResolutionService = DefaultAliasResolutionService()
+
+        val result = aliasResolutionService.getAliases(Person::class.java)
+
+        Assertions.assertThat(result).isEmpty()
+    }
+
     private class PersonAliasResolver : AliasResolver {
 
         override fun supports(entityClass: Class<*>, field: Field): Boolean {
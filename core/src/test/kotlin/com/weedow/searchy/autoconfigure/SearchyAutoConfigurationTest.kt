@@ -5,6 +5,7 @@ import com.weedow.searchy.config.SearchyConfigurationSupport
 import com.weedow.searchy.config.SearchyConfigurer
 import com.weedow.searchy.controller.reactive.SearchyReactiveController
 import com.weedow.searchy.controller.servlet.SearchyServletController
+import com.weedow.searchy.service.ReactiveSearchyService
 import org.apache.commons.lang3.reflect.MethodUtils
 import org.assertj.core.api.Assertions.assertThat
 import org.junit.jupiter.api.Test
@@ -26,17 +27,21 @@ internal class SearchyAutoConfigurationTest {
             "expressionMapper",
             "expressionParserVisitorFactory",
             "expressionParser",
+            "expressionOptimizer",
             "searchyService",
+            "searchCoalescer",
             "searchyValidationService",
             "searchyErrorsFactory",
             "entitySearchService",
+            "searchResultCache",
             "defaultDtoMapper",
             "dtoConverterService",
             "specificationService",
             "entityJoinManager",
             "searchyDescriptorService",
             "searchAliasResolutionService",
-            "searchConversionService"
+            "searchConversionService",
+            "searchyMetrics"
         )
     }
 
@@ -74,6 +79,7 @@ internal class SearchyAutoConfigurationTest {
             .run { context ->
                 assertThat(context).hasSingleBean(SearchyServletController::class.java)
                 assertThat(context).doesNotHaveBean(SearchyReactiveController::class.java)
+                assertThat(context).doesNotHaveBean(ReactiveSearchyService::class.java)
                 BEANS_LIST.forEach { assertThat(context).hasBean(it) }
             }
     }
@@ -93,6 +99,7 @@ internal class SearchyAutoConfigurationTest {
             .run { context ->
                 assertThat(context).hasSingleBean(SearchyReactiveController::class.java)
                 assertThat(context).doesNotHaveBean(SearchyServletController::class.java)
+                assertThat(context).hasSingleBean(ReactiveSearchyService::class.java)
                 BEANS_LIST.forEach { assertThat(context).hasBean(it) }
             }
     }
@@ -0,0 +1,67 @@
+package com.weedow.searchy.autoconfigure
+
+import com.weedow.searchy.TestConfiguration
+import com.weedow.searchy.metrics.MicrometerSearchyMetrics
+import com.weedow.searchy.metrics.NoOpSearchyMetrics
+import com.weedow.searchy.metrics.SearchyMetrics
+import io.micrometer.core.instrument.MeterRegistry
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.springframework.boot.autoconfigure.AutoConfigurations
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration
+import org.springframework.boot.test.context.FilteredClassLoader
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner
+import org.springframework.context.annotation.Bean
+import org.springframework.context.annotation.Configuration
+
+internal class SearchyMetricsAutoConfigurationTest {
+
+    private val contextRunner = WebApplicationContextRunner()
+        .withConfiguration(
+            AutoConfigurations.of(
+                TestConfiguration::class.java,
+                WebMvcAutoConfiguration::class.java,
+                SearchyMetricsAutoConfiguration::class.java,
+                SearchyAutoConfiguration::class.java
+            )
+        )
+
+    @Test
+    fun record_metrics_with_micrometer_when_MeterRegistry_is_present() {
+        contextRunner
+            .withUserConfiguration(MeterRegistryConfiguration::class.java)
+            .run { context ->
+                assertThat(context).hasSingleBean(SearchyMetrics::class.java)
+                assertThat(context).getBean(SearchyMetrics::class.java).isInstanceOf(MicrometerSearchyMetrics::class.java)
+            }
+    }
+
+    @Test
+    fun record_no_metrics_when_MeterRegistry_is_not_present() {
+        contextRunner
+            .run { context ->
+                assertThat(context).hasSingleBean(SearchyMetrics::class.java)
+                assertThat(context).getBean(SearchyMetrics::class.java).isInstanceOf(NoOpSearchyMetrics::class.java)
+            }
+    }
+
+    @Test
+    fun record_no_metrics_when_micrometer_is_not_present() {
+        contextRunner
+            .withClassLoader(FilteredClassLoader(MeterRegistry::class.java))
+            .run { context ->
+                assertThat(context).hasSingleBean(SearchyMetrics::class.java)
+                assertThat(context).getBean(SearchyMetrics::class.java).isInstanceOf(NoOpSearchyMetrics::class.java)
+            }
+    }
+
+    @Configuration
+    internal class MeterRegistryConfiguration {
+
+        @Bean
+        fun meterRegistry(): MeterRegistry = SimpleMeterRegistry()
+
+    }
+
+}
@@ -0,0 +1,49 @@
+package com.weedow.searchy.autoconfigure
+
+import com.nhaarman.mockitokotlin2.argThat
+import com.nhaarman.mockitokotlin2.atLeastOnce
+import com.nhaarman.mockitokotlin2.verify
+import com.weedow.searchy.alias.AliasResolutionService
+import com.weedow.searchy.common.model.Address
+import com.weedow.searchy.common.model.Person
+import com.weedow.searchy.descriptor.SearchyDescriptor
+import com.weedow.searchy.join.EntityJoinManager
+import com.weedow.searchy.query.pagination.PageRequest
+import com.weedow.searchy.service.SearchyService
+import org.junit.jupiter.api.Test
+import org.springframework.boot.test.context.SpringBootTest
+import org.springframework.boot.test.mock.mockito.SpyBean
+
+/**
+ * Class to test the warm-up of the Search Descriptors at startup.
+ */
+@SpringBootTest(
+    properties = [
+        "spring.main.web-application-type=servlet",
+        "weedow.searchy.warmup.enabled=true",
+        "weedow.searchy.warmup.probe-query=true"
+    ]
+)
+internal class SearchyWarmupIntegrationTest {
+
+    @SpyBean
+    private lateinit var entityJoinManager: EntityJoinManager
+
+    @SpyBean
+    private lateinit var searchAliasResolutionService: AliasResolutionService
+
+    @SpyBean
+    private lateinit var searchyService: SearchyService
+
+    @Test
+    fun warm_up_search_descriptors_at_startup() {
+        verify(entityJoinManager, atLeastOnce()).computeEntityJoins(argThat<SearchyDescriptor<*>> { id == "my_descriptor_id" })
+
+        // Aliases of the Entity and of the joined Entities
+        verify(searchAliasResolutionService, atLeastOnce()).getAliases(Person::class.java)
+        verify(searchAliasResolutionService, atLeastOnce()).getAliases(Address::class.java)
+
+        verify(searchyService, atLeastOnce()).search("my_descriptor_id", emptyMap(), PageRequest(0, 1), false)
+    }
+
+}
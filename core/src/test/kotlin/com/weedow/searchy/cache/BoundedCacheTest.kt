@@ -0,0 +1,106 @@
+package com.weedow.searchy.cache
+
+import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.whenever
+import org.assertj.core.api.Assertions.assertThat
+import org.assertj.core.api.Assertions.assertThatThrownBy
+import org.junit.jupiter.api.Test
+import java.time.Clock
+import java.time.Duration
+import java.util.concurrent.Executor
+
+internal class BoundedCacheTest {
+
+    @Test
+    fun get_uses_the_cache() {
+        val cache = BoundedCache<String, Int>("test", 10, Duration.ofMinutes(1))
+
+        val loader = CountingLoader()
+        assertThat(cache.get("key", loader)).isEqualTo(1)
+        assertThat(cache.get("key", loader)).isEqualTo(1)
+
+        assertThat(loader.count).isEqualTo(1)
+        assertThat(cache.hitCount).isEqualTo(1)
+        assertThat(cache.missCount).isEqualTo(1)
+    }
+
+    @Test
+    fun evict_the_least_recently_used_value_when_the_cache_is_full() {
+        val cache = BoundedCache<String, Int>("test", 2, Duration.ofMinutes(1))
+
+        val loader1 = CountingLoader()
+        val loader2 = CountingLoader()
+        val loader3 = CountingLoader()
+        cache.get("key1", loader1)
+        cache.get("key2", loader2)
+        // key1 becomes the most recently used value
+        cache.get("key1", loader1)
+        cache.get("key3", loader3)
+
+        cache.get("key1", loader1)
+        cache.get("key2", loader2)
+
+        assertThat(loader1.count).isEqualTo(1)
+        assertThat(loader2.count).isEqualTo(2)
+    }
+
+    @Test
+    fun load_again_when_the_cached_value_is_expired() {
+        val clock = mock<Clock>()
+        whenever(clock.millis()).thenReturn(0L, 59_999L, 60_000L)
+
+        val cache = BoundedCache<String, Int>("test", 10, Duration.ofMinutes(1), clock = clock)
+
+        val loader = CountingLoader()
+        assertThat(cache.get("key", loader)).isEqualTo(1)
+        assertThat(cache.get("key", loader)).isEqualTo(1)
+        assertThat(cache.get("key", loader)).isEqualTo(2)
+    }
+
+    @Test
+    fun do_not_cache_the_value_loaded_before_a_clear() {
+        val cache = BoundedCache<String, Int>("test", 10, Duration.ofMinutes(1))
+
+        val loader = CountingLoader()
+        cache.get("key", {
+            cache.clear()
+            loader()
+        })
+        cache.get("key", loader)
+        cache.get("key", loader)
+
+        assertThat(loader.count).isEqualTo(2)
+    }
+
+    @Test
+    fun reload_the_value_in_the_background_before_its_expiration() {
+        val clock = mock<Clock>()
+        whenever(clock.millis()).thenReturn(0L, 50_000L, 50_000L, 99_999L)
+
+        val cache = BoundedCache<String, Int>("test", 10, Duration.ofMinutes(1), Duration.ofSeconds(10), Executor { it.run() }, clock)
+
+        val loader = CountingLoader()
+        assertThat(cache.get("key", loader) { 42 }).isEqualTo(1)
+        // The value is returned from the cache and reloaded in the background
+        assertThat(cache.get("key", loader) { 42 }).isEqualTo(1)
+        assertThat(cache.get("key", loader) { 42 }).isEqualTo(42)
+
+        assertThat(loader.count).isEqualTo(1)
+    }
+
+    @Test
+    fun throw_exception_when_max_size_is_not_positive() {
+        assertThatThrownBy { BoundedCache<String, Int>("test", 0, Duration.ofMinutes(1)) }
+            .isInstanceOf(IllegalArgumentException::class.java)
+            .hasMessage("The maximum size of the cache must be greater than 0")
+    }
+
+    private class CountingLoader : () -> Int {
+        var count = 0
+
+        override fun invoke(): Int {
+            return ++count
+        }
+    }
+
+}
@@ -0,0 +1,207 @@
+package com.weedow.searchy.cache
+
+import com.nhaarman.mockitokotlin2.any
+import com.nhaarman.mockitokotlin2.doReturn
+import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.whenever
+import com.weedow.searchy.common.model.Address
+import com.weedow.searchy.common.model.Person
+import com.weedow.searchy.common.model.Vehicle
+import com.weedow.searchy.descriptor.SearchyDescriptor
+import com.weedow.searchy.join.EntityJoinManager
+import com.weedow.searchy.join.EntityJoins
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.extension.ExtendWith
+import org.mockito.Mock
+import org.mockito.junit.jupiter.MockitoExtension
+import org.springframework.transaction.support.TransactionCallback
+import org.springframework.transaction.support.TransactionOperations
+import java.time.Clock
+import java.time.Duration
+import java.util.concurrent.Executor
+
+@ExtendWith(MockitoExtension::class)
+internal class SearchResultCacheTest {
+
+    @Mock
+    private lateinit var entityJoinManager: EntityJoinManager
+
+    private val searchyDescriptor = mock<SearchyDescriptor<Person>> {
+        on { this.id }.doReturn("person")
+    }
+
+    @Test
+    fun get_uses_the_cache() {
+        mockEntityClasses(Person::class.java)
+
+        val searchResultCache = SearchResultCache(entityJoinManager, SearchResultCache.Bounds(10, Duration.ofMinutes(1)))
+
+        val loader = CountingLoader()
+        assertThat(searchResultCache.get(searchyDescriptor, "key", loader)).isEqualTo(listOf(1))
+        assertThat(searchResultCache.get(searchyDescriptor, "key", loader)).isEqualTo(listOf(1))
+
+        assertThat(loader.count).isEqualTo(1)
+        assertThat(searchResultCache.hitCount).isEqualTo(1)
+        assertThat(searchResultCache.missCount).isEqualTo(1)
+    }
+
+    @Test
+    fun evict_the_least_recently_used_result_when_the_cache_is_full() {
+        mockEntityClasses(Person::class.java)
+
+        val searchResultCache = SearchResultCache(entityJoinManager, SearchResultCache.Bounds(2, Duration.ofMinutes(1)))
+
+        val loader1 = CountingLoader()
+        val loader2 = CountingLoader()
+        val loader3 = CountingLoader()
+        searchResultCache.get(searchyDescriptor, "key1", loader1)
+        searchResultCache.get(searchyDescriptor, "key2", loader2)
+        searchResultCache.get(searchyDescriptor, "key1", loader1) // key2 becomes the least recently used key
+        searchResultCache.get(searchyDescriptor, "key3", loader3) // key2 is evicted
+        searchResultCache.get(searchyDescriptor, "key1", loader1)
+        searchResultCache.get(searchyDescriptor, "key2", loader2)
+
+        assertThat(loader1.count).isEqualTo(1)
+        assertThat(loader2.count).isEqualTo(2)
+        assertThat(loader3.count).isEqualTo(1)
+    }
+
+    @Test
+    fun load_again_when_the_cached_result_is_expired() {
+        mockEntityClasses(Person::class.java)
+
+        val clock = mock<Clock>()
+        whenever(clock.millis()).thenReturn(0L, 59_999L, 60_000L)
+
+        val searchResultCache = SearchResultCache(entityJoinManager, SearchResultCache.Bounds(10, Duration.ofMinutes(1)), clock = clock)
+
+        val loader = CountingLoader()
+        searchResultCache.get(searchyDescriptor, "key", loader)
+        searchResultCache.get(searchyDescriptor, "key", loader)
+        searchResultCache.get(searchyDescriptor, "key", loader)
+
+        assertThat(loader.count).isEqualTo(2)
+    }
+
+    @Test
+    fun do_not_cache_when_max_size_of_the_descriptor_is_zero() {
+        val searchResultCache = SearchResultCache(
+            entityJoinManager,
+            SearchResultCache.Bounds(10, Duration.ofMinutes(1)),
+            mapOf("person" to SearchResultCache.Bounds(0, Duration.ofMinutes(1)))
+        )
+
+        val loader = CountingLoader()
+        searchResultCache.get(searchyDescriptor, "key", loader)
+        searchResultCache.get(searchyDescriptor, "key", loader)
+
+        assertThat(loader.count).isEqualTo(2)
+    }
+
+    @Test
+    fun evict_the_results_of_the_descriptors_touching_the_entity_class() {
+        mockEntityClasses(Person::class.java, Address::class.java)
+
+        val searchResultCache = SearchResultCache(entityJoinManager, SearchResultCache.Bounds(10, Duration.ofMinutes(1)))
+
+        val loader = CountingLoader()
+        searchResultCache.get(searchyDescriptor, "key", loader)
+
+        searchResultCache.evict(Vehicle::class.java)
+        searchResultCache.get(searchyDescriptor, "key", loader)
+        assertThat(loader.count).isEqualTo(1)
+
+        searchResultCache.evict(Address::class.java)
+        searchResultCache.get(searchyDescriptor, "key", loader)
+        assertThat(loader.count).isEqualTo(2)
+    }
+
+    @Test
+    fun do_not_cache_the_result_loaded_before_an_eviction() {
+        mockEntityClasses(Person::class.java)
+
+        val searchResultCache = SearchResultCache(entityJoinManager, SearchResultCache.Bounds(10, Duration.ofMinutes(1)))
+
+        val loader = CountingLoader()
+        // An Entity is changed while the result is loaded
+        searchResultCache.get(searchyDescriptor, "key") {
+            searchResultCache.evict(Person::class.java)
+            loader()
+        }
+        searchResultCache.get(searchyDescriptor, "key", loader)
+        searchResultCache.get(searchyDescriptor, "key", loader)
+
+        assertThat(loader.count).isEqualTo(2)
+    }
+
+    @Test
+    fun refresh_the_hot_result_before_its_expiration() {
+        mockEntityClasses(Person::class.java)
+
+        val clock = mock<Clock>()
+        whenever(clock.millis()).thenReturn(0L, 49_999L, 50_000L, 50_000L, 99_999L)
+
+        val searchResultCache = SearchResultCache(
+            entityJoinManager,
+            SearchResultCache.Bounds(10, Duration.ofMinutes(1)),
+            refreshAheadTime = Duration.ofSeconds(10),
+            executor = Executor { it.run() },
+            clock = clock
+        )
+
+        val loader = CountingLoader()
+        assertThat(searchResultCache.get(searchyDescriptor, "key", loader)).isEqualTo(listOf(1))
+        assertThat(searchResultCache.get(searchyDescriptor, "key", loader)).isEqualTo(listOf(1))
+        // The result is returned from the cache and refreshed in the background
+        assertThat(searchResultCache.get(searchyDescriptor, "key", loader)).isEqualTo(listOf(1))
+        // The refreshed result expires one minute after its refresh
+        assertThat(searchResultCache.get(searchyDescriptor, "key", loader)).isEqualTo(listOf(2))
+
+        assertThat(loader.count).isEqualTo(2)
+        assertThat(searchResultCache.missCount).isEqualTo(1)
+    }
+
+    @Test
+    fun refresh_the_hot_result_within_a_transaction() {
+        mockEntityClasses(Person::class.java)
+
+        val clock = mock<Clock>()
+        whenever(clock.millis()).thenReturn(0L, 50_000L, 50_000L)
+
+        val transactionOperations = mock<TransactionOperations>()
+        whenever(transactionOperations.execute(any<TransactionCallback<Any?>>())).thenReturn(listOf(42))
+
+        val searchResultCache = SearchResultCache(
+            entityJoinManager,
+            SearchResultCache.Bounds(10, Duration.ofMinutes(1)),
+            refreshAheadTime = Duration.ofSeconds(10),
+            executor = Executor { it.run() },
+            transactionOperations = transactionOperations,
+            clock = clock
+        )
+
+        val loader = CountingLoader()
+        searchResultCache.get(searchyDescriptor, "key", loader)
+        searchResultCache.get(searchyDescriptor, "key", loader)
+
+        // The result is reloaded by the TransactionOperations, not by the thread of the request
+        assertThat(loader.count).isEqualTo(1)
+        assertThat(searchResultCache.get(searchyDescriptor, "key", loader)).isEqualTo(listOf(42))
+    }
+
+    private fun mockEntityClasses(vararg entityClasses: Class<*>) {
+        val entityJoins = mock<EntityJoins>()
+        whenever(entityJoins.getEntityClasses()).thenReturn(entityClasses.toSet())
+        whenever(entityJoinManager.computeEntityJoins(searchyDescriptor)).thenReturn(entityJoins)
+    }
+
+    private class CountingLoader : () -> List<Int> {
+        var count = 0
+
+        override fun invoke(): List<Int> {
+            return listOf(++count)
+        }
+    }
+
+}
@@ -1,9 +1,18 @@
 package com.weedow.searchy.controller.reactive
 
 import com.nhaarman.mockitokotlin2.verify
+import com.nhaarman.mockitokotlin2.verifyNoMoreInteractions
 import com.nhaarman.mockitokotlin2.whenever
 import com.weedow.searchy.common.dto.PersonDto
+import com.weedow.searchy.config.Facets
+import com.weedow.searchy.config.Pagination
 import com.weedow.searchy.config.SearchyProperties
+import com.weedow.searchy.query.facet.Facet
+import com.weedow.searchy.query.facet.FacetBucket
+import com.weedow.searchy.query.facet.FacetType
+import com.weedow.searchy.query.pagination.Page
+import com.weedow.searchy.query.pagination.PageRequest
+import com.weedow.searchy.service.ReactiveSearchyService
 import com.weedow.searchy.service.SearchyService
 import org.assertj.core.api.Assertions.assertThat
 import org.assertj.core.groups.Tuple
@@ -15,11 +24,14 @@ import org.mockito.Mock
 import org.mockito.Spy
 import org.mockito.junit.jupiter.MockitoExtension
 import org.springframework.http.HttpStatus
+import org.springframework.http.MediaType
 import org.springframework.util.LinkedMultiValueMap
 import org.springframework.util.MultiValueMap
 import org.springframework.web.bind.annotation.RequestMethod
 import org.springframework.web.reactive.result.method.RequestMappingInfo
 import org.springframework.web.reactive.result.method.annotation.RequestMappingHandlerMapping
+import reactor.core.publisher.Flux
+import reactor.core.publisher.Mono
 
 @ExtendWith(MockitoExtension::class)
 internal class SearchyReactiveControllerTest {
@@ -27,6 +39,9 @@ internal class SearchyReactiveControllerTest {
     @Mock
     private lateinit var searchyService: SearchyService
 
+    @Mock
+    private lateinit var reactiveSearchyService: ReactiveSearchyService
+
     @Spy
     private val searchyProperties: SearchyProperties = SearchyProperties()
 
@@ -49,6 +64,47 @@ internal class SearchyReactiveControllerTest {
             searchyController,
             SearchyReactiveController::class.java.getMethod("search", String::class.java, MultiValueMap::class.java)
         )
+
+        val streamMapping = RequestMappingInfo
+            .paths("/search/{searchyDescriptorId}")
+            .methods(RequestMethod.GET)
+            .produces(MediaType.APPLICATION_NDJSON_VALUE)
+            .build()
+        verify(requestMappingHandlerMapping).registerMapping(
+            streamMapping,
+            searchyController,
+            SearchyReactiveController::class.java.getMethod("stream", String::class.java, MultiValueMap::class.java)
+        )
+
+        val countMapping = RequestMappingInfo
+            .paths("/search/{searchyDescriptorId}/count")
+            .methods(RequestMethod.GET)
+            .build()
+        verify(requestMappingHandlerMapping).registerMapping(
+            countMapping,
+            searchyController,
+            SearchyReactiveController::class.java.getMethod("count", String::class.java, MultiValueMap::class.java)
+        )
+
+        val existsMapping = RequestMappingInfo
+            .paths("/search/{searchyDescriptorId}/exists")
+            .methods(RequestMethod.GET)
+            .build()
+        verify(requestMappingHandlerMapping).registerMapping(
+            existsMapping,
+            searchyController,
+            SearchyReactiveController::class.java.getMethod("exists", String::class.java, MultiValueMap::class.java)
+        )
+
+        val facetsMapping = RequestMappingInfo
+            .paths("/search/{searchyDescriptorId}/facets")
+            .methods(RequestMethod.GET)
+            .build()
+        verify(requestMappingHandlerMapping).registerMapping(
+            facetsMapping,
+            searchyController,
+            SearchyReactiveController::class.java.getMethod("facets", String::class.java, MultiValueMap::class.java)
+        )
     }
 
     @Test
@@ -62,16 +118,135 @@ internal class SearchyReactiveControllerTest {
         params.add(fieldPath, fieldValue)
 
         val person = PersonDto.Builder().firstName(firstName).lastName(lastName).build()
-        whenever(searchyService.search(searchyDescriptorId, params)).thenReturn(listOf(person))
+        whenever(reactiveSearchyService.search(searchyDescriptorId, params)).thenReturn(Flux.just(person))
 
         val responseEntity = searchyController.search(searchyDescriptorId, params)
 
         assertThat(responseEntity.statusCode).isEqualTo(HttpStatus.OK)
-        assertThat(responseEntity.body)
-            .isInstanceOf(List::class.java)
+        assertThat((responseEntity.body as Flux<*>).collectList().block())
             .hasOnlyElementsOfType(PersonDto::class.java)
             .extracting("firstName", "lastName")
             .containsExactly(Tuple.tuple(firstName, lastName))
+
+        verifyNoMoreInteractions(searchyService)
+    }
+
+    @Test
+    fun search_limited_by_max_results() {
+        val searchyDescriptorId = "person"
+        val params = LinkedMultiValueMap<String, String>()
+        params.add("lastName", "Doe")
+
+        whenever(searchyProperties.pagination).thenReturn(Pagination(maxResults = 100))
+
+        val person = PersonDto.Builder().firstName("John").lastName("Doe").build()
+        whenever(reactiveSearchyService.search(searchyDescriptorId, params, PageRequest(0, 100))).thenReturn(Flux.just(person))
+
+        val responseEntity = searchyController.search(searchyDescriptorId, params)
+
+        assertThat(responseEntity.statusCode).isEqualTo(HttpStatus.OK)
+        assertThat((responseEntity.body as Flux<*>).collectList().block()).containsExactly(person)
+    }
+
+    @Test
+    fun search_page_with_blocking_service() {
+        val searchyDescriptorId = "person"
+        val params = LinkedMultiValueMap<String, String>()
+        params.add("lastName", "Doe")
+        params.add("page", "1")
+        params.add("size", "5")
+
+        val searchParams = LinkedMultiValueMap<String, String>()
+        searchParams.add("lastName", "Doe")
+
+        val person = PersonDto.Builder().firstName("John").lastName("Doe").build()
+        val page = Page(listOf(person), 1, 5, 6L)
+        whenever(searchyService.search(searchyDescriptorId, searchParams, PageRequest(1, 5), true)).thenReturn(page)
+
+        val responseEntity = searchyController.search(searchyDescriptorId, params)
+
+        assertThat(responseEntity.statusCode).isEqualTo(HttpStatus.OK)
+        assertThat((responseEntity.body as Mono<*>).block()).isSameAs(page)
+
+        verifyNoMoreInteractions(reactiveSearchyService)
+    }
+
+    @Test
+    fun stream_successfully() {
+        val searchyDescriptorId = "person"
+        val params = LinkedMultiValueMap<String, String>()
+        params.add("lastName", "Doe")
+        params.add("size", "10")
+
+        val searchParams = LinkedMultiValueMap<String, String>()
+        searchParams.add("lastName", "Doe")
+
+        val john = PersonDto.Builder().firstName("John").lastName("Doe").build()
+        val jane = PersonDto.Builder().firstName("Jane").lastName("Doe").build()
+        whenever(reactiveSearchyService.search(searchyDescriptorId, searchParams)).thenReturn(Flux.just(john, jane))
+
+        val responseEntity = searchyController.stream(searchyDescriptorId, params)
+
+        assertThat(responseEntity.statusCode).isEqualTo(HttpStatus.OK)
+        assertThat(responseEntity.headers.contentType).isEqualTo(MediaType.APPLICATION_NDJSON)
+        assertThat(responseEntity.body!!.collectList().block()).containsExactly(john, jane)
+
+        verifyNoMoreInteractions(searchyService)
+    }
+
+    @Test
+    fun count_with_blocking_service() {
+        val searchyDescriptorId = "person"
+        val params = LinkedMultiValueMap<String, String>()
+        params.add("lastName", "Doe")
+
+        whenever(searchyService.count(searchyDescriptorId, params)).thenReturn(42L)
+
+        val responseEntity = searchyController.count(searchyDescriptorId, params)
+
+        assertThat(responseEntity.statusCode).isEqualTo(HttpStatus.OK)
+        assertThat((responseEntity.body as Mono<*>).block()).isEqualTo(42L)
+
+        verifyNoMoreInteractions(reactiveSearchyService)
+    }
+
+    @Test
+    fun exists_with_blocking_service() {
+        val searchyDescriptorId = "person"
+        val params = LinkedMultiValueMap<String, String>()
+        params.add("lastName", "Doe")
+
+        whenever(searchyService.exists(searchyDescriptorId, params)).thenReturn(false)
+
+        val responseEntity = searchyController.exists(searchyDescriptorId, params)
+
+        assertThat(responseEntity.statusCode).isEqualTo(HttpStatus.OK)
+        assertThat((responseEntity.body as Mono<*>).block()).isEqualTo(false)
+
+        verifyNoMoreInteractions(reactiveSearchyService)
+    }
+
+    @Test
+    fun facets_with_blocking_service() {
+        val searchyDescriptorId = "person"
+        val params = LinkedMultiValueMap<String, String>()
+        params.add("lastName", "Doe")
+        params.add("facet", "jobEntity.company")
+        params.add("page", "1")
+
+        val facetParams = LinkedMultiValueMap<String, String>()
+        facetParams.add("lastName", "Doe")
+        facetParams.add("facet", "jobEntity.company")
+
+        val facets = listOf(Facet("jobEntity.company", FacetType.TERMS, listOf(FacetBucket("Acme", 2L))))
+        whenever(searchyService.facets(searchyDescriptorId, facetParams, Facets.DEFAULT_MAX_BUCKETS)).thenReturn(facets)
+
+        val responseEntity = searchyController.facets(searchyDescriptorId, params)
+
+        assertThat(responseEntity.statusCode).isEqualTo(HttpStatus.OK)
+        assertThat((responseEntity.body as Mono<*>).block()).isEqualTo(facets)
+
+        verifyNoMoreInteractions(reactiveSearchyService)
     }
 
-}
\ No newline at end of file
+}
@@ -1,11 +1,17 @@
 package com.weedow.searchy.controller.servlet
 
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.nhaarman.mockitokotlin2.any
+import com.nhaarman.mockitokotlin2.doAnswer
+import com.nhaarman.mockitokotlin2.eq
 import com.nhaarman.mockitokotlin2.verifyZeroInteractions
 import com.nhaarman.mockitokotlin2.whenever
 import com.weedow.searchy.common.dto.PersonDto
 import com.weedow.searchy.config.SearchyProperties
 import com.weedow.searchy.exception.SearchyDescriptorNotFound
 import com.weedow.searchy.exception.ValidationException
+import com.weedow.searchy.query.pagination.Page
+import com.weedow.searchy.query.pagination.PageRequest
 import com.weedow.searchy.service.SearchyService
 import com.weedow.searchy.validation.SearchyError
 import org.junit.jupiter.api.BeforeEach
@@ -18,6 +24,9 @@ import org.mockito.junit.jupiter.MockitoExtension
 import org.springframework.http.MediaType
 import org.springframework.test.web.servlet.MockMvc
 import org.springframework.test.web.servlet.get
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers.content
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers.status
 import org.springframework.test.web.servlet.setup.MockMvcBuilders
 import org.springframework.util.LinkedMultiValueMap
 import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping
@@ -34,6 +43,9 @@ internal class SearchyServletControllerIntegrationTest {
     @Spy
     private val requestMappingHandlerMapping: RequestMappingHandlerMapping = RequestMappingHandlerMapping()
 
+    @Spy
+    private val objectMapper: ObjectMapper = ObjectMapper()
+
     @InjectMocks
     lateinit var searchyServletController: SearchyServletController
 
@@ -88,6 +100,40 @@ internal class SearchyServletControllerIntegrationTest {
         }
     }
 
+    @Test
+    fun count_with_params() {
+        val searchyDescriptorId = "person"
+        val params = LinkedMultiValueMap<String, String>()
+        params.add("lastName", "Doe")
+
+        whenever(searchyService.count(searchyDescriptorId, params)).thenReturn(2L)
+
+        mockMvc.get("/search/$searchyDescriptorId/count") {
+            param("lastName", "Doe")
+        }.andExpect {
+            status { isOk() }
+            content { contentType(MediaType.APPLICATION_JSON) }
+            content { string("2") }
+        }
+    }
+
+    @Test
+    fun exists_with_params() {
+        val searchyDescriptorId = "person"
+        val params = LinkedMultiValueMap<String, String>()
+        params.add("lastName", "Doe")
+
+        whenever(searchyService.exists(searchyDescriptorId, params)).thenReturn(true)
+
+        mockMvc.get("/search/$searchyDescriptorId/exists") {
+            param("lastName", "Doe")
+        }.andExpect {
+            status { isOk() }
+            content { contentType(MediaType.APPLICATION_JSON) }
+            content { string("true") }
+        }
+    }
+
     @Test
     fun search_with_empty_result() {
         val firstName = "John"
@@ -108,6 +154,30 @@ internal class SearchyServletControllerIntegrationTest {
         }
     }
 
+    @Test
+    fun search_page() {
+        val firstName = "John"
+        val lastName = "Doe"
+        val searchyDescriptorId = "person"
+        val fieldPath = "firstName"
+        val fieldValue = firstName
+        val params = LinkedMultiValueMap<String, String>()
+        params.add(fieldPath, fieldValue)
+
+        val personInfos = createPerson(firstName, lastName)
+        whenever(searchyService.search(searchyDescriptorId, params, PageRequest(2, 10), true)).thenReturn(Page(listOf(personInfos.first), 2, 10, 21L))
+
+        mockMvc.get("/search/$searchyDescriptorId") {
+            param(fieldPath, firstName)
+            param("page", "2")
+            param("size", "10")
+        }.andExpect {
+            status { isOk() }
+            content { contentType(MediaType.APPLICATION_JSON) }
+            content { json("{\"content\":[${personInfos.second}],\"page\":2,\"size\":10,\"totalElements\":21,\"totalPages\":3}") }
+        }
+    }
+
     @Test
     fun search_with_bad_descriptor_id() {
         val searchyDescriptorId = "unknown"
@@ -144,6 +214,33 @@ internal class SearchyServletControllerIntegrationTest {
         verifyZeroInteractions(searchyService)
     }
 
+    @Test
+    fun stream() {
+        val searchyDescriptorId = "person"
+        val params = LinkedMultiValueMap<String, String>()
+        params.add("lastName", "Doe")
+
+        val john = createPerson("John", "Doe")
+        val jane = createPerson("Jane", "Doe")
+        doAnswer {
+            val action = it.getArgument<(Any?) -> Unit>(2)
+            action(john.first)
+            action(jane.first)
+        }.whenever(searchyService).stream(eq(searchyDescriptorId), eq(params), any())
+
+        val mvcResult = mockMvc.get("/search/$searchyDescriptorId") {
+            accept = MediaType.APPLICATION_NDJSON
+            param("lastName", "Doe")
+        }.andExpect {
+            request { asyncStarted() }
+        }.andReturn()
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+            .andExpect(status().isOk)
+            .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+            .andExpect(content().string(objectMapper.writeValueAsString(john.first) + "\n" + objectMapper.writeValueAsString(jane.first) + "\n"))
+    }
+
     private fun createPerson(firstName: String, lastName: String): Pair<PersonDto, String> {
         val json = ""
             .plus("{")
@@ -1,11 +1,32 @@
 package com.weedow.searchy.controller.servlet
 
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.nhaarman.mockitokotlin2.any
+import com.nhaarman.mockitokotlin2.doAnswer
+import com.nhaarman.mockitokotlin2.doThrow
+import com.nhaarman.mockitokotlin2.eq
+import com.nhaarman.mockitokotlin2.never
 import com.nhaarman.mockitokotlin2.verify
 import com.nhaarman.mockitokotlin2.whenever
 import com.weedow.searchy.common.dto.PersonDto
+import com.weedow.searchy.config.Facets
+import com.weedow.searchy.config.Pagination
 import com.weedow.searchy.config.SearchyProperties
+import com.weedow.searchy.exception.InvalidCursorException
+import com.weedow.searchy.exception.SearchyDescriptorNotFound
+import com.weedow.searchy.exception.ValidationException
+import com.weedow.searchy.query.facet.Facet
+import com.weedow.searchy.query.facet.FacetBucket
+import com.weedow.searchy.query.facet.FacetType
+import com.weedow.searchy.query.pagination.Cursor
+import com.weedow.searchy.query.pagination.CursorPage
+import com.weedow.searchy.query.pagination.HmacCursorCodec
+import com.weedow.searchy.query.pagination.Page
+import com.weedow.searchy.query.pagination.PageRequest
+import com.weedow.searchy.query.pagination.Slice
 import com.weedow.searchy.service.SearchyService
 import org.assertj.core.api.Assertions.assertThat
+import org.assertj.core.api.Assertions.assertThatThrownBy
 import org.assertj.core.groups.Tuple
 import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.Test
@@ -15,11 +36,14 @@ import org.mockito.Mock
 import org.mockito.Spy
 import org.mockito.junit.jupiter.MockitoExtension
 import org.springframework.http.HttpStatus
+import org.springframework.http.MediaType
 import org.springframework.util.LinkedMultiValueMap
 import org.springframework.util.MultiValueMap
 import org.springframework.web.bind.annotation.RequestMethod
 import org.springframework.web.servlet.mvc.method.RequestMappingInfo
 import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody
+import java.io.ByteArrayOutputStream
 
 @ExtendWith(MockitoExtension::class)
 internal class SearchyServletControllerTest {
@@ -33,6 +57,9 @@ internal class SearchyServletControllerTest {
     @Mock
     private lateinit var requestMappingHandlerMapping: RequestMappingHandlerMapping
 
+    @Spy
+    private val objectMapper: ObjectMapper = ObjectMapper()
+
     @InjectMocks
     lateinit var searchyServletController: SearchyServletController
 
@@ -49,6 +76,47 @@ internal class SearchyServletControllerTest {
             searchyServletController,
             SearchyServletController::class.java.getMethod("search", String::class.java, MultiValueMap::class.java)
         )
+
+        val streamMapping = RequestMappingInfo
+            .paths("/search/{searchyDescriptorId}")
+            .methods(RequestMethod.GET)
+            .produces(MediaType.APPLICATION_NDJSON_VALUE)
+            .build()
+        verify(requestMappingHandlerMapping).registerMapping(
+            streamMapping,
+            searchyServletController,
+            SearchyServletController::class.java.getMethod("stream", String::class.java, MultiValueMap::class.java)
+        )
+
+        val countMapping = RequestMappingInfo
+            .paths("/search/{searchyDescriptorId}/count")
+            .methods(RequestMethod.GET)
+            .build()
+        verify(requestMappingHandlerMapping).registerMapping(
+            countMapping,
+            searchyServletController,
+            SearchyServletController::class.java.getMethod("count", String::class.java, MultiValueMap::class.java)
+        )
+
+        val existsMapping = RequestMappingInfo
+            .paths("/search/{searchyDescriptorId}/exists")
+            .methods(RequestMethod.GET)
+            .build()
+        verify(requestMappingHandlerMapping).registerMapping(
+            existsMapping,
+            searchyServletController,
+            SearchyServletController::class.java.getMethod("exists", String::class.java, MultiValueMap::class.java)
+        )
+
+        val facetsMapping = RequestMappingInfo
+            .paths("/search/{searchyDescriptorId}/facets")
+            .methods(RequestMethod.GET)
+            .build()
+        verify(requestMappingHandlerMapping).registerMapping(
+            facetsMapping,
+            searchyServletController,
+            SearchyServletController::class.java.getMethod("facets", String::class.java, MultiValueMap::class.java)
+        )
     }
 
     @Test
@@ -69,9 +137,295 @@ internal class SearchyServletControllerTest {
         assertThat(responseEntity.statusCode).isEqualTo(HttpStatus.OK)
         assertThat(responseEntity.body)
             .isInstanceOf(List::class.java)
+            .asList()
             .hasOnlyElementsOfType(PersonDto::class.java)
             .extracting("firstName", "lastName")
             .containsExactly(Tuple.tuple(firstName, lastName))
     }
 
-}
\ No newline at end of file
+    @Test
+    fun search_page_successfully() {
+        val firstName = "John"
+        val lastName = "Doe"
+        val searchyDescriptorId = "person"
+        val params = LinkedMultiValueMap<String, String>()
+        params.add("firstName", firstName)
+        params.add("page", "1")
+        params.add("size", "5")
+
+        val searchParams = LinkedMultiValueMap<String, String>()
+        searchParams.add("firstName", firstName)
+
+        val person = PersonDto.Builder().firstName(firstName).lastName(lastName).build()
+        val page = Page(listOf(person), 1, 5, 6L)
+        whenever(searchyService.search(searchyDescriptorId, searchParams, PageRequest(1, 5), true)).thenReturn(page)
+
+        val responseEntity = searchyServletController.search(searchyDescriptorId, params)
+
+        assertThat(responseEntity.statusCode).isEqualTo(HttpStatus.OK)
+        assertThat(responseEntity.body).isSameAs(page)
+    }
+
+    @Test
+    fun search_page_with_size_capped_by_max_results() {
+        val searchyDescriptorId = "person"
+        val params = LinkedMultiValueMap<String, String>()
+        params.add("size", "500")
+
+        whenever(searchyProperties.pagination).thenReturn(Pagination(maxResults = 100, countTotal = false))
+
+        val page = Page(emptyList<PersonDto>(), 0, 100, null)
+        whenever(searchyService.search(searchyDescriptorId, LinkedMultiValueMap(), PageRequest(0, 100), false)).thenReturn(page)
+
+        val responseEntity = searchyServletController.search(searchyDescriptorId, params)
+
+        assertThat(responseEntity.statusCode).isEqualTo(HttpStatus.OK)
+        assertThat(responseEntity.body).isSameAs(page)
+    }
+
+    @Test
+    fun search_limited_by_max_results() {
+        val firstName = "John"
+        val lastName = "Doe"
+        val searchyDescriptorId = "person"
+        val params = LinkedMultiValueMap<String, String>()
+        params.add("firstName", firstName)
+
+        whenever(searchyProperties.pagination).thenReturn(Pagination(maxResults = 100))
+
+        val person = PersonDto.Builder().firstName(firstName).lastName(lastName).build()
+        whenever(searchyService.search(searchyDescriptorId, params, PageRequest(0, 100), false)).thenReturn(Page(listOf(person), 0, 100, null))
+
+        val responseEntity = searchyServletController.search(searchyDescriptorId, params)
+
+        assertThat(responseEntity.statusCode).isEqualTo(HttpStatus.OK)
+        assertThat(responseEntity.body)
+            .isInstanceOf(List::class.java)
+            .asList()
+            .containsExactly(person)
+    }
+
+    @Test
+    fun search_with_cursor() {
+        val firstName = "John"
+        val lastName = "Doe"
+        val searchyDescriptorId = "person"
+
+        val searchParams = LinkedMultiValueMap<String, String>()
+        searchParams.add("firstName", firstName)
+
+        val john = PersonDto.Builder().firstName(firstName).lastName(lastName).build()
+        val jane = PersonDto.Builder().firstName("Jane").lastName(lastName).build()
+        whenever(searchyService.search(searchyDescriptorId, searchParams, null, 1)).thenReturn(Slice(listOf(john), Cursor(listOf("1"))))
+        whenever(searchyService.search(searchyDescriptorId, searchParams, Cursor(listOf("1"), searchyDescriptorId), 1)).thenReturn(Slice(listOf(jane), null))
+
+        val params = LinkedMultiValueMap<String, String>()
+        params.add("firstName", firstName)
+        params.add("cursor", "")
+        params.add("size", "1")
+
+        val firstResponseEntity = searchyServletController.search(searchyDescriptorId, params)
+
+        assertThat(firstResponseEntity.statusCode).isEqualTo(HttpStatus.OK)
+        val firstPage = firstResponseEntity.body as CursorPage<*>
+        assertThat(firstPage.content).containsExactly(john)
+        assertThat(firstPage.size).isEqualTo(1)
+        assertThat(firstPage.nextCursor).isNotBlank
+
+        params.set("cursor", firstPage.nextCursor)
+
+        val nextResponseEntity = searchyServletController.search(searchyDescriptorId, params)
+
+        assertThat(nextResponseEntity.statusCode).isEqualTo(HttpStatus.OK)
+        assertThat(nextResponseEntity.body).isEqualTo(CursorPage(listOf(jane), 1, null))
+    }
+
+    @Test
+    fun search_first_slice_with_empty_cursor() {
+        val searchyDescriptorId = "person"
+        val params = LinkedMultiValueMap<String, String>()
+        params.add("cursor", "")
+
+        whenever(searchyService.search(searchyDescriptorId, LinkedMultiValueMap(), null, Pagination.DEFAULT_PAGE_SIZE)).thenReturn(Slice(emptyList<PersonDto>(), null))
+
+        val responseEntity = searchyServletController.search(searchyDescriptorId, params)
+
+        assertThat(responseEntity.statusCode).isEqualTo(HttpStatus.OK)
+        assertThat(responseEntity.body).isEqualTo(CursorPage(emptyList<PersonDto>(), Pagination.DEFAULT_PAGE_SIZE, null))
+    }
+
+    @Test
+    fun throw_exception_when_cursor_and_page_parameters_are_present() {
+        val searchyDescriptorId = "person"
+        val params = LinkedMultiValueMap<String, String>()
+        params.add("cursor", "")
+        params.add("page", "1")
+
+        assertThatThrownBy { searchyServletController.search(searchyDescriptorId, params) }
+            .isInstanceOf(ValidationException::class.java)
+            .extracting("reason")
+            .isEqualTo("Validation Errors: [invalid-pagination: The parameters 'cursor' and 'page' cannot be used together.]")
+    }
+
+    @Test
+    fun search_with_cursor_and_sort() {
+        val searchyDescriptorId = "person"
+
+        val searchParams = LinkedMultiValueMap<String, String>()
+        searchParams.add("sort", "lastName,desc")
+
+        val john = PersonDto.Builder().firstName("John").lastName("Doe").build()
+        whenever(searchyService.search(searchyDescriptorId, searchParams, null, 1)).thenReturn(Slice(listOf(john), Cursor(listOf("Doe", "1"))))
+
+        val params = LinkedMultiValueMap<String, String>()
+        params.add("sort", "lastName,desc")
+        params.add("cursor", "")
+        params.add("size", "1")
+
+        val responseEntity = searchyServletController.search(searchyDescriptorId, params)
+
+        assertThat(responseEntity.statusCode).isEqualTo(HttpStatus.OK)
+        val page = responseEntity.body as CursorPage<*>
+        assertThat(page.content).containsExactly(john)
+        assertThat(page.nextCursor).isNotBlank
+    }
+
+    @Test
+    fun throw_exception_when_cursor_is_invalid() {
+        val searchyDescriptorId = "person"
+        val params = LinkedMultiValueMap<String, String>()
+        params.add("cursor", HmacCursorCodec("other-secret").encode(Cursor(listOf("1"))))
+
+        assertThatThrownBy { searchyServletController.search(searchyDescriptorId, params) }
+            .isInstanceOf(InvalidCursorException::class.java)
+    }
+
+    @Test
+    fun throw_exception_when_cursor_is_returned_by_another_search() {
+        val person = PersonDto.Builder().firstName("John").lastName("Doe").build()
+        whenever(searchyService.search("person", LinkedMultiValueMap(), null, 1)).thenReturn(Slice(listOf(person), Cursor(listOf("1"))))
+
+        val params = LinkedMultiValueMap<String, String>()
+        params.add("cursor", "")
+        params.add("size", "1")
+
+        val page = searchyServletController.search("person", params).body as CursorPage<*>
+
+        params.set("cursor", page.nextCursor)
+
+        assertThatThrownBy { searchyServletController.search("address", params) }
+            .isInstanceOf(InvalidCursorException::class.java)
+    }
+
+    @Test
+    fun throw_exception_when_page_parameter_is_invalid() {
+        val searchyDescriptorId = "person"
+        val params = LinkedMultiValueMap<String, String>()
+        params.add("page", "-1")
+
+        assertThatThrownBy { searchyServletController.search(searchyDescriptorId, params) }
+            .isInstanceOf(ValidationException::class.java)
+            .extracting("reason")
+            .isEqualTo("Validation Errors: [invalid-pagination: Invalid value for the parameter 'page': -1. The expected value is an integer greater than or equal to 0.]")
+    }
+
+    @Test
+    fun stream_successfully() {
+        val searchyDescriptorId = "person"
+        val params = LinkedMultiValueMap<String, String>()
+        params.add("lastName", "Doe")
+        params.add("size", "10")
+
+        val searchParams = LinkedMultiValueMap<String, String>()
+        searchParams.add("lastName", "Doe")
+
+        val john = PersonDto.Builder().firstName("John").lastName("Doe").build()
+        val jane = PersonDto.Builder().firstName("Jane").lastName("Doe").build()
+        doAnswer {
+            val action = it.getArgument<(Any?) -> Unit>(2)
+            action(john)
+            action(jane)
+        }.whenever(searchyService).stream(eq(searchyDescriptorId), eq(searchParams), any())
+
+        val responseEntity = searchyServletController.stream(searchyDescriptorId, params)
+
+        verify(searchyService).validateStream(searchyDescriptorId, searchParams)
+
+        assertThat(responseEntity.statusCode).isEqualTo(HttpStatus.OK)
+        assertThat(responseEntity.headers.contentType).isEqualTo(MediaType.APPLICATION_NDJSON)
+
+        val outputStream = ByteArrayOutputStream()
+        (responseEntity.body as StreamingResponseBody).writeTo(outputStream)
+
+        assertThat(outputStream.toString())
+            .isEqualTo(objectMapper.writeValueAsString(john) + "\n" + objectMapper.writeValueAsString(jane) + "\n")
+    }
+
+    @Test
+    fun throw_exception_before_streaming_when_the_search_is_invalid() {
+        val searchyDescriptorId = "person"
+        val params = LinkedMultiValueMap<String, String>()
+        params.add("lastName", "Doe")
+
+        doThrow(SearchyDescriptorNotFound(searchyDescriptorId)).whenever(searchyService).validateStream(searchyDescriptorId, params)
+
+        assertThatThrownBy { searchyServletController.stream(searchyDescriptorId, params) }
+            .isInstanceOf(SearchyDescriptorNotFound::class.java)
+
+        verify(searchyService, never()).stream(any(), any(), any())
+    }
+
+    @Test
+    fun count_successfully() {
+        val searchyDescriptorId = "person"
+        val params = LinkedMultiValueMap<String, String>()
+        params.add("lastName", "Doe")
+        params.add("page", "1")
+
+        val searchParams = LinkedMultiValueMap<String, String>()
+        searchParams.add("lastName", "Doe")
+
+        whenever(searchyService.count(searchyDescriptorId, searchParams)).thenReturn(42L)
+
+        val responseEntity = searchyServletController.count(searchyDescriptorId, params)
+
+        assertThat(responseEntity.statusCode).isEqualTo(HttpStatus.OK)
+        assertThat(responseEntity.body).isEqualTo(42L)
+    }
+
+    @Test
+    fun exists_successfully() {
+        val searchyDescriptorId = "person"
+        val params = LinkedMultiValueMap<String, String>()
+        params.add("lastName", "Doe")
+
+        whenever(searchyService.exists(searchyDescriptorId, params)).thenReturn(true)
+
+        val responseEntity = searchyServletController.exists(searchyDescriptorId, params)
+
+        assertThat(responseEntity.statusCode).isEqualTo(HttpStatus.OK)
+        assertThat(responseEntity.body).isEqualTo(true)
+    }
+
+    @Test
+    fun facets_successfully() {
+        val searchyDescriptorId = "person"
+        val params = LinkedMultiValueMap<String, String>()
+        params.add("lastName", "Doe")
+        params.add("facet", "jobEntity.company")
+        params.add("page", "1")
+
+        val facetParams = LinkedMultiValueMap<String, String>()
+        facetParams.add("lastName", "Doe")
+        facetParams.add("facet", "jobEntity.company")
+
+        val facets = listOf(Facet("jobEntity.company", FacetType.TERMS, listOf(FacetBucket("Acme", 2L))))
+        whenever(searchyService.facets(searchyDescriptorId, facetParams, Facets.DEFAULT_MAX_BUCKETS)).thenReturn(facets)
+
+        val responseEntity = searchyServletController.facets(searchyDescriptorId, params)
+
+        assertThat(responseEntity.statusCode).isEqualTo(HttpStatus.OK)
+        assertThat(responseEntity.body).isEqualTo(facets)
+    }
+
+}
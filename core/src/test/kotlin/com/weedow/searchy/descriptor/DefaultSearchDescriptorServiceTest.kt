@@ -62,4 +62,21 @@ internal class DefaultSearchyDescriptorServiceTest {
 
         assertThat(resultSearchyDescriptor).isNull()
     }
-}
\ No newline at end of file
+
+    @Test
+    fun get_all_SearchyDescriptors() {
+        val searchyDescriptor1 = mock<SearchyDescriptor<Person>> {
+            on { this.id }.doReturn("person")
+        }
+        val searchyDescriptor2 = mock<SearchyDescriptor<Person>> {
+            on { this.id }.doReturn("person2")
+        }
+
+        val searchyDescriptorService = DefaultSearchyDescriptorService()
+
+        searchyDescriptorService.addSearchyDescriptor(searchyDescriptor1)
+        searchyDescriptorService.addSearchyDescriptor(searchyDescriptor2)
+
+        assertThat(searchyDescriptorService.getAllSearchyDescriptors()).containsExactlyInAnyOrder(searchyDescriptor1, searchyDescriptor2)
+    }
+}
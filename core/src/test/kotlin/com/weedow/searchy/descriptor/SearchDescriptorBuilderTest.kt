@@ -3,6 +3,8 @@ package com.weedow.searchy.descriptor
 import com.nhaarman.mockitokotlin2.mock
 import com.weedow.searchy.common.model.Person
 import com.weedow.searchy.dto.DefaultDtoMapper
+import com.weedow.searchy.dto.InitializationGraph
+import com.weedow.searchy.join.JoinStrategy
 import com.weedow.searchy.join.handler.DefaultEntityJoinHandler
 import com.weedow.searchy.query.specification.SpecificationExecutor
 import com.weedow.searchy.validation.SearchyValidator
@@ -27,6 +29,9 @@ internal class SearchyDescriptorBuilderTest {
         assertThat(searchyDescriptor1.dtoMapper).isNull()
         assertThat(searchyDescriptor1.specificationExecutor).isNull()
         assertThat(searchyDescriptor1.entityJoinHandlers).isEmpty()
+        assertThat(searchyDescriptor1.caseInsensitiveFields).isEmpty()
+        assertThat(searchyDescriptor1.joinStrategy).isEqualTo(JoinStrategy.JOIN)
+        assertThat(searchyDescriptor1.initializationGraph).isEqualTo(InitializationGraph.ALL)
 
         val searchyDescriptor2 = SearchyDescriptorBuilder(entityClass)
             .build()
@@ -56,6 +61,9 @@ internal class SearchyDescriptorBuilderTest {
             .dtoMapper(dtoMapper1)
             .specificationExecutor(specificationExecutor1)
             .entityJoinHandlers(entityJoinHandler1)
+            .caseInsensitiveFields("firstName", "lastName")
+            .joinStrategy(JoinStrategy.EXISTS)
+            .initializationGraph(InitializationGraph(excludes = setOf("vehicles")))
             .build()
 
         assertThat(searchyDescriptor1.id).isEqualTo("person1")
@@ -64,6 +72,9 @@ internal class SearchyDescriptorBuilderTest {
         assertThat(searchyDescriptor1.dtoMapper).isEqualTo(dtoMapper1)
         assertThat(searchyDescriptor1.specificationExecutor).isEqualTo(specificationExecutor1)
         assertThat(searchyDescriptor1.entityJoinHandlers).containsExactly(entityJoinHandler1)
+        assertThat(searchyDescriptor1.caseInsensitiveFields).containsExactlyInAnyOrder("firstName", "lastName")
+        assertThat(searchyDescriptor1.joinStrategy).isEqualTo(JoinStrategy.EXISTS)
+        assertThat(searchyDescriptor1.initializationGraph).isEqualTo(InitializationGraph(excludes = setOf("vehicles")))
 
         val validator2 = mock<SearchyValidator>()
         val dtoMapper2 = DefaultDtoMapper<Person>()
@@ -0,0 +1,70 @@
+package com.weedow.searchy.dto
+
+import com.weedow.searchy.common.model.Person
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+
+internal class BulkLoaderTest {
+
+    private val loadedKeys = mutableListOf<Set<String>>()
+
+    private val bulkLoader = BulkLoader<String, String> { keys ->
+        loadedKeys.add(keys)
+        keys.filter { it != "unknown" }.associateWith { it.uppercase() }
+    }
+
+    @Test
+    fun load_the_related_data_in_a_single_call() {
+        val person1 = Person("John", "Doe")
+        val person2 = Person("Jane", "Doe")
+        val person3 = Person("Jim", "Smith")
+
+        val result = bulkLoader.load(listOf(person1, person2, person3)) { it.lastName }
+
+        assertThat(result).containsExactly("DOE", "DOE", "SMITH")
+        assertThat(loadedKeys).containsExactly(setOf("Doe", "Smith"))
+    }
+
+    @Test
+    fun load_the_related_data_without_key_or_without_value() {
+        val person1 = Person("John", "Doe")
+        val person2 = Person("Jane", "unknown")
+        val person3 = Person("Jim", "Smith", "jim.smith@acme.com")
+
+        val result = bulkLoader.load(listOf(person1, person2, person3)) { it.email }
+
+        assertThat(result).containsExactly(null, null, "JIM.SMITH@ACME.COM")
+        assertThat(loadedKeys).containsExactly(setOf("jim.smith@acme.com"))
+    }
+
+    @Test
+    fun do_not_call_the_loader_without_keys() {
+        val result = bulkLoader.load(listOf(Person("John", "Doe"))) { it.email }
+
+        assertThat(result).containsExactly(null)
+        assertThat(loadedKeys).isEmpty()
+    }
+
+    @Test
+    fun load_all_the_related_data_of_several_keys() {
+        val person1 = Person("John", "Doe", nickNames = setOf("Johnny", "unknown"))
+        val person2 = Person("Jane", "Doe", nickNames = setOf("Johnny"))
+        val person3 = Person("Jim", "Smith")
+
+        val result = bulkLoader.loadAll(listOf(person1, person2, person3)) { it.nickNames ?: emptySet() }
+
+        assertThat(result).containsExactly(listOf("JOHNNY"), listOf("JOHNNY"), emptyList())
+        assertThat(loadedKeys).containsExactly(setOf("Johnny", "unknown"))
+    }
+
+    @Test
+    fun map_all_the_entities_with_their_related_data() {
+        val person1 = Person("John", "Doe")
+        val person2 = Person("Jane", "Smith")
+
+        val result = bulkLoader.mapAll(listOf(person1, person2), { it.lastName }) { person, lastName -> "${person.firstName} $lastName" }
+
+        assertThat(result).containsExactly("John DOE", "Jane SMITH")
+        assertThat(loadedKeys).containsExactly(setOf("Doe", "Smith"))
+    }
+}
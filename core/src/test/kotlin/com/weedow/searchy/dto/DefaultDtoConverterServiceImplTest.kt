@@ -1,17 +1,22 @@
 package com.weedow.searchy.dto
 
+import com.nhaarman.mockitokotlin2.any
 import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.never
+import com.nhaarman.mockitokotlin2.verify
 import com.nhaarman.mockitokotlin2.verifyZeroInteractions
 import com.nhaarman.mockitokotlin2.whenever
 import com.weedow.searchy.common.dto.PersonDto
 import com.weedow.searchy.common.model.Person
 import com.weedow.searchy.descriptor.SearchyDescriptor
 import org.assertj.core.api.Assertions.assertThat
+import org.assertj.core.api.Assertions.assertThatThrownBy
+import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.extension.ExtendWith
-import org.mockito.InjectMocks
 import org.mockito.Mock
 import org.mockito.junit.jupiter.MockitoExtension
+import java.util.concurrent.ConcurrentHashMap
 
 @ExtendWith(MockitoExtension::class)
 internal class DefaultDtoConverterServiceImplTest {
@@ -19,9 +24,13 @@ internal class DefaultDtoConverterServiceImplTest {
     @Mock
     private lateinit var defaultDtoMapper: DtoMapper<Person, *>
 
-    @InjectMocks
     private lateinit var dtoConverterService: DefaultDtoConverterServiceImpl<Person, *>
 
+    @BeforeEach
+    fun setUp() {
+        dtoConverterService = DefaultDtoConverterServiceImpl(defaultDtoMapper)
+    }
+
     @Test
     fun convert_with_default_dto_mapper() {
         val person1 = Person("John", "Doe", "john.doe@acme.com")
@@ -66,4 +75,198 @@ internal class DefaultDtoConverterServiceImplTest {
 
         verifyZeroInteractions(defaultDtoMapper)
     }
-}
\ No newline at end of file
+
+    @Test
+    fun convert_with_initialization_graph_dto_mapper() {
+        val person1 = Person("John", "Doe", "john.doe@acme.com")
+        val person2 = Person("Jane", "Doe", "jane.doe@acme.com")
+        val entities = listOf(person1, person2)
+
+        val initializationGraph = InitializationGraph(excludes = setOf("vehicles"))
+        val customDtoMapper = mock<InitializationGraphDtoMapper<Person, *>>()
+        val searchyDescriptor: SearchyDescriptor<Person> = mock {
+            on { this.dtoMapper }.thenReturn(customDtoMapper)
+            on { this.initializationGraph }.thenReturn(initializationGraph)
+        }
+
+        val personDto1 = PersonDto.Builder().firstName("John").lastName("Doe").email("john.doe@acme.com")
+        val personDto2 = PersonDto.Builder().firstName("Jane").lastName("Doe").email("jane.doe@acme.com")
+        whenever(customDtoMapper.map(person1, initializationGraph)).thenReturn(personDto1)
+        whenever(customDtoMapper.map(person2, initializationGraph)).thenReturn(personDto2)
+
+        val result = dtoConverterService.convert(entities, searchyDescriptor)
+
+        assertThat(result).hasSize(2)
+        assertThat(result).containsExactly(personDto1, personDto2)
+
+        verifyZeroInteractions(defaultDtoMapper)
+    }
+
+    @Test
+    fun convert_with_batch_dto_mapper_by_chunks() {
+        val dtoConverterService = DefaultDtoConverterServiceImpl(defaultDtoMapper, 2)
+
+        val person1 = Person("John", "Doe", "john.doe@acme.com")
+        val person2 = Person("Jane", "Doe", "jane.doe@acme.com")
+        val person3 = Person("Jim", "Doe", "jim.doe@acme.com")
+        val entities = listOf(person1, person2, person3)
+
+        val batchDtoMapper = mock<BatchDtoMapper<Person, PersonDto>>()
+        val searchyDescriptor: SearchyDescriptor<Person> = mock {
+            on { this.dtoMapper }.thenReturn(batchDtoMapper)
+        }
+
+        val personDto1 = PersonDto.Builder().firstName("John").lastName("Doe").email("john.doe@acme.com").build()
+        val personDto2 = PersonDto.Builder().firstName("Jane").lastName("Doe").email("jane.doe@acme.com").build()
+        val personDto3 = PersonDto.Builder().firstName("Jim").lastName("Doe").email("jim.doe@acme.com").build()
+        whenever(batchDtoMapper.mapAll(listOf(person1, person2))).thenReturn(listOf(personDto1, personDto2))
+        whenever(batchDtoMapper.mapAll(listOf(person3))).thenReturn(listOf(personDto3))
+
+        val result = dtoConverterService.convert(entities, searchyDescriptor)
+
+        assertThat(result).containsExactly(personDto1, personDto2, personDto3)
+
+        verify(batchDtoMapper).mapAll(listOf(person1, person2))
+        verify(batchDtoMapper).mapAll(listOf(person3))
+        verifyZeroInteractions(defaultDtoMapper)
+    }
+
+    @Test
+    fun convert_with_batch_initialization_graph_dto_mapper() {
+        val dtoConverterService = DefaultDtoConverterServiceImpl(defaultDtoMapper, 2)
+
+        val person1 = Person("John", "Doe", "john.doe@acme.com")
+        val person2 = Person("Jane", "Doe", "jane.doe@acme.com")
+        val person3 = Person("Jim", "Doe", "jim.doe@acme.com")
+        val entities = listOf(person1, person2, person3)
+
+        val initializationGraph = InitializationGraph(excludes = setOf("vehicles"))
+        val dtoMapper = mock<BatchInitializationGraphDtoMapper>()
+        val searchyDescriptor: SearchyDescriptor<Person> = mock {
+            on { this.dtoMapper }.thenReturn(dtoMapper)
+            on { this.initializationGraph }.thenReturn(initializationGraph)
+        }
+
+        whenever(dtoMapper.mapAll(listOf(person1, person2), initializationGraph)).thenReturn(listOf(person1, person2))
+        whenever(dtoMapper.mapAll(listOf(person3), initializationGraph)).thenReturn(listOf(person3))
+
+        val result = dtoConverterService.convert(entities, searchyDescriptor)
+
+        assertThat(result).containsExactly(person1, person2, person3)
+
+        verify(dtoMapper, never()).mapAll(any())
+        verifyZeroInteractions(defaultDtoMapper)
+    }
+
+    @Test
+    fun convert_with_batch_dto_mapper_returning_a_wrong_number_of_dtos() {
+        val person1 = Person("John", "Doe", "john.doe@acme.com")
+        val person2 = Person("Jane", "Doe", "jane.doe@acme.com")
+        val entities = listOf(person1, person2)
+
+        val batchDtoMapper = mock<BatchDtoMapper<Person, PersonDto>>()
+        val searchyDescriptor: SearchyDescriptor<Person> = mock {
+            on { this.dtoMapper }.thenReturn(batchDtoMapper)
+        }
+
+        val personDto1 = PersonDto.Builder().firstName("John").lastName("Doe").email("john.doe@acme.com").build()
+        whenever(batchDtoMapper.mapAll(entities)).thenReturn(listOf(personDto1))
+
+        assertThatThrownBy { dtoConverterService.convert(entities, searchyDescriptor) }
+            .isInstanceOf(IllegalStateException::class.java)
+            .hasMessageContaining("returned 1 DTOs for 2 entities")
+    }
+
+    @Test
+    fun convert_in_parallel_above_the_threshold() {
+        val entities = (1..1000).map { Person("John$it", "Doe") }
+        val threads = ConcurrentHashMap.newKeySet<Thread>()
+        val dtoMapper = object : DtoMapper<Person, String> {
+            override fun map(source: Person): String {
+                threads.add(Thread.currentThread())
+                return source.firstName
+            }
+        }
+
+        val dtoConverterService = DefaultDtoConverterServiceImpl(dtoMapper, parallelThreshold = 10, parallelism = 4)
+        val searchyDescriptor: SearchyDescriptor<Person> = mock {
+            on { this.dtoMapper }.thenReturn(null)
+        }
+
+        val result = dtoConverterService.convert(entities, searchyDescriptor)
+
+        assertThat(result).containsExactlyElementsOf(entities.map { it.firstName })
+        assertThat(threads).doesNotContain(Thread.currentThread())
+        assertThat(threads.size).isLessThanOrEqualTo(4)
+    }
+
+    @Test
+    fun convert_sequentially_below_the_threshold() {
+        val entities = (1..9).map { Person("John$it", "Doe") }
+        val threads = ConcurrentHashMap.newKeySet<Thread>()
+        val dtoMapper = object : DtoMapper<Person, String> {
+            override fun map(source: Person): String {
+                threads.add(Thread.currentThread())
+                return source.firstName
+            }
+        }
+
+        val dtoConverterService = DefaultDtoConverterServiceImpl(dtoMapper, parallelThreshold = 10)
+        val searchyDescriptor: SearchyDescriptor<Person> = mock {
+            on { this.dtoMapper }.thenReturn(null)
+        }
+
+        val result = dtoConverterService.convert(entities, searchyDescriptor)
+
+        assertThat(result).containsExactlyElementsOf(entities.map { it.firstName })
+        assertThat(threads).containsExactly(Thread.currentThread())
+    }
+
+    @Test
+    fun convert_sequentially_with_session_bound_dto_mapper() {
+        val entities = (1..1000).map { Person("John$it", "Doe") }
+        val threads = ConcurrentHashMap.newKeySet<Thread>()
+        val dtoMapper = object : DtoMapper<Person, String>, SessionBoundDtoMapper {
+            override fun map(source: Person): String {
+                threads.add(Thread.currentThread())
+                return source.firstName
+            }
+        }
+
+        val dtoConverterService = DefaultDtoConverterServiceImpl(dtoMapper, parallelThreshold = 10)
+        val searchyDescriptor: SearchyDescriptor<Person> = mock {
+            on { this.dtoMapper }.thenReturn(null)
+        }
+
+        val result = dtoConverterService.convert(entities, searchyDescriptor)
+
+        assertThat(result).containsExactlyElementsOf(entities.map { it.firstName })
+        assertThat(threads).containsExactly(Thread.currentThread())
+    }
+
+    @Test
+    fun convert_in_parallel_rethrows_the_exception_of_the_dto_mapper() {
+        val entities = (1..100).map { Person("John$it", "Doe") }
+        val exceptions = ConcurrentHashMap.newKeySet<Throwable>()
+        val dtoMapper = object : DtoMapper<Person, String> {
+            override fun map(source: Person): String {
+                throw IllegalArgumentException("Invalid person: ${source.firstName}").also { exceptions.add(it) }
+            }
+        }
+
+        val dtoConverterService = DefaultDtoConverterServiceImpl(dtoMapper, parallelThreshold = 10)
+        val searchyDescriptor: SearchyDescriptor<Person> = mock {
+            on { this.dtoMapper }.thenReturn(null)
+        }
+
+        assertThatThrownBy { dtoConverterService.convert(entities, searchyDescriptor) }
+            .isInstanceOf(IllegalArgumentException::class.java)
+            .hasMessageStartingWith("Invalid person")
+            .satisfies { assertThat(exceptions).contains(it) }
+    }
+
+    interface BatchInitializationGraphDtoMapper : BatchDtoMapper<Person, Person>, InitializationGraphDtoMapper<Person, Person> {
+        override fun map(source: Person): Person = map(source, InitializationGraph.ALL)
+    }
+
+}
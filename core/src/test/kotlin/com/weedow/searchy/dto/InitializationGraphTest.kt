@@ -0,0 +1,52 @@
+package com.weedow.searchy.dto
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+
+internal class InitializationGraphTest {
+
+    @Test
+    fun all_associations_are_included_by_default() {
+        assertThat(InitializationGraph.ALL.isIncluded("vehicles")).isTrue
+        assertThat(InitializationGraph.ALL.isIncluded("vehicles.features")).isTrue
+        assertThat(InitializationGraph.ALL.isIncluded("vehicles.features.metadata")).isTrue
+    }
+
+    @Test
+    fun excluded_associations_and_their_children_are_not_included() {
+        val initializationGraph = InitializationGraph(excludes = setOf("vehicles.features"))
+
+        assertThat(initializationGraph.isIncluded("vehicles")).isTrue
+        assertThat(initializationGraph.isIncluded("vehicles.features")).isFalse
+        assertThat(initializationGraph.isIncluded("vehicles.features.metadata")).isFalse
+        assertThat(initializationGraph.isIncluded("vehicles.featuresCount")).isTrue
+        assertThat(initializationGraph.isIncluded("jobs")).isTrue
+    }
+
+    @Test
+    fun only_included_associations_with_their_parents_and_children_are_included() {
+        val initializationGraph = InitializationGraph(includes = setOf("vehicles.features"))
+
+        assertThat(initializationGraph.isIncluded("vehicles")).isTrue
+        assertThat(initializationGraph.isIncluded("vehicles.features")).isTrue
+        assertThat(initializationGraph.isIncluded("vehicles.features.metadata")).isTrue
+        assertThat(initializationGraph.isIncluded("vehicles.owner")).isFalse
+        assertThat(initializationGraph.isIncluded("jobs")).isFalse
+    }
+
+    @Test
+    fun associations_deeper_than_max_depth_are_not_included() {
+        val initializationGraph = InitializationGraph(maxDepth = 2)
+
+        assertThat(initializationGraph.isIncluded("vehicles")).isTrue
+        assertThat(initializationGraph.isIncluded("vehicles.features")).isTrue
+        assertThat(initializationGraph.isIncluded("vehicles.features.metadata")).isFalse
+    }
+
+    @Test
+    fun no_association_is_included_with_max_depth_zero() {
+        val initializationGraph = InitializationGraph(maxDepth = 0)
+
+        assertThat(initializationGraph.isIncluded("vehicles")).isFalse
+    }
+}
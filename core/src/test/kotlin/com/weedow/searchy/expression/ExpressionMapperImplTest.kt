@@ -1,17 +1,29 @@
 package com.weedow.searchy.expression
 
 import com.neovisionaries.i18n.CountryCode
+import com.nhaarman.mockitokotlin2.verifyNoMoreInteractions
 import com.nhaarman.mockitokotlin2.verifyZeroInteractions
 import com.nhaarman.mockitokotlin2.whenever
+import com.querydsl.core.types.Order
 import com.weedow.searchy.common.model.Address
+import com.weedow.searchy.common.model.Job
 import com.weedow.searchy.common.model.Person
+import com.weedow.searchy.exception.ValidationException
 import com.weedow.searchy.expression.parser.ExpressionParser
+import com.weedow.searchy.query.facet.DateInterval
+import com.weedow.searchy.query.facet.FacetRequest
+import com.weedow.searchy.query.facet.FacetType
+import com.weedow.searchy.query.projection.Projection
 import org.assertj.core.api.Assertions.assertThat
+import org.assertj.core.api.Assertions.assertThatThrownBy
 import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.extension.ExtendWith
+import org.junit.jupiter.params.ParameterizedTest
+import org.junit.jupiter.params.provider.ValueSource
 import org.mockito.InjectMocks
 import org.mockito.Mock
 import org.mockito.junit.jupiter.MockitoExtension
+import java.math.BigDecimal
 
 @ExtendWith(MockitoExtension::class)
 internal class ExpressionMapperImplTest {
@@ -154,4 +166,168 @@ internal class ExpressionMapperImplTest {
         verifyZeroInteractions(expressionResolver)
     }
 
-}
\ No newline at end of file
+    @Test
+    fun to_root_expression_with_special_sort_param() {
+        val rootClass = Person::class.java
+
+        val fieldPath1 = "lastName"
+        val fieldPath2 = "jobEntity.company"
+        val fieldPath3 = "firstName"
+
+        val expression1 = ExpressionUtils.sort(FieldInfo(fieldPath1, "lastName", Person::class.java), Order.ASC)
+        whenever(expressionResolver.resolveSortExpression(rootClass, fieldPath1, Order.ASC)).thenReturn(expression1)
+
+        val expression2 = ExpressionUtils.sort(FieldInfo(fieldPath2, "company", Job::class.java), Order.DESC)
+        whenever(expressionResolver.resolveSortExpression(rootClass, fieldPath2, Order.DESC)).thenReturn(expression2)
+
+        val expression3 = ExpressionUtils.sort(FieldInfo(fieldPath3, "firstName", Person::class.java), Order.ASC)
+        whenever(expressionResolver.resolveSortExpression(rootClass, fieldPath3, Order.ASC)).thenReturn(expression3)
+
+        val params = mapOf("sort" to listOf(fieldPath1, "$fieldPath2,desc", "$fieldPath3,ASC"))
+        val rootExpression = expressionMapper.toExpression(params, rootClass)
+
+        assertThat(rootExpression).isNotNull
+        val expressions = (rootExpression as RootExpressionImpl<Person>).expressions
+        assertThat(expressions).containsExactly(expression1, expression2, expression3)
+
+        verifyNoMoreInteractions(expressionParser)
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = ["", ",asc", "lastName,", "lastName,up", "lastName,asc,desc"])
+    fun throw_exception_when_special_sort_param_is_invalid(sort: String) {
+        val rootClass = Person::class.java
+
+        val params = mapOf("sort" to listOf(sort))
+
+        assertThatThrownBy { expressionMapper.toExpression(params, rootClass) }
+            .isInstanceOf(ValidationException::class.java)
+            .extracting("reason")
+            .isEqualTo(
+                "Validation Errors: [invalid-sort: Invalid value for the parameter 'sort': $sort. " +
+                        "The expected value is 'field.path', 'field.path,asc' or 'field.path,desc'.]"
+            )
+
+        verifyNoMoreInteractions(expressionResolver)
+        verifyNoMoreInteractions(expressionParser)
+    }
+
+    @Test
+    fun to_root_expression_ignores_special_fields_param() {
+        val rootClass = Person::class.java
+
+        val params = mapOf("fields" to listOf("firstName,lastName"))
+        val rootExpression = expressionMapper.toExpression(params, rootClass)
+
+        assertThat((rootExpression as RootExpressionImpl<Person>).expressions).isEmpty()
+
+        verifyNoMoreInteractions(expressionResolver)
+        verifyNoMoreInteractions(expressionParser)
+    }
+
+    @Test
+    fun to_projection_without_special_fields_param() {
+        val projection = expressionMapper.toProjection(mapOf("firstName" to listOf("John")), Person::class.java)
+
+        assertThat(projection).isNull()
+
+        verifyNoMoreInteractions(expressionResolver)
+    }
+
+    @Test
+    fun to_projection_with_special_fields_param() {
+        val rootClass = Person::class.java
+
+        whenever(expressionResolver.resolveFieldInfo(rootClass, "firstName")).thenReturn(FieldInfo("firstName", "firstName", Person::class.java))
+        whenever(expressionResolver.resolveFieldInfo(rootClass, "lastName")).thenReturn(FieldInfo("lastName", "lastName", Person::class.java))
+        whenever(expressionResolver.resolveFieldInfo(rootClass, "job.company")).thenReturn(FieldInfo("jobEntity.company", "company", Job::class.java))
+
+        val params = mapOf("fields" to listOf("firstName, lastName", "job.company,firstName"))
+        val projection = expressionMapper.toProjection(params, rootClass)
+
+        assertThat(projection).isEqualTo(Projection(listOf("firstName", "lastName", "jobEntity.company")))
+
+        verifyNoMoreInteractions(expressionParser)
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = ["", ",", " , "])
+    fun throw_exception_when_special_fields_param_is_invalid(fields: String) {
+        val rootClass = Person::class.java
+
+        val params = mapOf("fields" to listOf(fields))
+
+        assertThatThrownBy { expressionMapper.toProjection(params, rootClass) }
+            .isInstanceOf(ValidationException::class.java)
+            .extracting("reason")
+            .isEqualTo(
+                "Validation Errors: [invalid-fields: Invalid value for the parameter 'fields': $fields. " +
+                        "The expected value is a comma-separated list of field paths.]"
+            )
+
+        verifyNoMoreInteractions(expressionResolver)
+    }
+
+    @Test
+    fun to_root_expression_ignores_special_facet_param() {
+        val rootClass = Person::class.java
+
+        val params = mapOf("facet" to listOf("job.company"))
+        val rootExpression = expressionMapper.toExpression(params, rootClass)
+
+        assertThat((rootExpression as RootExpressionImpl<Person>).expressions).isEmpty()
+
+        verifyNoMoreInteractions(expressionResolver)
+        verifyNoMoreInteractions(expressionParser)
+    }
+
+    @Test
+    fun to_facet_requests_without_special_facet_param() {
+        val facetRequests = expressionMapper.toFacetRequests(mapOf("firstName" to listOf("John")), Person::class.java)
+
+        assertThat(facetRequests).isEmpty()
+
+        verifyNoMoreInteractions(expressionResolver)
+    }
+
+    @Test
+    fun to_facet_requests_with_special_facet_param() {
+        val rootClass = Person::class.java
+
+        whenever(expressionResolver.resolveFieldInfo(rootClass, "job.company")).thenReturn(FieldInfo("jobEntity.company", "company", Job::class.java))
+        whenever(expressionResolver.resolveFieldInfo(rootClass, "height")).thenReturn(FieldInfo("height", "height", Person::class.java))
+        whenever(expressionResolver.resolveFieldInfo(rootClass, "job.hireDate")).thenReturn(FieldInfo("jobEntity.hireDate", "hireDate", Job::class.java))
+
+        val params = mapOf("facet" to listOf("job.company", "job.company,terms", "height,stats", "height, histogram, 10", "job.hireDate,histogram,Month"))
+        val facetRequests = expressionMapper.toFacetRequests(params, rootClass)
+
+        assertThat(facetRequests).containsExactly(
+            FacetRequest("job.company", "jobEntity.company"),
+            FacetRequest("job.company", "jobEntity.company"),
+            FacetRequest("height", "height", FacetType.STATS),
+            FacetRequest("height", "height", FacetType.HISTOGRAM, BigDecimal("10")),
+            FacetRequest("job.hireDate", "jobEntity.hireDate", FacetType.DATE_HISTOGRAM, dateInterval = DateInterval.MONTH)
+        )
+
+        verifyNoMoreInteractions(expressionParser)
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = ["", ",terms", "height,count", "height,histogram", "height,histogram,0", "height,histogram,week", "height,stats,10", "height,histogram,10,20"])
+    fun throw_exception_when_special_facet_param_is_invalid(facet: String) {
+        val rootClass = Person::class.java
+
+        val params = mapOf("facet" to listOf(facet))
+
+        assertThatThrownBy { expressionMapper.toFacetRequests(params, rootClass) }
+            .isInstanceOf(ValidationException::class.java)
+            .extracting("reason")
+            .isEqualTo(
+                "Validation Errors: [invalid-facet: Invalid value for the parameter 'facet': $facet. " +
+                        "The expected value is 'field.path', 'field.path,terms', 'field.path,stats', 'field.path,histogram,number' or 'field.path,histogram,year|month|day'.]"
+            )
+
+        verifyNoMoreInteractions(expressionResolver)
+    }
+
+}
@@ -1,8 +1,11 @@
 package com.weedow.searchy.expression
 
+import com.nhaarman.mockitokotlin2.verifyNoMoreInteractions
 import com.nhaarman.mockitokotlin2.verifyZeroInteractions
 import com.nhaarman.mockitokotlin2.whenever
+import com.querydsl.core.types.Order
 import com.weedow.searchy.common.model.Address
+import com.weedow.searchy.common.model.Job
 import com.weedow.searchy.common.model.Person
 import com.weedow.searchy.fieldpath.FieldPathInfo
 import com.weedow.searchy.fieldpath.FieldPathResolver
@@ -17,6 +20,10 @@ import org.mockito.InjectMocks
 import org.mockito.Mock
 import org.mockito.junit.jupiter.MockitoExtension
 import org.springframework.core.convert.ConversionService
+import java.time.LocalDate
+import java.time.LocalDateTime
+import java.time.OffsetDateTime
+import java.time.ZoneId
 import java.util.stream.Stream
 
 @ExtendWith(MockitoExtension::class)
@@ -110,6 +117,87 @@ internal class ExpressionResolverImplTest {
         assertThat(expression).isEqualTo(SimpleExpression(operator, fieldInfo, listOf(fieldValue1, fieldValue2)))
     }
 
+    @Test
+    fun resolve_expression_with_date_time_field_equal_to_date() {
+        val rootClass = Person::class.java
+        val fieldPath = "birthday"
+        val fieldName = "birthday"
+        val fieldClass = LocalDateTime::class.java
+
+        whenever(fieldPathResolver.resolveFieldPath(rootClass, fieldPath))
+            .thenReturn(FieldPathInfo(fieldPath, fieldName, fieldClass, rootClass))
+
+        val expression = expressionResolver.resolveExpression(rootClass, fieldPath, listOf("1981-03-12"), Operator.EQUALS, false)
+
+        val fieldInfo = FieldInfo(fieldPath, fieldName, rootClass)
+        assertThat(expression).isEqualTo(
+            LogicalExpression(
+                LogicalOperator.AND,
+                listOf(
+                    SimpleExpression(Operator.GREATER_THAN_OR_EQUALS, fieldInfo, LocalDateTime.of(1981, 3, 12, 0, 0)),
+                    SimpleExpression(Operator.LESS_THAN, fieldInfo, LocalDateTime.of(1981, 3, 13, 0, 0))
+                )
+            )
+        )
+
+        verifyNoMoreInteractions(conversionService)
+    }
+
+    @Test
+    fun resolve_expression_with_offset_date_time_field_equal_to_date() {
+        val rootClass = Job::class.java
+        val fieldPath = "hireDate"
+        val fieldName = "hireDate"
+        val fieldClass = OffsetDateTime::class.java
+
+        whenever(fieldPathResolver.resolveFieldPath(rootClass, fieldPath))
+            .thenReturn(FieldPathInfo(fieldPath, fieldName, fieldClass, rootClass))
+
+        val expression = expressionResolver.resolveExpression(rootClass, fieldPath, listOf("2019-09-01"), Operator.EQUALS, true)
+
+        val fieldInfo = FieldInfo(fieldPath, fieldName, rootClass)
+        val startOfDay = LocalDate.of(2019, 9, 1).atStartOfDay(ZoneId.systemDefault())
+        assertThat(expression).isEqualTo(
+            NotExpression(
+                LogicalExpression(
+                    LogicalOperator.AND,
+                    listOf(
+                        SimpleExpression(Operator.GREATER_THAN_OR_EQUALS, fieldInfo, startOfDay.toOffsetDateTime()),
+                        SimpleExpression(Operator.LESS_THAN, fieldInfo, startOfDay.plusDays(1).toOffsetDateTime())
+                    )
+                )
+            )
+        )
+    }
+
+    @Test
+    fun resolve_expression_with_multiple_values_and_between_operator() {
+        val rootClass = Person::class.java
+        val fieldPath = "height"
+        val fieldName = "height"
+        val fieldClass = Double::class.javaObjectType
+        val fieldValue1 = "160"
+        val fieldValue2 = "180"
+        val operator = Operator.BETWEEN
+
+        whenever(fieldPathResolver.resolveFieldPath(rootClass, fieldPath))
+            .thenReturn(FieldPathInfo(fieldPath, fieldName, fieldClass, rootClass))
+        whenever(conversionService.convert(fieldValue1, fieldClass))
+            .thenReturn(160.0)
+        whenever(conversionService.convert(fieldValue2, fieldClass))
+            .thenReturn(180.0)
+
+        val expression = expressionResolver.resolveExpression(rootClass, fieldPath, listOf(fieldValue1, fieldValue2), operator, false)
+
+        val fieldInfo = FieldInfo(fieldPath, fieldName, rootClass)
+        assertThat(expression).isEqualTo(
+            LogicalExpression(
+                LogicalOperator.AND,
+                listOf(SimpleExpression(Operator.GREATER_THAN_OR_EQUALS, fieldInfo, 160.0), SimpleExpression(Operator.LESS_THAN_OR_EQUALS, fieldInfo, 180.0))
+            )
+        )
+    }
+
     @Test
     fun resolve_expression_with_negative_operator() {
         val rootClass = Person::class.java
@@ -193,6 +281,43 @@ internal class ExpressionResolverImplTest {
         assertThat(expression).isEqualTo(NotExpression(SimpleExpression(operator, fieldInfo, listOf(fieldValue1, fieldValue2))))
     }
 
+    @Test
+    fun resolve_sort_expression() {
+        val rootClass = Person::class.java
+        val fieldPath = "jobEntity.company"
+        val fieldName = "company"
+        val fieldClass = String::class.java
+        val parentClass = Job::class.java
+
+        whenever(fieldPathResolver.resolveFieldPath(rootClass, fieldPath))
+            .thenReturn(FieldPathInfo(fieldPath, fieldName, fieldClass, parentClass))
+
+        val expression = expressionResolver.resolveSortExpression(rootClass, fieldPath, Order.DESC)
+
+        val fieldInfo = FieldInfo(fieldPath, fieldName, parentClass)
+        assertThat(expression).isEqualTo(SortExpression(fieldInfo, Order.DESC))
+
+        verifyNoMoreInteractions(conversionService)
+    }
+
+    @Test
+    fun resolve_field_info() {
+        val rootClass = Person::class.java
+        val fieldPath = "job.company"
+        val fieldName = "company"
+        val fieldClass = String::class.java
+        val parentClass = Job::class.java
+
+        whenever(fieldPathResolver.resolveFieldPath(rootClass, fieldPath))
+            .thenReturn(FieldPathInfo("jobEntity.company", fieldName, fieldClass, parentClass))
+
+        val fieldInfo = expressionResolver.resolveFieldInfo(rootClass, fieldPath)
+
+        assertThat(fieldInfo).isEqualTo(FieldInfo("jobEntity.company", fieldName, parentClass))
+
+        verifyNoMoreInteractions(conversionService)
+    }
+
     companion object {
         @JvmStatic
         @Suppress("unused")
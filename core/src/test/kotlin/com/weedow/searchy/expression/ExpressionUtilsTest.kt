@@ -1,5 +1,6 @@
 package com.weedow.searchy.expression
 
+import com.querydsl.core.types.Order
 import com.weedow.searchy.common.model.Person
 import org.assertj.core.api.Assertions.assertThat
 import org.junit.jupiter.api.Test
@@ -102,6 +103,15 @@ internal class ExpressionUtilsTest {
         assertThat(expression).isEqualTo(SimpleExpression(Operator.IN, fieldInfo, listOf(fieldValue1, fieldValue2)))
     }
 
+    @Test
+    fun sort() {
+        val fieldInfo = FieldInfo("firstName", "firstName", Person::class.java)
+
+        val expression = ExpressionUtils.sort(fieldInfo, Order.DESC)
+
+        assertThat(expression).isEqualTo(SortExpression(fieldInfo, Order.DESC))
+    }
+
     @Test
     fun not() {
         val fieldValue = "John"
@@ -31,7 +31,6 @@ internal class RootExpressionImplTest {
         assertThat(predicate).isEqualTo(Specification.NO_PREDICATE)
 
         verify(entityJoins, never()).getQPath(any(), any(), eq(queryBuilder))
-        verify(queryBuilder).distinct()
         verifyNoMoreInteractions(queryBuilder)
     }
 
@@ -64,7 +63,6 @@ internal class RootExpressionImplTest {
         assertThat(result).isEqualTo(predicate)
 
         verify(entityJoins, never()).getQPath(any(), any(), eq(queryBuilder))
-        verify(queryBuilder).distinct()
         verifyNoMoreInteractions(queryBuilder)
     }
 
@@ -82,6 +80,7 @@ internal class RootExpressionImplTest {
         val qEntityRoot = mock<QEntityRoot<Any>>()
         val queryBuilder = mock<QueryBuilder<Any>> {
             on { this.qEntityRoot }.thenReturn(qEntityRoot)
+            on { this.fetchJoins }.thenReturn(true)
         }
 
         val rootExpression = RootExpressionImpl<Any>()
@@ -93,10 +92,73 @@ internal class RootExpressionImplTest {
 
         verify(entityJoins).getQPath(fieldPath1, qEntityRoot, queryBuilder)
         verify(entityJoins).getQPath(fieldPath2, qEntityRoot, queryBuilder)
-        verify(queryBuilder).distinct()
         verifyNoMoreInteractions(queryBuilder)
     }
 
+    @Test
+    fun to_specification_with_batch_fetched_entity_joins() {
+        val entityJoins = mock<EntityJoins>()
+        val fieldPath1 = "entity.myJoin1"
+        val fieldPath2 = "entity.myJoin2"
+        val fetchJoins = mapOf(
+            "myJoin1" to EntityJoin(fieldPath1, "myJoin1", JoinType.LEFTJOIN, false, batchFetched = true),
+            "myJoin2" to EntityJoin(fieldPath2, "myJoin2", JoinType.INNERJOIN, false, batchFetched = true)
+        )
+        whenever(entityJoins.getJoins(RootExpressionImpl.FILTER_FETCH_JOINS)).thenReturn(fetchJoins)
+
+        val qEntityRoot = mock<QEntityRoot<Any>>()
+        val queryBuilder = mock<QueryBuilder<Any>> {
+            on { this.qEntityRoot }.thenReturn(qEntityRoot)
+            on { this.fetchJoins }.thenReturn(true)
+        }
+
+        val rootExpression = RootExpressionImpl<Any>()
+        val specification = rootExpression.toSpecification<Any>(entityJoins)
+
+        val predicate = specification.toPredicate(queryBuilder)
+
+        assertThat(predicate).isEqualTo(Specification.NO_PREDICATE)
+
+        // The left join does not filter the results: it's not joined
+        verify(entityJoins, never()).getQPath(fieldPath1, qEntityRoot, queryBuilder)
+        verify(entityJoins).getQPath(fieldPath2, qEntityRoot, queryBuilder)
+        verify(queryBuilder).batchFetch(fieldPath1)
+        verify(queryBuilder).batchFetch(fieldPath2)
+    }
+
+    @Test
+    fun to_specification_without_fetched_left_joins() {
+        val entityJoins = mock<EntityJoins>()
+        val fieldPath1 = "entity.myJoin1"
+        val fieldPath2 = "entity.myJoin2"
+        val fieldPath3 = "entity.myJoin3"
+        val fetchJoins = mapOf(
+            "myJoin1" to EntityJoin(fieldPath1, "myJoin1", JoinType.LEFTJOIN, true),
+            "myJoin2" to EntityJoin(fieldPath2, "myJoin2", JoinType.INNERJOIN, true),
+            "myJoin3" to EntityJoin(fieldPath3, "myJoin3", JoinType.LEFTJOIN, false, batchFetched = true)
+        )
+        whenever(entityJoins.getJoins(RootExpressionImpl.FILTER_FETCH_JOINS)).thenReturn(fetchJoins)
+
+        val qEntityRoot = mock<QEntityRoot<Any>>()
+        val queryBuilder = mock<QueryBuilder<Any>> {
+            on { this.qEntityRoot }.thenReturn(qEntityRoot)
+            on { this.fetchJoins }.thenReturn(false)
+        }
+
+        val rootExpression = RootExpressionImpl<Any>()
+        val specification = rootExpression.toSpecification<Any>(entityJoins)
+
+        val predicate = specification.toPredicate(queryBuilder)
+
+        assertThat(predicate).isEqualTo(Specification.NO_PREDICATE)
+
+        // The left joins do not filter the results: they are not joined when the associations are not loaded
+        verify(entityJoins, never()).getQPath(fieldPath1, qEntityRoot, queryBuilder)
+        verify(entityJoins).getQPath(fieldPath2, qEntityRoot, queryBuilder)
+        verify(entityJoins, never()).getQPath(fieldPath3, qEntityRoot, queryBuilder)
+        verify(queryBuilder, never()).batchFetch(any())
+    }
+
     @Test
     fun to_field_expressions() {
         assertToFieldExpressions(false)
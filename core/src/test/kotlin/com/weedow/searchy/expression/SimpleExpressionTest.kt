@@ -16,6 +16,7 @@ import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.extension.ExtendWith
 import org.junit.jupiter.params.ParameterizedTest
 import org.junit.jupiter.params.provider.EnumSource
+import org.mockito.Mockito.CALLS_REAL_METHODS
 import org.mockito.junit.jupiter.MockitoExtension
 
 @ExtendWith(MockitoExtension::class)
@@ -27,7 +28,7 @@ internal class SimpleExpressionTest {
         val fieldValue = "John"
         val fieldInfo = FieldInfo(fieldPath, "firstName", Person::class.java)
 
-        val entityJoins = mock<EntityJoins>()
+        val entityJoins = mock<EntityJoins>(defaultAnswer = CALLS_REAL_METHODS)
 
         val qEntityRoot = mock<QEntityRoot<Person>>()
         val queryBuilder = mock<QueryBuilder<Person>> {
@@ -57,7 +58,7 @@ internal class SimpleExpressionTest {
         val fieldValue = NullValue
         val fieldInfo = FieldInfo(fieldPath, "firstName", Person::class.java)
 
-        val entityJoins = mock<EntityJoins>()
+        val entityJoins = mock<EntityJoins>(defaultAnswer = CALLS_REAL_METHODS)
 
         val qEntityRoot = mock<QEntityRoot<Person>>()
         val queryBuilder = mock<QueryBuilder<Person>> {
@@ -84,10 +85,10 @@ internal class SimpleExpressionTest {
     @Test
     fun to_specification_with_matches_operator() {
         val fieldPath = "firstName"
-        val fieldValue = "Jo*"
+        val fieldValue = "J*n"
         val fieldInfo = FieldInfo(fieldPath, "firstName", Person::class.java)
 
-        val entityJoins = mock<EntityJoins>()
+        val entityJoins = mock<EntityJoins>(defaultAnswer = CALLS_REAL_METHODS)
 
         val qEntityRoot = mock<QEntityRoot<Person>>()
         val queryBuilder = mock<QueryBuilder<Person>> {
@@ -117,7 +118,7 @@ internal class SimpleExpressionTest {
         val fieldValue = "*JO*"
         val fieldInfo = FieldInfo(fieldPath, "firstName", Person::class.java)
 
-        val entityJoins = mock<EntityJoins>()
+        val entityJoins = mock<EntityJoins>(defaultAnswer = CALLS_REAL_METHODS)
 
         val qEntityRoot = mock<QEntityRoot<Person>>()
         val queryBuilder = mock<QueryBuilder<Person>> {
@@ -141,13 +142,73 @@ internal class SimpleExpressionTest {
         assertThat(result).isEqualTo(predicate)
     }
 
+    @Test
+    fun to_specification_with_matches_operator_and_prefix_pattern() {
+        val fieldPath = "firstName"
+        val fieldValue = "Jo*"
+        val fieldInfo = FieldInfo(fieldPath, "firstName", Person::class.java)
+
+        val entityJoins = mock<EntityJoins>(defaultAnswer = CALLS_REAL_METHODS)
+
+        val qEntityRoot = mock<QEntityRoot<Person>>()
+        val queryBuilder = mock<QueryBuilder<Person>> {
+            on { this.qEntityRoot }.thenReturn(qEntityRoot)
+        }
+
+        val path = mock<Path<String>>()
+        val qPath = mock<QPath<String>> {
+            on { this.path }.thenReturn(path)
+        }
+        whenever(entityJoins.getQPath(fieldInfo.fieldPath, qEntityRoot, queryBuilder)).thenReturn(qPath)
+
+        val predicate = mock<Predicate>()
+        whenever(queryBuilder.startsWith(path, "Jo")).thenReturn(predicate)
+
+        val expression = SimpleExpression(Operator.MATCHES, fieldInfo, fieldValue)
+        val specification = expression.toSpecification<Person>(entityJoins)
+
+        val result = specification.toPredicate(queryBuilder)
+
+        assertThat(result).isEqualTo(predicate)
+    }
+
+    @Test
+    fun to_specification_with_imatches_operator_and_case_insensitive_collation() {
+        val fieldPath = "firstName"
+        val fieldValue = "*JO*"
+        val fieldInfo = FieldInfo(fieldPath, "firstName", Person::class.java)
+
+        val entityJoins = mock<EntityJoins>(defaultAnswer = CALLS_REAL_METHODS)
+
+        val qEntityRoot = mock<QEntityRoot<Person>>()
+        val queryBuilder = mock<QueryBuilder<Person>> {
+            on { this.qEntityRoot }.thenReturn(qEntityRoot)
+        }
+
+        val path = mock<Path<String>>()
+        val qPath = mock<QPath<String>> {
+            on { this.path }.thenReturn(path)
+        }
+        whenever(entityJoins.getQPath(fieldInfo.fieldPath, qEntityRoot, queryBuilder)).thenReturn(qPath)
+
+        val predicate = mock<Predicate>()
+        whenever(queryBuilder.ilikeWithCollation(path, fieldValue)).thenReturn(predicate)
+
+        val expression = SimpleExpression(Operator.IMATCHES, fieldInfo, fieldValue, true)
+        val specification = expression.toSpecification<Person>(entityJoins)
+
+        val result = specification.toPredicate(queryBuilder)
+
+        assertThat(result).isEqualTo(predicate)
+    }
+
     @Test
     fun to_specification_with_less_than_operator() {
         val fieldPath = "height"
         val fieldValue = 170.0
         val fieldInfo = FieldInfo(fieldPath, "height", Person::class.java)
 
-        val entityJoins = mock<EntityJoins>()
+        val entityJoins = mock<EntityJoins>(defaultAnswer = CALLS_REAL_METHODS)
 
         val qEntityRoot = mock<QEntityRoot<Person>>()
         val queryBuilder = mock<QueryBuilder<Person>> {
@@ -177,7 +238,7 @@ internal class SimpleExpressionTest {
         val fieldValue = 170.0
         val fieldInfo = FieldInfo(fieldPath, "height", Person::class.java)
 
-        val entityJoins = mock<EntityJoins>()
+        val entityJoins = mock<EntityJoins>(defaultAnswer = CALLS_REAL_METHODS)
 
         val qEntityRoot = mock<QEntityRoot<Person>>()
         val queryBuilder = mock<QueryBuilder<Person>> {
@@ -207,7 +268,7 @@ internal class SimpleExpressionTest {
         val fieldValue = 170.0
         val fieldInfo = FieldInfo(fieldPath, "height", Person::class.java)
 
-        val entityJoins = mock<EntityJoins>()
+        val entityJoins = mock<EntityJoins>(defaultAnswer = CALLS_REAL_METHODS)
 
         val qEntityRoot = mock<QEntityRoot<Person>>()
         val queryBuilder = mock<QueryBuilder<Person>> {
@@ -237,7 +298,7 @@ internal class SimpleExpressionTest {
         val fieldValue = 170.0
         val fieldInfo = FieldInfo(fieldPath, "height", Person::class.java)
 
-        val entityJoins = mock<EntityJoins>()
+        val entityJoins = mock<EntityJoins>(defaultAnswer = CALLS_REAL_METHODS)
 
         val qEntityRoot = mock<QEntityRoot<Person>>()
         val queryBuilder = mock<QueryBuilder<Person>> {
@@ -269,7 +330,7 @@ internal class SimpleExpressionTest {
         val fieldValues = listOf(fieldValue1, fieldValue2)
         val fieldInfo = FieldInfo(fieldPath, "firstName", Person::class.java)
 
-        val entityJoins = mock<EntityJoins>()
+        val entityJoins = mock<EntityJoins>(defaultAnswer = CALLS_REAL_METHODS)
 
         val qEntityRoot = mock<QEntityRoot<Person>>()
         val queryBuilder = mock<QueryBuilder<Person>> {
@@ -293,6 +354,36 @@ internal class SimpleExpressionTest {
         assertThat(result).isEqualTo(predicate)
     }
 
+    @Test
+    fun to_specification_with_between_operator() {
+        val fieldPath = "height"
+        val fieldValues = listOf(160.0, 180.0)
+        val fieldInfo = FieldInfo(fieldPath, "height", Person::class.java)
+
+        val entityJoins = mock<EntityJoins>(defaultAnswer = CALLS_REAL_METHODS)
+
+        val qEntityRoot = mock<QEntityRoot<Person>>()
+        val queryBuilder = mock<QueryBuilder<Person>> {
+            on { this.qEntityRoot }.thenReturn(qEntityRoot)
+        }
+
+        val path = mock<Path<*>>()
+        val qPath = mock<QPath<*>> {
+            on { this.path }.thenReturn(path)
+        }
+        whenever(entityJoins.getQPath(fieldInfo.fieldPath, qEntityRoot, queryBuilder)).thenReturn(qPath)
+
+        val predicate = mock<Predicate>()
+        whenever(queryBuilder.between(path, 160.0, 180.0)).thenReturn(predicate)
+
+        val expression = SimpleExpression(Operator.BETWEEN, fieldInfo, fieldValues)
+        val specification = expression.toSpecification<Person>(entityJoins)
+
+        val result = specification.toPredicate(queryBuilder)
+
+        assertThat(result).isEqualTo(predicate)
+    }
+
     @ParameterizedTest
     @EnumSource(Operator::class)
     fun to_field_expressions(operator: Operator) {
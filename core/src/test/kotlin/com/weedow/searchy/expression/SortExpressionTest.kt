@@ -0,0 +1,60 @@
+package com.weedow.searchy.expression
+
+import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.verify
+import com.nhaarman.mockitokotlin2.whenever
+import com.querydsl.core.types.Order
+import com.querydsl.core.types.Path
+import com.weedow.searchy.common.model.Job
+import com.weedow.searchy.common.model.Person
+import com.weedow.searchy.join.EntityJoins
+import com.weedow.searchy.query.QueryBuilder
+import com.weedow.searchy.query.querytype.QEntityRoot
+import com.weedow.searchy.query.querytype.QPath
+import com.weedow.searchy.query.specification.Specification
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.extension.ExtendWith
+import org.mockito.junit.jupiter.MockitoExtension
+
+@ExtendWith(MockitoExtension::class)
+internal class SortExpressionTest {
+
+    @Test
+    fun to_specification() {
+        val fieldInfo = FieldInfo("jobEntity.company", "company", Job::class.java)
+
+        val entityJoins = mock<EntityJoins>()
+
+        val qEntityRoot = mock<QEntityRoot<Person>>()
+        val queryBuilder = mock<QueryBuilder<Person>> {
+            on { this.qEntityRoot }.thenReturn(qEntityRoot)
+        }
+
+        val path = mock<Path<*>>()
+        val qPath = mock<QPath<*>> {
+            on { this.path }.thenReturn(path)
+        }
+        whenever(entityJoins.getQPath(fieldInfo.fieldPath, qEntityRoot, queryBuilder)).thenReturn(qPath)
+
+        val expression = SortExpression(fieldInfo, Order.DESC)
+        val specification = expression.toSpecification<Person>(entityJoins)
+
+        val result = specification.toPredicate(queryBuilder)
+
+        assertThat(result).isEqualTo(Specification.NO_PREDICATE)
+
+        verify(queryBuilder).orderBy(path, Order.DESC)
+    }
+
+    @Test
+    fun to_field_expressions() {
+        val fieldInfo = FieldInfo("lastName", "lastName", Person::class.java)
+
+        val expression = SortExpression(fieldInfo, Order.ASC)
+
+        assertThat(expression.toFieldExpressions(false)).isEmpty()
+        assertThat(expression.toFieldExpressions(true)).isEmpty()
+    }
+
+}
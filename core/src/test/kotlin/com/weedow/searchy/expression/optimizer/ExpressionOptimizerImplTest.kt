@@ -0,0 +1,224 @@
+package com.weedow.searchy.expression.optimizer
+
+import com.nhaarman.mockitokotlin2.mock
+import com.querydsl.core.types.Order
+import com.weedow.searchy.common.model.Person
+import com.weedow.searchy.expression.Expression
+import com.weedow.searchy.expression.FieldInfo
+import com.weedow.searchy.expression.LogicalExpression
+import com.weedow.searchy.expression.LogicalOperator
+import com.weedow.searchy.expression.NotExpression
+import com.weedow.searchy.expression.Operator
+import com.weedow.searchy.expression.RootExpression
+import com.weedow.searchy.expression.RootExpressionImpl
+import com.weedow.searchy.expression.SimpleExpression
+import com.weedow.searchy.expression.SortExpression
+import com.weedow.searchy.utils.Keyword
+import com.weedow.searchy.utils.NullValue
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+
+internal class ExpressionOptimizerImplTest {
+
+    private val expressionOptimizer = ExpressionOptimizerImpl()
+
+    private val firstName = FieldInfo("firstName", "firstName", Person::class.java)
+    private val lastName = FieldInfo("lastName", "lastName", Person::class.java)
+    private val height = FieldInfo("height", "height", Person::class.java)
+    private val nickNames = FieldInfo("nickNames", "nickNames", Person::class.java)
+
+    @Test
+    fun return_root_expression_not_implemented_by_searchy() {
+        val rootExpression = mock<RootExpression<Person>>()
+
+        assertThat(expressionOptimizer.optimize(rootExpression, Person::class.java)).isSameAs(rootExpression)
+    }
+
+    @Test
+    fun flatten_nested_logical_expressions() {
+        val expression1 = SimpleExpression(Operator.EQUALS, firstName, "John")
+        val expression2 = SimpleExpression(Operator.EQUALS, lastName, "Doe")
+        val expression3 = SimpleExpression(Operator.GREATER_THAN, height, 170.0)
+
+        val result = optimize(LogicalExpression(LogicalOperator.AND, listOf(expression1, LogicalExpression(LogicalOperator.AND, listOf(expression2, expression3)))))
+
+        assertThat(result).containsExactly(expression1, expression2, expression3)
+    }
+
+    @Test
+    fun remove_duplicate_terms() {
+        val expression1 = SimpleExpression(Operator.MATCHES, firstName, "Jo*")
+        val expression2 = SimpleExpression(Operator.MATCHES, lastName, "Do*")
+
+        val result = optimize(LogicalExpression(LogicalOperator.OR, listOf(expression1, expression2, expression1)))
+
+        assertThat(result).containsExactly(LogicalExpression(LogicalOperator.OR, listOf(expression1, expression2)))
+    }
+
+    @Test
+    fun push_negation_down_to_field_expressions() {
+        val expression1 = SimpleExpression(Operator.MATCHES, firstName, "Jo*")
+        val expression2 = SimpleExpression(Operator.MATCHES, lastName, "Do*")
+
+        val result = optimize(NotExpression(LogicalExpression(LogicalOperator.OR, listOf(expression1, NotExpression(expression2)))))
+
+        assertThat(result).containsExactly(NotExpression(expression1), expression2)
+    }
+
+    @Test
+    fun merge_disjunction_of_equalities_into_in_expression() {
+        val result = optimize(
+            LogicalExpression(
+                LogicalOperator.OR,
+                listOf(
+                    SimpleExpression(Operator.EQUALS, firstName, "John"),
+                    SimpleExpression(Operator.IN, firstName, listOf("Jane", "John")),
+                    SimpleExpression(Operator.EQUALS, firstName, "Bob")
+                )
+            )
+        )
+
+        assertThat(result).containsExactly(SimpleExpression(Operator.IN, firstName, listOf("John", "Jane", "Bob")))
+    }
+
+    @Test
+    fun merge_conjunction_of_negated_equalities_into_negated_in_expression() {
+        val result = optimize(
+            NotExpression(SimpleExpression(Operator.EQUALS, firstName, "John")),
+            NotExpression(SimpleExpression(Operator.IN, firstName, listOf("Jane", "Bob")))
+        )
+
+        assertThat(result).containsExactly(NotExpression(SimpleExpression(Operator.IN, firstName, listOf("John", "Jane", "Bob"))))
+    }
+
+    @Test
+    fun collapse_range_into_between_expression() {
+        val result = optimize(
+            SimpleExpression(Operator.GREATER_THAN_OR_EQUALS, height, 160.0),
+            SimpleExpression(Operator.LESS_THAN_OR_EQUALS, height, 180.0)
+        )
+
+        assertThat(result).containsExactly(SimpleExpression(Operator.BETWEEN, height, listOf(160.0, 180.0)))
+    }
+
+    @Test
+    fun intersect_ranges() {
+        val result = optimize(
+            SimpleExpression(Operator.GREATER_THAN, height, 160.0),
+            SimpleExpression(Operator.GREATER_THAN_OR_EQUALS, height, 170.0),
+            SimpleExpression(Operator.LESS_THAN, height, 190.0),
+            SimpleExpression(Operator.LESS_THAN_OR_EQUALS, height, 190.0)
+        )
+
+        assertThat(result).containsExactly(
+            SimpleExpression(Operator.GREATER_THAN_OR_EQUALS, height, 170.0),
+            SimpleExpression(Operator.LESS_THAN, height, 190.0)
+        )
+    }
+
+    @Test
+    fun intersect_values_of_single_valued_field() {
+        val result = optimize(
+            SimpleExpression(Operator.IN, height, listOf(160.0, 170.0, 180.0)),
+            SimpleExpression(Operator.GREATER_THAN, height, 160.0),
+            NotExpression(SimpleExpression(Operator.EQUALS, height, 180.0))
+        )
+
+        assertThat(result).containsExactly(SimpleExpression(Operator.EQUALS, height, 170.0))
+    }
+
+    @Test
+    fun return_null_when_equalities_are_contradictory() {
+        val result = expressionOptimizer.optimize(
+            RootExpressionImpl(SimpleExpression(Operator.EQUALS, firstName, "John"), SimpleExpression(Operator.EQUALS, firstName, "Jane")),
+            Person::class.java
+        )
+
+        assertThat(result).isNull()
+    }
+
+    @Test
+    fun return_null_when_range_is_empty() {
+        val result = expressionOptimizer.optimize(
+            RootExpressionImpl(SimpleExpression(Operator.GREATER_THAN, height, 180.0), SimpleExpression(Operator.LESS_THAN, height, 160.0)),
+            Person::class.java
+        )
+
+        assertThat(result).isNull()
+    }
+
+    @Test
+    fun return_null_when_all_terms_of_disjunction_are_contradictory() {
+        val contradiction = LogicalExpression(
+            LogicalOperator.AND,
+            listOf(SimpleExpression(Operator.EQUALS, firstName, "John"), SimpleExpression(Operator.EQUALS, firstName, "Jane"))
+        )
+
+        val result = expressionOptimizer.optimize(
+            RootExpressionImpl(LogicalExpression(LogicalOperator.OR, listOf(contradiction, contradiction.copy(expressions = contradiction.expressions.reversed())))),
+            Person::class.java
+        )
+
+        assertThat(result).isNull()
+    }
+
+    @Test
+    fun keep_equalities_of_multi_valued_field() {
+        val expression1 = SimpleExpression(Operator.EQUALS, nickNames, "Johnny")
+        val expression2 = SimpleExpression(Operator.EQUALS, nickNames, "Jo")
+
+        val result = optimize(expression1, expression2)
+
+        assertThat(result).containsExactly(expression1, expression2)
+    }
+
+    @Test
+    fun keep_ranges_of_multi_valued_field() {
+        val expression1 = SimpleExpression(Operator.GREATER_THAN_OR_EQUALS, nickNames, "J")
+        val expression2 = SimpleExpression(Operator.LESS_THAN_OR_EQUALS, nickNames, "Jz")
+        val expression3 = SimpleExpression(Operator.GREATER_THAN, nickNames, "Jo")
+
+        val result = optimize(expression1, expression2, expression3)
+
+        assertThat(result).containsExactly(expression1, expression2, expression3)
+    }
+
+    @Test
+    fun do_not_return_null_when_ranges_of_multi_valued_field_are_disjoint() {
+        val expression1 = SimpleExpression(Operator.GREATER_THAN, nickNames, "M")
+        val expression2 = SimpleExpression(Operator.LESS_THAN, nickNames, "C")
+
+        val result = optimize(expression1, expression2)
+
+        // Each nickname may match a different range
+        assertThat(result).containsExactly(expression1, expression2)
+    }
+
+    @Test
+    fun keep_null_values_and_keywords() {
+        val expression1 = SimpleExpression(Operator.EQUALS, firstName, NullValue)
+        val expression2 = SimpleExpression(Operator.EQUALS, firstName, "John")
+        val expression3 = SimpleExpression(Operator.LESS_THAN, height, Keyword.CURRENT_DATE)
+
+        val result = optimize(LogicalExpression(LogicalOperator.OR, listOf(expression1, expression2)), expression3)
+
+        assertThat(result).containsExactly(LogicalExpression(LogicalOperator.OR, listOf(expression1, expression2)), expression3)
+    }
+
+    @Test
+    fun keep_sort_expressions_at_the_end() {
+        val sortExpression = SortExpression(lastName, Order.ASC)
+        val expression = SimpleExpression(Operator.EQUALS, firstName, "John")
+
+        val result = optimize(sortExpression, expression)
+
+        assertThat(result).containsExactly(expression, sortExpression)
+    }
+
+    private fun optimize(vararg expressions: Expression): List<Expression> {
+        val result = expressionOptimizer.optimize(RootExpressionImpl<Person>(*expressions), Person::class.java)
+        assertThat(result).isInstanceOf(RootExpressionImpl::class.java)
+        return (result as RootExpressionImpl<Person>).expressions.toList()
+    }
+
+}
@@ -0,0 +1,130 @@
+package com.weedow.searchy.expression.parser
+
+import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.times
+import com.nhaarman.mockitokotlin2.verify
+import com.nhaarman.mockitokotlin2.whenever
+import com.weedow.searchy.common.model.Address
+import com.weedow.searchy.common.model.Person
+import com.weedow.searchy.expression.Expression
+import org.assertj.core.api.Assertions.assertThat
+import org.assertj.core.api.Assertions.assertThatThrownBy
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.extension.ExtendWith
+import org.mockito.Mock
+import org.mockito.junit.jupiter.MockitoExtension
+import java.time.Clock
+import java.time.Duration
+
+@ExtendWith(MockitoExtension::class)
+internal class ExpressionParserCachingDecoratorTest {
+
+    @Mock
+    private lateinit var expressionParser: ExpressionParser
+
+    @Test
+    fun parse_uses_the_cache() {
+        val query = "firstName='John'"
+
+        val expression = mock<Expression>()
+        whenever(expressionParser.parse(query, Person::class.java)).thenReturn(expression)
+
+        val epcd = ExpressionParserCachingDecorator(expressionParser, 10, Duration.ofMinutes(10))
+
+        val result1 = epcd.parse(query, Person::class.java)
+        assertThat(result1).isSameAs(expression)
+
+        // The second call uses the cache
+        val result2 = epcd.parse(query, Person::class.java)
+        assertThat(result2).isSameAs(expression)
+
+        // Verify the method is called one time, The second call uses the cache
+        verify(expressionParser, times(1)).parse(query, Person::class.java)
+        assertThat(epcd.hitCount).isEqualTo(1)
+        assertThat(epcd.missCount).isEqualTo(1)
+    }
+
+    @Test
+    fun parse_the_same_query_for_different_root_classes() {
+        val query = "country='FR'"
+
+        val expression1 = mock<Expression>()
+        val expression2 = mock<Expression>()
+        whenever(expressionParser.parse(query, Person::class.java)).thenReturn(expression1)
+        whenever(expressionParser.parse(query, Address::class.java)).thenReturn(expression2)
+
+        val epcd = ExpressionParserCachingDecorator(expressionParser, 10, Duration.ofMinutes(10))
+
+        assertThat(epcd.parse(query, Person::class.java)).isSameAs(expression1)
+        assertThat(epcd.parse(query, Address::class.java)).isSameAs(expression2)
+
+        assertThat(epcd.hitCount).isEqualTo(0)
+        assertThat(epcd.missCount).isEqualTo(2)
+    }
+
+    @Test
+    fun evict_the_least_recently_used_query_when_the_cache_is_full() {
+        val query1 = "firstName='John'"
+        val query2 = "firstName='Jane'"
+        val query3 = "firstName='Jack'"
+
+        whenever(expressionParser.parse(query1, Person::class.java)).thenReturn(mock())
+        whenever(expressionParser.parse(query2, Person::class.java)).thenReturn(mock())
+        whenever(expressionParser.parse(query3, Person::class.java)).thenReturn(mock())
+
+        val epcd = ExpressionParserCachingDecorator(expressionParser, 2, Duration.ofMinutes(10))
+
+        epcd.parse(query1, Person::class.java)
+        epcd.parse(query2, Person::class.java)
+        epcd.parse(query1, Person::class.java) // query2 becomes the least recently used query
+        epcd.parse(query3, Person::class.java) // query2 is evicted
+        epcd.parse(query1, Person::class.java)
+        epcd.parse(query2, Person::class.java)
+
+        verify(expressionParser, times(1)).parse(query1, Person::class.java)
+        verify(expressionParser, times(2)).parse(query2, Person::class.java)
+        verify(expressionParser, times(1)).parse(query3, Person::class.java)
+    }
+
+    @Test
+    fun parse_again_when_the_cached_query_is_expired() {
+        val query = "firstName='John'"
+
+        whenever(expressionParser.parse(query, Person::class.java)).thenReturn(mock())
+
+        val clock = mock<Clock>()
+        whenever(clock.millis()).thenReturn(0L, 59_999L, 60_000L)
+
+        val epcd = ExpressionParserCachingDecorator(expressionParser, 10, Duration.ofMinutes(1), clock)
+
+        epcd.parse(query, Person::class.java)
+        epcd.parse(query, Person::class.java)
+        epcd.parse(query, Person::class.java)
+
+        verify(expressionParser, times(2)).parse(query, Person::class.java)
+        assertThat(epcd.hitCount).isEqualTo(1)
+        assertThat(epcd.missCount).isEqualTo(2)
+    }
+
+    @Test
+    fun do_not_cache_invalid_query() {
+        val query = "AAAAA BBBBB CCCCC"
+
+        val exception = ExpressionParserException(emptyList())
+        whenever(expressionParser.parse(query, Person::class.java)).thenThrow(exception)
+
+        val epcd = ExpressionParserCachingDecorator(expressionParser, 10, Duration.ofMinutes(10))
+
+        assertThatThrownBy { epcd.parse(query, Person::class.java) }.isSameAs(exception)
+        assertThatThrownBy { epcd.parse(query, Person::class.java) }.isSameAs(exception)
+
+        verify(expressionParser, times(2)).parse(query, Person::class.java)
+    }
+
+    @Test
+    fun throw_exception_when_max_size_is_not_positive() {
+        assertThatThrownBy { ExpressionParserCachingDecorator(expressionParser, 0, Duration.ofMinutes(10)) }
+            .isInstanceOf(IllegalArgumentException::class.java)
+            .hasMessage("The maximum size of the cache must be greater than 0")
+    }
+}
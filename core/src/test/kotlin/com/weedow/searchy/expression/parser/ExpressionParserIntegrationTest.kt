@@ -4,6 +4,7 @@ import com.weedow.searchy.common.model.Job
 import com.weedow.searchy.common.model.Person
 import com.weedow.searchy.common.model.Vehicle
 import com.weedow.searchy.expression.*
+import com.weedow.searchy.utils.Keyword
 import com.weedow.searchy.utils.NullValue
 import org.assertj.core.api.Assertions.assertThat
 import org.junit.jupiter.api.Test
@@ -243,6 +244,19 @@ internal class ExpressionParserIntegrationTest {
             .isEqualTo(SimpleExpression(Operator.EQUALS, FieldInfo(fieldPath, fieldName, parentClass), fieldValue))
     }
 
+    @Test
+    fun test_cached_query_with_current_date_keyword() {
+        val rootClass = Person::class.java
+        val query = "birthday<CURRENT_DATE_TIME"
+
+        val expression1 = expressionParser.parse(query, rootClass)
+        val expression2 = expressionParser.parse(query, rootClass)
+
+        // The keyword is kept in the cached expression, so that it is evaluated each time the query is executed
+        assertThat(expression2).isSameAs(expression1)
+        assertThat(expression2).isEqualTo(SimpleExpression(Operator.LESS_THAN, FieldInfo("birthday", "birthday", rootClass), Keyword.CURRENT_DATE_TIME))
+    }
+
     @Test
     fun test_null_comparison() {
         val rootClass = Person::class.java
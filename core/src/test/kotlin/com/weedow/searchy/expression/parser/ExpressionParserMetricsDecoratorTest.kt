@@ -0,0 +1,43 @@
+package com.weedow.searchy.expression.parser
+
+import com.nhaarman.mockitokotlin2.any
+import com.nhaarman.mockitokotlin2.eq
+import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.verify
+import com.nhaarman.mockitokotlin2.whenever
+import com.weedow.searchy.common.model.Person
+import com.weedow.searchy.expression.Expression
+import com.weedow.searchy.metrics.NoOpSearchyMetrics
+import com.weedow.searchy.metrics.SearchyMetrics
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.extension.ExtendWith
+import org.mockito.Mock
+import org.mockito.Spy
+import org.mockito.junit.jupiter.MockitoExtension
+
+@ExtendWith(MockitoExtension::class)
+internal class ExpressionParserMetricsDecoratorTest {
+
+    @Mock
+    private lateinit var expressionParser: ExpressionParser
+
+    @Spy
+    private var searchyMetrics: SearchyMetrics = NoOpSearchyMetrics()
+
+    @Test
+    fun parse_records_the_parsing() {
+        val query = "firstName='John'"
+
+        val expression = mock<Expression>()
+        whenever(expressionParser.parse(query, Person::class.java)).thenReturn(expression)
+
+        val epmd = ExpressionParserMetricsDecorator(expressionParser, searchyMetrics)
+
+        val result = epmd.parse(query, Person::class.java)
+        assertThat(result).isSameAs(expression)
+
+        verify(searchyMetrics).recordParsing(eq(Person::class.java), any<() -> Expression>())
+    }
+
+}
@@ -0,0 +1,108 @@
+package com.weedow.searchy.fieldpath
+
+import com.neovisionaries.i18n.CountryCode
+import com.nhaarman.mockitokotlin2.clearInvocations
+import com.nhaarman.mockitokotlin2.spy
+import com.nhaarman.mockitokotlin2.verify
+import com.nhaarman.mockitokotlin2.verifyNoMoreInteractions
+import com.weedow.searchy.alias.AliasResolver
+import com.weedow.searchy.alias.DefaultAliasResolutionService
+import com.weedow.searchy.common.model.Address
+import com.weedow.searchy.common.model.Job
+import com.weedow.searchy.common.model.Person
+import com.weedow.searchy.utils.MAP_KEY
+import com.weedow.searchy.utils.MAP_VALUE
+import org.assertj.core.api.Assertions.assertThat
+import org.assertj.core.api.Assertions.assertThatThrownBy
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import java.lang.reflect.Field
+import java.time.LocalDateTime
+
+internal class PrecompiledFieldPathResolverTest {
+
+    private lateinit var aliasResolutionService: DefaultAliasResolutionService
+
+    private lateinit var fieldPathResolver: FieldPathResolver
+
+    @BeforeEach
+    fun setUp() {
+        aliasResolutionService = DefaultAliasResolutionService()
+        aliasResolutionService.addAliasResolver(PersonAliasResolver())
+
+        fieldPathResolver = spy(FieldPathResolverImpl(aliasResolutionService))
+    }
+
+    @Test
+    fun resolve_precompiled_field_paths_without_the_decorated_resolver() {
+        val precompiledFieldPathResolver = PrecompiledFieldPathResolver(fieldPathResolver, aliasResolutionService, 3)
+        precompiledFieldPathResolver.precompile(Person::class.java)
+
+        clearInvocations(fieldPathResolver)
+
+        assertThat(precompiledFieldPathResolver.resolveFieldPath(Person::class.java, "firstName"))
+            .isEqualTo(FieldPathInfo("firstName", "firstName", String::class.java, Person::class.java))
+        assertThat(precompiledFieldPathResolver.resolveFieldPath(Person::class.java, "address.country"))
+            .isEqualTo(FieldPathInfo("addressEntities.country", "country", CountryCode::class.java, Address::class.java))
+        assertThat(precompiledFieldPathResolver.resolveFieldPath(Person::class.java, "characteristics.$MAP_KEY"))
+            .isEqualTo(FieldPathInfo("characteristics.$MAP_KEY", MAP_KEY, String::class.java, Map::class.java))
+        assertThat(precompiledFieldPathResolver.resolveFieldPath(Person::class.java, "tasks.$MAP_VALUE"))
+            .isEqualTo(FieldPathInfo("tasks.$MAP_VALUE", MAP_VALUE, LocalDateTime::class.java, Map::class.java))
+        assertThat(precompiledFieldPathResolver.resolveFieldPath(Person::class.java, "jobEntity.person.firstName"))
+            .isEqualTo(FieldPathInfo("jobEntity.person.firstName", "firstName", String::class.java, Person::class.java))
+
+        verifyNoMoreInteractions(fieldPathResolver)
+    }
+
+    @Test
+    fun resolve_field_path_with_the_decorated_resolver_when_deeper_than_max_depth() {
+        val precompiledFieldPathResolver = PrecompiledFieldPathResolver(fieldPathResolver, aliasResolutionService, 1)
+        precompiledFieldPathResolver.precompile(Person::class.java)
+
+        clearInvocations(fieldPathResolver)
+
+        assertThat(precompiledFieldPathResolver.resolveFieldPath(Person::class.java, "jobEntity.title"))
+            .isEqualTo(FieldPathInfo("jobEntity.title", "title", String::class.java, Job::class.java))
+
+        verify(fieldPathResolver).resolveFieldPath(Person::class.java, "jobEntity.title")
+    }
+
+    @Test
+    fun resolve_field_path_with_the_decorated_resolver_when_root_class_not_precompiled() {
+        val precompiledFieldPathResolver = PrecompiledFieldPathResolver(fieldPathResolver, aliasResolutionService, 3)
+
+        assertThat(precompiledFieldPathResolver.resolveFieldPath(Person::class.java, "lastName"))
+            .isEqualTo(FieldPathInfo("lastName", "lastName", String::class.java, Person::class.java))
+
+        verify(fieldPathResolver).resolveFieldPath(Person::class.java, "lastName")
+    }
+
+    @Test
+    fun throw_exception_when_field_path_unresolved() {
+        val precompiledFieldPathResolver = PrecompiledFieldPathResolver(fieldPathResolver, aliasResolutionService, 3)
+        precompiledFieldPathResolver.precompile(Person::class.java)
+
+        assertThatThrownBy { precompiledFieldPathResolver.resolveFieldPath(Person::class.java, "unknown") }
+            .isInstanceOf(IllegalArgumentException::class.java)
+            .hasMessageStartingWith("Could not resolve the field path [unknown] from [${Person::class.java}]")
+            .hasCauseInstanceOf(NoSuchFieldException::class.java)
+    }
+
+    @Test
+    fun throw_exception_when_max_depth_is_not_positive() {
+        assertThatThrownBy { PrecompiledFieldPathResolver(fieldPathResolver, aliasResolutionService, 0) }
+            .isInstanceOf(IllegalArgumentException::class.java)
+            .hasMessage("The maximum depth of the precompiled field paths must be greater than 0")
+    }
+
+    private class PersonAliasResolver : AliasResolver {
+
+        override fun supports(entityClass: Class<*>, field: Field): Boolean {
+            return entityClass == Person::class.java && field.name == "addressEntities"
+        }
+
+        override fun resolve(entityClass: Class<*>, field: Field): List<String> {
+            return listOf("address")
+        }
+    }
+}
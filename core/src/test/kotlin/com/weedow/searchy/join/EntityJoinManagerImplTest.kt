@@ -7,13 +7,14 @@ import com.querydsl.core.types.dsl.StringPath
 import com.weedow.searchy.context.SearchyContext
 import com.weedow.searchy.descriptor.SearchyDescriptor
 import com.weedow.searchy.join.handler.EntityJoinHandler
+import com.weedow.searchy.join.handler.FetchingAllEntityJoinHandler
 import com.weedow.searchy.query.querytype.ElementType
 import com.weedow.searchy.query.querytype.PropertyInfos
 import com.weedow.searchy.query.querytype.QEntityImpl
 import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.extension.ExtendWith
-import org.mockito.InjectMocks
 import org.mockito.Mock
 import org.mockito.junit.jupiter.MockitoExtension
 import javax.persistence.*
@@ -24,9 +25,13 @@ internal class EntityJoinManagerImplTest {
     @Mock
     private lateinit var searchyContext: SearchyContext
 
-    @InjectMocks
     private lateinit var entityJoinManager: EntityJoinManagerImpl
 
+    @BeforeEach
+    fun setUp() {
+        entityJoinManager = EntityJoinManagerImpl(searchyContext)
+    }
+
     @Test
     fun compute_entity_without_joins() {
         val entityClass = EntityWithNoJoins::class.java
@@ -35,6 +40,7 @@ internal class EntityJoinManagerImplTest {
             on { this.id }.doReturn("entity")
             on { this.entityClass }.doReturn(entityClass)
             on { this.entityJoinHandlers }.doReturn(emptyList())
+            on { this.joinStrategy }.doReturn(JoinStrategy.JOIN)
         }
 
         whenever(searchyContext.getAllPropertyInfos(entityClass)).thenReturn(
@@ -77,6 +83,7 @@ internal class EntityJoinManagerImplTest {
             on { this.id }.doReturn("entity")
             on { this.entityClass }.doReturn(entityClass)
             on { this.entityJoinHandlers }.doReturn(emptyList())
+            on { this.joinStrategy }.doReturn(JoinStrategy.JOIN)
         }
 
         whenever(searchyContext.getAllPropertyInfos(entityClass)).thenReturn(
@@ -129,6 +136,67 @@ internal class EntityJoinManagerImplTest {
         verifyNoMoreInteractions(searchyContext)
     }
 
+    @Test
+    fun compute_entity_with_one_join_and_exists_strategy() {
+        val entityClass = EntityWithJoins::class.java
+
+        val searchyDescriptor = mock<SearchyDescriptor<EntityWithJoins>> {
+            on { this.id }.doReturn("entity")
+            on { this.entityClass }.doReturn(entityClass)
+            on { this.entityJoinHandlers }.doReturn(emptyList())
+            on { this.joinStrategy }.doReturn(JoinStrategy.EXISTS)
+        }
+
+        whenever(searchyContext.getAllPropertyInfos(entityClass)).thenReturn(
+            listOf(
+                propertyInfos(
+                    "${entityClass.canonicalName}.firstName",
+                    entityClass,
+                    "firstName",
+                    ElementType.STRING,
+                    emptyList(),
+                    StringPath::class.java
+                ),
+                propertyInfos(
+                    EntityWithJoins.OtherEntity::class.java.canonicalName,
+                    entityClass,
+                    "myJoin",
+                    ElementType.ENTITY,
+                    emptyList(),
+                    QEntityImpl::class.java
+                )
+            )
+        )
+
+        val otherEntityClass = EntityWithJoins.OtherEntity::class.java
+        whenever(searchyContext.isEntity(otherEntityClass)).thenReturn(true)
+        whenever(searchyContext.getAllPropertyInfos(otherEntityClass)).thenReturn(
+            listOf(
+                propertyInfos("${otherEntityClass.canonicalName}.id", otherEntityClass, "id", ElementType.STRING, emptyList(), StringPath::class.java)
+            )
+        )
+
+        whenever(searchyContext.isJoinAnnotation(Column::class.java)).thenReturn(false)
+        whenever(searchyContext.isJoinAnnotation(OneToMany::class.java)).thenReturn(true)
+
+        val entityJoins = entityJoinManager.computeEntityJoins(searchyDescriptor)
+
+        assertThat(entityJoins).isNotNull
+        assertThat(entityJoins.getJoins()).hasSize(1)
+
+        val joinName = otherEntityClass.canonicalName
+        assertThat(entityJoins.getJoins().keys)
+            .containsExactly(joinName)
+
+        assertThat(entityJoins.getJoins().values)
+            .containsExactly(
+                EntityJoin("myJoin", joinName, strategy = JoinStrategy.EXISTS)
+            )
+
+        verify(searchyContext, times(2)).isJoinAnnotation(Column::class.java)
+        verifyNoMoreInteractions(searchyContext)
+    }
+
     @Test
     fun compute_entity_with_multiple_joins() {
         val entityClass = EntityWithMultipleJoins::class.java
@@ -137,6 +205,7 @@ internal class EntityJoinManagerImplTest {
             on { this.id }.doReturn("entity")
             on { this.entityClass }.doReturn(entityClass)
             on { this.entityJoinHandlers }.doReturn(listOf(EntityWithMultipleJoins().MyEntityJoinHandler()))
+            on { this.joinStrategy }.doReturn(JoinStrategy.JOIN)
         }
 
         whenever(searchyContext.getAllPropertyInfos(entityClass)).thenReturn(
@@ -198,10 +267,59 @@ internal class EntityJoinManagerImplTest {
                 EntityJoin("myJoin1.myJoin2", joinName2, JoinType.LEFTJOIN, true)
             )
 
+        assertThat(entityJoins.getEntityClasses()).containsExactlyInAnyOrder(entityClass, otherEntityClass)
+
         verify(searchyContext, times(2)).isJoinAnnotation(Column::class.java)
         verifyNoMoreInteractions(searchyContext)
     }
 
+    @Test
+    fun compute_entity_with_more_fetched_collections_than_the_fetch_plan() {
+        val entityClass = EntityWithMultipleCollections::class.java
+
+        val searchyDescriptor = mock<SearchyDescriptor<EntityWithMultipleCollections>> {
+            on { this.id }.doReturn("entity")
+            on { this.entityClass }.doReturn(entityClass)
+            on { this.entityJoinHandlers }.doReturn(listOf(FetchingAllEntityJoinHandler()))
+            on { this.joinStrategy }.doReturn(JoinStrategy.JOIN)
+        }
+
+        whenever(searchyContext.getAllPropertyInfos(entityClass)).thenReturn(
+            listOf(
+                propertyInfos(
+                    "${entityClass.canonicalName}.nickNames",
+                    entityClass,
+                    "nickNames",
+                    ElementType.SET,
+                    listOf(String::class.java),
+                    StringPath::class.java
+                ),
+                propertyInfos(
+                    "${entityClass.canonicalName}.phoneNumbers",
+                    entityClass,
+                    "phoneNumbers",
+                    ElementType.LIST,
+                    listOf(String::class.java),
+                    StringPath::class.java
+                )
+            )
+        )
+        whenever(searchyContext.isEntity(String::class.java)).thenReturn(false)
+        whenever(searchyContext.isJoinAnnotation(ElementCollection::class.java)).thenReturn(true)
+
+        val entityJoins = entityJoinManager.computeEntityJoins(searchyDescriptor)
+
+        val joinName1 = "${entityClass.canonicalName}.nickNames"
+        val joinName2 = "${entityClass.canonicalName}.phoneNumbers"
+
+        // Only one collection is fetched by the main query, the other one is loaded by a secondary query
+        assertThat(entityJoins.getJoins().values)
+            .containsExactlyInAnyOrder(
+                EntityJoin("nickNames", joinName1, JoinType.LEFTJOIN, true),
+                EntityJoin("phoneNumbers", joinName2, JoinType.LEFTJOIN, false, batchFetched = true)
+            )
+    }
+
     @Test
     fun compute_entity_by_skipping_entity_already_processed_or_root_entity() {
         val entityClass = EntityWithBidirectionalJoins::class.java
@@ -209,6 +327,7 @@ internal class EntityJoinManagerImplTest {
             on { this.id }.doReturn("entity")
             on { this.entityClass }.doReturn(entityClass)
             on { this.entityJoinHandlers }.doReturn(emptyList())
+            on { this.joinStrategy }.doReturn(JoinStrategy.JOIN)
         }
 
         whenever(searchyContext.getAllPropertyInfos(entityClass)).thenReturn(
@@ -360,6 +479,14 @@ internal class EntityJoinManagerImplTest {
         }
     }
 
+    internal data class EntityWithMultipleCollections(
+        @ElementCollection
+        val nickNames: Set<String> = emptySet(),
+
+        @ElementCollection
+        val phoneNumbers: List<String> = emptyList(),
+    )
+
     internal data class EntityWithBidirectionalJoins(
         @Column(nullable = false)
         val firstName: String = "",
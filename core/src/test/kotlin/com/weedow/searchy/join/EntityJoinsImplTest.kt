@@ -1,10 +1,9 @@
 package com.weedow.searchy.join
 
-import com.nhaarman.mockitokotlin2.mock
-import com.nhaarman.mockitokotlin2.verify
-import com.nhaarman.mockitokotlin2.verifyNoMoreInteractions
+import com.nhaarman.mockitokotlin2.*
 import com.querydsl.core.JoinType
 import com.querydsl.core.types.Path
+import com.querydsl.core.types.Predicate
 import com.weedow.searchy.common.model.Address
 import com.weedow.searchy.common.model.Person
 import com.weedow.searchy.common.model.Vehicle
@@ -167,4 +166,125 @@ internal class EntityJoinsImplTest {
         verifyNoMoreInteractions(queryBuilder)
         verifyNoMoreInteractions(qPathParent)
     }
+
+    @Test
+    fun get_predicate_when_fieldpath_is_composed_with_parent_and_field() {
+        val entityJoins = EntityJoinsImpl(Person::class.java)
+
+        val qPath = mock<QPath<*>> {
+            val propertyInfos = mock<PropertyInfos> {
+                on { this.qName }.thenReturn("vehicles.brand")
+            }
+            on { this.propertyInfos }.thenReturn(propertyInfos)
+        }
+
+        val qPathParent = mock<QPath<*>> {
+            val path = mock<Path<*>> {
+                on { this.toString() }.thenReturn("vehicles")
+            }
+            val propertyInfos = mock<PropertyInfos> {
+                on { this.qName }.thenReturn(Vehicle::class.java.canonicalName)
+            }
+            on { this.path }.thenReturn(path)
+            on { this.propertyInfos }.thenReturn(propertyInfos)
+        }
+
+        val qEntityRoot = mock<QEntityRoot<Person>> {
+            on { get("vehicles") }.thenReturn(qPathParent)
+        }
+        val queryBuilder = mock<QueryBuilder<Person>> {
+            val join = mock<QEntityJoin<*>> {
+                on { get("brand") }.thenReturn(qPath)
+            }
+            on { this.join(qPathParent, JoinType.LEFTJOIN, false) }.thenReturn(join)
+        }
+
+        val predicate = mock<Predicate>()
+        val result = entityJoins.getPredicate("vehicles.brand", qEntityRoot, queryBuilder) { builder, path ->
+            assertThat(builder).isSameAs(queryBuilder)
+            assertThat(path).isSameAs(qPath)
+            predicate
+        }
+
+        assertThat(result).isSameAs(predicate)
+        verifyNoMoreInteractions(queryBuilder)
+    }
+
+    @Test
+    fun get_predicate_with_exists_strategy_when_fieldpath_is_composed_with_to_many_parent_and_field() {
+        val entityJoins = EntityJoinsImpl(Person::class.java, JoinStrategy.EXISTS)
+
+        val qPath = mock<QPath<*>> {
+            val propertyInfos = mock<PropertyInfos> {
+                on { this.qName }.thenReturn("vehicles.brand")
+            }
+            on { this.propertyInfos }.thenReturn(propertyInfos)
+        }
+        val element = mock<QEntity<*>> {
+            on { get("brand") }.thenReturn(qPath)
+        }
+
+        val qPathParent = mock<QPath<*>> {
+            val path = mock<Path<*>> {
+                on { this.toString() }.thenReturn("vehicles")
+            }
+            val propertyInfos = mock<PropertyInfos> {
+                on { this.qName }.thenReturn(Vehicle::class.java.canonicalName)
+                on { this.elementType }.thenReturn(ElementType.SET)
+            }
+            on { this.path }.thenReturn(path)
+            on { this.propertyInfos }.thenReturn(propertyInfos)
+        }
+
+        val qEntityRoot = mock<QEntityRoot<Person>> {
+            on { get("vehicles") }.thenReturn(qPathParent)
+        }
+        val subQueryBuilder = mock<QueryBuilder<*>>()
+        val existsPredicate = mock<Predicate>()
+        val queryBuilder = mock<QueryBuilder<Person>> {
+            on { this.exists(eq(qPathParent), any()) }.thenAnswer {
+                it.getArgument<(QueryBuilder<*>, QEntity<*>) -> Predicate>(1)(subQueryBuilder, element)
+                existsPredicate
+            }
+        }
+
+        val predicate = mock<Predicate>()
+        val result = entityJoins.getPredicate("vehicles.brand", qEntityRoot, queryBuilder) { builder, path ->
+            assertThat(builder).isSameAs(subQueryBuilder)
+            assertThat(path).isSameAs(qPath)
+            predicate
+        }
+
+        assertThat(result).isSameAs(existsPredicate)
+        verify(queryBuilder).exists(eq(qPathParent), any())
+        verifyNoMoreInteractions(queryBuilder)
+        verifyNoMoreInteractions(subQueryBuilder)
+    }
+
+    @Test
+    fun get_predicate_with_exists_strategy_does_not_join_the_to_many_field() {
+        val entityJoins = EntityJoinsImpl(Person::class.java)
+
+        val qName = "${Person::class.java.canonicalName}.nickNames"
+        entityJoins.add(EntityJoin("nickNames", qName, JoinType.LEFTJOIN, false, JoinStrategy.EXISTS))
+
+        val qPath = mock<QPath<*>> {
+            val propertyInfos = mock<PropertyInfos> {
+                on { this.qName }.thenReturn(qName)
+                on { this.elementType }.thenReturn(ElementType.SET)
+            }
+            on { this.propertyInfos }.thenReturn(propertyInfos)
+        }
+
+        val qEntityRoot = mock<QEntityRoot<Person>> {
+            on { get("nickNames") }.thenReturn(qPath)
+        }
+        val queryBuilder = mock<QueryBuilder<Person>>()
+
+        val predicate = mock<Predicate>()
+        val result = entityJoins.getPredicate("nickNames", qEntityRoot, queryBuilder) { _, _ -> predicate }
+
+        assertThat(result).isSameAs(predicate)
+        verifyNoMoreInteractions(queryBuilder)
+    }
 }
\ No newline at end of file
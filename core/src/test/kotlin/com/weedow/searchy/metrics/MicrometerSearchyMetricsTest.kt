@@ -0,0 +1,125 @@
+package com.weedow.searchy.metrics
+
+import com.nhaarman.mockitokotlin2.doReturn
+import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.whenever
+import com.weedow.searchy.cache.SearchResultCache
+import com.weedow.searchy.common.model.Person
+import com.weedow.searchy.descriptor.SearchyDescriptor
+import com.weedow.searchy.expression.Expression
+import com.weedow.searchy.expression.parser.ExpressionParser
+import com.weedow.searchy.expression.parser.ExpressionParserCachingDecorator
+import com.weedow.searchy.join.EntityJoinManager
+import com.weedow.searchy.join.EntityJoins
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.assertj.core.api.Assertions.assertThat
+import org.assertj.core.api.Assertions.assertThatThrownBy
+import org.junit.jupiter.api.Test
+import java.time.Duration
+
+internal class MicrometerSearchyMetricsTest {
+
+    private val meterRegistry = SimpleMeterRegistry()
+
+    private val searchyMetrics = MicrometerSearchyMetrics(meterRegistry)
+
+    @Test
+    fun record_the_steps_of_the_searches() {
+        val result = searchyMetrics.record("person", SearchyStage.QUERY) { "result" }
+        assertThat(result).isEqualTo("result")
+
+        searchyMetrics.record("person", SearchyStage.QUERY) { "result" }
+        searchyMetrics.record("person", SearchyStage.CONVERSION) { "result" }
+
+        val queryTimer = meterRegistry.get(MicrometerSearchyMetrics.STAGE_TIMER)
+            .tags("descriptor", "person", "stage", "query", "exception", "none")
+            .timer()
+        assertThat(queryTimer.count()).isEqualTo(2)
+
+        val conversionTimer = meterRegistry.get(MicrometerSearchyMetrics.STAGE_TIMER)
+            .tags("descriptor", "person", "stage", "conversion", "exception", "none")
+            .timer()
+        assertThat(conversionTimer.count()).isEqualTo(1)
+    }
+
+    @Test
+    fun record_the_steps_of_the_searches_with_the_thrown_exception() {
+        assertThatThrownBy { searchyMetrics.record("person", SearchyStage.VALIDATION) { throw IllegalArgumentException("invalid") } }
+            .isInstanceOf(IllegalArgumentException::class.java)
+            .hasMessage("invalid")
+
+        val timer = meterRegistry.get(MicrometerSearchyMetrics.STAGE_TIMER)
+            .tags("descriptor", "person", "stage", "validation", "exception", "IllegalArgumentException")
+            .timer()
+        assertThat(timer.count()).isEqualTo(1)
+    }
+
+    @Test
+    fun record_the_parsing_of_the_queries() {
+        val result = searchyMetrics.recordParsing(Person::class.java) { "expression" }
+        assertThat(result).isEqualTo("expression")
+
+        val timer = meterRegistry.get(MicrometerSearchyMetrics.PARSE_TIMER)
+            .tags("entity", "Person", "exception", "none")
+            .timer()
+        assertThat(timer.count()).isEqualTo(1)
+    }
+
+    @Test
+    fun record_the_number_of_results() {
+        searchyMetrics.recordResultSize("person", 3)
+        searchyMetrics.recordResultSize("person", 5)
+
+        val summary = meterRegistry.get(MicrometerSearchyMetrics.RESULTS_SUMMARY)
+            .tag("descriptor", "person")
+            .summary()
+        assertThat(summary.count()).isEqualTo(2)
+        assertThat(summary.totalAmount()).isEqualTo(8.0)
+        assertThat(summary.max()).isEqualTo(5.0)
+    }
+
+    @Test
+    fun monitor_the_query_cache() {
+        val query = "firstName='John'"
+
+        val expressionParser = mock<ExpressionParser>()
+        whenever(expressionParser.parse(query, Person::class.java)).thenReturn(mock<Expression>())
+
+        val queryCache = ExpressionParserCachingDecorator(expressionParser, 10, Duration.ofMinutes(10))
+        searchyMetrics.monitorQueryCache(queryCache)
+
+        queryCache.parse(query, Person::class.java)
+        queryCache.parse(query, Person::class.java)
+        queryCache.parse(query, Person::class.java)
+
+        val hits = meterRegistry.get(MicrometerSearchyMetrics.QUERY_CACHE_COUNTER).tag("result", "hit").functionCounter()
+        assertThat(hits.count()).isEqualTo(2.0)
+
+        val misses = meterRegistry.get(MicrometerSearchyMetrics.QUERY_CACHE_COUNTER).tag("result", "miss").functionCounter()
+        assertThat(misses.count()).isEqualTo(1.0)
+    }
+
+    @Test
+    fun monitor_the_result_cache() {
+        val searchyDescriptor = mock<SearchyDescriptor<Person>> {
+            on { this.id }.doReturn("person")
+        }
+        val entityJoins = mock<EntityJoins>()
+        val entityJoinManager = mock<EntityJoinManager> {
+            on { this.computeEntityJoins(searchyDescriptor) }.doReturn(entityJoins)
+        }
+
+        val resultCache = SearchResultCache(entityJoinManager, SearchResultCache.Bounds(10, Duration.ofMinutes(1)))
+        searchyMetrics.monitorResultCache(resultCache)
+
+        resultCache.get(searchyDescriptor, "key") { emptyList<Person>() }
+        resultCache.get(searchyDescriptor, "key") { emptyList<Person>() }
+
+        val hits = meterRegistry.get(MicrometerSearchyMetrics.RESULT_CACHE_COUNTER).tag("result", "hit").functionCounter()
+        assertThat(hits.count()).isEqualTo(1.0)
+
+        val misses = meterRegistry.get(MicrometerSearchyMetrics.RESULT_CACHE_COUNTER).tag("result", "miss").functionCounter()
+        assertThat(misses.count()).isEqualTo(1.0)
+    }
+
+}
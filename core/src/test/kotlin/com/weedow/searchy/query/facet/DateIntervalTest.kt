@@ -0,0 +1,42 @@
+package com.weedow.searchy.query.facet
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import java.time.LocalDate
+import java.time.OffsetDateTime
+import java.time.ZoneOffset
+import java.util.*
+
+internal class DateIntervalTest {
+
+    @Test
+    fun format_temporal() {
+        val date = LocalDate.of(2021, 3, 14)
+
+        assertThat(DateInterval.YEAR.format(date)).isEqualTo("2021")
+        assertThat(DateInterval.MONTH.format(date)).isEqualTo("2021-03")
+        assertThat(DateInterval.DAY.format(date)).isEqualTo("2021-03-14")
+    }
+
+    @Test
+    fun format_date_in_utc() {
+        val date = Date.from(OffsetDateTime.of(2021, 3, 14, 23, 30, 0, 0, ZoneOffset.ofHours(-2)).toInstant())
+
+        assertThat(DateInterval.DAY.format(date)).isEqualTo("2021-03-15")
+    }
+
+    @Test
+    fun format_numeric_key() {
+        assertThat(DateInterval.YEAR.format(2021)).isEqualTo("2021")
+        assertThat(DateInterval.MONTH.format(202103)).isEqualTo("2021-03")
+        assertThat(DateInterval.DAY.format(20210314)).isEqualTo("2021-03-14")
+    }
+
+    @Test
+    fun of_value_ignoring_case() {
+        assertThat(DateInterval.of("month")).isEqualTo(DateInterval.MONTH)
+        assertThat(DateInterval.of("DAY")).isEqualTo(DateInterval.DAY)
+        assertThat(DateInterval.of("week")).isNull()
+    }
+
+}
@@ -0,0 +1,131 @@
+package com.weedow.searchy.query.facet
+
+import com.weedow.searchy.common.model.Job
+import com.weedow.searchy.common.model.Person
+import com.weedow.searchy.common.model.Vehicle
+import com.weedow.searchy.common.model.VehicleType
+import org.assertj.core.api.Assertions.assertThat
+import org.assertj.core.api.Assertions.assertThatThrownBy
+import org.junit.jupiter.api.Test
+import java.math.BigDecimal
+import java.time.OffsetDateTime
+import java.time.ZoneOffset
+
+internal class FacetRequestTest {
+
+    @Test
+    fun throw_exception_when_histogram_has_no_interval() {
+        assertThatThrownBy { FacetRequest("height", "height", FacetType.HISTOGRAM) }
+            .isInstanceOf(IllegalArgumentException::class.java)
+            .hasMessage("The histogram of 'height' requires a positive interval")
+    }
+
+    @Test
+    fun throw_exception_when_histogram_has_negative_interval() {
+        assertThatThrownBy { FacetRequest("height", "height", FacetType.HISTOGRAM, BigDecimal("-10")) }
+            .isInstanceOf(IllegalArgumentException::class.java)
+            .hasMessage("The histogram of 'height' requires a positive interval")
+    }
+
+    @Test
+    fun throw_exception_when_date_histogram_has_no_date_interval() {
+        assertThatThrownBy { FacetRequest("birthday", "birthday", FacetType.DATE_HISTOGRAM) }
+            .isInstanceOf(IllegalArgumentException::class.java)
+            .hasMessage("The date histogram of 'birthday' requires a date interval")
+    }
+
+    @Test
+    fun compute_terms() {
+        val john = person("John", "Acme")
+        val jane = person("Jane", "Acme")
+        val bob = person("Bob", "Globex")
+        val alice = Person("Alice", "Doe")
+
+        val facet = FacetRequest("jobEntity.company", "jobEntity.company").compute(listOf(john, jane, bob, alice), 10)
+
+        assertThat(facet).isEqualTo(
+            Facet("jobEntity.company", FacetType.TERMS, listOf(FacetBucket("Acme", 2L), FacetBucket("Globex", 1L)))
+        )
+    }
+
+    @Test
+    fun compute_terms_counting_each_entity_once_per_bucket() {
+        val john = Person("John", "Doe")
+        val johnWithVehicles = Person(
+            "John", "Doe",
+            vehicles = setOf(Vehicle(VehicleType.CAR, "Renault", "Clio", john), Vehicle(VehicleType.CAR, "Peugeot", "208", john))
+        )
+        val jane = Person("Jane", "Doe")
+        val janeWithVehicles = Person("Jane", "Doe", vehicles = setOf(Vehicle(VehicleType.MOTORBIKE, "Honda", "CB", jane)))
+
+        val facet = FacetRequest("vehicles.vehicleType", "vehicles.vehicleType").compute(listOf(johnWithVehicles, janeWithVehicles), 10)
+
+        assertThat(facet.buckets).containsExactly(FacetBucket(VehicleType.CAR, 1L), FacetBucket(VehicleType.MOTORBIKE, 1L))
+    }
+
+    @Test
+    fun compute_terms_limited_by_max_buckets() {
+        val entities = listOf(person("John", "Acme"), person("Jane", "Acme"), person("Bob", "Globex"))
+
+        val facet = FacetRequest("jobEntity.company", "jobEntity.company").compute(entities, 1)
+
+        assertThat(facet.buckets).containsExactly(FacetBucket("Acme", 2L))
+    }
+
+    @Test
+    fun compute_histogram() {
+        val entities = listOf(
+            Person("John", "Doe", height = 174.0),
+            Person("Jane", "Doe", height = 168.5),
+            Person("Bob", "Doe", height = 181.2),
+            Person("Alice", "Doe")
+        )
+
+        val facet = FacetRequest("height", "height", FacetType.HISTOGRAM, BigDecimal("10")).compute(entities, 10)
+
+        assertThat(facet).isEqualTo(
+            Facet("height", FacetType.HISTOGRAM, listOf(FacetBucket(160.0, 1L), FacetBucket(170.0, 1L), FacetBucket(180.0, 1L)))
+        )
+    }
+
+    @Test
+    fun compute_date_histogram() {
+        val entities = listOf(
+            person("John", "Acme", OffsetDateTime.of(2019, 3, 14, 10, 0, 0, 0, ZoneOffset.UTC)),
+            person("Jane", "Acme", OffsetDateTime.of(2019, 11, 2, 10, 0, 0, 0, ZoneOffset.UTC)),
+            person("Bob", "Globex", OffsetDateTime.of(2017, 6, 1, 10, 0, 0, 0, ZoneOffset.UTC))
+        )
+
+        val facet = FacetRequest("jobEntity.hireDate", "jobEntity.hireDate", FacetType.DATE_HISTOGRAM, dateInterval = DateInterval.YEAR).compute(entities, 10)
+
+        assertThat(facet).isEqualTo(
+            Facet("jobEntity.hireDate", FacetType.DATE_HISTOGRAM, listOf(FacetBucket("2017", 1L), FacetBucket("2019", 2L)))
+        )
+    }
+
+    @Test
+    fun compute_stats() {
+        val entities = listOf(
+            Person("John", "Doe", height = 174.0),
+            Person("Jane", "Doe", height = 168.5),
+            Person("Alice", "Doe")
+        )
+
+        val facet = FacetRequest("height", "height", FacetType.STATS).compute(entities, 10)
+
+        assertThat(facet).isEqualTo(Facet("height", FacetType.STATS, stats = FacetStats(2L, 168.5, 174.0)))
+    }
+
+    @Test
+    fun compute_stats_without_values() {
+        val facet = FacetRequest("height", "height", FacetType.STATS).compute(listOf(Person("John", "Doe")), 10)
+
+        assertThat(facet).isEqualTo(Facet("height", FacetType.STATS, stats = FacetStats(0L, null, null)))
+    }
+
+    private fun person(firstName: String, company: String, hireDate: OffsetDateTime = OffsetDateTime.now()): Person {
+        val person = Person(firstName, "Doe")
+        return Person(firstName, "Doe", jobEntity = Job(true, "Developer", company, 50_000, hireDate, person))
+    }
+
+}
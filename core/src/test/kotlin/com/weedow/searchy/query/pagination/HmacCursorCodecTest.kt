@@ -0,0 +1,76 @@
+package com.weedow.searchy.query.pagination
+
+import com.weedow.searchy.exception.InvalidCursorException
+import org.assertj.core.api.Assertions.assertThat
+import org.assertj.core.api.Assertions.assertThatThrownBy
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.params.ParameterizedTest
+import org.junit.jupiter.params.provider.ValueSource
+
+internal class HmacCursorCodecTest {
+
+    @Test
+    fun encode_and_decode() {
+        val cursorCodec = HmacCursorCodec("my-secret")
+
+        val cursor = Cursor(listOf("John~Doe", "42", "é.ç"), "person")
+        val token = cursorCodec.encode(cursor)
+
+        assertThat(token).doesNotContain("John").doesNotContain("42").doesNotContain("person")
+        assertThat(cursorCodec.decode(token)).isEqualTo(cursor)
+    }
+
+    @Test
+    fun encode_and_decode_null_values() {
+        val cursorCodec = HmacCursorCodec("my-secret")
+
+        val cursor = Cursor(listOf(null, "", "42"), "person")
+
+        assertThat(cursorCodec.decode(cursorCodec.encode(cursor))).isEqualTo(cursor)
+    }
+
+    @Test
+    fun encode_and_decode_without_searchy_descriptor_id() {
+        val cursorCodec = HmacCursorCodec("my-secret")
+
+        val cursor = Cursor(listOf("42"))
+
+        assertThat(cursorCodec.decode(cursorCodec.encode(cursor))).isEqualTo(cursor)
+    }
+
+    @Test
+    fun decode_with_the_same_secret() {
+        val token = HmacCursorCodec("my-secret").encode(Cursor(listOf("42")))
+
+        assertThat(HmacCursorCodec("my-secret").decode(token)).isEqualTo(Cursor(listOf("42")))
+    }
+
+    @Test
+    fun throw_exception_when_decode_with_another_secret() {
+        val token = HmacCursorCodec("my-secret").encode(Cursor(listOf("42")))
+
+        assertThatThrownBy { HmacCursorCodec("other-secret").decode(token) }
+            .isInstanceOf(InvalidCursorException::class.java)
+            .hasMessage("400 BAD_REQUEST \"Invalid cursor: $token\"")
+    }
+
+    @Test
+    fun throw_exception_when_token_is_tampered() {
+        val cursorCodec = HmacCursorCodec()
+
+        val token = cursorCodec.encode(Cursor(listOf("42")))
+        val signature = token.substringAfter(".")
+        val forgedToken = cursorCodec.encode(Cursor(listOf("43"))).substringBefore(".") + "." + signature
+
+        assertThatThrownBy { cursorCodec.decode(forgedToken) }
+            .isInstanceOf(InvalidCursorException::class.java)
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = ["", "abc", ".abc", "abc.", "a!b.c!d"])
+    fun throw_exception_when_token_is_malformed(token: String) {
+        assertThatThrownBy { HmacCursorCodec().decode(token) }
+            .isInstanceOf(InvalidCursorException::class.java)
+    }
+
+}
@@ -0,0 +1,166 @@
+package com.weedow.searchy.query.pagination
+
+import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.whenever
+import com.querydsl.core.types.Order
+import com.querydsl.core.types.OrderSpecifier
+import com.querydsl.core.types.Path
+import com.querydsl.core.types.Predicate
+import com.querydsl.core.types.dsl.Expressions
+import com.weedow.searchy.common.model.Person
+import com.weedow.searchy.exception.InvalidCursorException
+import com.weedow.searchy.exception.ValidationException
+import com.weedow.searchy.query.QueryBuilder
+import org.assertj.core.api.Assertions.assertThat
+import org.assertj.core.api.Assertions.assertThatThrownBy
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.extension.ExtendWith
+import org.mockito.junit.jupiter.MockitoExtension
+import java.time.LocalDateTime
+
+@ExtendWith(MockitoExtension::class)
+internal class KeysetSpecificationTest {
+
+    @Test
+    fun to_predicate_with_single_key() {
+        val idPath = mock<Path<*>>()
+        val queryBuilder = mock<QueryBuilder<Person>>()
+
+        val greaterThanPredicate = mock<Predicate>()
+        whenever(queryBuilder.greaterThan(idPath, 42L)).thenReturn(greaterThanPredicate)
+        val andPredicate = mock<Predicate>()
+        whenever(queryBuilder.and(greaterThanPredicate)).thenReturn(andPredicate)
+        val orPredicate = mock<Predicate>()
+        whenever(queryBuilder.or(andPredicate)).thenReturn(orPredicate)
+
+        val specification = KeysetSpecification<Person>(listOf(KeysetSpecification.Key(idPath, 42L)))
+
+        assertThat(specification.toPredicate(queryBuilder)).isSameAs(orPredicate)
+    }
+
+    @Test
+    fun to_predicate_with_multiple_keys() {
+        val lastNamePath = mock<Path<*>>()
+        val idPath = mock<Path<*>>()
+        val queryBuilder = mock<QueryBuilder<Person>>()
+
+        val lastNameLessThan = mock<Predicate>()
+        whenever(queryBuilder.lessThan(lastNamePath, "Doe")).thenReturn(lastNameLessThan)
+        val lastNameIsNull = mock<Predicate>()
+        whenever(queryBuilder.isNull(lastNamePath)).thenReturn(lastNameIsNull)
+        val lastNameAfter = mock<Predicate>()
+        whenever(queryBuilder.or(lastNameLessThan, lastNameIsNull)).thenReturn(lastNameAfter)
+        val lastNameEqual = mock<Predicate>()
+        whenever(queryBuilder.equal(lastNamePath, "Doe")).thenReturn(lastNameEqual)
+        val idGreaterThan = mock<Predicate>()
+        whenever(queryBuilder.greaterThan(idPath, 42L)).thenReturn(idGreaterThan)
+
+        val firstKeyPredicate = mock<Predicate>()
+        whenever(queryBuilder.and(lastNameAfter)).thenReturn(firstKeyPredicate)
+        val secondKeyPredicate = mock<Predicate>()
+        whenever(queryBuilder.and(*arrayOf(lastNameEqual, idGreaterThan))).thenReturn(secondKeyPredicate)
+        val orPredicate = mock<Predicate>()
+        whenever(queryBuilder.or(*arrayOf(firstKeyPredicate, secondKeyPredicate))).thenReturn(orPredicate)
+
+        val specification = KeysetSpecification<Person>(
+            listOf(
+                KeysetSpecification.Key(lastNamePath, "Doe", Order.DESC),
+                KeysetSpecification.Key(idPath, 42L)
+            )
+        )
+
+        assertThat(specification.toPredicate(queryBuilder)).isSameAs(orPredicate)
+    }
+
+    @Test
+    fun to_predicate_with_null_values() {
+        val emailPath = mock<Path<*>>()
+        val heightPath = mock<Path<*>>()
+        val idPath = mock<Path<*>>()
+        val queryBuilder = mock<QueryBuilder<Person>>()
+
+        // The null values are the lowest: the non-null values are located after a null value in ascending order
+        val emailIsNull = mock<Predicate>()
+        whenever(queryBuilder.isNull(emailPath)).thenReturn(emailIsNull)
+        val emailIsNotNull = mock<Predicate>()
+        whenever(queryBuilder.not(emailIsNull)).thenReturn(emailIsNotNull)
+        // There is no value located after a null value in descending order
+        val heightIsNull = mock<Predicate>()
+        whenever(queryBuilder.isNull(heightPath)).thenReturn(heightIsNull)
+        val idGreaterThan = mock<Predicate>()
+        whenever(queryBuilder.greaterThan(idPath, 42L)).thenReturn(idGreaterThan)
+
+        val firstKeyPredicate = mock<Predicate>()
+        whenever(queryBuilder.and(emailIsNotNull)).thenReturn(firstKeyPredicate)
+        val thirdKeyPredicate = mock<Predicate>()
+        whenever(queryBuilder.and(emailIsNull, heightIsNull, idGreaterThan)).thenReturn(thirdKeyPredicate)
+        val orPredicate = mock<Predicate>()
+        whenever(queryBuilder.or(*arrayOf(firstKeyPredicate, thirdKeyPredicate))).thenReturn(orPredicate)
+
+        val specification = KeysetSpecification<Person>(
+            listOf(
+                KeysetSpecification.Key(emailPath, null),
+                KeysetSpecification.Key(heightPath, null, Order.DESC),
+                KeysetSpecification.Key(idPath, 42L)
+            )
+        )
+
+        assertThat(specification.toPredicate(queryBuilder)).isSameAs(orPredicate)
+    }
+
+    @Test
+    fun throw_exception_when_keyset_is_empty() {
+        assertThatThrownBy { KeysetSpecification<Person>(emptyList()) }
+            .isInstanceOf(IllegalArgumentException::class.java)
+            .hasMessage("The keyset must contain at least one key")
+    }
+
+    @Test
+    fun keys_from_cursor() {
+        val birthdayPath = Expressions.dateTimePath(LocalDateTime::class.java, "birthday")
+        val emailPath = Expressions.stringPath("email")
+        val idPath = Expressions.numberPath(Long::class.javaObjectType, "id")
+        val orders = listOf(birthdayPath.desc(), emailPath.asc(), idPath.asc())
+
+        val keys = KeysetSpecification.keys(orders, Cursor(listOf("2000-01-31T12:30", null, "42")))
+
+        assertThat(keys).containsExactly(
+            KeysetSpecification.Key(birthdayPath, LocalDateTime.of(2000, 1, 31, 12, 30), Order.DESC),
+            KeysetSpecification.Key(emailPath, null),
+            KeysetSpecification.Key(idPath, 42L)
+        )
+    }
+
+    @Test
+    fun throw_exception_when_cursor_does_not_match_the_keyset_size() {
+        val orders = listOf<OrderSpecifier<*>>(Expressions.stringPath("lastName").asc(), Expressions.numberPath(Long::class.javaObjectType, "id").asc())
+
+        assertThatThrownBy { KeysetSpecification.keys(orders, Cursor(listOf("42"))) }
+            .isInstanceOf(InvalidCursorException::class.java)
+            .hasMessage("400 BAD_REQUEST \"Invalid cursor: [42]\"")
+    }
+
+    @Test
+    fun throw_exception_when_cursor_does_not_match_the_keyset_types() {
+        val orders = listOf<OrderSpecifier<*>>(Expressions.numberPath(Long::class.javaObjectType, "id").asc())
+
+        assertThatThrownBy { KeysetSpecification.keys(orders, Cursor(listOf("Doe"))) }
+            .isInstanceOf(InvalidCursorException::class.java)
+            .hasMessage("400 BAD_REQUEST \"Invalid cursor: [Doe]\"")
+    }
+
+    @Test
+    fun cursor_from_values() {
+        val cursor = KeysetSpecification.cursor(listOf(LocalDateTime.of(2000, 1, 31, 12, 30), null, 42L))
+
+        assertThat(cursor).isEqualTo(Cursor(listOf("2000-01-31T12:30", null, "42")))
+    }
+
+    @Test
+    fun to_many_sort_exception() {
+        assertThat(KeysetSpecification.toManySortException())
+            .isInstanceOf(ValidationException::class.java)
+            .hasMessage("400 BAD_REQUEST \"Validation Errors: [invalid-sort: The parameter 'cursor' cannot be used with a sort on a field of a to-many association.]\"")
+    }
+
+}
@@ -0,0 +1,92 @@
+package com.weedow.searchy.query.projection
+
+import com.neovisionaries.i18n.CountryCode
+import com.weedow.searchy.common.model.Address
+import com.weedow.searchy.common.model.Job
+import com.weedow.searchy.common.model.Person
+import org.assertj.core.api.Assertions.assertThat
+import org.assertj.core.api.Assertions.assertThatThrownBy
+import org.junit.jupiter.api.Test
+import java.time.OffsetDateTime
+
+internal class ProjectionTest {
+
+    @Test
+    fun throw_exception_when_no_field_paths() {
+        assertThatThrownBy { Projection(emptyList()) }
+            .isInstanceOf(IllegalArgumentException::class.java)
+            .hasMessage("A projection must contain at least one field path")
+    }
+
+    @Test
+    fun to_map_from_values() {
+        val projection = Projection(listOf("firstName", "jobEntity.company", "jobEntity.title", "lastName"))
+
+        val result = projection.toMap(listOf("John", "Acme", null, "Doe"))
+
+        assertThat(result).containsExactly(
+            entry("firstName", "John"),
+            entry("jobEntity", mapOf("company" to "Acme", "title" to null)),
+            entry("lastName", "Doe")
+        )
+    }
+
+    @Test
+    fun to_map_from_values_when_parent_field_is_projected() {
+        val projection = Projection(listOf("jobEntity", "jobEntity.company"))
+        val job = "job"
+
+        val result = projection.toMap(listOf(job, "Acme"))
+
+        assertThat(result).containsExactly(entry("jobEntity", job))
+    }
+
+    @Test
+    fun throw_exception_when_values_do_not_match_field_paths() {
+        val projection = Projection(listOf("firstName", "lastName"))
+
+        assertThatThrownBy { projection.toMap(listOf("John")) }
+            .isInstanceOf(IllegalArgumentException::class.java)
+            .hasMessage("Expected 2 values but got 1")
+    }
+
+    @Test
+    fun to_map_from_entity() {
+        val address = Address("street1", "Paris", "75000", CountryCode.FR, emptySet())
+        val person = Person("John", "Doe", addressEntities = setOf(address))
+        val job = Job(true, "Developer", "Acme", 50_000, OffsetDateTime.now(), person)
+        val personWithJob = Person("John", "Doe", addressEntities = person.addressEntities, jobEntity = job)
+
+        val projection = Projection(listOf("firstName", "jobEntity.company", "addressEntities.city", "email"))
+
+        val result = projection.toMap(personWithJob)
+
+        assertThat(result).containsExactly(
+            entry("firstName", "John"),
+            entry("jobEntity", mapOf("company" to "Acme")),
+            entry("addressEntities", mapOf("city" to listOf("Paris"))),
+            entry("email", null)
+        )
+    }
+
+    @Test
+    fun to_map_from_entity_with_null_parent() {
+        val projection = Projection(listOf("jobEntity.company"))
+
+        val result = projection.toMap(Person("John", "Doe"))
+
+        assertThat(result).containsExactly(entry("jobEntity", mapOf("company" to null)))
+    }
+
+    @Test
+    fun throw_exception_when_field_is_not_found_in_entity() {
+        val projection = Projection(listOf("unknown"))
+
+        assertThatThrownBy { projection.toMap(Person("John", "Doe")) }
+            .isInstanceOf(IllegalArgumentException::class.java)
+            .hasMessage("Could not find the field 'unknown' in ${Person::class.java.name}")
+    }
+
+    private fun entry(key: String, value: Any?) = org.assertj.core.api.Assertions.entry(key, value)
+
+}
@@ -0,0 +1,40 @@
+package com.weedow.searchy.query.specification
+
+import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.times
+import com.nhaarman.mockitokotlin2.verify
+import com.nhaarman.mockitokotlin2.whenever
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.extension.ExtendWith
+import org.mockito.InjectMocks
+import org.mockito.Mock
+import org.mockito.junit.jupiter.MockitoExtension
+
+@ExtendWith(MockitoExtension::class)
+internal class ReactiveSpecificationExecutorFactoryCachingDecoratorTest {
+
+    @Mock
+    private lateinit var reactiveSpecificationExecutorFactory: ReactiveSpecificationExecutorFactory
+
+    @InjectMocks
+    private lateinit var rsefcd: ReactiveSpecificationExecutorFactoryCachingDecorator
+
+    @Test
+    fun getReactiveSpecificationExecutor() {
+        val entityClass = Any::class.java
+
+        val reactiveSpecificationExecutor = mock<ReactiveSpecificationExecutor<Any>>()
+        whenever(reactiveSpecificationExecutorFactory.getReactiveSpecificationExecutor(entityClass)).thenReturn(reactiveSpecificationExecutor)
+
+        val result1 = rsefcd.getReactiveSpecificationExecutor(entityClass)
+        assertThat(result1).isSameAs(reactiveSpecificationExecutor)
+
+        // The second call uses the cache
+        val result2 = rsefcd.getReactiveSpecificationExecutor(entityClass)
+        assertThat(result2).isSameAs(reactiveSpecificationExecutor)
+
+        // Verify the method is called one time, The second call uses the cache
+        verify(reactiveSpecificationExecutorFactory, times(1)).getReactiveSpecificationExecutor(entityClass)
+    }
+}
\ No newline at end of file
@@ -0,0 +1,51 @@
+package com.weedow.searchy.query.specification
+
+import com.weedow.searchy.exception.ValidationException
+import com.weedow.searchy.query.pagination.PageRequest
+import org.assertj.core.api.Assertions.assertThat
+import org.assertj.core.api.Assertions.assertThatThrownBy
+import org.junit.jupiter.api.Test
+import java.util.stream.Collectors
+
+internal class SpecificationExecutorTest {
+
+    private val specificationExecutor = object : SpecificationExecutor<String> {
+        override fun findAll(specification: Specification<String>?): List<String> = listOf("a", "b", "c", "d", "e")
+    }
+
+    private val emptySpecificationExecutor = object : SpecificationExecutor<String> {
+        override fun findAll(specification: Specification<String>?): List<String> = emptyList()
+    }
+
+    @Test
+    fun find_all_with_page_request_by_default() {
+        assertThat(specificationExecutor.findAll(null, PageRequest(0, 2))).containsExactly("a", "b")
+        assertThat(specificationExecutor.findAll(null, PageRequest(2, 2))).containsExactly("e")
+        assertThat(specificationExecutor.findAll(null, PageRequest(3, 2))).isEmpty()
+    }
+
+    @Test
+    fun count_by_default() {
+        assertThat(specificationExecutor.count(null)).isEqualTo(5L)
+        assertThat(emptySpecificationExecutor.count(null)).isZero
+    }
+
+    @Test
+    fun exists_by_default() {
+        assertThat(specificationExecutor.exists(null)).isTrue
+        assertThat(emptySpecificationExecutor.exists(null)).isFalse
+    }
+
+    @Test
+    fun stream_by_default() {
+        assertThat(specificationExecutor.stream(null).collect(Collectors.toList())).containsExactly("a", "b", "c", "d", "e")
+    }
+
+    @Test
+    fun find_slice_is_not_supported_by_default() {
+        assertThatThrownBy { specificationExecutor.findSlice(null, null, 2) }
+            .isInstanceOf(ValidationException::class.java)
+            .hasMessage("400 BAD_REQUEST \"Validation Errors: [invalid-pagination: The parameter 'cursor' is not supported by this search.]\"")
+    }
+
+}
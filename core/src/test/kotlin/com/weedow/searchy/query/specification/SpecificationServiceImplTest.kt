@@ -1,16 +1,33 @@
 package com.weedow.searchy.query.specification
 
+import com.nhaarman.mockitokotlin2.any
+import com.nhaarman.mockitokotlin2.argumentCaptor
+import com.nhaarman.mockitokotlin2.doAnswer
+import com.nhaarman.mockitokotlin2.doReturn
 import com.nhaarman.mockitokotlin2.mock
 import com.nhaarman.mockitokotlin2.whenever
+import com.querydsl.core.JoinType
+import com.querydsl.core.types.Path
+import com.querydsl.core.types.Predicate
+import com.weedow.searchy.common.model.Person
 import com.weedow.searchy.descriptor.SearchyDescriptor
+import com.weedow.searchy.expression.FieldInfo
+import com.weedow.searchy.expression.Operator
 import com.weedow.searchy.expression.RootExpression
+import com.weedow.searchy.expression.RootExpressionImpl
+import com.weedow.searchy.expression.SimpleExpression
+import com.weedow.searchy.join.EntityJoin
 import com.weedow.searchy.join.EntityJoinManager
 import com.weedow.searchy.join.EntityJoins
+import com.weedow.searchy.query.QueryBuilder
+import com.weedow.searchy.query.querytype.QEntityRoot
+import com.weedow.searchy.query.querytype.QPath
 import org.assertj.core.api.Assertions
 import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.extension.ExtendWith
 import org.mockito.InjectMocks
 import org.mockito.Mock
+import org.mockito.Mockito.CALLS_REAL_METHODS
 import org.mockito.junit.jupiter.MockitoExtension
 
 @ExtendWith(MockitoExtension::class)
@@ -37,4 +54,76 @@ internal class SpecificationServiceImplTest {
 
         Assertions.assertThat(specification).isSameAs(expectedSpecification)
     }
-}
\ No newline at end of file
+
+    @Test
+    fun create_specification_without_fetched_left_joins() {
+        val rootExpression = mock<RootExpression<Any>>()
+        val searchyDescriptor = mock<SearchyDescriptor<Any>>()
+
+        val fetchedLeftJoin = EntityJoin("jobEntity", "job", JoinType.LEFTJOIN, true)
+        val fetchedInnerJoin = EntityJoin("vehicles", "vehicle", JoinType.INNERJOIN, true)
+        val leftJoin = EntityJoin("addressEntities", "address", JoinType.LEFTJOIN, false)
+        val joins = listOf(fetchedLeftJoin, fetchedInnerJoin, leftJoin).associateBy { it.joinName }
+
+        val entityJoins = mock<EntityJoins> {
+            on { getJoins(any()) }.doAnswer { invocation ->
+                val filter = invocation.getArgument<(EntityJoin) -> Boolean>(0)
+                joins.filterValues(filter)
+            }
+        }
+        whenever(entityJoinManager.computeEntityJoins(searchyDescriptor)).thenReturn(entityJoins)
+
+        val expectedSpecification = mock<Specification<Any>>()
+        val entityJoinsCaptor = argumentCaptor<EntityJoins>()
+        whenever(rootExpression.toSpecification<Any>(entityJoinsCaptor.capture())).thenReturn(expectedSpecification)
+
+        val specification = specificationService.createSpecification(rootExpression, searchyDescriptor, false)
+
+        Assertions.assertThat(specification).isSameAs(expectedSpecification)
+        Assertions.assertThat(entityJoinsCaptor.firstValue.getJoins { true }.values).containsExactly(fetchedInnerJoin, leftJoin)
+        Assertions.assertThat(entityJoinsCaptor.firstValue.getJoins { it.fetched }.values).containsExactly(fetchedInnerJoin)
+    }
+
+    @Test
+    fun create_specification_with_case_insensitive_collations() {
+        val firstName = FieldInfo("firstName", "firstName", Person::class.java)
+        val lastName = FieldInfo("lastName", "lastName", Person::class.java)
+        val rootExpression = RootExpressionImpl<Person>(
+            SimpleExpression(Operator.IMATCHES, firstName, "jo*"),
+            SimpleExpression(Operator.IMATCHES, lastName, "do*")
+        )
+        val searchyDescriptor = mock<SearchyDescriptor<Person>> {
+            on { this.caseInsensitiveFields }.doReturn(setOf("firstName"))
+        }
+
+        val qEntityRoot = mock<QEntityRoot<Person>>()
+        val queryBuilder = mock<QueryBuilder<Person>> {
+            on { this.qEntityRoot }.doReturn(qEntityRoot)
+        }
+        val firstNamePath = mock<Path<String>>()
+        val firstNameQPath = mock<QPath<String>> {
+            on { this.path }.doReturn(firstNamePath)
+        }
+        val lastNamePath = mock<Path<String>>()
+        val lastNameQPath = mock<QPath<String>> {
+            on { this.path }.doReturn(lastNamePath)
+        }
+        val entityJoins = mock<EntityJoins>(defaultAnswer = CALLS_REAL_METHODS) {
+            on { getJoins(any()) }.doReturn(emptyMap())
+        }
+        whenever(entityJoins.getQPath("firstName", qEntityRoot, queryBuilder)).thenReturn(firstNameQPath)
+        whenever(entityJoins.getQPath("lastName", qEntityRoot, queryBuilder)).thenReturn(lastNameQPath)
+        whenever(entityJoinManager.computeEntityJoins(searchyDescriptor)).thenReturn(entityJoins)
+
+        val firstNamePredicate = mock<Predicate>()
+        val lastNamePredicate = mock<Predicate>()
+        val expectedPredicate = mock<Predicate>()
+        whenever(queryBuilder.ilikeWithCollation(firstNamePath, "jo*")).thenReturn(firstNamePredicate)
+        whenever(queryBuilder.ilike(lastNamePath, "do*")).thenReturn(lastNamePredicate)
+        whenever(queryBuilder.and(firstNamePredicate, lastNamePredicate)).thenReturn(expectedPredicate)
+
+        val specification = specificationService.createSpecification(rootExpression, searchyDescriptor)
+
+        Assertions.assertThat(specification.toPredicate(queryBuilder)).isSameAs(expectedPredicate)
+    }
+}
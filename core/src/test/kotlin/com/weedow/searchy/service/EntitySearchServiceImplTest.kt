@@ -1,12 +1,33 @@
 package com.weedow.searchy.service
 
+import com.nhaarman.mockitokotlin2.any
 import com.nhaarman.mockitokotlin2.doReturn
+import com.nhaarman.mockitokotlin2.eq
+import com.nhaarman.mockitokotlin2.inOrder
 import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.verifyNoMoreInteractions
 import com.nhaarman.mockitokotlin2.verifyZeroInteractions
 import com.nhaarman.mockitokotlin2.whenever
 import com.weedow.searchy.common.model.Person
 import com.weedow.searchy.descriptor.SearchyDescriptor
+import com.weedow.searchy.expression.FieldInfo
+import com.weedow.searchy.expression.Operator
 import com.weedow.searchy.expression.RootExpression
+import com.weedow.searchy.expression.RootExpressionImpl
+import com.weedow.searchy.expression.SimpleExpression
+import com.weedow.searchy.expression.optimizer.ExpressionOptimizer
+import com.weedow.searchy.expression.optimizer.ExpressionOptimizerImpl
+import com.weedow.searchy.metrics.NoOpSearchyMetrics
+import com.weedow.searchy.metrics.SearchyMetrics
+import com.weedow.searchy.metrics.SearchyStage
+import com.weedow.searchy.query.facet.Facet
+import com.weedow.searchy.query.facet.FacetBucket
+import com.weedow.searchy.query.facet.FacetRequest
+import com.weedow.searchy.query.facet.FacetType
+import com.weedow.searchy.query.pagination.Cursor
+import com.weedow.searchy.query.pagination.PageRequest
+import com.weedow.searchy.query.pagination.Slice
+import com.weedow.searchy.query.projection.Projection
 import com.weedow.searchy.query.specification.Specification
 import com.weedow.searchy.query.specification.SpecificationExecutor
 import com.weedow.searchy.query.specification.SpecificationExecutorFactory
@@ -16,7 +37,9 @@ import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.extension.ExtendWith
 import org.mockito.InjectMocks
 import org.mockito.Mock
+import org.mockito.Spy
 import org.mockito.junit.jupiter.MockitoExtension
+import java.util.stream.Stream
 
 @ExtendWith(MockitoExtension::class)
 internal class EntitySearchServiceImplTest {
@@ -27,6 +50,12 @@ internal class EntitySearchServiceImplTest {
     @Mock
     private lateinit var specificationExecutorFactory: SpecificationExecutorFactory
 
+    @Spy
+    private var expressionOptimizer: ExpressionOptimizer = ExpressionOptimizerImpl()
+
+    @Spy
+    private var searchyMetrics: SearchyMetrics = NoOpSearchyMetrics()
+
     @InjectMocks
     lateinit var entitySearchService: EntitySearchServiceImpl
 
@@ -37,6 +66,8 @@ internal class EntitySearchServiceImplTest {
         val specificationExecutor = mock<SpecificationExecutor<Person>>()
 
         val searchyDescriptor = mock<SearchyDescriptor<Person>> {
+            on { this.id }.doReturn("person")
+            on { this.entityClass }.doReturn(Person::class.java)
             on { this.specificationExecutor }.doReturn(specificationExecutor)
         }
 
@@ -60,6 +91,7 @@ internal class EntitySearchServiceImplTest {
         val rootExpression = mock<RootExpression<Person>>()
 
         val searchyDescriptor = mock<SearchyDescriptor<Person>> {
+            on { this.id }.doReturn("person")
             on { this.entityClass }.thenReturn(entityClass)
         }
 
@@ -77,4 +109,218 @@ internal class EntitySearchServiceImplTest {
 
         assertThat(result).containsExactly(person)
     }
-}
\ No newline at end of file
+
+    @Test
+    fun find_all_with_page_request() {
+        val rootExpression = mock<RootExpression<Person>>()
+
+        val specificationExecutor = mock<SpecificationExecutor<Person>>()
+
+        val searchyDescriptor = mock<SearchyDescriptor<Person>> {
+            on { this.id }.doReturn("person")
+            on { this.entityClass }.doReturn(Person::class.java)
+            on { this.specificationExecutor }.doReturn(specificationExecutor)
+        }
+
+        val specification = mock<Specification<Person>>()
+        whenever(specificationService.createSpecification(rootExpression, searchyDescriptor)).thenReturn(specification)
+
+        val pageRequest = PageRequest(1, 10)
+        val person = Person("John", "Doe")
+        whenever(specificationExecutor.findAll(specification, pageRequest)).thenReturn(listOf(person))
+
+        val result = entitySearchService.findAll(rootExpression, searchyDescriptor, pageRequest)
+
+        assertThat(result).containsExactly(person)
+    }
+
+    @Test
+    fun count_without_fetched_joins() {
+        val entityClass = Person::class.java
+
+        val rootExpression = mock<RootExpression<Person>>()
+
+        val searchyDescriptor = mock<SearchyDescriptor<Person>> {
+            on { this.id }.doReturn("person")
+            on { this.entityClass }.thenReturn(entityClass)
+        }
+
+        val specification = mock<Specification<Person>>()
+        whenever(specificationService.createSpecification(rootExpression, searchyDescriptor, false)).thenReturn(specification)
+
+        val specificationExecutor = mock<SpecificationExecutor<Person>>()
+        whenever(specificationExecutorFactory.getSpecificationExecutor(entityClass)).thenReturn(specificationExecutor)
+
+        whenever(specificationExecutor.count(specification)).thenReturn(42L)
+
+        val result = entitySearchService.count(rootExpression, searchyDescriptor)
+
+        assertThat(result).isEqualTo(42L)
+    }
+
+    @Test
+    fun search_without_querying_when_expression_can_never_be_satisfied() {
+        val fieldInfo = FieldInfo("firstName", "firstName", Person::class.java)
+        val rootExpression = RootExpressionImpl<Person>(SimpleExpression(Operator.EQUALS, fieldInfo, "John"), SimpleExpression(Operator.EQUALS, fieldInfo, "Jane"))
+
+        val searchyDescriptor = mock<SearchyDescriptor<Person>> {
+            on { this.id }.doReturn("person")
+            on { this.entityClass }.doReturn(Person::class.java)
+        }
+
+        assertThat(entitySearchService.count(rootExpression, searchyDescriptor)).isEqualTo(0L)
+        assertThat(entitySearchService.findAll(rootExpression, searchyDescriptor)).isEmpty()
+        assertThat(entitySearchService.exists(rootExpression, searchyDescriptor)).isFalse
+
+        verifyNoMoreInteractions(specificationService, specificationExecutorFactory)
+    }
+
+    @Test
+    fun find_slice_without_fetched_joins() {
+        val rootExpression = mock<RootExpression<Person>>()
+
+        val specificationExecutor = mock<SpecificationExecutor<Person>>()
+
+        val searchyDescriptor = mock<SearchyDescriptor<Person>> {
+            on { this.id }.doReturn("person")
+            on { this.entityClass }.doReturn(Person::class.java)
+            on { this.specificationExecutor }.doReturn(specificationExecutor)
+        }
+
+        val specification = mock<Specification<Person>>()
+        whenever(specificationService.createSpecification(rootExpression, searchyDescriptor, false)).thenReturn(specification)
+
+        val cursor = Cursor(listOf("1"))
+        val slice = Slice(listOf(Person("John", "Doe")), Cursor(listOf("2")))
+        whenever(specificationExecutor.findSlice(specification, cursor, 1)).thenReturn(slice)
+
+        val result = entitySearchService.findSlice(rootExpression, searchyDescriptor, cursor, 1)
+
+        assertThat(result).isSameAs(slice)
+    }
+
+    @Test
+    fun stream() {
+        val rootExpression = mock<RootExpression<Person>>()
+
+        val specificationExecutor = mock<SpecificationExecutor<Person>>()
+
+        val searchyDescriptor = mock<SearchyDescriptor<Person>> {
+            on { this.id }.doReturn("person")
+            on { this.entityClass }.doReturn(Person::class.java)
+            on { this.specificationExecutor }.doReturn(specificationExecutor)
+        }
+
+        val specification = mock<Specification<Person>>()
+        whenever(specificationService.createSpecification(rootExpression, searchyDescriptor)).thenReturn(specification)
+
+        val stream = Stream.of(Person("John", "Doe"))
+        whenever(specificationExecutor.stream(specification)).thenReturn(stream)
+
+        val result = entitySearchService.stream(rootExpression, searchyDescriptor)
+
+        assertThat(result).isSameAs(stream)
+    }
+
+    @Test
+    fun find_all_projection_without_fetched_joins() {
+        val rootExpression = mock<RootExpression<Person>>()
+
+        val specificationExecutor = mock<SpecificationExecutor<Person>>()
+
+        val searchyDescriptor = mock<SearchyDescriptor<Person>> {
+            on { this.id }.doReturn("person")
+            on { this.entityClass }.doReturn(Person::class.java)
+            on { this.specificationExecutor }.doReturn(specificationExecutor)
+        }
+
+        val specification = mock<Specification<Person>>()
+        whenever(specificationService.createSpecification(rootExpression, searchyDescriptor, false)).thenReturn(specification)
+
+        val projection = Projection(listOf("firstName"))
+        val pageRequest = PageRequest(0, 10)
+        val results = listOf(mapOf("firstName" to "John"))
+        whenever(specificationExecutor.findAll(specification, projection, pageRequest)).thenReturn(results)
+
+        val result = entitySearchService.findAll(rootExpression, searchyDescriptor, projection, pageRequest)
+
+        assertThat(result).isSameAs(results)
+    }
+
+    @Test
+    fun exists_without_fetched_joins() {
+        val rootExpression = mock<RootExpression<Person>>()
+
+        val specificationExecutor = mock<SpecificationExecutor<Person>>()
+
+        val searchyDescriptor = mock<SearchyDescriptor<Person>> {
+            on { this.id }.doReturn("person")
+            on { this.entityClass }.doReturn(Person::class.java)
+            on { this.specificationExecutor }.doReturn(specificationExecutor)
+        }
+
+        val specification = mock<Specification<Person>>()
+        whenever(specificationService.createSpecification(rootExpression, searchyDescriptor, false)).thenReturn(specification)
+
+        whenever(specificationExecutor.exists(specification)).thenReturn(true)
+
+        val result = entitySearchService.exists(rootExpression, searchyDescriptor)
+
+        assertThat(result).isTrue
+    }
+
+    @Test
+    fun facets() {
+        val rootExpression = mock<RootExpression<Person>>()
+
+        val specificationExecutor = mock<SpecificationExecutor<Person>>()
+
+        val searchyDescriptor = mock<SearchyDescriptor<Person>> {
+            on { this.id }.doReturn("person")
+            on { this.entityClass }.doReturn(Person::class.java)
+            on { this.specificationExecutor }.doReturn(specificationExecutor)
+        }
+
+        val specification = mock<Specification<Person>>()
+        whenever(specificationService.createSpecification(rootExpression, searchyDescriptor, false)).thenReturn(specification)
+
+        val facetRequests = listOf(FacetRequest("jobEntity.company", "jobEntity.company"))
+        val facets = listOf(Facet("jobEntity.company", FacetType.TERMS, listOf(FacetBucket("Acme", 2L))))
+        whenever(specificationExecutor.facets(specification, facetRequests, 10)).thenReturn(facets)
+
+        val result = entitySearchService.facets(rootExpression, searchyDescriptor, facetRequests, 10)
+
+        assertThat(result).isSameAs(facets)
+    }
+
+    @Test
+    fun record_metrics_of_the_specification_and_the_queries() {
+        val rootExpression = mock<RootExpression<Person>>()
+
+        val specificationExecutor = mock<SpecificationExecutor<Person>>()
+
+        val searchyDescriptor = mock<SearchyDescriptor<Person>> {
+            on { this.id }.doReturn("person")
+            on { this.entityClass }.doReturn(Person::class.java)
+            on { this.specificationExecutor }.doReturn(specificationExecutor)
+        }
+
+        val specification = mock<Specification<Person>>()
+        whenever(specificationService.createSpecification(rootExpression, searchyDescriptor)).thenReturn(specification)
+        whenever(specificationService.createSpecification(rootExpression, searchyDescriptor, false)).thenReturn(specification)
+
+        val pageRequest = PageRequest(0, 10)
+        whenever(specificationExecutor.findAll(specification, pageRequest)).thenReturn(listOf(Person("John", "Doe")))
+        whenever(specificationExecutor.count(specification)).thenReturn(1)
+
+        entitySearchService.findAll(rootExpression, searchyDescriptor, pageRequest)
+        entitySearchService.count(rootExpression, searchyDescriptor)
+
+        val inOrder = inOrder(searchyMetrics)
+        inOrder.verify(searchyMetrics).record(eq("person"), eq(SearchyStage.SPECIFICATION), any<() -> Any>())
+        inOrder.verify(searchyMetrics).record(eq("person"), eq(SearchyStage.QUERY), any<() -> Any>())
+        inOrder.verify(searchyMetrics).record(eq("person"), eq(SearchyStage.SPECIFICATION), any<() -> Any>())
+        inOrder.verify(searchyMetrics).record(eq("person"), eq(SearchyStage.COUNT), any<() -> Any>())
+        inOrder.verifyNoMoreInteractions()
+    }
+}
@@ -0,0 +1,306 @@
+package com.weedow.searchy.service
+
+import com.nhaarman.mockitokotlin2.any
+import com.nhaarman.mockitokotlin2.anyOrNull
+import com.nhaarman.mockitokotlin2.doReturn
+import com.nhaarman.mockitokotlin2.eq
+import com.nhaarman.mockitokotlin2.inOrder
+import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.verify
+import com.nhaarman.mockitokotlin2.verifyNoMoreInteractions
+import com.nhaarman.mockitokotlin2.whenever
+import com.weedow.searchy.common.model.Person
+import com.weedow.searchy.descriptor.SearchyDescriptor
+import com.weedow.searchy.descriptor.SearchyDescriptorService
+import com.weedow.searchy.dto.DtoConverterService
+import com.weedow.searchy.exception.SearchyDescriptorNotFound
+import com.weedow.searchy.expression.ExpressionMapper
+import com.weedow.searchy.expression.ExpressionUtils
+import com.weedow.searchy.expression.FieldExpression
+import com.weedow.searchy.expression.FieldInfo
+import com.weedow.searchy.expression.RootExpression
+import com.weedow.searchy.expression.RootExpressionImpl
+import com.weedow.searchy.expression.optimizer.ExpressionOptimizer
+import com.weedow.searchy.expression.optimizer.ExpressionOptimizerImpl
+import com.weedow.searchy.metrics.NoOpSearchyMetrics
+import com.weedow.searchy.metrics.SearchyMetrics
+import com.weedow.searchy.metrics.SearchyStage
+import com.weedow.searchy.query.pagination.Cursor
+import com.weedow.searchy.query.pagination.Page
+import com.weedow.searchy.query.pagination.PageRequest
+import com.weedow.searchy.query.pagination.Slice
+import com.weedow.searchy.query.specification.ReactiveSpecificationExecutor
+import com.weedow.searchy.query.specification.ReactiveSpecificationExecutorFactory
+import com.weedow.searchy.query.specification.Specification
+import com.weedow.searchy.query.specification.SpecificationExecutor
+import com.weedow.searchy.query.specification.SpecificationService
+import com.weedow.searchy.validation.SearchyValidationService
+import org.assertj.core.api.Assertions.assertThat
+import org.assertj.core.api.Assertions.assertThatThrownBy
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.extension.ExtendWith
+import org.mockito.Mock
+import org.mockito.Spy
+import org.mockito.junit.jupiter.MockitoExtension
+import reactor.core.publisher.Flux
+import java.util.concurrent.atomic.AtomicInteger
+
+@ExtendWith(MockitoExtension::class)
+internal class ReactiveSearchyServiceImplTest {
+
+    @Mock
+    private lateinit var searchyService: SearchyService
+
+    @Mock
+    private lateinit var searchyDescriptorService: SearchyDescriptorService
+
+    @Mock
+    private lateinit var expressionMapper: ExpressionMapper
+
+    @Mock
+    private lateinit var searchyValidationService: SearchyValidationService
+
+    @Mock
+    private lateinit var specificationService: SpecificationService
+
+    @Spy
+    private var expressionOptimizer: ExpressionOptimizer = ExpressionOptimizerImpl()
+
+    @Mock
+    private lateinit var dtoConverterService: DtoConverterService<Person, Any>
+
+    @Spy
+    private var searchyMetrics: SearchyMetrics = NoOpSearchyMetrics()
+
+    @Mock
+    private lateinit var reactiveSpecificationExecutorFactory: ReactiveSpecificationExecutorFactory
+
+    @Test
+    fun search_with_reactive_specification_executor() {
+        val searchyDescriptorId = "person"
+        val params = mapOf("firstName" to listOf("John"))
+
+        val searchyDescriptor = mockSearchyDescriptor(searchyDescriptorId)
+        val specification = mockSpecification(params, searchyDescriptor)
+
+        val person = Person("John", "Doe")
+        val reactiveSpecificationExecutor = mock<ReactiveSpecificationExecutor<Person>> {
+            on { this.findAll(specification) }.doReturn(Flux.just(person))
+        }
+        whenever(reactiveSpecificationExecutorFactory.getReactiveSpecificationExecutor(Person::class.java)).thenReturn(reactiveSpecificationExecutor)
+
+        val dto = mock<Any>()
+        whenever(dtoConverterService.convert(listOf(person), searchyDescriptor)).thenReturn(listOf(dto))
+
+        whenever(searchyDescriptor.id).thenReturn(searchyDescriptorId)
+
+        val result = newReactiveSearchyService(reactiveSpecificationExecutorFactory).search(searchyDescriptorId, params)
+
+        assertThat(result.collectList().block()).containsExactly(dto)
+
+        verify(searchyValidationService).validate(any(), eq(searchyDescriptor))
+        verifyNoMoreInteractions(searchyService)
+
+        val inOrder = inOrder(searchyMetrics)
+        inOrder.verify(searchyMetrics).record(eq(searchyDescriptorId), eq(SearchyStage.MAPPING), any<() -> Any>())
+        inOrder.verify(searchyMetrics).record(eq(searchyDescriptorId), eq(SearchyStage.VALIDATION), any<() -> Any>())
+        inOrder.verify(searchyMetrics).record(eq(searchyDescriptorId), eq(SearchyStage.SPECIFICATION), any<() -> Any>())
+        inOrder.verify(searchyMetrics).record(eq(searchyDescriptorId), eq(SearchyStage.CONVERSION), any<() -> Any>())
+        inOrder.verify(searchyMetrics).recordResultSize(searchyDescriptorId, 1)
+    }
+
+    @Test
+    fun search_with_reactive_specification_executor_converts_by_chunks() {
+        val searchyDescriptorId = "person"
+        val params = mapOf("firstName" to listOf("John"))
+
+        val searchyDescriptor = mockSearchyDescriptor(searchyDescriptorId)
+        val specification = mockSpecification(params, searchyDescriptor)
+
+        val persons = (1..SpecificationExecutor.STREAM_CHUNK_SIZE + 1).map { Person("John", "Doe$it") }
+        val reactiveSpecificationExecutor = mock<ReactiveSpecificationExecutor<Person>> {
+            on { this.findAll(specification) }.doReturn(Flux.fromIterable(persons))
+        }
+        whenever(reactiveSpecificationExecutorFactory.getReactiveSpecificationExecutor(Person::class.java)).thenReturn(reactiveSpecificationExecutor)
+
+        val firstChunk = persons.take(SpecificationExecutor.STREAM_CHUNK_SIZE)
+        val lastChunk = persons.drop(SpecificationExecutor.STREAM_CHUNK_SIZE)
+        val dtos = persons.map { mock<Any>() }
+        whenever(dtoConverterService.convert(firstChunk, searchyDescriptor)).thenReturn(dtos.take(SpecificationExecutor.STREAM_CHUNK_SIZE))
+        whenever(dtoConverterService.convert(lastChunk, searchyDescriptor)).thenReturn(dtos.drop(SpecificationExecutor.STREAM_CHUNK_SIZE))
+        whenever(searchyDescriptor.id).thenReturn(searchyDescriptorId)
+
+        val result = newReactiveSearchyService(reactiveSpecificationExecutorFactory).search(searchyDescriptorId, params)
+
+        assertThat(result.collectList().block()).containsExactlyElementsOf(dtos)
+    }
+
+    @Test
+    fun search_page_with_blocking_service_even_with_reactive_specification_executor() {
+        val searchyDescriptorId = "person"
+        val params = mapOf("firstName" to listOf("John"))
+        val pageRequest = PageRequest(1, 10)
+
+        mockSearchyDescriptor(searchyDescriptorId)
+
+        val dto = mock<Any>()
+        whenever(searchyService.search(searchyDescriptorId, params, pageRequest, false)).thenReturn(Page(listOf(dto), 1, 10, null))
+
+        val result = newReactiveSearchyService(reactiveSpecificationExecutorFactory).search(searchyDescriptorId, params, pageRequest)
+
+        // The page is cached and coalesced by the SearchyService
+        assertThat(result.collectList().block()).containsExactly(dto)
+
+        verifyNoMoreInteractions(reactiveSpecificationExecutorFactory)
+    }
+
+    @Test
+    fun search_with_blocking_service_when_SearchyDescriptor_has_specific_specification_executor() {
+        val searchyDescriptorId = "person"
+        val params = mapOf("firstName" to listOf("John"))
+
+        val specificationExecutor = mock<SpecificationExecutor<Person>>()
+        mockSearchyDescriptor(searchyDescriptorId, specificationExecutor)
+
+        val dto = mock<Any>()
+        whenever(searchyService.search(searchyDescriptorId, params, null, SpecificationExecutor.STREAM_CHUNK_SIZE)).thenReturn(Slice(listOf(dto), null))
+
+        val result = newReactiveSearchyService(reactiveSpecificationExecutorFactory).search(searchyDescriptorId, params)
+
+        assertThat(result.collectList().block()).containsExactly(dto)
+
+        verifyNoMoreInteractions(reactiveSpecificationExecutorFactory)
+    }
+
+    @Test
+    fun search_page_with_blocking_service_when_no_reactive_specification_executor() {
+        val searchyDescriptorId = "person"
+        val params = mapOf("firstName" to listOf("John"))
+        val pageRequest = PageRequest(0, 10)
+
+        mockSearchyDescriptor(searchyDescriptorId)
+
+        val dto = mock<Any>()
+        whenever(searchyService.search(searchyDescriptorId, params, pageRequest, false)).thenReturn(Page(listOf(dto), 0, 10, null))
+
+        val result = newReactiveSearchyService(null).search(searchyDescriptorId, params, pageRequest)
+
+        assertThat(result.collectList().block()).containsExactly(dto)
+    }
+
+    @Test
+    fun search_with_blocking_service_by_slices() {
+        val searchyDescriptorId = "person"
+        val params = mapOf("firstName" to listOf("John"))
+
+        mockSearchyDescriptor(searchyDescriptorId)
+
+        val dto1 = mock<Any>()
+        val dto2 = mock<Any>()
+        val cursor = Cursor(listOf("1"))
+        whenever(searchyService.search(searchyDescriptorId, params, null, SpecificationExecutor.STREAM_CHUNK_SIZE)).thenReturn(Slice(listOf(dto1), cursor))
+        whenever(searchyService.search(searchyDescriptorId, params, cursor, SpecificationExecutor.STREAM_CHUNK_SIZE)).thenReturn(Slice(listOf(dto2), null))
+
+        val result = newReactiveSearchyService(null).search(searchyDescriptorId, params)
+
+        assertThat(result.collectList().block()).containsExactly(dto1, dto2)
+    }
+
+    @Test
+    fun stop_blocking_search_when_subscriber_cancels() {
+        val searchyDescriptorId = "person"
+        val params = mapOf("firstName" to listOf("John"))
+
+        mockSearchyDescriptor(searchyDescriptorId)
+
+        val dto = mock<Any>()
+        val fetched = AtomicInteger()
+        whenever(searchyService.search(eq(searchyDescriptorId), eq(params), anyOrNull<Cursor>(), eq(SpecificationExecutor.STREAM_CHUNK_SIZE))).thenAnswer {
+            Slice(listOf(dto, dto), Cursor(listOf(fetched.incrementAndGet().toString())))
+        }
+
+        val result = newReactiveSearchyService(null).search(searchyDescriptorId, params)
+
+        assertThat(result.limitRate(1).take(3).collectList().block()).containsExactly(dto, dto, dto)
+        // The slices are fetched according to the demand: the next slices are never fetched
+        assertThat(fetched.get()).isLessThan(5)
+    }
+
+    @Test
+    fun throw_exception_when_SearchyDescriptor_not_found() {
+        val searchyDescriptorId = "person"
+        val params = mutableMapOf<String, List<String>>()
+
+        whenever(searchyDescriptorService.getSearchyDescriptor(searchyDescriptorId)).thenReturn(null)
+
+        assertThatThrownBy { newReactiveSearchyService(reactiveSpecificationExecutorFactory).search(searchyDescriptorId, params) }
+            .isInstanceOf(SearchyDescriptorNotFound::class.java)
+            .hasMessage("Could not found the Search Descriptor with Id $searchyDescriptorId")
+
+        verifyNoMoreInteractions(expressionMapper)
+        verifyNoMoreInteractions(searchyService)
+    }
+
+    @Test
+    fun search_without_querying_when_expression_can_never_be_satisfied() {
+        val searchyDescriptorId = "person"
+        val params = mapOf("firstName" to listOf("John"), "query" to listOf("firstName='Jane'"))
+
+        val searchyDescriptor = mockSearchyDescriptor(searchyDescriptorId)
+        whenever(searchyDescriptor.id).thenReturn(searchyDescriptorId)
+        whenever(searchyDescriptor.entityClass).thenReturn(Person::class.java)
+
+        val fieldInfo = FieldInfo("firstName", "firstName", Person::class.java)
+        val rootExpression = RootExpressionImpl<Person>(ExpressionUtils.equals(fieldInfo, "John"), ExpressionUtils.equals(fieldInfo, "Jane"))
+        whenever(expressionMapper.toExpression(params, Person::class.java)).thenReturn(rootExpression)
+
+        val reactiveSpecificationExecutor = mock<ReactiveSpecificationExecutor<Person>>()
+        whenever(reactiveSpecificationExecutorFactory.getReactiveSpecificationExecutor(Person::class.java)).thenReturn(reactiveSpecificationExecutor)
+
+        val result = newReactiveSearchyService(reactiveSpecificationExecutorFactory).search(searchyDescriptorId, params)
+
+        assertThat(result.collectList().block()).isEmpty()
+
+        verify(searchyValidationService).validate(any(), eq(searchyDescriptor))
+        verifyNoMoreInteractions(specificationService)
+        verifyNoMoreInteractions(reactiveSpecificationExecutor)
+        verifyNoMoreInteractions(searchyService)
+    }
+
+    private fun newReactiveSearchyService(reactiveSpecificationExecutorFactory: ReactiveSpecificationExecutorFactory?) =
+        ReactiveSearchyServiceImpl(
+            searchyService,
+            searchyDescriptorService,
+            expressionMapper,
+            searchyValidationService,
+            specificationService,
+            expressionOptimizer,
+            dtoConverterService,
+            searchyMetrics,
+            reactiveSpecificationExecutorFactory
+        )
+
+    private fun mockSearchyDescriptor(searchyDescriptorId: String, specificationExecutor: SpecificationExecutor<Person>? = null): SearchyDescriptor<Person> {
+        val searchyDescriptor = mock<SearchyDescriptor<Person>> {
+            on { this.specificationExecutor }.doReturn(specificationExecutor)
+        }
+        whenever(searchyDescriptorService.getSearchyDescriptor(searchyDescriptorId)).thenReturn(searchyDescriptor)
+        return searchyDescriptor
+    }
+
+    private fun mockSpecification(params: Map<String, List<String>>, searchyDescriptor: SearchyDescriptor<Person>): Specification<Person> {
+        whenever(searchyDescriptor.entityClass).thenReturn(Person::class.java)
+
+        val rootExpression = mock<RootExpression<Person>>()
+        whenever(expressionMapper.toExpression(params, Person::class.java)).thenReturn(rootExpression)
+
+        val fieldExpressions = mock<Collection<FieldExpression>>()
+        whenever(rootExpression.toFieldExpressions(false)).thenReturn(fieldExpressions)
+
+        val specification = mock<Specification<Person>>()
+        whenever(specificationService.createSpecification(rootExpression, searchyDescriptor)).thenReturn(specification)
+
+        return specification
+    }
+
+}
@@ -0,0 +1,168 @@
+package com.weedow.searchy.service
+
+import com.nhaarman.mockitokotlin2.mock
+import com.weedow.searchy.TestSearchyContext
+import com.weedow.searchy.alias.AliasResolver
+import com.weedow.searchy.alias.DefaultAliasResolutionService
+import com.weedow.searchy.autoconfigure.SearchyDefaultAliasConfigurerAutoConfiguration.DefaultAliasResolver
+import com.weedow.searchy.cache.SearchResultCache
+import com.weedow.searchy.common.model.Address
+import com.weedow.searchy.common.model.Job
+import com.weedow.searchy.common.model.Person
+import com.weedow.searchy.common.model.Vehicle
+import com.weedow.searchy.descriptor.DefaultSearchyDescriptorService
+import com.weedow.searchy.descriptor.SearchyDescriptor
+import com.weedow.searchy.descriptor.SearchyDescriptorBuilder
+import com.weedow.searchy.dto.DefaultDtoConverterServiceImpl
+import com.weedow.searchy.dto.DefaultDtoMapper
+import com.weedow.searchy.expression.ExpressionMapperImpl
+import com.weedow.searchy.expression.ExpressionResolverImpl
+import com.weedow.searchy.expression.optimizer.ExpressionOptimizerImpl
+import com.weedow.searchy.expression.parser.ExpressionParserImpl
+import com.weedow.searchy.expression.parser.ExpressionParserVisitorFactoryImpl
+import com.weedow.searchy.fieldpath.FieldPathResolverImpl
+import com.weedow.searchy.join.EntityJoinManager
+import com.weedow.searchy.join.EntityJoinManagerImpl
+import com.weedow.searchy.join.EntityJoins
+import com.weedow.searchy.metrics.NoOpSearchyMetrics
+import com.weedow.searchy.query.specification.SpecificationExecutor
+import com.weedow.searchy.query.specification.SpecificationExecutorFactory
+import com.weedow.searchy.query.specification.SpecificationServiceImpl
+import com.weedow.searchy.validation.SearchyErrorsFactoryImpl
+import com.weedow.searchy.validation.SearchyValidationServiceImpl
+import org.apache.commons.lang3.reflect.FieldUtils
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.springframework.core.convert.support.DefaultConversionService
+import java.lang.reflect.Field
+import java.time.Duration
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ConcurrentMap
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Hammers [SearchyService.search] from concurrent threads, across several Search Descriptors,
+ * to check that the metadata computed lazily (QEntities, Entity joins and aliases) is computed once and never corrupted.
+ */
+internal class SearchyServiceConcurrencyTest {
+
+    companion object {
+        private const val THREADS = 16
+        private const val SEARCHES_PER_THREAD = 200
+
+        private val SEARCHES = listOf(
+            "person" to mapOf("firstName" to listOf("John")),
+            "person" to mapOf("address.city" to listOf("Paris")),
+            "person" to mapOf("query" to listOf("firstName='John' OR job.company='Acme'")),
+            "address" to mapOf("city" to listOf("Paris"), "country" to listOf("FR")),
+            "job" to mapOf("company" to listOf("Acme"), "person.firstName" to listOf("John")),
+            "vehicle" to mapOf("query" to listOf("brand='Tesla' AND person.lastName='Doe'"))
+        )
+    }
+
+    @Test
+    fun search_concurrently_across_descriptors() {
+        val searchyContext = TestSearchyContext()
+
+        val aliasResolver = CountingAliasResolver(DefaultAliasResolver(listOf("Entity", "Entities")))
+        val aliasResolutionService = DefaultAliasResolutionService()
+        aliasResolutionService.addAliasResolver(aliasResolver)
+
+        val expressionResolver = ExpressionResolverImpl(FieldPathResolverImpl(aliasResolutionService), DefaultConversionService())
+        val expressionMapper = ExpressionMapperImpl(expressionResolver, ExpressionParserImpl(ExpressionParserVisitorFactoryImpl(expressionResolver)))
+
+        val entityJoinManager = RecordingEntityJoinManager(EntityJoinManagerImpl(searchyContext))
+
+        val specificationExecutorFactory = object : SpecificationExecutorFactory {
+            override fun <T> getSpecificationExecutor(entityClass: Class<T>): SpecificationExecutor<T> = mock()
+        }
+
+        val searchyDescriptorService = DefaultSearchyDescriptorService()
+        listOf(Person::class.java, Address::class.java, Job::class.java, Vehicle::class.java).forEach {
+            searchyDescriptorService.addSearchyDescriptor(SearchyDescriptorBuilder(it).build())
+        }
+
+        val searchyService = SearchyServiceImpl(
+            searchyDescriptorService,
+            expressionMapper,
+            SearchyValidationServiceImpl(SearchyErrorsFactoryImpl()),
+            EntitySearchServiceImpl(SpecificationServiceImpl(entityJoinManager), specificationExecutorFactory, ExpressionOptimizerImpl(), NoOpSearchyMetrics()),
+            DefaultDtoConverterServiceImpl(DefaultDtoMapper<Any>()),
+            NoOpSearchyMetrics(),
+            NoOpSearchCoalescer(),
+            SearchResultCache(entityJoinManager, SearchResultCache.Bounds(0, Duration.ZERO)),
+            ExpressionOptimizerImpl()
+        )
+
+        val errors = ConcurrentHashMap.newKeySet<Throwable>()
+        val start = CountDownLatch(1)
+        val executor = Executors.newFixedThreadPool(THREADS)
+        try {
+            repeat(THREADS) { thread ->
+                executor.execute {
+                    start.await()
+                    repeat(SEARCHES_PER_THREAD) { i ->
+                        val (searchyDescriptorId, params) = SEARCHES[(thread + i) % SEARCHES.size]
+                        try {
+                            searchyContext.add(searchyDescriptorService.getSearchyDescriptor(searchyDescriptorId)!!.entityClass)
+                            searchyService.search(searchyDescriptorId, params)
+                        } catch (e: Throwable) {
+                            errors.add(e)
+                        }
+                    }
+                }
+            }
+            start.countDown()
+        } finally {
+            executor.shutdown()
+            assertThat(executor.awaitTermination(1, TimeUnit.MINUTES)).isTrue
+        }
+
+        assertThat(errors).isEmpty()
+
+        // The Entity joins are computed once per Search Descriptor
+        assertThat(entityJoinManager.entityJoinsBySearchyDescriptorId.keys).containsExactlyInAnyOrder("person", "address", "job", "vehicle")
+        entityJoinManager.entityJoinsBySearchyDescriptorId.values.forEach { assertThat(it).hasSize(1) }
+
+        // The aliases are computed once per Class
+        aliasResolver.supportsCountByEntityClass.forEach { (entityClass, count) ->
+            assertThat(count.get()).isEqualTo(FieldUtils.getAllFieldsList(entityClass).size)
+        }
+
+        // The QEntities are created once per Class
+        listOf(Person::class.java, Address::class.java, Job::class.java, Vehicle::class.java).forEach {
+            assertThat(searchyContext.add(it)).isSameAs(searchyContext.add(it))
+        }
+    }
+
+    private class CountingAliasResolver(private val aliasResolver: AliasResolver) : AliasResolver {
+
+        val supportsCountByEntityClass: ConcurrentMap<Class<*>, AtomicInteger> = ConcurrentHashMap()
+
+        override fun supports(entityClass: Class<*>, field: Field): Boolean {
+            supportsCountByEntityClass.computeIfAbsent(entityClass) { AtomicInteger() }.incrementAndGet()
+            return aliasResolver.supports(entityClass, field)
+        }
+
+        override fun resolve(entityClass: Class<*>, field: Field): List<String> {
+            return aliasResolver.resolve(entityClass, field)
+        }
+    }
+
+    private class RecordingEntityJoinManager(private val entityJoinManager: EntityJoinManager) : EntityJoinManager {
+
+        /** Identity hash codes of the [EntityJoins] returned for each Search Descriptor */
+        val entityJoinsBySearchyDescriptorId: ConcurrentMap<String, MutableSet<Int>> = ConcurrentHashMap()
+
+        override fun <T> computeEntityJoins(searchyDescriptor: SearchyDescriptor<T>): EntityJoins {
+            val entityJoins = entityJoinManager.computeEntityJoins(searchyDescriptor)
+            entityJoinsBySearchyDescriptorId
+                .computeIfAbsent(searchyDescriptor.id) { ConcurrentHashMap.newKeySet() }
+                .add(System.identityHashCode(entityJoins))
+            return entityJoins
+        }
+    }
+}
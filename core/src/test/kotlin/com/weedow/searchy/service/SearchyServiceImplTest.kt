@@ -1,6 +1,8 @@
 package com.weedow.searchy.service
 
 import com.nhaarman.mockitokotlin2.*
+import com.querydsl.core.types.Order
+import com.weedow.searchy.cache.SearchResultCache
 import com.weedow.searchy.common.model.Person
 import com.weedow.searchy.descriptor.SearchyDescriptor
 import com.weedow.searchy.descriptor.SearchyDescriptorService
@@ -9,7 +11,29 @@ import com.weedow.searchy.exception.SearchyDescriptorNotFound
 import com.weedow.searchy.exception.ValidationException
 import com.weedow.searchy.expression.ExpressionMapper
 import com.weedow.searchy.expression.FieldExpression
+import com.weedow.searchy.expression.FieldInfo
+import com.weedow.searchy.expression.Operator
 import com.weedow.searchy.expression.RootExpression
+import com.weedow.searchy.expression.RootExpressionImpl
+import com.weedow.searchy.expression.SimpleExpression
+import com.weedow.searchy.expression.SortExpression
+import com.weedow.searchy.expression.optimizer.ExpressionOptimizer
+import com.weedow.searchy.expression.optimizer.ExpressionOptimizerImpl
+import com.weedow.searchy.join.EntityJoinManager
+import com.weedow.searchy.join.EntityJoins
+import com.weedow.searchy.metrics.NoOpSearchyMetrics
+import com.weedow.searchy.metrics.SearchyMetrics
+import com.weedow.searchy.metrics.SearchyStage
+import com.weedow.searchy.query.facet.Facet
+import com.weedow.searchy.query.facet.FacetBucket
+import com.weedow.searchy.query.facet.FacetRequest
+import com.weedow.searchy.query.facet.FacetType
+import com.weedow.searchy.query.pagination.Cursor
+import com.weedow.searchy.query.pagination.PageRequest
+import com.weedow.searchy.query.pagination.Slice
+import com.weedow.searchy.query.projection.Projection
+import com.weedow.searchy.query.specification.SpecificationExecutor
+import com.weedow.searchy.utils.Keyword
 import com.weedow.searchy.validation.SearchyError
 import com.weedow.searchy.validation.SearchyValidationService
 import org.assertj.core.api.Assertions
@@ -18,9 +42,12 @@ import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.extension.ExtendWith
 import org.mockito.InjectMocks
 import org.mockito.Mock
+import org.mockito.Spy
 import org.mockito.junit.jupiter.MockitoExtension
 import org.springframework.http.HttpStatus
 import org.springframework.util.LinkedMultiValueMap
+import java.time.Duration
+import java.util.stream.Stream
 
 @ExtendWith(MockitoExtension::class)
 internal class SearchyServiceImplTest {
@@ -40,6 +67,21 @@ internal class SearchyServiceImplTest {
     @Mock
     private lateinit var dtoConverterService: DtoConverterService<Person, *>
 
+    @Spy
+    private var searchyMetrics: SearchyMetrics = NoOpSearchyMetrics()
+
+    @Spy
+    private var searchCoalescer: SearchCoalescer = NoOpSearchCoalescer()
+
+    @Mock
+    private lateinit var searchResultCache: SearchResultCache
+
+    @Mock
+    private lateinit var expressionOptimizer: ExpressionOptimizer
+
+    @Mock
+    private lateinit var entityJoinManager: EntityJoinManager
+
     @InjectMocks
     lateinit var searchyService: SearchyServiceImpl<*, *>
 
@@ -53,6 +95,7 @@ internal class SearchyServiceImplTest {
         val rootClass = Person::class.java
 
         val searchyDescriptor = mock<SearchyDescriptor<Person>> {
+            on { this.id }.doReturn("person")
             on { this.entityClass }.doReturn(rootClass)
         }
         whenever(searchyDescriptorService.getSearchyDescriptor(searchyDescriptorId)).thenReturn(searchyDescriptor)
@@ -77,6 +120,571 @@ internal class SearchyServiceImplTest {
         verify(searchyValidationService).validate(fieldExpressions, searchyDescriptor)
     }
 
+    @Test
+    fun coalesce_the_identical_searches() {
+        val searchyDescriptorId = "person"
+        val params = mutableMapOf(
+            "firstName" to listOf("John")
+        )
+
+        val rootClass = Person::class.java
+
+        val searchyDescriptor = mock<SearchyDescriptor<Person>> {
+            on { this.id }.doReturn(searchyDescriptorId)
+            on { this.entityClass }.doReturn(rootClass)
+        }
+        whenever(searchyDescriptorService.getSearchyDescriptor(searchyDescriptorId)).thenReturn(searchyDescriptor)
+
+        val rootExpression = mock<RootExpression<Person>>()
+        whenever(expressionMapper.toExpression(any(), eq(rootClass))).thenReturn(rootExpression)
+
+        val fieldExpressions = mock<Collection<FieldExpression>>()
+        whenever(rootExpression.toFieldExpressions(false)).thenReturn(fieldExpressions)
+
+        val entities = listOf(Person("John", "Doe"))
+        whenever(entitySearchService.findAll(rootExpression, searchyDescriptor)).thenReturn(entities)
+
+        val dtos = listOf<Any>(mock())
+        whenever(dtoConverterService.convert(entities, searchyDescriptor)).thenReturn(dtos)
+
+        searchyService.search(searchyDescriptorId, params)
+        searchyService.search(searchyDescriptorId, mutableMapOf("firstName" to listOf("John")))
+        searchyService.search(searchyDescriptorId, mutableMapOf("firstName" to listOf("Jane")))
+
+        val searchKeyCaptor = argumentCaptor<Any>()
+        verify(searchCoalescer, times(3)).coalesce<Any, Any>(searchKeyCaptor.capture(), any(), any())
+        assertThat(searchKeyCaptor.firstValue).isEqualTo(searchKeyCaptor.secondValue)
+        assertThat(searchKeyCaptor.thirdValue).isNotEqualTo(searchKeyCaptor.firstValue)
+    }
+
+    @Test
+    fun record_metrics_of_each_step() {
+        val searchyDescriptorId = "person"
+        val params = mutableMapOf(
+            "firstName" to listOf("John")
+        )
+
+        val rootClass = Person::class.java
+
+        val searchyDescriptor = mock<SearchyDescriptor<Person>> {
+            on { this.id }.doReturn(searchyDescriptorId)
+            on { this.entityClass }.doReturn(rootClass)
+        }
+        whenever(searchyDescriptorService.getSearchyDescriptor(searchyDescriptorId)).thenReturn(searchyDescriptor)
+
+        val rootExpression = mock<RootExpression<Person>>()
+        whenever(expressionMapper.toExpression(params, rootClass)).thenReturn(rootExpression)
+
+        val fieldExpressions = mock<Collection<FieldExpression>>()
+        whenever(rootExpression.toFieldExpressions(false)).thenReturn(fieldExpressions)
+
+        val entities = listOf(Person("John", "Doe"), Person("Jane", "Doe"))
+        whenever(entitySearchService.findAll(rootExpression, searchyDescriptor)).thenReturn(entities)
+
+        val dtos = listOf<Any>(mock(), mock())
+        whenever(dtoConverterService.convert(entities, searchyDescriptor)).thenReturn(dtos)
+
+        searchyService.search(searchyDescriptorId, params)
+
+        val inOrder = inOrder(searchyMetrics)
+        inOrder.verify(searchyMetrics).record(eq(searchyDescriptorId), eq(SearchyStage.MAPPING), any<() -> Any>())
+        inOrder.verify(searchyMetrics).record(eq(searchyDescriptorId), eq(SearchyStage.VALIDATION), any<() -> Any>())
+        inOrder.verify(searchyMetrics).recordResultSize(searchyDescriptorId, 2)
+        inOrder.verify(searchyMetrics).record(eq(searchyDescriptorId), eq(SearchyStage.CONVERSION), any<() -> Any>())
+        inOrder.verifyNoMoreInteractions()
+    }
+
+    @Test
+    fun search_page_and_count_total() {
+        val searchyDescriptorId = "person"
+        val params = mutableMapOf(
+            "firstName" to listOf("John")
+        )
+        val pageRequest = PageRequest(1, 1)
+
+        val rootClass = Person::class.java
+
+        val searchyDescriptor = mock<SearchyDescriptor<Person>> {
+            on { this.id }.doReturn("person")
+            on { this.entityClass }.doReturn(rootClass)
+        }
+        whenever(searchyDescriptorService.getSearchyDescriptor(searchyDescriptorId)).thenReturn(searchyDescriptor)
+
+        val rootExpression = mock<RootExpression<Person>>()
+        whenever(expressionMapper.toExpression(params, rootClass)).thenReturn(rootExpression)
+
+        val fieldExpressions = mock<Collection<FieldExpression>>()
+        whenever(rootExpression.toFieldExpressions(false)).thenReturn(fieldExpressions)
+
+        val person = Person("John", "Doe")
+        val entities = listOf(person)
+        whenever(entitySearchService.findAll(rootExpression, searchyDescriptor, pageRequest)).thenReturn(entities)
+        whenever(entitySearchService.count(rootExpression, searchyDescriptor)).thenReturn(3L)
+
+        val dtos = listOf<Any>(mock())
+        whenever(dtoConverterService.convert(entities, searchyDescriptor)).thenReturn(dtos)
+
+        val result = searchyService.search(searchyDescriptorId, params, pageRequest, true)
+
+        assertThat(result.content).isSameAs(dtos)
+        assertThat(result.page).isEqualTo(1)
+        assertThat(result.size).isEqualTo(1)
+        assertThat(result.totalElements).isEqualTo(3L)
+        assertThat(result.totalPages).isEqualTo(3)
+
+        verify(searchyValidationService).validate(fieldExpressions, searchyDescriptor)
+    }
+
+    @Test
+    fun search_last_page_and_deduce_total_without_count() {
+        val searchyDescriptorId = "person"
+        val params = mutableMapOf<String, List<String>>()
+        val pageRequest = PageRequest(2, 10)
+
+        val rootClass = Person::class.java
+
+        val searchyDescriptor = mock<SearchyDescriptor<Person>> {
+            on { this.id }.doReturn("person")
+            on { this.entityClass }.doReturn(rootClass)
+        }
+        whenever(searchyDescriptorService.getSearchyDescriptor(searchyDescriptorId)).thenReturn(searchyDescriptor)
+
+        val rootExpression = mock<RootExpression<Person>>()
+        whenever(expressionMapper.toExpression(params, rootClass)).thenReturn(rootExpression)
+
+        val fieldExpressions = mock<Collection<FieldExpression>>()
+        whenever(rootExpression.toFieldExpressions(false)).thenReturn(fieldExpressions)
+
+        val entities = listOf(Person("John", "Doe"), Person("Jane", "Doe"))
+        whenever(entitySearchService.findAll(rootExpression, searchyDescriptor, pageRequest)).thenReturn(entities)
+
+        val dtos = listOf<Any>(mock(), mock())
+        whenever(dtoConverterService.convert(entities, searchyDescriptor)).thenReturn(dtos)
+
+        val result = searchyService.search(searchyDescriptorId, params, pageRequest, true)
+
+        assertThat(result.content).isSameAs(dtos)
+        assertThat(result.totalElements).isEqualTo(22L)
+        assertThat(result.totalPages).isEqualTo(3)
+
+        verify(entitySearchService, never()).count(rootExpression, searchyDescriptor)
+    }
+
+    @Test
+    fun search_page_without_total() {
+        val searchyDescriptorId = "person"
+        val params = mutableMapOf<String, List<String>>()
+        val pageRequest = PageRequest(0, 1)
+
+        val rootClass = Person::class.java
+
+        val searchyDescriptor = mock<SearchyDescriptor<Person>> {
+            on { this.id }.doReturn("person")
+            on { this.entityClass }.doReturn(rootClass)
+        }
+        whenever(searchyDescriptorService.getSearchyDescriptor(searchyDescriptorId)).thenReturn(searchyDescriptor)
+
+        val rootExpression = mock<RootExpression<Person>>()
+        whenever(expressionMapper.toExpression(params, rootClass)).thenReturn(rootExpression)
+
+        val fieldExpressions = mock<Collection<FieldExpression>>()
+        whenever(rootExpression.toFieldExpressions(false)).thenReturn(fieldExpressions)
+
+        val entities = listOf(Person("John", "Doe"))
+        whenever(entitySearchService.findAll(rootExpression, searchyDescriptor, pageRequest)).thenReturn(entities)
+
+        val dtos = listOf<Any>(mock())
+        whenever(dtoConverterService.convert(entities, searchyDescriptor)).thenReturn(dtos)
+
+        val result = searchyService.search(searchyDescriptorId, params, pageRequest, false)
+
+        assertThat(result.content).isSameAs(dtos)
+        assertThat(result.totalElements).isNull()
+        assertThat(result.totalPages).isNull()
+
+        verify(entitySearchService, never()).count(rootExpression, searchyDescriptor)
+    }
+
+    @Test
+    fun search_slice() {
+        val searchyDescriptorId = "person"
+        val params = mutableMapOf(
+            "firstName" to listOf("John")
+        )
+        val cursor = Cursor(listOf("1"))
+
+        val rootClass = Person::class.java
+
+        val searchyDescriptor = mock<SearchyDescriptor<Person>> {
+            on { this.id }.doReturn("person")
+            on { this.entityClass }.doReturn(rootClass)
+        }
+        whenever(searchyDescriptorService.getSearchyDescriptor(searchyDescriptorId)).thenReturn(searchyDescriptor)
+
+        val rootExpression = mock<RootExpression<Person>>()
+        whenever(expressionMapper.toExpression(params, rootClass)).thenReturn(rootExpression)
+
+        val fieldExpressions = mock<Collection<FieldExpression>>()
+        whenever(rootExpression.toFieldExpressions(false)).thenReturn(fieldExpressions)
+
+        val entities = listOf(Person("John", "Doe"))
+        val nextCursor = Cursor(listOf("2"))
+        whenever(entitySearchService.findSlice(rootExpression, searchyDescriptor, cursor, 1)).thenReturn(Slice(entities, nextCursor))
+
+        val dtos = listOf<Any>(mock())
+        whenever(dtoConverterService.convert(entities, searchyDescriptor)).thenReturn(dtos)
+
+        val result = searchyService.search(searchyDescriptorId, params, cursor, 1)
+
+        assertThat(result.content).isSameAs(dtos)
+        assertThat(result.nextCursor).isEqualTo(nextCursor)
+
+        verify(searchyValidationService).validate(fieldExpressions, searchyDescriptor)
+    }
+
+    @Test
+    fun count() {
+        val searchyDescriptorId = "person"
+        val params = mutableMapOf(
+            "lastName" to listOf("Doe")
+        )
+
+        val rootClass = Person::class.java
+
+        val searchyDescriptor = mock<SearchyDescriptor<Person>> {
+            on { this.id }.doReturn("person")
+            on { this.entityClass }.doReturn(rootClass)
+        }
+        whenever(searchyDescriptorService.getSearchyDescriptor(searchyDescriptorId)).thenReturn(searchyDescriptor)
+
+        val rootExpression = mock<RootExpression<Person>>()
+        whenever(expressionMapper.toExpression(params, rootClass)).thenReturn(rootExpression)
+
+        val fieldExpressions = mock<Collection<FieldExpression>>()
+        whenever(rootExpression.toFieldExpressions(false)).thenReturn(fieldExpressions)
+
+        whenever(entitySearchService.count(rootExpression, searchyDescriptor)).thenReturn(42L)
+
+        val result = searchyService.count(searchyDescriptorId, params)
+
+        assertThat(result).isEqualTo(42L)
+
+        verify(searchyValidationService).validate(fieldExpressions, searchyDescriptor)
+        verifyNoMoreInteractions(entitySearchService)
+        verifyNoMoreInteractions(dtoConverterService)
+    }
+
+    @Test
+    fun exists() {
+        val searchyDescriptorId = "person"
+        val params = mutableMapOf(
+            "lastName" to listOf("Doe")
+        )
+
+        val rootClass = Person::class.java
+
+        val searchyDescriptor = mock<SearchyDescriptor<Person>> {
+            on { this.id }.doReturn("person")
+            on { this.entityClass }.doReturn(rootClass)
+        }
+        whenever(searchyDescriptorService.getSearchyDescriptor(searchyDescriptorId)).thenReturn(searchyDescriptor)
+
+        val rootExpression = mock<RootExpression<Person>>()
+        whenever(expressionMapper.toExpression(params, rootClass)).thenReturn(rootExpression)
+
+        val fieldExpressions = mock<Collection<FieldExpression>>()
+        whenever(rootExpression.toFieldExpressions(false)).thenReturn(fieldExpressions)
+
+        whenever(entitySearchService.exists(rootExpression, searchyDescriptor)).thenReturn(true)
+
+        val result = searchyService.exists(searchyDescriptorId, params)
+
+        assertThat(result).isTrue
+
+        verify(searchyValidationService).validate(fieldExpressions, searchyDescriptor)
+        verifyNoMoreInteractions(entitySearchService)
+    }
+
+    @Test
+    fun facets() {
+        val searchyDescriptorId = "person"
+        val params = mutableMapOf(
+            "lastName" to listOf("Doe"),
+            "facet" to listOf("jobEntity.company"),
+            "sort" to listOf("firstName")
+        )
+
+        val rootClass = Person::class.java
+
+        val searchyDescriptor = mock<SearchyDescriptor<Person>> {
+            on { this.id }.doReturn("person")
+            on { this.entityClass }.doReturn(rootClass)
+        }
+        whenever(searchyDescriptorService.getSearchyDescriptor(searchyDescriptorId)).thenReturn(searchyDescriptor)
+
+        val facetRequests = listOf(FacetRequest("jobEntity.company", "jobEntity.company"))
+        whenever(expressionMapper.toFacetRequests(params, rootClass)).thenReturn(facetRequests)
+
+        val rootExpression = mock<RootExpression<Person>>()
+        whenever(expressionMapper.toExpression(params - "sort", rootClass)).thenReturn(rootExpression)
+
+        val fieldExpressions = mock<Collection<FieldExpression>>()
+        whenever(rootExpression.toFieldExpressions(false)).thenReturn(fieldExpressions)
+
+        val facets = listOf(Facet("jobEntity.company", FacetType.TERMS, listOf(FacetBucket("Acme", 2L))))
+        whenever(entitySearchService.facets(rootExpression, searchyDescriptor, facetRequests, 10)).thenReturn(facets)
+
+        val result = searchyService.facets(searchyDescriptorId, params, 10)
+
+        assertThat(result).isSameAs(facets)
+
+        verify(searchyValidationService).validate(fieldExpressions, searchyDescriptor)
+        verifyNoMoreInteractions(entitySearchService)
+    }
+
+    @Test
+    fun throw_exception_when_facets_without_special_facet_param() {
+        val searchyDescriptorId = "person"
+        val params = mapOf("lastName" to listOf("Doe"))
+
+        val rootClass = Person::class.java
+
+        val searchyDescriptor = mock<SearchyDescriptor<Person>> {
+            on { this.entityClass }.doReturn(rootClass)
+        }
+        whenever(searchyDescriptorService.getSearchyDescriptor(searchyDescriptorId)).thenReturn(searchyDescriptor)
+
+        whenever(expressionMapper.toFacetRequests(params, rootClass)).thenReturn(emptyList())
+
+        Assertions.assertThatThrownBy { searchyService.facets(searchyDescriptorId, params, 10) }
+            .isInstanceOf(ValidationException::class.java)
+            .extracting("reason")
+            .isEqualTo("Validation Errors: [missing-facet: The parameter 'facet' is required to compute the facets.]")
+
+        verifyNoMoreInteractions(expressionMapper)
+        verifyNoMoreInteractions(entitySearchService)
+    }
+
+    @Test
+    fun stream() {
+        val searchyDescriptorId = "person"
+        val params = mutableMapOf(
+            "lastName" to listOf("Doe")
+        )
+
+        val rootClass = Person::class.java
+
+        val searchyDescriptor = mock<SearchyDescriptor<Person>> {
+            on { this.id }.doReturn("person")
+            on { this.entityClass }.doReturn(rootClass)
+        }
+        whenever(searchyDescriptorService.getSearchyDescriptor(searchyDescriptorId)).thenReturn(searchyDescriptor)
+
+        val rootExpression = mock<RootExpression<Person>>()
+        whenever(expressionMapper.toExpression(params, rootClass)).thenReturn(rootExpression)
+
+        val fieldExpressions = mock<Collection<FieldExpression>>()
+        whenever(rootExpression.toFieldExpressions(false)).thenReturn(fieldExpressions)
+
+        val john = Person("John", "Doe")
+        val jane = Person("Jane", "Doe")
+        var closed = false
+        val entities = Stream.of(john, jane).onClose { closed = true }
+        whenever(entitySearchService.stream(rootExpression, searchyDescriptor)).thenReturn(entities)
+
+        val johnDto = mock<Any>()
+        val janeDto = mock<Any>()
+        whenever(dtoConverterService.convert(listOf(john, jane), searchyDescriptor)).thenReturn(listOf(johnDto, janeDto))
+
+        val results = mutableListOf<Any?>()
+        searchyService.stream(searchyDescriptorId, params) { results.add(it) }
+
+        assertThat(results).containsExactly(johnDto, janeDto)
+        assertThat(closed).isTrue
+
+        verify(searchyValidationService).validate(fieldExpressions, searchyDescriptor)
+    }
+
+    @Test
+    fun stream_converts_the_entities_by_chunks() {
+        val searchyDescriptorId = "person"
+        val params = mutableMapOf(
+            "lastName" to listOf("Doe")
+        )
+
+        val rootClass = Person::class.java
+
+        val searchyDescriptor = mock<SearchyDescriptor<Person>> {
+            on { this.id }.doReturn("person")
+            on { this.entityClass }.doReturn(rootClass)
+        }
+        whenever(searchyDescriptorService.getSearchyDescriptor(searchyDescriptorId)).thenReturn(searchyDescriptor)
+
+        val rootExpression = mock<RootExpression<Person>>()
+        whenever(expressionMapper.toExpression(params, rootClass)).thenReturn(rootExpression)
+
+        val fieldExpressions = mock<Collection<FieldExpression>>()
+        whenever(rootExpression.toFieldExpressions(false)).thenReturn(fieldExpressions)
+
+        val persons = (0..SpecificationExecutor.STREAM_CHUNK_SIZE).map { Person("John$it", "Doe") }
+        whenever(entitySearchService.stream(rootExpression, searchyDescriptor)).thenReturn(persons.stream())
+
+        val firstChunk = persons.subList(0, SpecificationExecutor.STREAM_CHUNK_SIZE)
+        val lastChunk = persons.subList(SpecificationExecutor.STREAM_CHUNK_SIZE, persons.size)
+        whenever(dtoConverterService.convert(firstChunk, searchyDescriptor)).thenReturn(firstChunk.map { it.firstName })
+        whenever(dtoConverterService.convert(lastChunk, searchyDescriptor)).thenReturn(lastChunk.map { it.firstName })
+
+        val results = mutableListOf<Any?>()
+        searchyService.stream(searchyDescriptorId, params) { results.add(it) }
+
+        assertThat(results).containsExactlyElementsOf(persons.map { it.firstName })
+
+        verify(dtoConverterService).convert(firstChunk, searchyDescriptor)
+        verify(dtoConverterService).convert(lastChunk, searchyDescriptor)
+    }
+
+    @Test
+    fun validate_stream_without_searching() {
+        val searchyDescriptorId = "person"
+        val params = mutableMapOf(
+            "lastName" to listOf("Doe")
+        )
+
+        val rootClass = Person::class.java
+
+        val searchyDescriptor = mock<SearchyDescriptor<Person>> {
+            on { this.id }.doReturn("person")
+            on { this.entityClass }.doReturn(rootClass)
+        }
+        whenever(searchyDescriptorService.getSearchyDescriptor(searchyDescriptorId)).thenReturn(searchyDescriptor)
+
+        val rootExpression = mock<RootExpression<Person>>()
+        whenever(expressionMapper.toExpression(params, rootClass)).thenReturn(rootExpression)
+
+        val fieldExpressions = mock<Collection<FieldExpression>>()
+        whenever(rootExpression.toFieldExpressions(false)).thenReturn(fieldExpressions)
+
+        searchyService.validateStream(searchyDescriptorId, params)
+
+        verify(searchyValidationService).validate(fieldExpressions, searchyDescriptor)
+        verifyNoMoreInteractions(entitySearchService)
+    }
+
+    @Test
+    fun search_projection() {
+        val searchyDescriptorId = "person"
+        val params = mutableMapOf(
+            "lastName" to listOf("Doe"),
+            "fields" to listOf("firstName,jobEntity.company")
+        )
+
+        val rootClass = Person::class.java
+
+        val searchyDescriptor = mock<SearchyDescriptor<Person>> {
+            on { this.id }.doReturn(searchyDescriptorId)
+            on { this.entityClass }.doReturn(rootClass)
+        }
+        whenever(searchyDescriptorService.getSearchyDescriptor(searchyDescriptorId)).thenReturn(searchyDescriptor)
+
+        val rootExpression = mock<RootExpression<Person>>()
+        whenever(expressionMapper.toExpression(params, rootClass)).thenReturn(rootExpression)
+
+        val fieldExpressions = mock<Collection<FieldExpression>>()
+        whenever(rootExpression.toFieldExpressions(false)).thenReturn(fieldExpressions)
+
+        val projection = Projection(listOf("firstName", "jobEntity.company"))
+        whenever(expressionMapper.toProjection(params, rootClass)).thenReturn(projection)
+
+        val results = listOf(mapOf("firstName" to "John", "jobEntity" to mapOf("company" to "Acme")))
+        whenever(entitySearchService.findAll(rootExpression, searchyDescriptor, projection, null)).thenReturn(results)
+
+        val result = searchyService.search(searchyDescriptorId, params)
+
+        assertThat(result).isSameAs(results)
+
+        verify(searchyValidationService).validate(fieldExpressions, searchyDescriptor)
+        verify(searchyMetrics).recordResultSize(searchyDescriptorId, 1)
+        verifyNoMoreInteractions(entitySearchService)
+        verifyNoMoreInteractions(dtoConverterService)
+    }
+
+    @Test
+    fun search_page_projection_and_count_total() {
+        val searchyDescriptorId = "person"
+        val params = mutableMapOf(
+            "fields" to listOf("firstName")
+        )
+        val pageRequest = PageRequest(1, 1)
+
+        val rootClass = Person::class.java
+
+        val searchyDescriptor = mock<SearchyDescriptor<Person>> {
+            on { this.id }.doReturn(searchyDescriptorId)
+            on { this.entityClass }.doReturn(rootClass)
+        }
+        whenever(searchyDescriptorService.getSearchyDescriptor(searchyDescriptorId)).thenReturn(searchyDescriptor)
+
+        val rootExpression = mock<RootExpression<Person>>()
+        whenever(expressionMapper.toExpression(params, rootClass)).thenReturn(rootExpression)
+
+        val fieldExpressions = mock<Collection<FieldExpression>>()
+        whenever(rootExpression.toFieldExpressions(false)).thenReturn(fieldExpressions)
+
+        val projection = Projection(listOf("firstName"))
+        whenever(expressionMapper.toProjection(params, rootClass)).thenReturn(projection)
+
+        val results = listOf(mapOf("firstName" to "John"))
+        whenever(entitySearchService.findAll(rootExpression, searchyDescriptor, projection, pageRequest)).thenReturn(results)
+        whenever(entitySearchService.count(rootExpression, searchyDescriptor)).thenReturn(3L)
+
+        val result = searchyService.search(searchyDescriptorId, params, pageRequest, true)
+
+        assertThat(result.content).isSameAs(results)
+        assertThat(result.page).isEqualTo(1)
+        assertThat(result.size).isEqualTo(1)
+        assertThat(result.totalElements).isEqualTo(3L)
+
+        verifyNoMoreInteractions(dtoConverterService)
+    }
+
+    @Test
+    fun throw_exception_when_projection_with_cursor() {
+        val searchyDescriptorId = "person"
+        val params = mutableMapOf(
+            "fields" to listOf("firstName")
+        )
+
+        val searchyDescriptor = mock<SearchyDescriptor<Person>>()
+        whenever(searchyDescriptorService.getSearchyDescriptor(searchyDescriptorId)).thenReturn(searchyDescriptor)
+
+        Assertions.assertThatThrownBy { searchyService.search(searchyDescriptorId, params, null, 10) }
+            .isInstanceOf(ValidationException::class.java)
+            .extracting("reason")
+            .isEqualTo("Validation Errors: [invalid-projection: The parameter 'fields' is not supported by this search.]")
+
+        verifyNoMoreInteractions(expressionMapper)
+        verifyNoMoreInteractions(entitySearchService)
+    }
+
+    @Test
+    fun throw_exception_when_projection_with_stream() {
+        val searchyDescriptorId = "person"
+        val params = mutableMapOf(
+            "fields" to listOf("firstName")
+        )
+
+        val searchyDescriptor = mock<SearchyDescriptor<Person>>()
+        whenever(searchyDescriptorService.getSearchyDescriptor(searchyDescriptorId)).thenReturn(searchyDescriptor)
+
+        Assertions.assertThatThrownBy { searchyService.stream(searchyDescriptorId, params) {} }
+            .isInstanceOf(ValidationException::class.java)
+            .extracting("reason")
+            .isEqualTo("Validation Errors: [invalid-projection: The parameter 'fields' is not supported by this search.]")
+
+        verifyNoMoreInteractions(expressionMapper)
+        verifyNoMoreInteractions(entitySearchService)
+    }
+
     @Test
     fun throw_exception_when_SearchyDescriptor_not_found() {
         val searchyDescriptorId = "person"
@@ -100,6 +708,7 @@ internal class SearchyServiceImplTest {
         val params = LinkedMultiValueMap<String, String>()
 
         val searchyDescriptor = mock<SearchyDescriptor<Person>> {
+            on { this.id }.doReturn("person")
             on { this.entityClass }.doReturn(rootClass)
         }
         whenever(searchyDescriptorService.getSearchyDescriptor(searchyDescriptorId)).thenReturn(searchyDescriptor)
@@ -126,4 +735,145 @@ internal class SearchyServiceImplTest {
         verifyNoMoreInteractions(searchyDescriptor) // searchyDescriptor.dtoMapper not called
     }
 
-}
\ No newline at end of file
+    @Test
+    fun cache_the_dtos_whatever_the_order_of_the_criteria() {
+        val searchyDescriptor = mockCachedSearchyDescriptor()
+        val dtoConverterService = mock<DtoConverterService<Person, Any>>()
+        val cachingSearchyService = cachingSearchyService(dtoConverterService)
+
+        val firstName = SimpleExpression(Operator.EQUALS, FieldInfo("firstName", "firstName", Person::class.java), "John")
+        val lastName = SimpleExpression(Operator.EQUALS, FieldInfo("lastName", "lastName", Person::class.java), "Doe")
+        val rootExpression1 = RootExpressionImpl<Person>(firstName, lastName)
+        val rootExpression2 = RootExpressionImpl<Person>(lastName, firstName)
+        val params1 = mapOf("query" to listOf("firstName='John' AND lastName='Doe'"))
+        val params2 = mapOf("query" to listOf("lastName='Doe' AND firstName='John'"))
+        whenever(expressionMapper.toExpression(params1, Person::class.java)).thenReturn(rootExpression1)
+        whenever(expressionMapper.toExpression(params2, Person::class.java)).thenReturn(rootExpression2)
+
+        val entities = listOf(Person("John", "Doe"))
+        whenever(entitySearchService.findAll(rootExpression1, searchyDescriptor)).thenReturn(entities)
+
+        val dtos = listOf<Any>(mock())
+        whenever(dtoConverterService.convert(entities, searchyDescriptor)).thenReturn(dtos)
+
+        assertThat(cachingSearchyService.search("person", params1)).isSameAs(dtos)
+        assertThat(cachingSearchyService.search("person", params2)).isSameAs(dtos)
+
+        // The cached DTOs are returned without loading and converting the entities again
+        verify(entitySearchService, times(1)).findAll(rootExpression1, searchyDescriptor)
+        verify(dtoConverterService, times(1)).convert(entities, searchyDescriptor)
+        verifyNoMoreInteractions(entitySearchService)
+    }
+
+    @Test
+    fun cache_each_page_of_dtos() {
+        val searchyDescriptor = mockCachedSearchyDescriptor()
+        val dtoConverterService = mock<DtoConverterService<Person, Any>>()
+        val cachingSearchyService = cachingSearchyService(dtoConverterService)
+
+        val firstName = SimpleExpression(Operator.EQUALS, FieldInfo("firstName", "firstName", Person::class.java), "John")
+        val sortExpression = SortExpression(FieldInfo("lastName", "lastName", Person::class.java), Order.ASC)
+        val rootExpression = RootExpressionImpl<Person>(firstName, sortExpression)
+        val params = mapOf("firstName" to listOf("John"))
+        whenever(expressionMapper.toExpression(params, Person::class.java)).thenReturn(rootExpression)
+
+        val pageRequest1 = PageRequest(0, 10)
+        val pageRequest2 = PageRequest(1, 10)
+        val entities1 = listOf(Person("John", "Doe"))
+        val entities2 = listOf(Person("John", "Smith"))
+        whenever(entitySearchService.findAll(rootExpression, searchyDescriptor, pageRequest1)).thenReturn(entities1)
+        whenever(entitySearchService.findAll(rootExpression, searchyDescriptor, pageRequest2)).thenReturn(entities2)
+
+        val dtos1 = listOf<Any>(mock())
+        val dtos2 = listOf<Any>(mock())
+        whenever(dtoConverterService.convert(entities1, searchyDescriptor)).thenReturn(dtos1)
+        whenever(dtoConverterService.convert(entities2, searchyDescriptor)).thenReturn(dtos2)
+
+        assertThat(cachingSearchyService.search("person", params, pageRequest1, false).content).isSameAs(dtos1)
+        assertThat(cachingSearchyService.search("person", params, pageRequest2, false).content).isSameAs(dtos2)
+        assertThat(cachingSearchyService.search("person", params, pageRequest1, false).content).isSameAs(dtos1)
+
+        verify(entitySearchService, times(1)).findAll(rootExpression, searchyDescriptor, pageRequest1)
+        verify(entitySearchService, times(1)).findAll(rootExpression, searchyDescriptor, pageRequest2)
+        verifyNoMoreInteractions(entitySearchService)
+    }
+
+    @Test
+    fun do_not_cache_the_dtos_depending_on_the_time_of_the_request() {
+        val searchyDescriptor = mock<SearchyDescriptor<Person>> {
+            on { this.id }.doReturn("person")
+            on { this.entityClass }.doReturn(Person::class.java)
+        }
+        whenever(searchyDescriptorService.getSearchyDescriptor("person")).thenReturn(searchyDescriptor)
+        val dtoConverterService = mock<DtoConverterService<Person, Any>>()
+        val cachingSearchyService = cachingSearchyService(dtoConverterService)
+
+        val birthday = SimpleExpression(Operator.LESS_THAN, FieldInfo("birthday", "birthday", Person::class.java), Keyword.CURRENT_DATE)
+        val rootExpression = RootExpressionImpl<Person>(birthday)
+        val params = mapOf("birthday" to listOf("<CURRENT_DATE"))
+        whenever(expressionMapper.toExpression(params, Person::class.java)).thenReturn(rootExpression)
+
+        whenever(entitySearchService.findAll(rootExpression, searchyDescriptor)).thenReturn(emptyList())
+        whenever(dtoConverterService.convert(emptyList(), searchyDescriptor)).thenReturn(emptyList())
+
+        cachingSearchyService.search("person", params)
+        cachingSearchyService.search("person", params)
+
+        verify(entitySearchService, times(2)).findAll(rootExpression, searchyDescriptor)
+        verifyNoMoreInteractions(entitySearchService)
+    }
+
+    @Test
+    fun do_not_cache_the_dtos_of_root_expression_not_implemented_by_searchy() {
+        val searchyDescriptor = mock<SearchyDescriptor<Person>> {
+            on { this.id }.doReturn("person")
+            on { this.entityClass }.doReturn(Person::class.java)
+        }
+        whenever(searchyDescriptorService.getSearchyDescriptor("person")).thenReturn(searchyDescriptor)
+        val dtoConverterService = mock<DtoConverterService<Person, Any>>()
+        val cachingSearchyService = cachingSearchyService(dtoConverterService)
+
+        val rootExpression = mock<RootExpression<Person>>()
+        val params = mapOf("firstName" to listOf("John"))
+        whenever(expressionMapper.toExpression(params, Person::class.java)).thenReturn(rootExpression)
+        whenever(rootExpression.toFieldExpressions(false)).thenReturn(emptyList())
+
+        whenever(entitySearchService.findAll(rootExpression, searchyDescriptor)).thenReturn(emptyList())
+        whenever(dtoConverterService.convert(emptyList(), searchyDescriptor)).thenReturn(emptyList())
+
+        cachingSearchyService.search("person", params)
+        cachingSearchyService.search("person", params)
+
+        verify(entitySearchService, times(2)).findAll(rootExpression, searchyDescriptor)
+        verifyNoMoreInteractions(entitySearchService)
+    }
+
+    private fun cachingSearchyService(dtoConverterService: DtoConverterService<Person, Any>): SearchyServiceImpl<Person, Any> {
+        return SearchyServiceImpl(
+            searchyDescriptorService,
+            expressionMapper,
+            searchyValidationService,
+            entitySearchService,
+            dtoConverterService,
+            searchyMetrics,
+            searchCoalescer,
+            SearchResultCache(entityJoinManager, SearchResultCache.Bounds(10, Duration.ofMinutes(1))),
+            ExpressionOptimizerImpl()
+        )
+    }
+
+    private fun mockCachedSearchyDescriptor(): SearchyDescriptor<Person> {
+        val searchyDescriptor = mock<SearchyDescriptor<Person>> {
+            on { this.id }.doReturn("person")
+            on { this.entityClass }.doReturn(Person::class.java)
+        }
+        whenever(searchyDescriptorService.getSearchyDescriptor("person")).thenReturn(searchyDescriptor)
+
+        val entityJoins = mock<EntityJoins>()
+        whenever(entityJoins.getEntityClasses()).thenReturn(setOf(Person::class.java))
+        whenever(entityJoinManager.computeEntityJoins(searchyDescriptor)).thenReturn(entityJoins)
+
+        return searchyDescriptor
+    }
+
+}
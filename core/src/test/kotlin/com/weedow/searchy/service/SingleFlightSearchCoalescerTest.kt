@@ -0,0 +1,78 @@
+package com.weedow.searchy.service
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+internal class SingleFlightSearchCoalescerTest {
+
+    @Test
+    fun share_the_converted_result() {
+        val searchCoalescer = SingleFlightSearchCoalescer()
+
+        val (results, searches, conversions) = coalesceConcurrently(searchCoalescer, 3)
+
+        assertThat(results).containsOnly("result-1-converted-1")
+        assertThat(searches).isEqualTo(1)
+        assertThat(conversions).isEqualTo(1)
+        assertThat(searchCoalescer.coalescedCount).isEqualTo(2)
+    }
+
+    @Test
+    fun convert_the_shared_result_for_each_caller() {
+        val searchCoalescer = SingleFlightSearchCoalescer(perCallerConversion = true)
+
+        val (results, searches, conversions) = coalesceConcurrently(searchCoalescer, 3)
+
+        assertThat(results).containsExactlyInAnyOrder("result-1-converted-1", "result-1-converted-2", "result-1-converted-3")
+        assertThat(searches).isEqualTo(1)
+        assertThat(conversions).isEqualTo(3)
+        assertThat(searchCoalescer.coalescedCount).isEqualTo(2)
+    }
+
+    @Test
+    fun execute_the_searches_with_different_keys() {
+        val searchCoalescer = SingleFlightSearchCoalescer()
+
+        val result = searchCoalescer.coalesce("key1", { searchCoalescer.coalesce("key2", { "result2" }) { it } }) { "$it-converted" }
+
+        assertThat(result).isEqualTo("result2-converted")
+        assertThat(searchCoalescer.coalescedCount).isEqualTo(0)
+    }
+
+    private fun coalesceConcurrently(searchCoalescer: SingleFlightSearchCoalescer, callers: Int): Triple<List<String>, Int, Int> {
+        val searches = AtomicInteger()
+        val conversions = AtomicInteger()
+        val release = CountDownLatch(1)
+
+        val executor = Executors.newFixedThreadPool(callers)
+        val results = try {
+            (0 until callers).map {
+                executor.submit<String> {
+                    searchCoalescer.coalesce(
+                        "key",
+                        {
+                            release.await(5, TimeUnit.SECONDS)
+                            "result-" + searches.incrementAndGet()
+                        },
+                        { "$it-converted-" + conversions.incrementAndGet() }
+                    )
+                }
+            }
+        } finally {
+            executor.shutdown()
+        }
+
+        val deadline = System.currentTimeMillis() + 5000
+        while (searchCoalescer.coalescedCount < callers - 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10)
+        }
+        release.countDown()
+
+        return Triple(results.map { it.get(5, TimeUnit.SECONDS) }, searches.get(), conversions.get())
+    }
+
+}
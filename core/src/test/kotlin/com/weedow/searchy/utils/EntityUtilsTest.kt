@@ -1,5 +1,6 @@
 package com.weedow.searchy.utils
 
+import com.weedow.searchy.common.model.Person
 import org.assertj.core.api.Assertions.assertThat
 import org.junit.jupiter.api.Test
 import javax.persistence.Column
@@ -22,6 +23,16 @@ internal class EntityUtilsTest {
         assertThat(embeddedField).isNull()
     }
 
+    @Test
+    fun isSingleValued() {
+        assertThat(EntityUtils.isSingleValued(Person::class.java, "firstName")).isTrue
+        assertThat(EntityUtils.isSingleValued(Person::class.java, "jobEntity.company")).isTrue
+        assertThat(EntityUtils.isSingleValued(Person::class.java, "nickNames")).isFalse
+        assertThat(EntityUtils.isSingleValued(Person::class.java, "vehicles.brand")).isFalse
+        assertThat(EntityUtils.isSingleValued(Person::class.java, "characteristics")).isFalse
+        assertThat(EntityUtils.isSingleValued(Person::class.java, "unknown")).isFalse
+    }
+
     @Test
     fun getParameterizedTypes() {
         val field1 = MyObject::class.java.getDeclaredField("field1")
@@ -0,0 +1,19 @@
+package com.weedow.searchy.utils
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+
+internal class PatternUtilsTest {
+
+    @Test
+    fun getPrefix() {
+        assertThat(PatternUtils.getPrefix("John*")).isEqualTo("John")
+        assertThat(PatternUtils.getPrefix("John")).isNull()
+        assertThat(PatternUtils.getPrefix("*ohn*")).isNull()
+        assertThat(PatternUtils.getPrefix("J*n*")).isNull()
+        assertThat(PatternUtils.getPrefix("J_n*")).isNull()
+        assertThat(PatternUtils.getPrefix("J%n*")).isNull()
+        assertThat(PatternUtils.getPrefix("*")).isNull()
+    }
+
+}
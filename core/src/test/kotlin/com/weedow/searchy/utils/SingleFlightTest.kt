@@ -0,0 +1,86 @@
+package com.weedow.searchy.utils
+
+import org.assertj.core.api.Assertions.assertThat
+import org.assertj.core.api.Assertions.assertThatThrownBy
+import org.junit.jupiter.api.Test
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.Future
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+internal class SingleFlightTest {
+
+    private val singleFlight = SingleFlight<String, Int>()
+
+    @Test
+    fun share_the_result_of_the_action_in_flight() {
+        val executions = AtomicInteger()
+        val release = CountDownLatch(1)
+
+        val results = executeConcurrently(4) {
+            singleFlight.execute("key") {
+                release.await(5, TimeUnit.SECONDS)
+                executions.incrementAndGet()
+            }
+        }
+        awaitCoalescedCount(3)
+        release.countDown()
+
+        assertThat(results.map { it.get(5, TimeUnit.SECONDS) }).containsOnly(1)
+        assertThat(executions.get()).isEqualTo(1)
+        assertThat(singleFlight.coalescedCount).isEqualTo(3)
+    }
+
+    @Test
+    fun share_the_exception_of_the_action_in_flight() {
+        val exception = IllegalStateException("error")
+        val release = CountDownLatch(1)
+
+        val results = executeConcurrently(2) {
+            singleFlight.execute("key") {
+                release.await(5, TimeUnit.SECONDS)
+                throw exception
+            }
+        }
+        awaitCoalescedCount(1)
+        release.countDown()
+
+        results.forEach { result ->
+            assertThatThrownBy { result.get(5, TimeUnit.SECONDS) }.hasCause(exception)
+        }
+    }
+
+    @Test
+    fun execute_the_action_again_once_completed() {
+        assertThat(singleFlight.execute("key") { 1 }).isEqualTo(1)
+        assertThat(singleFlight.execute("key") { 2 }).isEqualTo(2)
+
+        assertThat(singleFlight.coalescedCount).isEqualTo(0)
+    }
+
+    @Test
+    fun execute_the_actions_with_different_keys() {
+        val result = singleFlight.execute("key1") { singleFlight.execute("key2") { 2 } + 1 }
+
+        assertThat(result).isEqualTo(3)
+        assertThat(singleFlight.coalescedCount).isEqualTo(0)
+    }
+
+    private fun executeConcurrently(callers: Int, action: () -> Int): List<Future<Int>> {
+        val executor = Executors.newFixedThreadPool(callers)
+        try {
+            return (0 until callers).map { executor.submit(action) }
+        } finally {
+            executor.shutdown()
+        }
+    }
+
+    private fun awaitCoalescedCount(count: Long) {
+        val deadline = System.currentTimeMillis() + 5000
+        while (singleFlight.coalescedCount < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10)
+        }
+    }
+
+}
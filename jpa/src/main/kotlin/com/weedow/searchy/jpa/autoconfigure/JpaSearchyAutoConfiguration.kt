@@ -1,18 +1,26 @@
 package com.weedow.searchy.jpa.autoconfigure
 
 import com.weedow.searchy.autoconfigure.SearchyAutoConfiguration
+import com.weedow.searchy.cache.SearchResultCache
 import com.weedow.searchy.config.SearchyConfigurationSupport
 import com.weedow.searchy.config.SearchyConfigurer
+import com.weedow.searchy.config.SearchyProperties
 import com.weedow.searchy.context.SearchyContext
 import com.weedow.searchy.dto.DtoMapper
+import com.weedow.searchy.jpa.cache.SearchResultCacheEventListener
+import com.weedow.searchy.jpa.cache.SearchResultCacheIntegrator
 import com.weedow.searchy.jpa.context.JpaSearchyContext
 import com.weedow.searchy.jpa.dto.JpaDefaultDtoMapper
 import com.weedow.searchy.jpa.query.specification.JpaSpecificationExecutorFactory
 import com.weedow.searchy.query.specification.SpecificationExecutorFactory
 import com.weedow.searchy.query.specification.SpecificationExecutorFactoryCachingDecorator
+import org.hibernate.jpa.boot.internal.EntityManagerFactoryBuilderImpl
+import org.hibernate.jpa.boot.spi.IntegratorProvider
+import org.springframework.beans.factory.ObjectProvider
 import org.springframework.boot.autoconfigure.AutoConfigureBefore
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer
 import org.springframework.context.annotation.Bean
 import org.springframework.context.annotation.Configuration
 import javax.persistence.EntityManager
@@ -49,4 +57,23 @@ class JpaSearchyAutoConfiguration {
         return JpaSearchyContext()
     }
 
-}
\ No newline at end of file
+    @Bean
+    @ConditionalOnClass(HibernatePropertiesCustomizer::class)
+    fun searchResultCacheHibernatePropertiesCustomizer(
+        searchyProperties: ObjectProvider<SearchyProperties>,
+        searchResultCache: ObjectProvider<SearchResultCache>
+    ): HibernatePropertiesCustomizer {
+        val resultCacheEnabled = searchyProperties.getIfAvailable { SearchyProperties() }.resultCache.enabled
+        return HibernatePropertiesCustomizer { hibernateProperties ->
+            if (resultCacheEnabled) {
+                // Registers the event listener evicting the cached search results for all the Entities, in addition to the Integrators of the application
+                val integrator = SearchResultCacheIntegrator(SearchResultCacheEventListener(searchResultCache))
+                val integratorProvider = hibernateProperties[EntityManagerFactoryBuilderImpl.INTEGRATOR_PROVIDER] as? IntegratorProvider
+                hibernateProperties[EntityManagerFactoryBuilderImpl.INTEGRATOR_PROVIDER] = IntegratorProvider {
+                    integratorProvider?.integrators.orEmpty() + integrator
+                }
+            }
+        }
+    }
+
+}
@@ -2,10 +2,17 @@ package com.weedow.searchy.jpa.autoconfigure
 
 import com.fasterxml.jackson.databind.Module
 import com.fasterxml.jackson.datatype.hibernate5.Hibernate5Module
+import com.weedow.searchy.descriptor.SearchyDescriptor
+import com.weedow.searchy.descriptor.SearchyDescriptorService
+import com.weedow.searchy.dto.InitializationGraph
+import com.weedow.searchy.utils.klogger
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty
 import org.springframework.context.annotation.Bean
 import org.springframework.context.annotation.Configuration
+import org.springframework.context.event.ContextRefreshedEvent
+import org.springframework.context.event.EventListener
 
 /**
  * Auto-Configuration to handle lazy-loading when the entities are directly serialized to JSON and they contain lazy-loading fields.
@@ -33,9 +40,62 @@ internal class SearchyHibernateSerializationAutoConfiguration {
      */
     @Bean
     @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = DTO_CONVERSION_PREFIX, name = [LAZY_SERIALIZATION], havingValue = "false", matchIfMissing = true)
     fun hibernateModule(): Module {
         return Hibernate5Module()
             .enable(Hibernate5Module.Feature.FORCE_LAZY_LOADING)
             .enable(Hibernate5Module.Feature.WRITE_MISSING_ENTITIES_AS_NULL)
     }
+
+    /**
+     * Add-on module for Jackson JSON processor which handles Hibernate datatypes, without loading the lazy-loading fields.
+     *
+     * Only the associations initialized by the [com.weedow.searchy.dto.DtoMapper] (see [com.weedow.searchy.dto.InitializationGraph]) are serialized,
+     * the other ones are written with their identifier, or `null` for the collections.
+     *
+     * This module is enabled by the `weedow.searchy.dto-conversion.lazy-serialization` property,
+     * because it changes the JSON of all the Entities whose associations are not all initialized.
+     *
+     * @see hibernateModule
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = DTO_CONVERSION_PREFIX, name = [LAZY_SERIALIZATION], havingValue = "true")
+    fun lazyHibernateModule(): Module {
+        return Hibernate5Module()
+            .disable(Hibernate5Module.Feature.FORCE_LAZY_LOADING)
+            .enable(Hibernate5Module.Feature.SERIALIZE_IDENTIFIER_FOR_LAZY_NOT_LOADED_OBJECTS)
+            .enable(Hibernate5Module.Feature.WRITE_MISSING_ENTITIES_AS_NULL)
+    }
+
+    /**
+     * Warns at startup about the [SearchyDescriptor]s declaring an [InitializationGraph] other than [InitializationGraph.ALL],
+     * when a registered [Hibernate5Module] loads the lazy associations during the serialization (`weedow.searchy.dto-conversion.lazy-serialization=false`):
+     * the associations excluded by the [InitializationGraph] would be loaded anyway, or would fail to be loaded once the session is closed.
+     */
+    @EventListener
+    fun checkInitializationGraphs(event: ContextRefreshedEvent) {
+        val applicationContext = event.applicationContext
+        if (applicationContext.getBeanProvider(Hibernate5Module::class.java).none { it.isEnabled(Hibernate5Module.Feature.FORCE_LAZY_LOADING) }) {
+            return
+        }
+
+        val searchyDescriptorService = applicationContext.getBeanProvider(SearchyDescriptorService::class.java).ifAvailable ?: return
+        searchyDescriptorService.getAllSearchyDescriptors()
+            .filter { it.initializationGraph != InitializationGraph.ALL }
+            .forEach {
+                log.warn(
+                    "The Search Descriptor '{}' declares an initialization graph, but the lazy associations are loaded during the JSON serialization. " +
+                            "Set the property '{}.{}' to true, so that the associations excluded by the initialization graph are not serialized.",
+                    it.id, DTO_CONVERSION_PREFIX, LAZY_SERIALIZATION
+                )
+            }
+    }
+
+    private companion object {
+        const val DTO_CONVERSION_PREFIX = "weedow.searchy.dto-conversion"
+        const val LAZY_SERIALIZATION = "lazy-serialization"
+
+        private val log by klogger()
+    }
 }
\ No newline at end of file
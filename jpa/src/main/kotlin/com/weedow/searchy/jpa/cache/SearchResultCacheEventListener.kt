@@ -0,0 +1,65 @@
+package com.weedow.searchy.jpa.cache
+
+import com.weedow.searchy.cache.SearchResultCache
+import org.hibernate.event.spi.PostCommitDeleteEventListener
+import org.hibernate.event.spi.PostCommitInsertEventListener
+import org.hibernate.event.spi.PostCommitUpdateEventListener
+import org.hibernate.event.spi.PostDeleteEvent
+import org.hibernate.event.spi.PostInsertEvent
+import org.hibernate.event.spi.PostUpdateEvent
+import org.hibernate.persister.entity.EntityPersister
+import org.springframework.beans.factory.ObjectProvider
+
+/**
+ * Hibernate event listener which evicts the cached search results touching the created, updated or deleted Entities.
+ *
+ * The listener is notified after the commit of the transaction: the other transactions would cache the previous state of the Entities again
+ * if the results were evicted when the changes are flushed. The results are not evicted when the transaction is rolled back.
+ *
+ * This listener is registered for all the Entities by the [SearchResultCacheIntegrator].
+ *
+ * @param searchResultCache [SearchResultCache] to be evicted
+ */
+class SearchResultCacheEventListener(
+    @Transient private val searchResultCache: ObjectProvider<SearchResultCache>
+) : PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    override fun onPostInsert(event: PostInsertEvent) {
+        evict(event.persister)
+    }
+
+    override fun onPostUpdate(event: PostUpdateEvent) {
+        evict(event.persister)
+    }
+
+    override fun onPostDelete(event: PostDeleteEvent) {
+        evict(event.persister)
+    }
+
+    override fun onPostInsertCommitFailed(event: PostInsertEvent) {
+        // The changes have not been committed: the cached results are still up to date
+    }
+
+    override fun onPostUpdateCommitFailed(event: PostUpdateEvent) {
+        // The changes have not been committed: the cached results are still up to date
+    }
+
+    override fun onPostDeleteCommitFailed(event: PostDeleteEvent) {
+        // The changes have not been committed: the cached results are still up to date
+    }
+
+    override fun requiresPostCommitHanding(persister: EntityPersister): Boolean = true
+
+    /**
+     * Evicts the cached search results touching the Entity of the given [EntityPersister].
+     *
+     * @param persister [EntityPersister] of the created, updated or deleted Entity
+     */
+    private fun evict(persister: EntityPersister) {
+        val searchResultCache = this.searchResultCache.ifAvailable ?: return
+        if (searchResultCache.enabled) {
+            searchResultCache.evict(persister.mappedClass)
+        }
+    }
+
+}
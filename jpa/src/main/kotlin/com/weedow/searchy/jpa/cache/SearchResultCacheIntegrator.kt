@@ -0,0 +1,32 @@
+package com.weedow.searchy.jpa.cache
+
+import org.hibernate.boot.Metadata
+import org.hibernate.engine.spi.SessionFactoryImplementor
+import org.hibernate.event.service.spi.EventListenerRegistry
+import org.hibernate.event.spi.EventType
+import org.hibernate.integrator.spi.Integrator
+import org.hibernate.service.spi.SessionFactoryServiceRegistry
+
+/**
+ * Hibernate [Integrator] registering the given [SearchResultCacheEventListener] for the post-commit events of all the Entities.
+ *
+ * The listener is appended to the other listeners of the [EventListenerRegistry], so that the listeners of the application are kept.
+ *
+ * @param searchResultCacheEventListener [SearchResultCacheEventListener] to be registered
+ */
+class SearchResultCacheIntegrator(
+    private val searchResultCacheEventListener: SearchResultCacheEventListener
+) : Integrator {
+
+    override fun integrate(metadata: Metadata, sessionFactory: SessionFactoryImplementor, serviceRegistry: SessionFactoryServiceRegistry) {
+        val eventListenerRegistry = serviceRegistry.getService(EventListenerRegistry::class.java)
+        eventListenerRegistry.appendListeners(EventType.POST_COMMIT_INSERT, searchResultCacheEventListener)
+        eventListenerRegistry.appendListeners(EventType.POST_COMMIT_UPDATE, searchResultCacheEventListener)
+        eventListenerRegistry.appendListeners(EventType.POST_COMMIT_DELETE, searchResultCacheEventListener)
+    }
+
+    override fun disintegrate(sessionFactory: SessionFactoryImplementor, serviceRegistry: SessionFactoryServiceRegistry) {
+        // Nothing to release
+    }
+
+}
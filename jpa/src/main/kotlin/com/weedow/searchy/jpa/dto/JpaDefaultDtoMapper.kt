@@ -1,9 +1,26 @@
 package com.weedow.searchy.jpa.dto
 
+import com.weedow.searchy.dto.BatchDtoMapper
 import com.weedow.searchy.dto.DtoMapper
-import org.apache.commons.beanutils.PropertyUtils
+import com.weedow.searchy.dto.InitializationGraph
+import com.weedow.searchy.dto.InitializationGraphDtoMapper
+import com.weedow.searchy.dto.SessionBoundDtoMapper
+import com.weedow.searchy.utils.FIELD_PATH_SEPARATOR
 import org.hibernate.Hibernate
+import org.hibernate.collection.internal.AbstractPersistentCollection
+import org.hibernate.collection.spi.PersistentCollection
+import org.hibernate.engine.spi.SessionImplementor
 import org.hibernate.internal.util.collections.IdentitySet
+import org.hibernate.proxy.HibernateProxy
+import org.hibernate.proxy.HibernateProxyHelper
+import java.beans.Introspector
+import java.lang.invoke.MethodHandle
+import java.lang.invoke.MethodHandles
+import java.lang.invoke.MethodType
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ConcurrentMap
+import javax.persistence.Embeddable
+import javax.persistence.Entity
 
 
 /**
@@ -11,28 +28,68 @@ import org.hibernate.internal.util.collections.IdentitySet
  *
  * There is no conversion to a specific DTO.
  *
- * But the entity is fully loaded to prevent LazyInitializationException when the Entity is serialized.
+ * But the associations of the [InitializationGraph] are loaded to prevent LazyInitializationException when the Entity is serialized.
+ * By default, the entity is fully loaded.
+ *
+ * The associations are loaded with the Hibernate session of the thread executing the search: the entities are never converted in parallel.
+ * The entities are received by chunks: the associations of the same level of all the entities of a chunk are loaded together.
  *
  * @param entityInitializer [Initializer] used to load the given the Entity. Default is [EntityInitializer].
  */
 class JpaDefaultDtoMapper<T>(
     private val entityInitializer: Initializer<Any> = EntityInitializer()
-) : DtoMapper<T, T> {
+) : InitializationGraphDtoMapper<T, T>, BatchDtoMapper<T, T>, SessionBoundDtoMapper {
 
     /**
-     * Returns the given Entity bean directly
+     * Returns the given Entity bean directly, with all its associations loaded
      *
      * @param source Entity bean
      * @return The same Entity bean as [source]
      */
     override fun map(source: T): T {
+        return map(source, InitializationGraph.ALL)
+    }
+
+    /**
+     * Returns the given Entity bean directly
+     *
+     * @param source Entity bean
+     * @param initializationGraph [InitializationGraph] of the associations to be loaded
+     * @return The same Entity bean as [source]
+     */
+    override fun map(source: T, initializationGraph: InitializationGraph): T {
         // Set of objects already initialized to prevent cycles
         val initializedObjects = IdentitySet()
-        entityInitializer.initialize(source!!, initializedObjects)
+        entityInitializer.initialize(source!!, initializedObjects, initializationGraph)
 
         return source
     }
 
+    /**
+     * Returns the given Entity beans directly, with all their associations loaded
+     *
+     * @param entities Entity beans
+     * @return The same Entity beans as [entities]
+     */
+    override fun mapAll(entities: List<T>): List<T> {
+        return mapAll(entities, InitializationGraph.ALL)
+    }
+
+    /**
+     * Returns the given Entity beans directly
+     *
+     * @param entities Entity beans
+     * @param initializationGraph [InitializationGraph] of the associations to be loaded
+     * @return The same Entity beans as [entities]
+     */
+    override fun mapAll(entities: List<T>, initializationGraph: InitializationGraph): List<T> {
+        // Set of objects already initialized to prevent cycles
+        val initializedObjects = IdentitySet()
+        entityInitializer.initializeAll(entities.map { it!! }, initializedObjects, initializationGraph)
+
+        return entities
+    }
+
     /** @suppress */
     override fun equals(other: Any?): Boolean {
         if (this === other) return true
@@ -66,6 +123,30 @@ interface Initializer<T> {
      */
     fun doInitialize(obj: T, initializedObjects: IdentitySet)
 
+    /**
+     * Method to call to initialize only the associations of the given [InitializationGraph].
+     * By default, this method ignores the [InitializationGraph] and calls [initialize].
+     *
+     * @param obj Object to be initialized
+     * @param initializedObjects Set of objects already initialized
+     * @param initializationGraph [InitializationGraph] of the associations to be initialized
+     */
+    fun initialize(obj: T, initializedObjects: IdentitySet, initializationGraph: InitializationGraph) {
+        initialize(obj, initializedObjects)
+    }
+
+    /**
+     * Method to call to initialize only the associations of the given [InitializationGraph] for several objects.
+     * By default, this method calls [initialize] for each object.
+     *
+     * @param objs Objects to be initialized
+     * @param initializedObjects Set of objects already initialized
+     * @param initializationGraph [InitializationGraph] of the associations to be initialized
+     */
+    fun initializeAll(objs: List<T>, initializedObjects: IdentitySet, initializationGraph: InitializationGraph) {
+        objs.forEach { initialize(it, initializedObjects, initializationGraph) }
+    }
+
     /**
      * Method to call.
      * This method calls the [doInitialize] method when the given object must be initialized.
@@ -92,16 +173,34 @@ interface Initializer<T> {
 
 /**
  * Entity Initializer.
+ *
+ * The object graph is initialized level by level: the uninitialized proxies and collections of a level are loaded together,
+ * with `IN` queries when several of them have the same type, instead of one query per proxy or collection.
+ * The objects given to [initializeAll] form the first level, so that their associations are loaded together.
+ *
+ * Only the association properties are read, with the accessors of the [InitializationPlan] computed once per class.
+ * The associations which are not included in the [InitializationGraph] are not read, and so they are not loaded.
  */
 class EntityInitializer() : Initializer<Any> {
 
-    private var propertyInitializer: Initializer<Any> = PropertyInitializer(this)
-    private var mapInitializer: Initializer<Map<*, *>> = MapInitializer(this)
-    private var collectionInitializer: Initializer<Collection<*>> = CollectionInitializer(this)
+    companion object {
+        /** Maximum number of collections loaded by a single query */
+        const val BATCH_SIZE = 500
+    }
+
+    private val plans: ConcurrentMap<Class<*>, InitializationPlan> = ConcurrentHashMap()
+
+    // Inner Initializers given to the deprecated constructor. When they are set, the associations are initialized one by one
+    private var propertyInitializer: Initializer<Any>? = null
+    private var mapInitializer: Initializer<Map<*, *>>? = null
+    private var collectionInitializer: Initializer<Collection<*>>? = null
 
     /**
      * Secondary constructor to override one or more inner Initializers.
+     *
+     * Each association is then initialized by the matching inner Initializer, one by one, without any batched load.
      */
+    @Deprecated("The associations are loaded level by level with batched loads, which the inner Initializers prevent", ReplaceWith("EntityInitializer()"))
     constructor(
         propertyInitializer: PropertyInitializer,
         mapInitializer: Initializer<Map<*, *>>,
@@ -113,39 +212,165 @@ class EntityInitializer() : Initializer<Any> {
     }
 
     override fun doInitialize(obj: Any, initializedObjects: IdentitySet) {
-        val propertyDescriptors = PropertyUtils.getPropertyDescriptors(obj)
-        propertyDescriptors.forEach { propertyDescriptor ->
-            val propertyType = propertyDescriptor.propertyType
-            val property = PropertyUtils.getProperty(obj, propertyDescriptor.name)
-
-            if (!isSkippedProperty(property, propertyType)) {
-                when {
-                    Map::class.java.isAssignableFrom(propertyType) -> {
-                        mapInitializer.initialize(property as Map<*, *>, initializedObjects)
-                    }
-                    Collection::class.java.isAssignableFrom(propertyType) -> {
-                        collectionInitializer.initialize(property as Collection<*>, initializedObjects)
-                    }
-                    else -> {
-                        propertyInitializer.initialize(property, initializedObjects)
-                    }
+        doInitialize(listOf(obj), initializedObjects, InitializationGraph.ALL)
+    }
+
+    override fun initialize(obj: Any, initializedObjects: IdentitySet, initializationGraph: InitializationGraph) {
+        initializeAll(listOf(obj), initializedObjects, initializationGraph)
+    }
+
+    override fun initializeAll(objs: List<Any>, initializedObjects: IdentitySet, initializationGraph: InitializationGraph) {
+        // Prevent cycles
+        val roots = objs.filter { initializedObjects.add(it) }
+        doInitialize(roots, initializedObjects, initializationGraph)
+    }
+
+    private fun doInitialize(objs: List<Any>, initializedObjects: IdentitySet, initializationGraph: InitializationGraph) {
+        if (propertyInitializer != null) {
+            objs.forEach { initializeOneByOne(it, initializedObjects, initializationGraph) }
+            return
+        }
+
+        // Objects of the current level, with their field path
+        var level = objs.map { it to "" }
+        while (level.isNotEmpty()) {
+            initializeProxies(level.map { it.first })
+
+            val associations = level.flatMap { (entity, path) ->
+                val implementation = unproxy(entity)
+                getPlan(implementation.javaClass).getAssociations(implementation, path, initializationGraph)
+            }
+            initializeCollections(associations.map { it.first }.filterIsInstance<PersistentCollection>())
+
+            level = associations
+                .flatMap { (value, path) ->
+                    when (value) {
+                        is Map<*, *> -> value.keys + value.values
+                        is Collection<*> -> value
+                        else -> listOf(value)
+                    }.filterNotNull().map { it to path }
                 }
+                // Prevent cycles
+                .filter { (value, _) -> isInitializable(HibernateProxyHelper.getClassWithoutInitializingProxy(value)) && initializedObjects.add(value) }
+        }
+    }
+
+    private fun initializeOneByOne(obj: Any, initializedObjects: IdentitySet, initializationGraph: InitializationGraph) {
+        Hibernate.initialize(obj)
+
+        val implementation = unproxy(obj)
+        getPlan(implementation.javaClass).getAssociations(implementation, "", initializationGraph).forEach { (value, _) ->
+            when (value) {
+                is Map<*, *> -> mapInitializer!!.initialize(value, initializedObjects)
+                is Collection<*> -> collectionInitializer!!.initialize(value, initializedObjects)
+                else -> propertyInitializer!!.initialize(value, initializedObjects)
+            }
+        }
+    }
+
+    private fun getPlan(clazz: Class<*>): InitializationPlan {
+        return plans.computeIfAbsent(clazz) { InitializationPlan(it) }
+    }
+
+    private fun unproxy(entity: Any): Any {
+        return if (entity is HibernateProxy) entity.hibernateLazyInitializer.implementation else entity
+    }
+
+    /**
+     * Initializes the given proxies. The Entities of the same type are loaded together by their identifiers.
+     */
+    private fun initializeProxies(entities: List<Any>) {
+        val lazyInitializers = entities.filterIsInstance<HibernateProxy>().map { it.hibernateLazyInitializer }.filter { it.isUninitialized }
+        lazyInitializers.groupBy { it.session to it.entityName }.forEach { (key, group) ->
+            val (session, entityName) = key
+            if (group.size > 1 && session is SessionImplementor && session.isOpen) {
+                // The loaded Entities are stored in the persistence context, which initializes the proxies without querying the Database
+                session.byMultipleIds(entityName).multiLoad(group.map { it.identifier })
             }
+            group.forEach { it.initialize() }
         }
     }
 
-    private fun isSkippedProperty(property: Any?, propertyType: Class<*>) =
-        property == null
-                || propertyType.isPrimitive
-                || propertyType.isEnum
-                || propertyType.isArray
-                || propertyType.isAnonymousClass
-                || propertyType.kotlin.javaPrimitiveType != null
+    /**
+     * Initializes the given collections. The collections of the same role are loaded together, by fetching them for all their owners.
+     */
+    private fun initializeCollections(collections: List<PersistentCollection>) {
+        collections.filter { !it.wasInitialized() }.groupBy { it.role }.forEach { (role, group) ->
+            if (group.size > 1) {
+                fetchCollections(role, group)
+            }
+            group.forEach { Hibernate.initialize(it) }
+        }
+    }
+
+    private fun fetchCollections(role: String, collections: List<PersistentCollection>) {
+        val session = (collections.first() as? AbstractPersistentCollection)?.session as? SessionImplementor ?: return
+        if (!session.isOpen) {
+            return
+        }
+
+        val collectionPersister = session.factory.metamodel.collectionPersister(role)
+        val ownerPersister = collectionPersister.ownerEntityPersister
+        // The key of the collection must be the identifier of its owner
+        val idName = ownerPersister.identifierPropertyName
+        if (idName == null || collectionPersister.collectionType.lhsPropertyName != null) {
+            return
+        }
+
+        val ownerEntityName = ownerPersister.entityName
+        val propertyName = role.substring(ownerEntityName.length + 1)
+        collections.map { it.key }.distinct().chunked(BATCH_SIZE).forEach { keys ->
+            session.createQuery("select distinct o from $ownerEntityName o left join fetch o.$propertyName where o.$idName in (:keys)")
+                .setParameter("keys", keys)
+                .resultList
+        }
+    }
+
+    private fun isInitializable(clazz: Class<*>): Boolean {
+        return clazz.isAnnotationPresent(Entity::class.java) || clazz.isAnnotationPresent(Embeddable::class.java)
+    }
+
+    /**
+     * Accessors of the association properties of a class: Entities, Embeddables, Collections and Maps.
+     *
+     * The other properties are never read: they don't have to be initialized.
+     */
+    private inner class InitializationPlan(clazz: Class<*>) {
+
+        private val accessors: Map<String, MethodHandle> = Introspector.getBeanInfo(clazz).propertyDescriptors
+            .filter { it.readMethod != null && it.propertyType != null && isAssociation(it.propertyType) }
+            .associate { propertyDescriptor ->
+                val readMethod = propertyDescriptor.readMethod
+                readMethod.trySetAccessible()
+                propertyDescriptor.name to MethodHandles.lookup().unreflect(readMethod).asType(MethodType.methodType(Any::class.java, Any::class.java))
+            }
+
+        /**
+         * Returns the values of the association properties of the given object included in the given [InitializationGraph], with their field path.
+         *
+         * @param obj object having the association properties
+         * @param parentPath field path of the given object. Empty for the root Entity
+         * @param initializationGraph [InitializationGraph]
+         */
+        fun getAssociations(obj: Any, parentPath: String, initializationGraph: InitializationGraph): List<Pair<Any, String>> {
+            return accessors.mapNotNull { (name, accessor) ->
+                val fieldPath = if (parentPath.isEmpty()) name else parentPath + FIELD_PATH_SEPARATOR + name
+                if (initializationGraph.isIncluded(fieldPath)) accessor.invoke(obj)?.let { it to fieldPath } else null
+            }
+        }
+
+        private fun isAssociation(propertyType: Class<*>): Boolean {
+            return Collection::class.java.isAssignableFrom(propertyType)
+                    || Map::class.java.isAssignableFrom(propertyType)
+                    || isInitializable(propertyType)
+        }
+    }
 }
 
 /**
  * Property Initializer
  */
+@Deprecated("The associations are initialized by the EntityInitializer, level by level", ReplaceWith("EntityInitializer()"))
 class PropertyInitializer(
     private val entityInitializer: EntityInitializer
 ) : Initializer<Any> {
@@ -158,6 +383,7 @@ class PropertyInitializer(
 /**
  * Map Initializer
  */
+@Deprecated("The associations are initialized by the EntityInitializer, level by level", ReplaceWith("EntityInitializer()"))
 class MapInitializer(
     private val entityInitializer: EntityInitializer
 ) : Initializer<Map<*, *>> {
@@ -176,6 +402,7 @@ class MapInitializer(
 /**
  * Collection Initializer
  */
+@Deprecated("The associations are initialized by the EntityInitializer, level by level", ReplaceWith("EntityInitializer()"))
 class CollectionInitializer(
     private val entityInitializer: EntityInitializer
 ) : Initializer<Collection<*>> {
@@ -185,4 +412,4 @@ class CollectionInitializer(
             entityInitializer.initialize(item!!, initializedObjects)
         }
     }
-}
\ No newline at end of file
+}
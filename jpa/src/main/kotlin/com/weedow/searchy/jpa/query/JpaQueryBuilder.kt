@@ -6,6 +6,8 @@ import com.querydsl.core.types.dsl.DateExpression
 import com.querydsl.core.types.dsl.DateTimeExpression
 import com.querydsl.core.types.dsl.Expressions
 import com.querydsl.core.types.dsl.TimeExpression
+import com.querydsl.jpa.JPAExpressions
+import com.querydsl.jpa.JPAQueryBase
 import com.querydsl.jpa.JPAQueryMixin
 import com.querydsl.jpa.JPQLOps
 import com.querydsl.jpa.impl.AbstractJPAQuery
@@ -13,21 +15,34 @@ import com.weedow.searchy.context.SearchyContext
 import com.weedow.searchy.jpa.query.querytype.QEntityJoinImpl
 import com.weedow.searchy.query.QueryBuilder
 import com.weedow.searchy.query.querytype.*
+import com.weedow.searchy.query.specification.Specification
+import com.weedow.searchy.utils.FIELD_PATH_SEPARATOR
 import com.weedow.searchy.utils.Keyword
 
 /**
  * JPA [QueryBuilder] implementation.
  *
+ * The duplicate results are eliminated as soon as a to-many join is added to the query.
+ * The [exists] predicates are created with correlated subqueries, in which the joins are never fetched.
+ * The [batch fetched][batchFetch] associations are fetched by the query itself.
+ *
  * @param searchyContext [SearchyContext]
- * @param query [AbstractJPAQuery]
+ * @param query [JPAQueryBase]: [AbstractJPAQuery] or subquery
  * @param qEntityRoot [QEntityRoot]
  */
 class JpaQueryBuilder<T>(
     private val searchyContext: SearchyContext,
-    private val query: AbstractJPAQuery<T, *>,
+    private val query: JPAQueryBase<*, *>,
     override val qEntityRoot: QEntityRoot<T>
 ) : QueryBuilder<T> {
 
+    companion object {
+        private val TO_MANY_ELEMENT_TYPES = listOf(ElementType.SET, ElementType.LIST, ElementType.COLLECTION, ElementType.MAP)
+    }
+
+    // The subqueries of the exists predicates are not executed, they are serialized in the query
+    private val isSubQuery = query !is AbstractJPAQuery<*, *>
+
     override fun distinct() {
         query.distinct()
     }
@@ -49,7 +64,7 @@ class JpaQueryBuilder<T>(
             }
 
         if (joinExpression != null) {
-            if (fetched && !joinExpression.hasFlag(JPAQueryMixin.FETCH)) {
+            if (fetched && !isSubQuery && !joinExpression.hasFlag(JPAQueryMixin.FETCH)) {
                 joinExpression.flags.add(JPAQueryMixin.FETCH)
             }
             val alias = (joinExpression.target as Operation).getArg(1) as QEntity<*>
@@ -81,13 +96,59 @@ class JpaQueryBuilder<T>(
             JoinType.DEFAULT -> crossJoin(elementType, path, alias)
         }
 
-        if (fetched) {
+        if (fetched && !isSubQuery) {
             query.fetchJoin()
         }
 
+        // The rows of the Entity are repeated for each element of a to-many join. It doesn't matter in a subquery.
+        if (elementType in TO_MANY_ELEMENT_TYPES && !isSubQuery) {
+            query.distinct()
+        }
+
         return QEntityJoinImpl(join, propertyInfos)
     }
 
+    override fun batchFetch(fieldPath: String) {
+        if (isSubQuery) {
+            return
+        }
+
+        // Without a secondary query, the association and its parents are fetched with left joins
+        var qEntity: QEntity<*> = qEntityRoot
+        fieldPath.split(FIELD_PATH_SEPARATOR).forEach { qEntity = join(qEntity.get(it), JoinType.LEFTJOIN, true) }
+    }
+
+    override fun exists(qPath: QPath<*>, predicate: (QueryBuilder<*>, QEntity<*>) -> Predicate): Predicate {
+        val propertyInfos = qPath.propertyInfos
+        val aliasType = when (propertyInfos.elementType) {
+            ElementType.SET,
+            ElementType.LIST,
+            ElementType.COLLECTION
+            -> propertyInfos.parameterizedTypes[0]
+            ElementType.MAP -> propertyInfos.parameterizedTypes[1]
+            else -> throw IllegalArgumentException("Could not create a subquery for the QPath of type '${propertyInfos.elementType}': $qPath")
+        }
+        val alias = createAlias(aliasType, qPath)
+
+        // The subquery selects the elements of the to-many join correlated with the query: 'exists (select 1 from person.vehicles as vehicle where ...)'
+        val subQuery = JPAExpressions.selectOne() as JPAQueryBase<*, *>
+        @Suppress("UNCHECKED_CAST")
+        subQuery.metadata.addJoin(JoinType.DEFAULT, ExpressionUtils.`as`(qPath.path as Path<Any>, alias as Path<Any>))
+
+        val subQueryPredicate = predicate(JpaQueryBuilder(searchyContext, subQuery, qEntityRoot), QEntityJoinImpl(alias, propertyInfos))
+        if (subQueryPredicate != Specification.NO_PREDICATE) {
+            subQuery.where(subQueryPredicate)
+        }
+        return subQuery.exists()
+    }
+
+    @Suppress("UNCHECKED_CAST")
+    override fun orderBy(x: Expression<*>, order: Order) {
+        // The null values are sorted as with MongoDB, whatever the Database, so that they have a position in the keyset pagination
+        val nullHandling = if (order == Order.DESC) OrderSpecifier.NullHandling.NullsLast else OrderSpecifier.NullHandling.NullsFirst
+        query.orderBy(OrderSpecifier(order, x as Expression<Comparable<*>>, nullHandling))
+    }
+
     private fun <E> createAlias(aliasType: Class<E>, qPath: QPath<*>): QEntity<E> {
         return searchyContext.get(aliasType) { entityClazz ->
             QEntityAliasImpl(entityClazz, qPath.propertyInfos.fieldName)
@@ -263,6 +324,10 @@ class JpaQueryBuilder<T>(
         }
     }
 
+    override fun between(x: Expression<*>, lowValue: Any, highValue: Any): Predicate {
+        return Expressions.predicate(Ops.BETWEEN, x, convertValueToExpression(lowValue), convertValueToExpression(highValue))
+    }
+
     private fun convertValueToExpression(value: Any): Expression<*> {
         return when {
             Keyword.CURRENT_DATE === value -> DateExpression.currentDate()
@@ -1,22 +1,57 @@
 package com.weedow.searchy.jpa.query.specification
 
+import com.querydsl.core.JoinType
+import com.querydsl.core.Tuple
+import com.querydsl.core.types.CollectionExpression
 import com.querydsl.core.types.EntityPath
+import com.querydsl.core.types.Expression
+import com.querydsl.core.types.ExpressionUtils
+import com.querydsl.core.types.MapExpression
+import com.querydsl.core.types.Operation
+import com.querydsl.core.types.Ops
+import com.querydsl.core.types.Path
+import com.querydsl.core.types.Order
+import com.querydsl.core.types.Projections
+import com.querydsl.core.types.OrderSpecifier
 import com.querydsl.core.types.Templates
+import com.querydsl.core.types.dsl.Expressions
 import com.querydsl.core.types.dsl.PathBuilder
+import com.querydsl.jpa.JPAQueryMixin
 import com.querydsl.jpa.JPQLQuery
 import com.querydsl.jpa.impl.AbstractJPAQuery
 import com.querydsl.jpa.impl.JPAProvider
 import com.querydsl.jpa.impl.JPAQuery
 import com.weedow.searchy.context.SearchyContext
+import com.weedow.searchy.exception.ValidationException
 import com.weedow.searchy.jpa.query.JpaQueryBuilder
 import com.weedow.searchy.jpa.query.addMissingTemplates
+import com.weedow.searchy.join.EntityJoinsImpl
+import com.weedow.searchy.query.QueryBuilder
+import com.weedow.searchy.query.facet.DateInterval
+import com.weedow.searchy.query.facet.Facet
+import com.weedow.searchy.query.facet.FacetBucket
+import com.weedow.searchy.query.facet.FacetRequest
+import com.weedow.searchy.query.facet.FacetStats
+import com.weedow.searchy.query.facet.FacetType
+import com.weedow.searchy.query.pagination.Cursor
+import com.weedow.searchy.query.pagination.KeysetSpecification
+import com.weedow.searchy.query.pagination.PageRequest
+import com.weedow.searchy.query.pagination.Slice
+import com.weedow.searchy.query.projection.Projection
+import com.weedow.searchy.query.querytype.QEntityJoin
 import com.weedow.searchy.query.querytype.QEntityRootImpl
+import com.weedow.searchy.query.querytype.QPath
 import com.weedow.searchy.query.specification.Specification
 import com.weedow.searchy.query.specification.SpecificationExecutor
+import org.hibernate.jpa.QueryHints
+import org.springframework.core.convert.ConversionService
+import org.springframework.core.convert.support.DefaultConversionService
 import org.springframework.data.jpa.repository.support.CrudMethodMetadata
 import org.springframework.data.jpa.repository.support.JpaEntityInformation
 import org.springframework.data.jpa.repository.support.Querydsl
 import org.springframework.data.querydsl.EntityPathResolver
+import java.util.stream.Stream
+import kotlin.streams.asStream
 import javax.persistence.EntityManager
 
 /**
@@ -32,7 +67,7 @@ import javax.persistence.EntityManager
  */
 open class JpaSpecificationExecutor<T>(
     private val searchyContext: SearchyContext,
-    entityInformation: JpaEntityInformation<T, *>,
+    private val entityInformation: JpaEntityInformation<T, *>,
     private val entityManager: EntityManager,
     resolver: EntityPathResolver,
     private val metadata: CrudMethodMetadata?
@@ -40,9 +75,23 @@ open class JpaSpecificationExecutor<T>(
 
     companion object {
         val TEMPLATES_INITIALIZED = mutableListOf<Templates>()
+
+        /** Number of rows fetched from the Database in a single round trip, and number of Entities fetched together, when the entities are streamed */
+        const val STREAM_FETCH_SIZE = SpecificationExecutor.STREAM_CHUNK_SIZE
+
+        /** Maximum number of Entities whose association is loaded by a single secondary query */
+        const val BATCH_FETCH_SIZE = 500
+
+        /** Templates of the numeric keys of the date histograms: `yyyy`, `yyyyMM` and `yyyyMMdd` */
+        private val DATE_KEY_TEMPLATES = mapOf(
+            DateInterval.YEAR to "year({0})",
+            DateInterval.MONTH to "year({0}) * 100 + month({0})",
+            DateInterval.DAY to "year({0}) * 10000 + month({0}) * 100 + day({0})"
+        )
     }
 
     private val path: EntityPath<T> = resolver.createPath(entityInformation.javaType)
+    private val conversionService: ConversionService = DefaultConversionService.getSharedInstance()
     private val querydsl: Querydsl = object : Querydsl(entityManager, PathBuilder(path.type, path.metadata)) {
         override fun <T> createQuery(): AbstractJPAQuery<T, JPAQuery<T>> {
             val templates = JPAProvider.getTemplates(entityManager)
@@ -55,28 +104,398 @@ open class JpaSpecificationExecutor<T>(
     }
 
     override fun findAll(specification: Specification<T>?): List<T> {
-        return createQuery(specification).select(path).fetch()
+        val batchFetchPaths = mutableSetOf<String>()
+        val entities = createQuery(specification, true, batchFetchPaths).select(path).fetch()
+        return batchFetch(entities, batchFetchPaths)
+    }
+
+    override fun findAll(specification: Specification<T>?, pageRequest: PageRequest): List<T> {
+        return fetchPage(specification, pageRequest.offset, pageRequest.size.toLong(), *getIdOrders())
+    }
+
+    override fun findAll(specification: Specification<T>?, projection: Projection, pageRequest: PageRequest?): List<Map<String, Any?>> {
+        val idAttribute = entityInformation.idAttribute
+        if (entityInformation.hasCompositeId() || idAttribute == null) {
+            return super.findAll(specification, projection, pageRequest)
+        }
+
+        val (query, fieldPaths) = createQuery(specification, projection.fieldPaths)
+        // The identifier is also selected, so that the distinct clause does not merge the results of different entities
+        val idPath = Expressions.path(Any::class.java, path, idAttribute.name)
+        val tupleQuery = query.select(Projections.tuple(idPath, *fieldPaths.toTypedArray()))
+        if (pageRequest != null) {
+            tupleQuery.orderBy(*getIdOrders()).offset(pageRequest.offset).limit(pageRequest.size.toLong())
+        }
+
+        return tupleQuery.fetch().map { tuple -> projection.toMap(tuple.toArray().drop(1)) }
+    }
+
+    override fun count(specification: Specification<T>?): Long {
+        // Joins are not fetched: it's useless to count the entities, and JPA does not allow it when the owner of the fetched association is not selected.
+        // The fetched left joins are not added, so that the entities are not counted over the rows of their collections
+        @Suppress("DEPRECATION")
+        return createQuery(specification, false).fetchCount()
+    }
+
+    override fun exists(specification: Specification<T>?): Boolean {
+        val idAttribute = entityInformation.idAttribute
+        if (entityInformation.hasCompositeId() || idAttribute == null) {
+            return count(specification) > 0
+        }
+
+        // Only the identifier of the first entity is selected: the entities are not loaded, and the Database can stop at the first match
+        return createQuery(specification, false)
+            .select(Expressions.path(Any::class.java, path, idAttribute.name))
+            .limit(1)
+            .fetch()
+            .isNotEmpty()
+    }
+
+    override fun facets(specification: Specification<T>?, facetRequests: List<FacetRequest>, maxBuckets: Int): List<Facet> {
+        // One aggregate query is executed for each facet
+        return facetRequests.map { facet(specification, it, maxBuckets) }
+    }
+
+    override fun findSlice(specification: Specification<T>?, cursor: Cursor?, size: Int): Slice<T> {
+        val idPath = getIdPath()
+        val orders = getKeysetOrders(specification, idPath)
+
+        val keysetSpecification = cursor?.let {
+            Specification.where(specification).and(KeysetSpecification(KeysetSpecification.keys(orders, it)))
+        } ?: specification
+
+        val content = fetchPage(keysetSpecification, 0, size + 1L, *getIdOrders())
+
+        if (content.size <= size) {
+            return Slice(content, null)
+        }
+
+        val sliceContent = content.subList(0, size)
+        return Slice(sliceContent, KeysetSpecification.cursor(getKeysetValues(specification, orders, idPath, sliceContent.last())))
+    }
+
+    override fun stream(specification: Specification<T>?): Stream<T> {
+        val idAttribute = entityInformation.idAttribute
+        if (entityInformation.hasCompositeId() || idAttribute == null) {
+            // The joins are not fetched: each row is a distinct Entity, whose associations are loaded when they are accessed
+            return detachConsumed(scroll(createQuery(specification, false).select(path)))
+        }
+
+        // The identifiers are scrolled without the fetched joins, so that each row is a distinct Entity
+        val idPath = Expressions.path(Any::class.java, path, idAttribute.name)
+        val idQuery = createQuery(specification, false).orderBy(*getIdOrders())
+        val orderedFields = idQuery.metadata.orderBy.map { it.target }.filter { it != idPath }
+        val idStream = scroll(idQuery.select(Projections.tuple(idPath, *orderedFields.toTypedArray())))
+
+        // An Entity ordered by a field of a to-many join is selected once per value of this field
+        val streamedIds = mutableSetOf<Any>()
+        val chunks = idStream.iterator().asSequence()
+            .mapNotNull { it.get(idPath) }
+            .filter { streamedIds.add(it) }
+            .chunked(STREAM_FETCH_SIZE)
+
+        // Each chunk of Entities is fetched with its joins and its batch fetched associations, then detached once the next chunk is fetched
+        var previousChunk = emptyList<T>()
+        return chunks
+            .flatMap { ids ->
+                previousChunk.forEach { entityManager.detach(it) }
+                val batchFetchPaths = mutableSetOf<String>()
+                previousChunk = fetchByIds(createQuery(specification, true, batchFetchPaths), idPath, ids, batchFetchPaths)
+                previousChunk.asSequence()
+            }
+            .asStream()
+            .onClose { idStream.close() }
+    }
+
+    /**
+     * Fetches the Entities found by the given [Specification], from the given offset and up to the given limit.
+     *
+     * When the query fetches a to-many join, the rows of an Entity are repeated for each element of the join:
+     * the Database cannot limit the Entities, and Hibernate loads all the results to paginate them in memory (HHH000104).
+     * The page is then loaded by two queries: the first one selects the identifiers of the page, and the second one fetches the Entities having these identifiers.
+     *
+     * The rows of an Entity are also repeated when the query is sorted by a field of a to-many join: the page is then loaded by the same two queries,
+     * the first one selecting each identifier once.
+     */
+    private fun fetchPage(specification: Specification<T>?, offset: Long, limit: Long, vararg orders: OrderSpecifier<*>): List<T> {
+        val batchFetchPaths = mutableSetOf<String>()
+        val query = createQuery(specification, true, batchFetchPaths).orderBy(*orders)
+        val idAttribute = entityInformation.idAttribute
+        if (entityInformation.hasCompositeId() || idAttribute == null || (!fetchesToManyJoin(query) && !isSortedByToManyJoin(query))) {
+            return batchFetch(query.select(path).offset(offset).limit(limit).fetch(), batchFetchPaths)
+        }
+
+        val idPath = Expressions.path(Any::class.java, path, idAttribute.name)
+
+        // The fetched left joins are not added, so that the identifiers are not selected over the rows of the fetched collections
+        val idQuery = createQuery(specification, false).orderBy(*orders)
+        val idRows = if (isSortedByToManyJoin(idQuery)) {
+            selectIdsGroupedById(idQuery, idPath)
+        } else {
+            // The ordered fields are also selected, because the Database requires them with the distinct clause
+            val orderedFields = idQuery.metadata.orderBy.map { it.target }.filter { it != idPath }
+            idQuery.select(Projections.tuple(idPath, *orderedFields.toTypedArray()))
+        }
+        val ids = idRows.offset(offset).limit(limit).fetch().mapNotNull { it.get(idPath) }
+        return fetchByIds(query, idPath, ids, batchFetchPaths)
+    }
+
+    /**
+     * Selects the identifiers of the given query sorted by a field of a to-many join, once per Entity.
+     *
+     * Such a field has several values for a single Entity: as with MongoDB, the Entity is sorted by the lowest value of the field in ascending order,
+     * and by its highest value in descending order.
+     */
+    private fun selectIdsGroupedById(query: JPQLQuery<T>, idPath: Expression<Any>): JPQLQuery<Tuple> {
+        val orders = query.metadata.orderBy.map { order ->
+            val aggregate = if (order.order == Order.DESC) Ops.AggOps.MAX_AGG else Ops.AggOps.MIN_AGG
+            OrderSpecifier(order.order, Expressions.comparableOperation(Comparable::class.java, aggregate, order.target), order.nullHandling)
+        }
+        query.metadata.clearOrderBy()
+
+        // The aggregated fields are also selected, because the Database requires them with the distinct clause
+        return query.select(Projections.tuple(idPath, *orders.map { it.target }.toTypedArray()))
+            .groupBy(idPath)
+            .orderBy(*orders.toTypedArray())
+    }
+
+    /**
+     * Fetches the Entities having the given identifiers with the given query, in the order of the identifiers.
+     */
+    private fun fetchByIds(query: JPQLQuery<T>, idPath: Expression<Any>, ids: List<Any>, batchFetchPaths: Set<String>): List<T> {
+        if (ids.isEmpty()) {
+            return emptyList()
+        }
+
+        // The Entities are fetched in any order: the order of the identifiers is restored.
+        // The query is not sorted, so that the Database does not require the sorted fields of the joined Entities with the distinct clause
+        query.metadata.clearOrderBy()
+        val entitiesById = query.select(path).where(ExpressionUtils.`in`(idPath, ids)).fetch().associateBy { entityInformation.getId(it) }
+        return batchFetch(ids.mapNotNull { entitiesById[it] }, batchFetchPaths)
+    }
+
+    /**
+     * Scrolls the results of the given query, fetching [STREAM_FETCH_SIZE] rows from the Database in a single round trip.
+     */
+    private fun <R> scroll(query: JPQLQuery<R>): Stream<R> {
+        @Suppress("UNCHECKED_CAST")
+        val jpaQuery = query as AbstractJPAQuery<R, *>
+        jpaQuery.setHint(QueryHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+        return jpaQuery.stream()
+    }
+
+    /**
+     * Detaches each chunk of [STREAM_FETCH_SIZE] streamed Entities once the first Entity of the next chunk is fetched,
+     * so that the persistence context does not keep all the streamed Entities.
+     */
+    private fun detachConsumed(stream: Stream<T>): Stream<T> {
+        val consumed = mutableListOf<T>()
+        return stream.map { entity ->
+            if (consumed.size == STREAM_FETCH_SIZE) {
+                consumed.forEach { entityManager.detach(it) }
+                consumed.clear()
+            }
+            consumed.add(entity)
+            entity
+        }
+    }
+
+    /**
+     * Loads the associations of the given Entities located at the given field paths.
+     *
+     * Each association is loaded by secondary queries fetching it for at most [BATCH_FETCH_SIZE] Entities.
+     * These queries return the Entities of the persistence context, so the associations of the given Entities are initialized.
+     *
+     * @return the given Entities
+     */
+    private fun batchFetch(entities: List<T>, batchFetchPaths: Set<String>): List<T> {
+        if (batchFetchPaths.isEmpty() || entities.isEmpty()) {
+            return entities
+        }
+
+        val idAttribute = entityInformation.idAttribute
+        batchFetchPaths.forEach { fieldPath ->
+            entities.chunked(BATCH_FETCH_SIZE).forEach { batch ->
+                @Suppress("UNCHECKED_CAST")
+                val query = querydsl.createQuery(path) as AbstractJPAQuery<T, *>
+                JpaQueryBuilder(searchyContext, query, QEntityRootImpl(searchyContext.get(path.type))).batchFetch(fieldPath)
+
+                val predicate = if (entityInformation.hasCompositeId() || idAttribute == null) {
+                    ExpressionUtils.`in`(path, batch)
+                } else {
+                    ExpressionUtils.`in`(Expressions.path(Any::class.java, path, idAttribute.name), batch.mapNotNull { entityInformation.getId(it) })
+                }
+                query.select(path).where(predicate).fetch()
+            }
+        }
+        return entities
+    }
+
+    private fun fetchesToManyJoin(query: JPQLQuery<T>): Boolean {
+        return query.metadata.joins.any { join ->
+            val joinPath = (join.target as? Operation<*>)?.getArg(0)
+            join.hasFlag(JPAQueryMixin.FETCH) && (joinPath is CollectionExpression<*, *> || joinPath is MapExpression<*, *>)
+        }
+    }
+
+    private fun facet(specification: Specification<T>?, facetRequest: FacetRequest, maxBuckets: Int): Facet {
+        val (query, fieldPaths) = createQuery(specification, listOf(facetRequest.fieldPath))
+        val value = fieldPaths.single()
+        query.where(Expressions.predicate(Ops.IS_NOT_NULL, value))
+
+        // Each entity is counted once per bucket, even if the field belongs to a joined collection
+        val count = Expressions.numberOperation(Long::class.javaObjectType, Ops.AggOps.COUNT_DISTINCT_AGG, path)
+
+        return when (facetRequest.type) {
+            FacetType.TERMS -> {
+                val rows = query.select(value, count).groupBy(value).orderBy(count.desc()).limit(maxBuckets.toLong()).fetch()
+                Facet(facetRequest.name, facetRequest.type, rows.map { FacetBucket(it.get(value), it.get(count)!!) })
+            }
+            FacetType.HISTOGRAM -> {
+                // The interval is a validated number: it is written in the query so that the same expression is selected and grouped
+                val interval = facetRequest.interval!!.toPlainString()
+                val key = Expressions.numberTemplate(Double::class.javaObjectType, "floor({0} / $interval) * $interval", value)
+                val rows = query.select(key, count).groupBy(key).orderBy(key.asc()).limit(maxBuckets.toLong()).fetch()
+                // The type of the computed key depends on the type of the field and on the Database
+                Facet(facetRequest.name, facetRequest.type, rows.map { FacetBucket(it.get(0, Number::class.java)!!.toDouble(), it.get(count)!!) })
+            }
+            FacetType.DATE_HISTOGRAM -> {
+                val dateInterval = facetRequest.dateInterval!!
+                val key = Expressions.numberTemplate(Int::class.javaObjectType, DATE_KEY_TEMPLATES.getValue(dateInterval), value)
+                val rows = query.select(key, count).groupBy(key).orderBy(key.asc()).limit(maxBuckets.toLong()).fetch()
+                Facet(facetRequest.name, facetRequest.type, rows.map { FacetBucket(dateInterval.format(it.get(0, Number::class.java)!!.toInt()), it.get(count)!!) })
+            }
+            FacetType.STATS -> {
+                val valueCount = Expressions.numberOperation(Long::class.javaObjectType, Ops.AggOps.COUNT_AGG, value)
+                val min = Expressions.simpleOperation(Any::class.java, Ops.AggOps.MIN_AGG, value)
+                val max = Expressions.simpleOperation(Any::class.java, Ops.AggOps.MAX_AGG, value)
+                val row = query.select(valueCount, min, max).fetchOne()
+                Facet(facetRequest.name, facetRequest.type, stats = FacetStats(row?.get(valueCount) ?: 0L, row?.get(min), row?.get(max)))
+            }
+        }
+    }
+
+    /**
+     * Creates a new [JPQLQuery] for the given [Specification], without fetching the joins, and resolves the paths of the given fields.
+     *
+     * The paths are resolved with the query, so that only the joins they need are added.
+     */
+    private fun createQuery(specification: Specification<T>?, fieldPaths: List<String>): Pair<JPQLQuery<T>, List<Expression<*>>> {
+        val paths = mutableListOf<Expression<*>>()
+        val fieldPathsSpecification = Specification.where(specification).and { builder ->
+            val entityJoins = EntityJoinsImpl(path.type)
+            fieldPaths.mapTo(paths) { entityJoins.getQPath(it, builder.qEntityRoot, builder).path }
+            Specification.NO_PREDICATE
+        }
+        return createQuery(fieldPathsSpecification, false) to paths
+    }
+
+    /**
+     * Returns the ordering by the identifier, appended to the orderings of the paginated queries:
+     * the Entities having the same sorted values are always returned in the same order, so that the pages neither overlap nor skip Entities.
+     */
+    private fun getIdOrders(): Array<OrderSpecifier<*>> {
+        val idAttribute = entityInformation.idAttribute
+        if (entityInformation.hasCompositeId() || idAttribute == null) {
+            return emptyArray()
+        }
+        return arrayOf(OrderSpecifier(Order.ASC, Expressions.comparablePath(Comparable::class.java, path, idAttribute.name)))
+    }
+
+    /**
+     * Returns the path of the identifier, typed with the type of the identifier so that the values of the keyset can be converted.
+     *
+     * @throws ValidationException if the Entity has no single Id attribute
+     */
+    private fun getIdPath(): Expression<Comparable<*>> {
+        val idAttribute = entityInformation.idAttribute
+        if (entityInformation.hasCompositeId() || idAttribute == null) {
+            throw KeysetSpecification.unsupportedCursorException()
+        }
+        @Suppress("UNCHECKED_CAST")
+        return Expressions.path(entityInformation.idType, path, idAttribute.name) as Expression<Comparable<*>>
+    }
+
+    /**
+     * Returns the orderings of the keyset: the orderings of the given [Specification], followed by the ordering by the identifier which makes the keyset unique.
+     *
+     * @throws ValidationException if the results are sorted by a field of a to-many join
+     */
+    private fun getKeysetOrders(specification: Specification<T>?, idPath: Expression<Comparable<*>>): List<OrderSpecifier<*>> {
+        val query = createQuery(specification, false)
+        if (isSortedByToManyJoin(query)) {
+            throw KeysetSpecification.toManySortException()
+        }
+
+        val orders = query.metadata.orderBy
+        return if (orders.any { it.target == idPath }) orders else orders + OrderSpecifier(Order.ASC, idPath)
+    }
+
+    /**
+     * Returns the values of the keyset of the given Entity.
+     *
+     * The sorted fields may belong to joined Entities: they are selected by a query having the joins of the given [Specification].
+     */
+    private fun getKeysetValues(specification: Specification<T>?, orders: List<OrderSpecifier<*>>, idPath: Expression<Comparable<*>>, entity: T): List<Any?> {
+        val sortedFields = orders.map { it.target }
+        val row = createQuery(specification, false)
+            .select(Projections.tuple(*sortedFields.toTypedArray()))
+            .where(Expressions.predicate(Ops.EQ, idPath, Expressions.constant(entityInformation.getId(entity)!!)))
+            .fetchFirst()
+        return sortedFields.map { row?.get(it) }
+    }
+
+    /**
+     * Returns whether the given query is sorted by a field of a to-many join, or of a join nested in a to-many join: such a field has several values for a single Entity.
+     */
+    private fun isSortedByToManyJoin(query: JPQLQuery<T>): Boolean {
+        // The joins are added after the joins they are nested in
+        val toManyAliases = mutableSetOf<Expression<*>>()
+        query.metadata.joins.forEach { join ->
+            val target = join.target as? Operation<*>
+            if (target != null && target.operator === Ops.ALIAS) {
+                val joinPath = target.getArg(0)
+                if (joinPath is CollectionExpression<*, *> || joinPath is MapExpression<*, *> || (joinPath as? Path<*>)?.root in toManyAliases) {
+                    toManyAliases.add(target.getArg(1))
+                }
+            }
+        }
+        return query.metadata.orderBy.any { (it.target as? Path<*>)?.root in toManyAliases }
     }
 
     /**
      * Creates a new [JPQLQuery] for the given [Specification].
      *
      * @param specification
+     * @param fetchJoins whether the joins requested as fetched are fetched. Default is `true`
      * @return the Querydsl [JPQLQuery].
      */
-    protected fun createQuery(specification: Specification<T>?): JPQLQuery<T> {
-        val query: AbstractJPAQuery<T, *> = doCreateQuery(specification)
+    protected fun createQuery(specification: Specification<T>?, fetchJoins: Boolean = true): JPQLQuery<T> {
+        return createQuery(specification, fetchJoins, null)
+    }
+
+    /**
+     * Creates a new [JPQLQuery] for the given [Specification].
+     *
+     * @param specification
+     * @param fetchJoins whether the joins requested as fetched are fetched
+     * @param batchFetchPaths collects the field paths of the associations to be loaded by secondary queries.
+     * If `null`, these associations are fetched by the query
+     * @return the Querydsl [JPQLQuery].
+     */
+    private fun createQuery(specification: Specification<T>?, fetchJoins: Boolean, batchFetchPaths: MutableSet<String>?): JPQLQuery<T> {
+        val query: AbstractJPAQuery<T, *> = doCreateQuery(specification, fetchJoins, batchFetchPaths)
         val metadata: CrudMethodMetadata = getRepositoryMethodMetadata() ?: return query
         val type = metadata.lockModeType
         return if (type == null) query else query.setLockMode(type) as AbstractJPAQuery<T, *>
     }
 
     @Suppress("UNCHECKED_CAST")
-    private fun doCreateQuery(specification: Specification<T>?): AbstractJPAQuery<T, *> {
+    private fun doCreateQuery(specification: Specification<T>?, fetchJoins: Boolean, batchFetchPaths: MutableSet<String>?): AbstractJPAQuery<T, *> {
         var query: AbstractJPAQuery<T, *> = querydsl.createQuery(path) as AbstractJPAQuery<T, *>
 
         if (specification != null) {
-            val predicate = specification.toPredicate(createQueryBuilder(query))
+            val predicate = specification.toPredicate(createQueryBuilder(query, fetchJoins, batchFetchPaths))
             if (predicate != Specification.NO_PREDICATE) {
                 query = query.where(predicate) as AbstractJPAQuery<T, *>
             }
@@ -85,8 +504,30 @@ open class JpaSpecificationExecutor<T>(
         return query
     }
 
-    private fun createQueryBuilder(query: AbstractJPAQuery<T, *>) =
-        JpaQueryBuilder(searchyContext, query, QEntityRootImpl(searchyContext.get(path.type)))
+    private fun createQueryBuilder(query: AbstractJPAQuery<T, *>, fetchJoins: Boolean, batchFetchPaths: MutableSet<String>?): QueryBuilder<T> {
+        val queryBuilder = JpaQueryBuilder(searchyContext, query, QEntityRootImpl(searchyContext.get(path.type)))
+        if (!fetchJoins) {
+            return object : QueryBuilder<T> by queryBuilder {
+                override val fetchJoins: Boolean = false
+
+                override fun join(qPath: QPath<*>, joinType: JoinType, fetched: Boolean): QEntityJoin<*> {
+                    return queryBuilder.join(qPath, joinType, false)
+                }
+
+                override fun batchFetch(fieldPath: String) {
+                    // The associations are not loaded
+                }
+            }
+        }
+        if (batchFetchPaths != null) {
+            return object : QueryBuilder<T> by queryBuilder {
+                override fun batchFetch(fieldPath: String) {
+                    batchFetchPaths.add(fieldPath)
+                }
+            }
+        }
+        return queryBuilder
+    }
 
     private fun getRepositoryMethodMetadata() = metadata
 
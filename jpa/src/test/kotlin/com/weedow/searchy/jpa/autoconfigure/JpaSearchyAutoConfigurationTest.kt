@@ -25,6 +25,7 @@ internal class JpaSearchyAutoConfigurationTest {
             .run { context ->
                 assertThat(context).hasBean("jpaSpecificationExecutorFactory")
                 assertThat(context).hasBean("jpaSearchyContext")
+                assertThat(context).hasBean("searchResultCacheEntityManagerFactoryBuilderCustomizer")
             }
     }
 
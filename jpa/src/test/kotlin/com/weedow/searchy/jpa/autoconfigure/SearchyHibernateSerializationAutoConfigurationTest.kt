@@ -1,11 +1,21 @@
 package com.weedow.searchy.jpa.autoconfigure
 
 import com.fasterxml.jackson.datatype.hibernate5.Hibernate5Module
+import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.whenever
+import com.weedow.searchy.common.model.Person
+import com.weedow.searchy.descriptor.SearchyDescriptor
+import com.weedow.searchy.descriptor.SearchyDescriptorBuilder
+import com.weedow.searchy.descriptor.SearchyDescriptorService
+import com.weedow.searchy.dto.InitializationGraph
 import org.assertj.core.api.Assertions.assertThat
 import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.extension.ExtendWith
 import org.springframework.boot.autoconfigure.AutoConfigurations
 import org.springframework.boot.test.context.FilteredClassLoader
 import org.springframework.boot.test.context.runner.ApplicationContextRunner
+import org.springframework.boot.test.system.CapturedOutput
+import org.springframework.boot.test.system.OutputCaptureExtension
 
 internal class SearchyHibernateSerializationAutoConfigurationTest {
 
@@ -16,6 +26,59 @@ internal class SearchyHibernateSerializationAutoConfigurationTest {
             .run { context ->
                 assertThat(context).hasBean("hibernateModule")
                 assertThat(context).hasSingleBean(Hibernate5Module::class.java)
+
+                val hibernateModule = context.getBean(Hibernate5Module::class.java)
+                assertThat(hibernateModule.isEnabled(Hibernate5Module.Feature.FORCE_LAZY_LOADING)).isTrue
+                assertThat(hibernateModule.isEnabled(Hibernate5Module.Feature.SERIALIZE_IDENTIFIER_FOR_LAZY_NOT_LOADED_OBJECTS)).isFalse
+            }
+    }
+
+    @Test
+    fun lazyHibernateModule_when_lazy_serialization_is_enabled() {
+        ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(SearchyHibernateSerializationAutoConfiguration::class.java))
+            .withPropertyValues("weedow.searchy.dto-conversion.lazy-serialization=true")
+            .run { context ->
+                assertThat(context).hasBean("lazyHibernateModule")
+                assertThat(context).doesNotHaveBean("hibernateModule")
+                assertThat(context).hasSingleBean(Hibernate5Module::class.java)
+
+                val hibernateModule = context.getBean(Hibernate5Module::class.java)
+                assertThat(hibernateModule.isEnabled(Hibernate5Module.Feature.FORCE_LAZY_LOADING)).isFalse
+                assertThat(hibernateModule.isEnabled(Hibernate5Module.Feature.SERIALIZE_IDENTIFIER_FOR_LAZY_NOT_LOADED_OBJECTS)).isTrue
+            }
+    }
+
+    @Test
+    @ExtendWith(OutputCaptureExtension::class)
+    fun warn_when_initialization_graph_is_declared_without_lazy_serialization(output: CapturedOutput) {
+        val searchyDescriptor = SearchyDescriptorBuilder(Person::class.java)
+            .initializationGraph(InitializationGraph(excludes = setOf("vehicles")))
+            .build()
+
+        ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(SearchyHibernateSerializationAutoConfiguration::class.java))
+            .withBean(SearchyDescriptorService::class.java, { mockSearchyDescriptorService(searchyDescriptor) })
+            .run { context ->
+                assertThat(context).hasBean("hibernateModule")
+                assertThat(output).contains("The Search Descriptor 'person' declares an initialization graph, but the lazy associations are loaded during the JSON serialization.")
+            }
+    }
+
+    @Test
+    @ExtendWith(OutputCaptureExtension::class)
+    fun do_not_warn_when_initialization_graph_is_declared_with_lazy_serialization(output: CapturedOutput) {
+        val searchyDescriptor = SearchyDescriptorBuilder(Person::class.java)
+            .initializationGraph(InitializationGraph(excludes = setOf("vehicles")))
+            .build()
+
+        ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(SearchyHibernateSerializationAutoConfiguration::class.java))
+            .withPropertyValues("weedow.searchy.dto-conversion.lazy-serialization=true")
+            .withBean(SearchyDescriptorService::class.java, { mockSearchyDescriptorService(searchyDescriptor) })
+            .run { context ->
+                assertThat(context).hasBean("lazyHibernateModule")
+                assertThat(output).doesNotContain("declares an initialization graph")
             }
     }
 
@@ -26,7 +89,14 @@ internal class SearchyHibernateSerializationAutoConfigurationTest {
             .withClassLoader(FilteredClassLoader(Hibernate5Module::class.java))
             .run { context ->
                 assertThat(context).doesNotHaveBean("hibernateModule")
+                assertThat(context).doesNotHaveBean("lazyHibernateModule")
                 assertThat(context).doesNotHaveBean(Hibernate5Module::class.java)
             }
     }
-}
\ No newline at end of file
+
+    private fun mockSearchyDescriptorService(searchyDescriptor: SearchyDescriptor<*>): SearchyDescriptorService {
+        val searchyDescriptorService = mock<SearchyDescriptorService>()
+        whenever(searchyDescriptorService.getAllSearchyDescriptors()).thenReturn(listOf(searchyDescriptor))
+        return searchyDescriptorService
+    }
+}
@@ -0,0 +1,103 @@
+package com.weedow.searchy.jpa.cache
+
+import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.verify
+import com.nhaarman.mockitokotlin2.verifyNoMoreInteractions
+import com.nhaarman.mockitokotlin2.whenever
+import com.weedow.searchy.cache.SearchResultCache
+import com.weedow.searchy.common.model.Person
+import org.assertj.core.api.Assertions.assertThat
+import org.hibernate.event.spi.PostDeleteEvent
+import org.hibernate.event.spi.PostInsertEvent
+import org.hibernate.event.spi.PostUpdateEvent
+import org.hibernate.persister.entity.EntityPersister
+import org.junit.jupiter.api.Test
+import org.springframework.beans.factory.ObjectProvider
+
+internal class SearchResultCacheEventListenerTest {
+
+    @Test
+    fun evict_the_results_touching_the_inserted_entity() {
+        val searchResultCache = mock<SearchResultCache>()
+        whenever(searchResultCache.enabled).thenReturn(true)
+
+        val event = mock<PostInsertEvent>()
+        whenever(event.persister).thenReturn(mockPersister())
+
+        SearchResultCacheEventListener(objectProvider(searchResultCache)).onPostInsert(event)
+
+        verify(searchResultCache).evict(Person::class.java)
+    }
+
+    @Test
+    fun evict_the_results_touching_the_updated_entity() {
+        val searchResultCache = mock<SearchResultCache>()
+        whenever(searchResultCache.enabled).thenReturn(true)
+
+        val event = mock<PostUpdateEvent>()
+        whenever(event.persister).thenReturn(mockPersister())
+
+        SearchResultCacheEventListener(objectProvider(searchResultCache)).onPostUpdate(event)
+
+        verify(searchResultCache).evict(Person::class.java)
+    }
+
+    @Test
+    fun evict_the_results_touching_the_deleted_entity() {
+        val searchResultCache = mock<SearchResultCache>()
+        whenever(searchResultCache.enabled).thenReturn(true)
+
+        val event = mock<PostDeleteEvent>()
+        whenever(event.persister).thenReturn(mockPersister())
+
+        SearchResultCacheEventListener(objectProvider(searchResultCache)).onPostDelete(event)
+
+        verify(searchResultCache).evict(Person::class.java)
+    }
+
+    @Test
+    fun do_not_evict_the_results_when_the_commit_failed() {
+        val searchResultCache = mock<SearchResultCache>()
+
+        val listener = SearchResultCacheEventListener(objectProvider(searchResultCache))
+        listener.onPostInsertCommitFailed(mock())
+        listener.onPostUpdateCommitFailed(mock())
+        listener.onPostDeleteCommitFailed(mock())
+
+        verifyNoMoreInteractions(searchResultCache)
+    }
+
+    @Test
+    fun do_nothing_when_the_cache_is_disabled() {
+        val searchResultCache = mock<SearchResultCache>()
+        whenever(searchResultCache.enabled).thenReturn(false)
+
+        val event = mock<PostInsertEvent>()
+        whenever(event.persister).thenReturn(mockPersister())
+
+        SearchResultCacheEventListener(objectProvider(searchResultCache)).onPostInsert(event)
+
+        verify(searchResultCache).enabled
+        verifyNoMoreInteractions(searchResultCache)
+    }
+
+    @Test
+    fun require_post_commit_handling() {
+        val listener = SearchResultCacheEventListener(objectProvider(mock()))
+
+        assertThat(listener.requiresPostCommitHanding(mock())).isTrue
+    }
+
+    private fun mockPersister(): EntityPersister {
+        val persister = mock<EntityPersister>()
+        whenever(persister.mappedClass).thenReturn(Person::class.java)
+        return persister
+    }
+
+    private fun objectProvider(searchResultCache: SearchResultCache): ObjectProvider<SearchResultCache> {
+        val objectProvider = mock<ObjectProvider<SearchResultCache>>()
+        whenever(objectProvider.ifAvailable).thenReturn(searchResultCache)
+        return objectProvider
+    }
+
+}
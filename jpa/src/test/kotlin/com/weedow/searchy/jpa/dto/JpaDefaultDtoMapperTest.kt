@@ -1,22 +1,39 @@
 package com.weedow.searchy.jpa.dto
 
+import com.nhaarman.mockitokotlin2.any
+import com.nhaarman.mockitokotlin2.argumentCaptor
 import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.never
+import com.nhaarman.mockitokotlin2.times
+import com.nhaarman.mockitokotlin2.verify
 import com.nhaarman.mockitokotlin2.verifyZeroInteractions
 import com.nhaarman.mockitokotlin2.whenever
 import com.weedow.searchy.common.model.Person
 import com.weedow.searchy.common.model.Vehicle
 import com.weedow.searchy.common.model.VehicleType
+import com.weedow.searchy.dto.InitializationGraph
 import org.assertj.core.api.Assertions.assertThat
+import org.hibernate.Hibernate
+import org.hibernate.MultiIdentifierLoadAccess
 import org.hibernate.collection.internal.PersistentMap
 import org.hibernate.collection.internal.PersistentSet
 import org.hibernate.collection.spi.PersistentCollection
+import org.hibernate.engine.spi.SessionFactoryImplementor
+import org.hibernate.engine.spi.SessionImplementor
 import org.hibernate.engine.spi.SharedSessionContractImplementor
 import org.hibernate.loader.CollectionAliases
+import org.hibernate.metamodel.spi.MetamodelImplementor
 import org.hibernate.persister.collection.CollectionPersister
+import org.hibernate.persister.entity.EntityPersister
+import org.hibernate.proxy.HibernateProxy
+import org.hibernate.proxy.LazyInitializer
+import org.hibernate.query.spi.QueryImplementor
 import org.hibernate.type.MapType
 import org.hibernate.type.SetType
 import org.junit.jupiter.api.Test
+import org.mockito.Mockito
 import java.sql.ResultSet
+import javax.persistence.Entity
 
 internal class JpaDefaultDtoMapperTest {
 
@@ -97,6 +114,35 @@ internal class JpaDefaultDtoMapperTest {
     }
 
     @Test
+    fun map_entity_to_dto_without_loading_the_excluded_associations() {
+        val dtoMapper = JpaDefaultDtoMapper<Person>()
+
+        val session = createSession()
+        val persistentVehicles = PersistentSet(session)
+
+        @Suppress("UNCHECKED_CAST")
+        val source = Person("John", "Doe", vehicles = persistentVehicles as Set<Vehicle>)
+
+        val result = dtoMapper.map(source, InitializationGraph(excludes = setOf("vehicles")))
+
+        assertThat(result).isSameAs(source)
+        assertThat(Hibernate.isInitialized(result.vehicles)).isFalse
+        verify(session, never()).initializeCollection(any(), any())
+    }
+
+    @Test
+    fun map_entity_to_dto_by_reading_only_the_associations() {
+        val dtoMapper = JpaDefaultDtoMapper<MyEntity>()
+
+        val entity = MyEntity(MyEntity())
+
+        val result = dtoMapper.map(entity)
+
+        assertThat(result).isSameAs(entity)
+    }
+
+    @Test
+    @Suppress("DEPRECATION")
     fun map_entity_to_dto_with_skipped_property() {
         val propertyInitializer = mock<PropertyInitializer>()
         val mapInitializer = mock<Initializer<Map<*, *>>>()
@@ -114,6 +160,99 @@ internal class JpaDefaultDtoMapperTest {
         verifyZeroInteractions(collectionInitializer)
     }
 
+    @Test
+    fun map_all_entities_by_loading_the_proxies_of_a_level_with_a_single_multi_load() {
+        val dtoMapper = JpaDefaultDtoMapper<Any>()
+
+        val multiLoadAccess = mock<MultiIdentifierLoadAccess<Any>>()
+        val session = mock<SessionImplementor> {
+            on { isOpen }.thenReturn(true)
+            on { byMultipleIds<Any>(Person::class.java.name) }.thenReturn(multiLoadAccess)
+        }
+
+        val proxy1 = createProxy(session, 1L, Person("John", "Doe"))
+        val proxy2 = createProxy(session, 2L, Person("Jane", "Doe"))
+
+        val result = dtoMapper.mapAll(listOf(proxy1, proxy2))
+
+        assertThat(result).containsExactly(proxy1, proxy2)
+
+        // The proxies of both entities are loaded by a single query
+        verify(session, times(1)).byMultipleIds<Any>(Person::class.java.name)
+        verify(multiLoadAccess, times(1)).multiLoad(listOf(1L, 2L))
+    }
+
+    @Test
+    fun map_all_entities_by_fetching_the_collections_of_a_level_with_a_single_in_query() {
+        val dtoMapper = JpaDefaultDtoMapper<Person>()
+
+        val role = Person::class.java.name + ".vehicles"
+        val session = createSessionWithCollectionPersister(role)
+
+        val persistentVehicles1 = PersistentSet(session)
+        persistentVehicles1.setSnapshot(1L, role, null)
+        val persistentVehicles2 = PersistentSet(session)
+        persistentVehicles2.setSnapshot(2L, role, null)
+
+        @Suppress("UNCHECKED_CAST")
+        val person1 = Person("John", "Doe", vehicles = persistentVehicles1 as Set<Vehicle>)
+        @Suppress("UNCHECKED_CAST")
+        val person2 = Person("Jane", "Doe", vehicles = persistentVehicles2 as Set<Vehicle>)
+
+        simulateLazyInitialization(persistentVehicles1, person1, session)
+        simulateLazyInitialization(persistentVehicles2, person2, session)
+
+        val result = dtoMapper.mapAll(listOf(person1, person2))
+
+        assertThat(result).containsExactly(person1, person2)
+        assertThat(Hibernate.isInitialized(person1.vehicles)).isTrue
+        assertThat(Hibernate.isInitialized(person2.vehicles)).isTrue
+
+        // The collections of both entities are fetched by a single query
+        val queryCaptor = argumentCaptor<String>()
+        verify(session, times(1)).createQuery(queryCaptor.capture())
+        assertThat(queryCaptor.firstValue)
+            .isEqualTo("select distinct o from ${Person::class.java.name} o left join fetch o.vehicles where o.id in (:keys)")
+    }
+
+    private fun createProxy(session: SessionImplementor, id: Long, implementation: Any): HibernateProxy {
+        val lazyInitializer = mock<LazyInitializer> {
+            on { isUninitialized }.thenReturn(true)
+            on { this.session }.thenReturn(session)
+            on { entityName }.thenReturn(implementation.javaClass.name)
+            on { identifier }.thenReturn(id)
+            on { this.implementation }.thenReturn(implementation)
+        }
+        return mock {
+            on { hibernateLazyInitializer }.thenReturn(lazyInitializer)
+        }
+    }
+
+    private fun createSessionWithCollectionPersister(role: String): SessionImplementor {
+        val ownerPersister = mock<EntityPersister> {
+            on { identifierPropertyName }.thenReturn("id")
+            on { entityName }.thenReturn(Person::class.java.name)
+        }
+        val collectionPersister = mock<CollectionPersister> {
+            on { this.ownerEntityPersister }.thenReturn(ownerPersister)
+            on { collectionType }.thenReturn(SetType(role, null))
+        }
+        val metamodel = mock<MetamodelImplementor> {
+            on { collectionPersister(role) }.thenReturn(collectionPersister)
+        }
+        val sessionFactory = mock<SessionFactoryImplementor> {
+            on { this.metamodel }.thenReturn(metamodel)
+        }
+        val query = mock<QueryImplementor<Any>>(defaultAnswer = Mockito.RETURNS_SELF)
+        return mock {
+            on { isOpen }.thenReturn(true)
+            on { isOpenOrWaitingForAutoClose }.thenReturn(true)
+            on { isConnected }.thenReturn(true)
+            on { factory }.thenReturn(sessionFactory)
+            on { createQuery(any<String>()) }.thenReturn(query)
+        }
+    }
+
     private fun setId(vehicle: Vehicle, id: Long) {
         val idField = vehicle.javaClass.superclass.getDeclaredField("id")
         idField.isAccessible = true
@@ -230,4 +369,12 @@ internal class JpaDefaultDtoMapperTest {
         fun compute(): Int
     }
 
+    @Entity
+    class MyEntity(
+        val child: MyEntity? = null
+    ) {
+        val name: String
+            get() = throw IllegalStateException("The basic properties must not be read")
+    }
+
 }
\ No newline at end of file
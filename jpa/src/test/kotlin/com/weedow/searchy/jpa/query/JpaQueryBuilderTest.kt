@@ -8,6 +8,8 @@ import com.querydsl.core.types.*
 import com.querydsl.core.types.dsl.*
 import com.querydsl.jpa.JPAQueryMixin
 import com.querydsl.jpa.JPQLOps
+import com.querydsl.jpa.JPQLSerializer
+import com.querydsl.jpa.JPQLTemplates
 import com.querydsl.jpa.impl.AbstractJPAQuery
 import com.weedow.searchy.context.SearchyContext
 import com.weedow.searchy.jpa.query.querytype.QEntityJoinImpl
@@ -55,6 +57,28 @@ internal class JpaQueryBuilderTest {
         verifyZeroInteractions(qEntityRoot)
     }
 
+    @Test
+    fun order_by() {
+        val path = Expressions.stringPath("lastName")
+
+        jpaQueryBuilder.orderBy(path, Order.DESC)
+
+        verify(query).orderBy(OrderSpecifier(Order.DESC, path, OrderSpecifier.NullHandling.NullsLast))
+        verifyNoMoreInteractions(query)
+        verifyNoMoreInteractions(searchyContext)
+        verifyNoMoreInteractions(qEntityRoot)
+    }
+
+    @Test
+    fun order_by_ascending_with_nulls_first() {
+        val path = Expressions.stringPath("lastName")
+
+        jpaQueryBuilder.orderBy(path, Order.ASC)
+
+        verify(query).orderBy(OrderSpecifier(Order.ASC, path, OrderSpecifier.NullHandling.NullsFirst))
+        verifyNoMoreInteractions(query)
+    }
+
     @ParameterizedTest
     @EnumSource(value = ElementType::class, names = ["MAP_KEY", "MAP_VALUE"])
     fun join_map_entries(elementType: ElementType) {
@@ -184,6 +208,9 @@ internal class JpaQueryBuilderTest {
         if (fetched) {
             verify(query).fetchJoin()
         }
+        if (propertyInfos.elementType in listOf(ElementType.SET, ElementType.LIST, ElementType.COLLECTION, ElementType.MAP)) {
+            verify(query).distinct()
+        }
 
         doVerify(query, path, qEntityAlias)
 
@@ -192,6 +219,55 @@ internal class JpaQueryBuilderTest {
         verifyZeroInteractions(qEntityRoot)
     }
 
+    @Test
+    fun exists() {
+        val propertyInfos = mock<PropertyInfos> {
+            on { this.elementType }.thenReturn(ElementType.SET)
+            on { this.parameterizedTypes }.thenReturn(listOf(String::class.java))
+        }
+        val qPath = mock<QPath<*>> {
+            on { this.propertyInfos }.thenReturn(propertyInfos)
+            on { this.path }.thenReturn(Expressions.setPath(String::class.java, StringPath::class.java, PathMetadataFactory.forVariable("vehicles")))
+        }
+
+        val qEntityAlias = QEntityAliasImpl(String::class.java, "vehicle")
+        whenever(searchyContext.get(eq(String::class.java), any())).thenReturn(qEntityAlias)
+
+        val predicate = Expressions.booleanPath(qEntityAlias, "used")
+
+        val result = jpaQueryBuilder.exists(qPath) { subQueryBuilder, element ->
+            assertThat(subQueryBuilder).isInstanceOf(JpaQueryBuilder::class.java).isNotSameAs(jpaQueryBuilder)
+            assertThat(subQueryBuilder.qEntityRoot).isSameAs(qEntityRoot)
+            assertThat(element).isInstanceOf(QEntityJoinImpl::class.java)
+            assertThat(element).extracting("qEntity").isSameAs(qEntityAlias)
+            predicate
+        }
+
+        val jpql = JPQLSerializer(JPQLTemplates.DEFAULT).handle(result).toString()
+        assertThat(jpql).isEqualTo("exists (select 1\nfrom vehicles as vehicle\nwhere vehicle.used)")
+
+        verifyNoMoreInteractions(query)
+        verifyNoMoreInteractions(qEntityRoot)
+    }
+
+    @Test
+    fun throw_exception_when_create_subquery_with_bad_element_type() {
+        val elementType = ElementType.ENTITY
+        val propertyInfos = mock<PropertyInfos> {
+            on { this.elementType }.thenReturn(elementType)
+        }
+        val qPath = mock<QPath<*>> {
+            on { this.propertyInfos }.thenReturn(propertyInfos)
+        }
+
+        assertThatThrownBy { jpaQueryBuilder.exists(qPath) { _, _ -> Expressions.TRUE } }
+            .isInstanceOf(IllegalArgumentException::class.java)
+            .hasMessage("Could not create a subquery for the QPath of type '$elementType': $qPath")
+
+        verifyNoMoreInteractions(searchyContext)
+        verifyNoMoreInteractions(query)
+    }
+
     @Test
     fun throw_exception_when_create_join_with_bad_element_type() {
         val elementType = ElementType.SIMPLE
@@ -501,6 +577,36 @@ internal class JpaQueryBuilderTest {
         assertThat(booleanOperation.args[1]).extracting("constant").isEqualTo("myvalue%")
     }
 
+    @Test
+    fun startsWith() {
+        val expr = mock<Expression<String>>()
+        val predicate = jpaQueryBuilder.startsWith(expr, "MYVALUE")
+
+        assertThat(predicate).isInstanceOf(BooleanOperation::class.java)
+
+        // The pattern is not bounded by a range of values, whose order depends on the collation
+        val booleanOperation = predicate as BooleanOperation
+        assertThat(booleanOperation.operator).isEqualTo(Ops.LIKE)
+        assertThat(booleanOperation.args).hasSize(2)
+        assertThat(booleanOperation.args[0]).isSameAs(expr)
+        assertThat(booleanOperation.args[1]).extracting("constant").isEqualTo("MYVALUE%")
+    }
+
+    @Test
+    fun ilikeWithCollation() {
+        val expr = mock<Expression<String>>()
+        val value = "*MYVALUE*"
+        val predicate = jpaQueryBuilder.ilikeWithCollation(expr, value)
+
+        assertThat(predicate).isInstanceOf(BooleanOperation::class.java)
+
+        val booleanOperation = predicate as BooleanOperation
+        assertThat(booleanOperation.operator).isEqualTo(Ops.LIKE)
+        assertThat(booleanOperation.args).hasSize(2)
+        assertThat(booleanOperation.args[0]).isSameAs(expr)
+        assertThat(booleanOperation.args[1]).extracting("constant").isEqualTo("%MYVALUE%")
+    }
+
     @Test
     fun lessThan() {
         val expr = mock<Expression<*>>()
@@ -531,6 +637,23 @@ internal class JpaQueryBuilderTest {
         assertThat(booleanOperation.args[1]).extracting("constant").isEqualTo(value)
     }
 
+    @Test
+    fun between() {
+        val expr = mock<Expression<*>>()
+        val lowValue = 123
+        val highValue = 456
+        val predicate = jpaQueryBuilder.between(expr, lowValue, highValue)
+
+        assertThat(predicate).isInstanceOf(BooleanOperation::class.java)
+
+        val booleanOperation = predicate as BooleanOperation
+        assertThat(booleanOperation.operator).isEqualTo(Ops.BETWEEN)
+        assertThat(booleanOperation.args).hasSize(3)
+        assertThat(booleanOperation.args[0]).isSameAs(expr)
+        assertThat(booleanOperation.args[1]).extracting("constant").isEqualTo(lowValue)
+        assertThat(booleanOperation.args[2]).extracting("constant").isEqualTo(highValue)
+    }
+
     @Test
     fun greaterThan() {
         val expr = mock<Expression<*>>()
@@ -1,12 +1,33 @@
 package com.weedow.searchy.jpa.query.specification
 
 import com.nhaarman.mockitokotlin2.*
+import com.querydsl.core.JoinType
 import com.querydsl.core.types.EntityPath
+import com.querydsl.core.types.Order
+import com.querydsl.core.types.PathMetadataFactory
+import com.querydsl.core.types.dsl.Expressions
+import com.querydsl.core.types.dsl.StringPath
 import com.weedow.searchy.context.SearchyContext
+import com.weedow.searchy.expression.RootExpressionImpl
+import com.weedow.searchy.join.EntityJoin
+import com.weedow.searchy.join.EntityJoins
 import com.weedow.searchy.jpa.query.JpaQueryBuilder
+import com.weedow.searchy.query.QueryBuilder
+import com.weedow.searchy.query.facet.Facet
+import com.weedow.searchy.query.facet.FacetBucket
+import com.weedow.searchy.query.facet.FacetRequest
+import com.weedow.searchy.query.facet.FacetType
+import com.weedow.searchy.query.pagination.PageRequest
+import com.weedow.searchy.query.projection.Projection
+import com.weedow.searchy.query.querytype.ElementType
+import com.weedow.searchy.query.querytype.PropertyInfos
 import com.weedow.searchy.query.querytype.QEntity
+import com.weedow.searchy.query.querytype.QEntityAliasImpl
+import com.weedow.searchy.query.querytype.QEntityRoot
+import com.weedow.searchy.query.querytype.QPath
 import com.weedow.searchy.query.specification.Specification
 import org.assertj.core.api.Assertions.assertThat
+import org.hibernate.jpa.QueryHints
 import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.extension.ExtendWith
@@ -16,10 +37,13 @@ import org.mockito.junit.jupiter.MockitoExtension
 import org.springframework.data.jpa.repository.support.CrudMethodMetadata
 import org.springframework.data.jpa.repository.support.JpaEntityInformation
 import org.springframework.data.querydsl.EntityPathResolver
+import java.util.stream.Collectors
+import java.util.stream.Stream
 import javax.persistence.EntityManager
 import javax.persistence.EntityManagerFactory
 import javax.persistence.LockModeType
 import javax.persistence.Query
+import javax.persistence.metamodel.SingularAttribute
 
 @ExtendWith(MockitoExtension::class)
 internal class JpaSpecificationExecutorTest {
@@ -158,4 +182,406 @@ internal class JpaSpecificationExecutorTest {
         verifyNoMoreInteractions(query)
     }
 
-}
\ No newline at end of file
+    @Test
+    fun find_all_with_page_request() {
+        val qEntity = mock<QEntity<QEntity<*>>>()
+        whenever(searchyContext.get(entityPathType)).thenReturn(qEntity)
+
+        val specification = mock<Specification<Any>> {
+            on { this.toPredicate(any<JpaQueryBuilder<Any>>()) }.thenReturn(mock())
+        }
+        val metadata = null
+
+        val jpaSpecificationExecutor = JpaSpecificationExecutor(searchyContext, entityInformation, entityManager, resolver, metadata)
+        val result = jpaSpecificationExecutor.findAll(specification, PageRequest(2, 10))
+
+        assertThat(result).isSameAs(resultList)
+
+        verify(query).firstResult = 20
+        verify(query).maxResults = 10
+        verifyNoMoreInteractions(query)
+    }
+
+    @Test
+    fun find_all_with_page_request_ordered_by_id() {
+        val idAttribute = mock<SingularAttribute<Any, *>> {
+            on { this.name }.thenReturn("id")
+        }
+        whenever(entityInformation.idAttribute).thenReturn(idAttribute)
+
+        val qEntity = mock<QEntity<QEntity<*>>>()
+        whenever(searchyContext.get(entityPathType)).thenReturn(qEntity)
+
+        val specification = mock<Specification<Any>> {
+            on { this.toPredicate(any<JpaQueryBuilder<Any>>()) }.thenReturn(mock())
+        }
+        val metadata = null
+
+        val jpaSpecificationExecutor = JpaSpecificationExecutor(searchyContext, entityInformation, entityManager, resolver, metadata)
+        val result = jpaSpecificationExecutor.findAll(specification, PageRequest(2, 10))
+
+        assertThat(result).isSameAs(resultList)
+
+        // The Entities having the same sorted values are ordered by their identifier, so that the pages do not overlap
+        val jpql = argumentCaptor<String>()
+        verify(entityManager).createQuery(jpql.capture())
+        assertThat(jpql.firstValue).containsPattern("order by .*id asc$")
+        verify(query).firstResult = 20
+        verify(query).maxResults = 10
+    }
+
+    @Test
+    fun find_all_with_page_request_and_fetched_to_many_join() {
+        reset(query)
+        whenever(query.parameters).thenReturn(emptySet())
+        val entity1 = Any()
+        val entity2 = Any()
+        // The identifiers of the page are selected first, then the Entities are fetched by their identifiers in any order
+        whenever(query.resultList).thenReturn(listOf(arrayOf<Any?>(2L), arrayOf<Any?>(1L)), listOf(entity1, entity2))
+
+        val idAttribute = mock<SingularAttribute<Any, *>> {
+            on { this.name }.thenReturn("id")
+        }
+        whenever(entityInformation.idAttribute).thenReturn(idAttribute)
+        whenever(entityInformation.getId(entity1)).thenReturn(1L)
+        whenever(entityInformation.getId(entity2)).thenReturn(2L)
+
+        val qEntity = mock<QEntity<QEntity<*>>>()
+        whenever(searchyContext.get(entityPathType)).thenReturn(qEntity)
+        doReturn(QEntityAliasImpl(String::class.java, "nickName")).whenever(searchyContext).get(eq(String::class.java), any())
+
+        val propertyInfos = mock<PropertyInfos> {
+            on { this.elementType }.thenReturn(ElementType.SET)
+            on { this.parameterizedTypes }.thenReturn(listOf(String::class.java))
+        }
+        val qPath = mock<QPath<*>> {
+            on { this.propertyInfos }.thenReturn(propertyInfos)
+            on { this.path }.thenReturn(Expressions.setPath(String::class.java, StringPath::class.java, PathMetadataFactory.forVariable("nickNames")))
+        }
+        val specification = Specification<Any> { queryBuilder ->
+            queryBuilder.join(qPath, JoinType.LEFTJOIN, true)
+            mock()
+        }
+        val metadata = null
+
+        val jpaSpecificationExecutor = JpaSpecificationExecutor(searchyContext, entityInformation, entityManager, resolver, metadata)
+        val result = jpaSpecificationExecutor.findAll(specification, PageRequest(2, 10))
+
+        assertThat(result).containsExactly(entity2, entity1)
+
+        // The Entities are not paginated in memory
+        verify(query).firstResult = 20
+        verify(query).maxResults = 10
+        verify(entityManager, times(2)).createQuery(anyString())
+    }
+
+    @Test
+    fun find_all_with_page_request_sorted_by_to_many_join() {
+        reset(query)
+        whenever(query.parameters).thenReturn(emptySet())
+        val entity1 = Any()
+        val entity2 = Any()
+        // The identifiers of the page are selected once per Entity, then the Entities are fetched by their identifiers in any order
+        whenever(query.resultList).thenReturn(listOf(arrayOf<Any?>(2L, "Jo", 2L), arrayOf<Any?>(1L, "Johnny", 1L)), listOf(entity1, entity2))
+
+        val idAttribute = mock<SingularAttribute<Any, *>> {
+            on { this.name }.thenReturn("id")
+        }
+        whenever(entityInformation.idAttribute).thenReturn(idAttribute)
+        whenever(entityInformation.getId(entity1)).thenReturn(1L)
+        whenever(entityInformation.getId(entity2)).thenReturn(2L)
+
+        val qEntity = mock<QEntity<QEntity<*>>>()
+        whenever(searchyContext.get(entityPathType)).thenReturn(qEntity)
+        doReturn(QEntityAliasImpl(String::class.java, "nickName")).whenever(searchyContext).get(eq(String::class.java), any())
+
+        val propertyInfos = mock<PropertyInfos> {
+            on { this.elementType }.thenReturn(ElementType.SET)
+            on { this.parameterizedTypes }.thenReturn(listOf(String::class.java))
+        }
+        val qPath = mock<QPath<*>> {
+            on { this.propertyInfos }.thenReturn(propertyInfos)
+            on { this.path }.thenReturn(Expressions.setPath(String::class.java, StringPath::class.java, PathMetadataFactory.forVariable("nickNames")))
+        }
+        val specification = Specification<Any> { queryBuilder ->
+            queryBuilder.join(qPath, JoinType.LEFTJOIN, false)
+            queryBuilder.orderBy(Expressions.stringPath("nickName"), Order.ASC)
+            mock()
+        }
+        val metadata = null
+
+        val jpaSpecificationExecutor = JpaSpecificationExecutor(searchyContext, entityInformation, entityManager, resolver, metadata)
+        val result = jpaSpecificationExecutor.findAll(specification, PageRequest(2, 10))
+
+        assertThat(result).containsExactly(entity2, entity1)
+
+        // Each Entity is sorted by the lowest value of the to-many join, so that it is selected once
+        val jpql = argumentCaptor<String>()
+        verify(entityManager, times(2)).createQuery(jpql.capture())
+        assertThat(jpql.firstValue).contains("group by").contains("min(nickName)")
+        assertThat(jpql.secondValue).doesNotContain("order by")
+        verify(query).firstResult = 20
+        verify(query).maxResults = 10
+    }
+
+    @Test
+    fun find_all_with_batch_fetched_association() {
+        reset(query)
+        whenever(query.parameters).thenReturn(emptySet())
+        val entity1 = Any()
+        val entity2 = Any()
+        // The Entities are found by the main query, then the secondary query loads their association
+        whenever(query.resultList).thenReturn(listOf(entity1, entity2), listOf(entity1, entity2))
+
+        val idAttribute = mock<SingularAttribute<Any, *>> {
+            on { this.name }.thenReturn("id")
+        }
+        whenever(entityInformation.idAttribute).thenReturn(idAttribute)
+        whenever(entityInformation.getId(entity1)).thenReturn(1L)
+        whenever(entityInformation.getId(entity2)).thenReturn(2L)
+
+        val propertyInfos = mock<PropertyInfos> {
+            on { this.elementType }.thenReturn(ElementType.SET)
+            on { this.parameterizedTypes }.thenReturn(listOf(String::class.java))
+        }
+        val qPath = mock<QPath<*>> {
+            on { this.propertyInfos }.thenReturn(propertyInfos)
+            on { this.path }.thenReturn(Expressions.setPath(String::class.java, StringPath::class.java, PathMetadataFactory.forVariable("nickNames")))
+        }
+        val qEntity = mock<QEntity<QEntity<*>>> {
+            on { this.get("nickNames") }.thenReturn(qPath)
+        }
+        whenever(searchyContext.get(entityPathType)).thenReturn(qEntity)
+        doReturn(QEntityAliasImpl(String::class.java, "nickName")).whenever(searchyContext).get(eq(String::class.java), any())
+
+        val specification = Specification<Any> { queryBuilder ->
+            queryBuilder.batchFetch("nickNames")
+            mock()
+        }
+        val metadata = null
+
+        val jpaSpecificationExecutor = JpaSpecificationExecutor(searchyContext, entityInformation, entityManager, resolver, metadata)
+        val result = jpaSpecificationExecutor.findAll(specification)
+
+        assertThat(result).containsExactly(entity1, entity2)
+
+        verify(entityManager, times(2)).createQuery(anyString())
+    }
+
+    @Test
+    fun stream() {
+        reset(query)
+        whenever(query.parameters).thenReturn(emptySet())
+        val entity1 = Any()
+        val entity2 = Any()
+        // The identifiers are scrolled first, then the Entities of each chunk are fetched by their identifiers in any order
+        whenever(query.resultStream).thenReturn(Stream.of(arrayOf<Any?>(1L), arrayOf<Any?>(2L), arrayOf<Any?>(1L)))
+        whenever(query.resultList).thenReturn(listOf(entity2, entity1))
+
+        val idAttribute = mock<SingularAttribute<Any, *>> {
+            on { this.name }.thenReturn("id")
+        }
+        whenever(entityInformation.idAttribute).thenReturn(idAttribute)
+        whenever(entityInformation.getId(entity1)).thenReturn(1L)
+        whenever(entityInformation.getId(entity2)).thenReturn(2L)
+
+        val qEntity = mock<QEntity<QEntity<*>>>()
+        whenever(searchyContext.get(entityPathType)).thenReturn(qEntity)
+
+        val specification = mock<Specification<Any>> {
+            on { this.toPredicate(any<JpaQueryBuilder<Any>>()) }.thenReturn(mock())
+        }
+        val metadata = null
+
+        val jpaSpecificationExecutor = JpaSpecificationExecutor(searchyContext, entityInformation, entityManager, resolver, metadata)
+        val result = jpaSpecificationExecutor.stream(specification).use { it.collect(Collectors.toList()) }
+
+        // Each Entity is streamed once, in the order of the identifiers
+        assertThat(result).containsExactly(entity1, entity2)
+
+        // The identifiers are ordered, so that the scrolled rows are stable
+        val jpql = argumentCaptor<String>()
+        verify(entityManager, times(2)).createQuery(jpql.capture())
+        assertThat(jpql.firstValue).containsPattern("order by .*id asc$")
+        verify(query).setHint(QueryHints.HINT_FETCH_SIZE, JpaSpecificationExecutor.STREAM_FETCH_SIZE)
+        verify(entityManager, never()).detach(any())
+    }
+
+    @Test
+    fun count() {
+        reset(query)
+        whenever(query.parameters).thenReturn(emptySet())
+        whenever(query.singleResult).thenReturn(5L)
+
+        val qEntity = mock<QEntity<QEntity<*>>>()
+        whenever(searchyContext.get(entityPathType)).thenReturn(qEntity)
+
+        val specification = mock<Specification<Any>> {
+            on { this.toPredicate(any()) }.thenReturn(mock())
+        }
+        val metadata = null
+
+        val jpaSpecificationExecutor = JpaSpecificationExecutor(searchyContext, entityInformation, entityManager, resolver, metadata)
+        val result = jpaSpecificationExecutor.count(specification)
+
+        assertThat(result).isEqualTo(5L)
+    }
+
+    @Test
+    fun count_without_the_fetched_collection_joins() {
+        reset(query)
+        whenever(query.parameters).thenReturn(emptySet())
+        whenever(query.resultList).thenReturn(emptyList<Any>())
+        whenever(query.singleResult).thenReturn(5L)
+
+        val qEntity = mock<QEntity<QEntity<*>>>()
+        whenever(searchyContext.get(entityPathType)).thenReturn(qEntity)
+        doReturn(QEntityAliasImpl(String::class.java, "nickName")).whenever(searchyContext).get(eq(String::class.java), any())
+
+        val propertyInfos = mock<PropertyInfos> {
+            on { this.elementType }.thenReturn(ElementType.SET)
+            on { this.parameterizedTypes }.thenReturn(listOf(String::class.java))
+        }
+        val qPath = mock<QPath<*>> {
+            on { this.propertyInfos }.thenReturn(propertyInfos)
+            on { this.path }.thenReturn(Expressions.setPath(String::class.java, StringPath::class.java, PathMetadataFactory.forVariable("nickNames")))
+        }
+        val entityJoins = mock<EntityJoins> {
+            on { this.getJoins(RootExpressionImpl.FILTER_FETCH_JOINS) }.thenReturn(mapOf("nickNames" to EntityJoin("nickNames", "nickNames", JoinType.LEFTJOIN, true)))
+        }
+        doAnswer {
+            it.getArgument<QueryBuilder<Any>>(2).join(qPath, JoinType.LEFTJOIN, true)
+            qPath
+        }.whenever(entityJoins).getQPath(eq("nickNames"), any<QEntityRoot<Any>>(), any<QueryBuilder<Any>>())
+
+        val specification = RootExpressionImpl<Any>().toSpecification<Any>(entityJoins)
+        val metadata = null
+
+        val jpaSpecificationExecutor = JpaSpecificationExecutor(searchyContext, entityInformation, entityManager, resolver, metadata)
+        jpaSpecificationExecutor.findAll(specification)
+        val result = jpaSpecificationExecutor.count(specification)
+
+        assertThat(result).isEqualTo(5L)
+
+        // The fetched collection is joined to load the Entities, but not to count them
+        val jpql = argumentCaptor<String>()
+        verify(entityManager, times(2)).createQuery(jpql.capture())
+        assertThat(jpql.firstValue).contains("left join fetch")
+        assertThat(jpql.secondValue).startsWith("select count(").doesNotContain("join")
+    }
+
+    @Test
+    fun exists() {
+        reset(query)
+        whenever(query.parameters).thenReturn(emptySet())
+        whenever(query.resultList).thenReturn(listOf(1L))
+
+        val idAttribute = mock<SingularAttribute<Any, *>> {
+            on { this.name }.thenReturn("id")
+        }
+        whenever(entityInformation.idAttribute).thenReturn(idAttribute)
+
+        val qEntity = mock<QEntity<QEntity<*>>>()
+        whenever(searchyContext.get(entityPathType)).thenReturn(qEntity)
+
+        val specification = mock<Specification<Any>> {
+            on { this.toPredicate(any()) }.thenReturn(mock())
+        }
+        val metadata = null
+
+        val jpaSpecificationExecutor = JpaSpecificationExecutor(searchyContext, entityInformation, entityManager, resolver, metadata)
+        val result = jpaSpecificationExecutor.exists(specification)
+
+        assertThat(result).isTrue
+
+        // Only the first identifier is selected
+        verify(query).maxResults = 1
+    }
+
+    @Test
+    fun exists_with_composite_id() {
+        reset(query)
+        whenever(query.parameters).thenReturn(emptySet())
+        whenever(query.singleResult).thenReturn(0L)
+
+        whenever(entityInformation.hasCompositeId()).thenReturn(true)
+
+        val qEntity = mock<QEntity<QEntity<*>>>()
+        whenever(searchyContext.get(entityPathType)).thenReturn(qEntity)
+
+        val specification = mock<Specification<Any>> {
+            on { this.toPredicate(any()) }.thenReturn(mock())
+        }
+        val metadata = null
+
+        val jpaSpecificationExecutor = JpaSpecificationExecutor(searchyContext, entityInformation, entityManager, resolver, metadata)
+        val result = jpaSpecificationExecutor.exists(specification)
+
+        assertThat(result).isFalse
+    }
+
+    @Test
+    fun find_all_projection() {
+        reset(query)
+        whenever(query.parameters).thenReturn(emptySet())
+        whenever(query.resultList).thenReturn(listOf(arrayOf<Any?>(1L, "John"), arrayOf<Any?>(2L, "Jane")))
+
+        val idAttribute = mock<SingularAttribute<Any, *>> {
+            on { this.name }.thenReturn("id")
+        }
+        whenever(entityInformation.idAttribute).thenReturn(idAttribute)
+
+        val propertyInfos = mock<PropertyInfos> {
+            on { this.qName }.thenReturn("firstName")
+        }
+        val qPath = mock<QPath<*>> {
+            on { this.path }.thenReturn(Expressions.stringPath("firstName"))
+            on { this.propertyInfos }.thenReturn(propertyInfos)
+        }
+        val qEntity = mock<QEntity<QEntity<*>>> {
+            on { this.get("firstName") }.thenReturn(qPath)
+        }
+        whenever(searchyContext.get(entityPathType)).thenReturn(qEntity)
+
+        val specification = Specification<Any> { mock() }
+        val metadata = null
+
+        val jpaSpecificationExecutor = JpaSpecificationExecutor(searchyContext, entityInformation, entityManager, resolver, metadata)
+        val result = jpaSpecificationExecutor.findAll(specification, Projection(listOf("firstName")), PageRequest(0, 2))
+
+        assertThat(result).containsExactly(mapOf("firstName" to "John"), mapOf("firstName" to "Jane"))
+
+        verify(query).firstResult = 0
+        verify(query).maxResults = 2
+    }
+
+    @Test
+    fun facets() {
+        reset(query)
+        whenever(query.parameters).thenReturn(emptySet())
+        whenever(query.resultList).thenReturn(listOf(arrayOf<Any?>("Acme", 2L), arrayOf<Any?>("Globex", 1L)))
+
+        val propertyInfos = mock<PropertyInfos> {
+            on { this.qName }.thenReturn("company")
+        }
+        val qPath = mock<QPath<*>> {
+            on { this.path }.thenReturn(Expressions.stringPath("company"))
+            on { this.propertyInfos }.thenReturn(propertyInfos)
+        }
+        val qEntity = mock<QEntity<QEntity<*>>> {
+            on { this.get("company") }.thenReturn(qPath)
+        }
+        whenever(searchyContext.get(entityPathType)).thenReturn(qEntity)
+
+        val specification = Specification<Any> { mock() }
+        val metadata = null
+
+        val jpaSpecificationExecutor = JpaSpecificationExecutor(searchyContext, entityInformation, entityManager, resolver, metadata)
+        val result = jpaSpecificationExecutor.facets(specification, listOf(FacetRequest("company", "company")), 10)
+
+        assertThat(result).containsExactly(Facet("company", FacetType.TERMS, listOf(FacetBucket("Acme", 2L), FacetBucket("Globex", 1L))))
+
+        verify(query).maxResults = 10
+    }
+
+}
@@ -0,0 +1,47 @@
+package com.weedow.searchy.mongodb.autoconfigure
+
+import com.weedow.searchy.autoconfigure.SearchyAutoConfiguration
+import com.weedow.searchy.config.SearchyConfigurationSupport
+import com.weedow.searchy.config.SearchyConfigurer
+import com.weedow.searchy.context.SearchyContext
+import com.weedow.searchy.mongodb.query.specification.MongoReactiveSpecificationExecutorFactory
+import com.weedow.searchy.query.specification.ReactiveSpecificationExecutorFactory
+import com.weedow.searchy.query.specification.ReactiveSpecificationExecutorFactoryCachingDecorator
+import org.springframework.boot.autoconfigure.AutoConfigureAfter
+import org.springframework.boot.autoconfigure.AutoConfigureBefore
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean
+import org.springframework.boot.autoconfigure.data.mongo.MongoReactiveDataAutoConfiguration
+import org.springframework.context.annotation.Bean
+import org.springframework.context.annotation.Configuration
+import org.springframework.data.mongodb.core.MongoOperations
+import org.springframework.data.mongodb.core.ReactiveMongoOperations
+import reactor.core.publisher.Flux
+
+/**
+ * Auto-Configuration for the non-blocking MongoDB implementation of Searchy.
+ *
+ * It is loaded when the MongoDB Reactive Streams driver is present, and allows the reactive applications to search the documents without blocking.
+ */
+@Configuration
+@ConditionalOnClass(SearchyConfigurer::class, ReactiveMongoOperations::class, Flux::class)
+@ConditionalOnMissingBean(SearchyConfigurationSupport::class)
+@ConditionalOnBean(ReactiveMongoOperations::class)
+@AutoConfigureAfter(MongoReactiveDataAutoConfiguration::class, MongoSearchyAutoConfiguration::class)
+@AutoConfigureBefore(SearchyAutoConfiguration::class)
+class MongoReactiveSearchyAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    fun mongoReactiveSpecificationExecutorFactory(
+        mongoOperations: MongoOperations,
+        reactiveMongoOperations: ReactiveMongoOperations,
+        searchyContext: SearchyContext
+    ): ReactiveSpecificationExecutorFactory {
+        return ReactiveSpecificationExecutorFactoryCachingDecorator(
+            MongoReactiveSpecificationExecutorFactory(mongoOperations, reactiveMongoOperations, searchyContext)
+        )
+    }
+
+}
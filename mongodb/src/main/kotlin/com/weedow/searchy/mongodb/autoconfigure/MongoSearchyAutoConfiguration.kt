@@ -1,6 +1,7 @@
 package com.weedow.searchy.mongodb.autoconfigure
 
 import com.weedow.searchy.autoconfigure.SearchyAutoConfiguration
+import com.weedow.searchy.cache.SearchResultCache
 import com.weedow.searchy.config.SearchyConfigurationSupport
 import com.weedow.searchy.config.SearchyConfigurer
 import com.weedow.searchy.context.SearchyContext
@@ -104,6 +105,12 @@ class MongoSearchyAutoConfiguration {
         )
     }
 
+    @Bean
+    @ConditionalOnMissingBean
+    fun searchResultCacheMongoListener(searchResultCache: ObjectProvider<SearchResultCache>): SearchResultCacheMongoListener {
+        return SearchResultCacheMongoListener(searchResultCache)
+    }
+
     @Bean
     @ConditionalOnMissingBean
     @ConditionalOnClass(MongoOperations::class)
@@ -0,0 +1,28 @@
+package com.weedow.searchy.mongodb.event
+
+import com.weedow.searchy.cache.SearchResultCache
+import org.springframework.beans.factory.ObjectProvider
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent
+
+/**
+ * [ApplicationListener][org.springframework.context.ApplicationListener] for Mongo which evicts the cached search results
+ * touching the saved or deleted Entities.
+ *
+ * @param searchResultCache [SearchResultCache] to be evicted
+ */
+class SearchResultCacheMongoListener(
+    private val searchResultCache: ObjectProvider<SearchResultCache>
+) : AbstractMongoEventListener<Any>() {
+
+    override fun onAfterSave(event: AfterSaveEvent<Any>) {
+        searchResultCache.ifAvailable?.evict(event.source.javaClass)
+    }
+
+    override fun onAfterDelete(event: AfterDeleteEvent<Any>) {
+        // The events without type are not published to this listener
+        event.type?.let { searchResultCache.ifAvailable?.evict(it) }
+    }
+
+}
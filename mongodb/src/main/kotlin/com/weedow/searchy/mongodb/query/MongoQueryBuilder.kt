@@ -6,6 +6,7 @@ import com.querydsl.core.types.dsl.CollectionPathBase
 import com.querydsl.core.types.dsl.DateExpression
 import com.querydsl.core.types.dsl.Expressions
 import com.querydsl.core.types.dsl.TimeExpression
+import com.querydsl.mongodb.MongodbOps
 import com.weedow.searchy.context.SearchyContext
 import com.weedow.searchy.mongodb.query.querytype.PathWrapper
 import com.weedow.searchy.mongodb.query.querytype.QEntityJoinImpl
@@ -25,6 +26,9 @@ import java.util.*
 /**
  * MongoDB [QueryBuilder] implementation.
  *
+ * The documents are never repeated by the joins, so there are no duplicate results to eliminate.
+ * The [exists] predicates on the embedded arrays are created with the `$elemMatch` operator.
+ *
  * @param searchyContext [SearchyContext]
  * @param query [SpringDataMongodbQuery]
  * @param qEntityRoot [QEntityRoot]
@@ -39,6 +43,10 @@ class MongoQueryBuilder<T>(
         val MAP_CONTAINS_VALUE_JS: String = JSResourceUtils.load(DefaultResourceLoader().getResource("classpath:map_contains_value.js"))
 
         val DEFAULT_TIME_ZONE: TimeZone = TimeZone.getDefault()
+
+        private val REGEX_SPECIAL_CHARACTERS = Regex("[\\\\^$.|?*+()\\[\\]{}]")
+
+        private val ARRAY_ELEMENT_TYPES = listOf(ElementType.SET, ElementType.LIST, ElementType.COLLECTION)
     }
 
     override fun distinct() {
@@ -77,12 +85,37 @@ class MongoQueryBuilder<T>(
         return QEntityJoinImpl(qEntity, propertyInfos)
     }
 
+    override fun exists(qPath: QPath<*>, predicate: (QueryBuilder<*>, QEntity<*>) -> Predicate): Predicate {
+        val propertyInfos = qPath.propertyInfos
+        val joinAnnotation = propertyInfos.annotations.firstOrNull { searchyContext.isJoinAnnotation(it.annotationClass.java) }
+
+        return when {
+            joinAnnotation == null && propertyInfos.elementType in ARRAY_ELEMENT_TYPES -> {
+                // The fields of the element are relative to the array: '{vehicles: {$elemMatch: {brand: ..., model: ...}}}'
+                val element = createQEntity(propertyInfos.parameterizedTypes[0], propertyInfos.fieldName)
+                val elementPredicate = predicate(this, QEntityJoinImpl(element, propertyInfos))
+                Expressions.predicate(MongodbOps.ELEM_MATCH, qPath.path, elementPredicate)
+            }
+            // The embedded maps are documents, and the referenced documents are joined
+            else -> super.exists(qPath, predicate)
+        }
+    }
+
+    @Suppress("UNCHECKED_CAST")
+    override fun orderBy(x: Expression<*>, order: Order) {
+        query.orderBy(OrderSpecifier(order, x as Expression<Comparable<*>>))
+    }
+
     private fun <E> createQEntity(entityClass: Class<E>, qPath: QPath<*>): QEntity<E> {
         return searchyContext.get(entityClass) { entityClazz ->
             QEntityImpl(searchyContext, entityClazz, qPath.path.metadata)
         }
     }
 
+    private fun <E> createQEntity(entityClass: Class<E>, variable: String): QEntity<E> {
+        return QEntityImpl(searchyContext, entityClass, variable)
+    }
+
     private fun <E> createAlias(aliasType: Class<E>, qPath: QPath<*>): QEntity<E> {
         return searchyContext.get(aliasType) { entityClazz ->
             QEntityAliasImpl(entityClazz, qPath.propertyInfos.fieldName)
@@ -179,6 +212,17 @@ class MongoQueryBuilder<T>(
         return Expressions.predicate(Ops.MATCHES_IC, x, ExpressionUtils.likeToRegex(expressionValue))
     }
 
+    override fun startsWith(x: Expression<String>, prefix: String): Predicate {
+        // MongoDB searches the regular expression of a prefix by the index of the field
+        val regex = "^" + prefix.replace(REGEX_SPECIAL_CHARACTERS) { "\\" + it.value }
+        return Expressions.predicate(Ops.MATCHES, x, Expressions.constant(regex))
+    }
+
+    override fun ilikeWithCollation(x: Expression<String>, value: String): Predicate {
+        // The regular expressions do not use the collations in MongoDB
+        return ilike(x, value)
+    }
+
     override fun lessThan(x: Expression<*>, value: Any): Predicate {
         val expressionValue = convertValueToExpression(value)
         val exprValue = if (isCurrentDate(expressionValue)) asStartOfDay() else expressionValue
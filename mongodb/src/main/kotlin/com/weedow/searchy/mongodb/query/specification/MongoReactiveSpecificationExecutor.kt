@@ -0,0 +1,70 @@
+package com.weedow.searchy.mongodb.query.specification
+
+import com.querydsl.core.types.EntityPath
+import com.querydsl.core.types.Order
+import com.querydsl.core.types.OrderSpecifier
+import com.querydsl.core.types.dsl.Expressions
+import com.weedow.searchy.context.SearchyContext
+import com.weedow.searchy.mongodb.query.MongoQueryBuilder
+import com.weedow.searchy.query.pagination.PageRequest
+import com.weedow.searchy.query.querytype.QEntityRootImpl
+import com.weedow.searchy.query.specification.ReactiveSpecificationExecutor
+import com.weedow.searchy.query.specification.Specification
+import org.springframework.data.mongodb.core.MongoOperations
+import org.springframework.data.mongodb.core.ReactiveMongoOperations
+import org.springframework.data.mongodb.repository.query.MongoEntityInformation
+import org.springframework.data.querydsl.EntityPathResolver
+import reactor.core.publisher.Flux
+
+/**
+ * MongoDB [ReactiveSpecificationExecutor] implementation.
+ *
+ * The [Specification]s are converted to Querydsl queries like [MongoSpecificationExecutor], and the documents are fetched with
+ * the [ReactiveMongoOperations], without blocking the calling thread.
+ *
+ * @param searchyContext [SearchyContext]
+ * @param entityInformation [MongoEntityInformation]
+ * @param mongoOperations [MongoOperations]
+ * @param reactiveMongoOperations [ReactiveMongoOperations]
+ * @param resolver [EntityPathResolver]
+ */
+open class MongoReactiveSpecificationExecutor<T>(
+    private val searchyContext: SearchyContext,
+    private val entityInformation: MongoEntityInformation<T, *>,
+    private val mongoOperations: MongoOperations,
+    private val reactiveMongoOperations: ReactiveMongoOperations,
+    resolver: EntityPathResolver
+) : ReactiveSpecificationExecutor<T> {
+
+    private val path: EntityPath<T> = resolver.createPath(entityInformation.javaType)
+
+    override fun findAll(specification: Specification<T>?): Flux<T> {
+        return createQuery(specification).fetchFlux()
+    }
+
+    override fun findAll(specification: Specification<T>?, pageRequest: PageRequest): Flux<T> {
+        val query = createQuery(specification)
+        // The documents having the same sorted values are ordered by their identifier, so that the pages neither overlap nor skip documents
+        query.orderBy(OrderSpecifier(Order.ASC, Expressions.comparablePath(Comparable::class.java, path, entityInformation.idAttribute)))
+        query.offset(pageRequest.offset)
+        query.limit(pageRequest.size.toLong())
+        return query.fetchFlux()
+    }
+
+    private fun createQuery(specification: Specification<T>?): ReactiveMongodbQuery<T> {
+        val query = ReactiveMongodbQuery(mongoOperations, reactiveMongoOperations, entityInformation.javaType)
+
+        if (specification != null) {
+            val predicate = specification.toPredicate(createQueryBuilder(query))
+            if (predicate != Specification.NO_PREDICATE) {
+                query.where(predicate)
+            }
+        }
+
+        return query
+    }
+
+    private fun createQueryBuilder(query: ReactiveMongodbQuery<T>) =
+        MongoQueryBuilder(searchyContext, query, QEntityRootImpl(searchyContext.get(path.type)))
+
+}
@@ -0,0 +1,36 @@
+package com.weedow.searchy.mongodb.query.specification
+
+import com.weedow.searchy.context.SearchyContext
+import com.weedow.searchy.query.SafeEntityPathResolver
+import com.weedow.searchy.query.specification.ReactiveSpecificationExecutor
+import com.weedow.searchy.query.specification.ReactiveSpecificationExecutorFactory
+import org.springframework.data.mongodb.core.MongoOperations
+import org.springframework.data.mongodb.core.ReactiveMongoOperations
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory
+
+/**
+ * MongoDB [ReactiveSpecificationExecutorFactory] implementation.
+ *
+ * @param mongoOperations [MongoOperations]
+ * @param reactiveMongoOperations [ReactiveMongoOperations]
+ * @param searchyContext [SearchyContext]
+ */
+class MongoReactiveSpecificationExecutorFactory(
+    private val mongoOperations: MongoOperations,
+    private val reactiveMongoOperations: ReactiveMongoOperations,
+    private val searchyContext: SearchyContext
+) : ReactiveSpecificationExecutorFactory {
+
+    override fun <T> getReactiveSpecificationExecutor(entityClass: Class<T>): ReactiveSpecificationExecutor<T> {
+        val entityInformation = MongoRepositoryFactory(mongoOperations).getEntityInformation<T, Any>(entityClass)
+
+        return MongoReactiveSpecificationExecutor(
+            searchyContext,
+            entityInformation,
+            mongoOperations,
+            reactiveMongoOperations,
+            SafeEntityPathResolver.INSTANCE
+        )
+    }
+
+}
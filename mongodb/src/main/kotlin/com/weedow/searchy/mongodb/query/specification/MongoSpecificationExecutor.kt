@@ -1,16 +1,41 @@
 package com.weedow.searchy.mongodb.query.specification
 
 import com.querydsl.core.types.EntityPath
+import com.querydsl.core.types.Expression
+import com.querydsl.core.types.Order
+import com.querydsl.core.types.OrderSpecifier
+import com.querydsl.core.types.Path
+import com.querydsl.core.types.dsl.Expressions
 import com.weedow.searchy.context.SearchyContext
+import com.weedow.searchy.exception.ValidationException
 import com.weedow.searchy.mongodb.query.MongoQueryBuilder
+import com.weedow.searchy.query.facet.DateInterval
+import com.weedow.searchy.query.facet.Facet
+import com.weedow.searchy.query.facet.FacetBucket
+import com.weedow.searchy.query.facet.FacetRequest
+import com.weedow.searchy.query.facet.FacetStats
+import com.weedow.searchy.query.facet.FacetType
+import com.weedow.searchy.query.pagination.Cursor
+import com.weedow.searchy.query.pagination.KeysetSpecification
+import com.weedow.searchy.query.pagination.PageRequest
+import com.weedow.searchy.query.pagination.Slice
+import com.weedow.searchy.query.projection.Projection
 import com.weedow.searchy.query.querytype.QEntityRootImpl
 import com.weedow.searchy.query.specification.Specification
 import com.weedow.searchy.query.specification.SpecificationExecutor
+import org.bson.Document
+import org.springframework.data.mapping.PersistentPropertyPath
 import org.springframework.data.mongodb.core.MongoOperations
+import org.springframework.data.mongodb.core.aggregation.Aggregation
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty
+import org.springframework.data.mongodb.core.query.CriteriaDefinition
+import org.springframework.data.mongodb.core.query.Query
 import org.springframework.data.mongodb.repository.query.MongoEntityInformation
 import org.springframework.data.mongodb.repository.support.SpringDataMongodbQuery
 import org.springframework.data.querydsl.EntityPathResolver
 import org.springframework.data.repository.core.EntityInformation
+import java.util.stream.Stream
 
 /**
  * MongoDB [SpecificationExecutor] implementation.
@@ -29,12 +54,191 @@ open class MongoSpecificationExecutor<T>(
     resolver: EntityPathResolver
 ) : SpecificationExecutor<T> {
 
+    companion object {
+        private const val FACET_PREFIX = "facet"
+
+        /** Formats of the keys of the date histograms, as used by the `${'$'}dateToString` operator */
+        private val DATE_KEY_FORMATS = mapOf(
+            DateInterval.YEAR to "%Y",
+            DateInterval.MONTH to "%Y-%m",
+            DateInterval.DAY to "%Y-%m-%d"
+        )
+    }
+
     private val path: EntityPath<T> = resolver.createPath(entityInformation.javaType)
 
     override fun findAll(specification: Specification<T>?): List<T> {
         return createQuery(specification).fetch()
     }
 
+    override fun findAll(specification: Specification<T>?, pageRequest: PageRequest): List<T> {
+        return createQuery(specification)
+            .orderBy(getIdOrder())
+            .offset(pageRequest.offset)
+            .limit(pageRequest.size.toLong())
+            .fetch()
+    }
+
+    override fun findAll(specification: Specification<T>?, projection: Projection, pageRequest: PageRequest?): List<Map<String, Any?>> {
+        val query = applySpecification(MongoQuery(mongoOperations, entityInformation.javaType), specification)
+        if (pageRequest != null) {
+            query.orderBy(getIdOrder()).offset(pageRequest.offset).limit(pageRequest.size.toLong())
+        }
+
+        // Only the projected fields are read from the documents
+        val mongoQuery = query.toMongoQuery()
+        projection.fieldPaths.forEach { mongoQuery.fields().include(it) }
+
+        return mongoOperations.find(mongoQuery, entityInformation.javaType, entityInformation.collectionName)
+            .map { projection.toMap(it as Any) }
+    }
+
+    override fun count(specification: Specification<T>?): Long {
+        return createQuery(specification).fetchCount()
+    }
+
+    override fun exists(specification: Specification<T>?): Boolean {
+        // The Database stops at the first matching document, instead of counting all the matching documents
+        return createQuery(specification).fetchFirst() != null
+    }
+
+    override fun facets(specification: Specification<T>?, facetRequests: List<FacetRequest>, maxBuckets: Int): List<Facet> {
+        val mappingContext = mongoOperations.converter.mappingContext
+        val propertyPaths = facetRequests.map { mappingContext.getPersistentPropertyPath(it.fieldPath, entityInformation.javaType) }
+        if (propertyPaths.any { propertyPath -> propertyPath.any { it.isAssociation } }) {
+            // The referenced documents cannot be read by the aggregation pipeline
+            return super.facets(specification, facetRequests, maxBuckets)
+        }
+
+        val query = applySpecification(MongoQuery(mongoOperations, entityInformation.javaType), specification).toMongoQuery()
+
+        // All the facets are computed by a single aggregation, so that the matching documents are read once
+        val facets = Document()
+        facetRequests.forEachIndexed { index, facetRequest -> facets["$FACET_PREFIX$index"] = createFacetPipeline(facetRequest, propertyPaths[index], maxBuckets) }
+        val aggregation = Aggregation.newAggregation(
+            entityInformation.javaType,
+            Aggregation.match(object : CriteriaDefinition {
+                override fun getCriteriaObject(): Document = query.queryObject
+                override fun getKey(): String? = null
+            }),
+            AggregationOperation { Document("\$facet", facets) }
+        )
+
+        val result = mongoOperations.aggregate(aggregation, entityInformation.collectionName, Document::class.java).uniqueMappedResult
+        return facetRequests.mapIndexed { index, facetRequest -> toFacet(facetRequest, result?.getList("$FACET_PREFIX$index", Document::class.java).orEmpty()) }
+    }
+
+    override fun findSlice(specification: Specification<T>?, cursor: Cursor?, size: Int): Slice<T> {
+        val orders = getKeysetOrders(specification)
+
+        val keysetSpecification = cursor?.let {
+            Specification.where(specification).and(KeysetSpecification(KeysetSpecification.keys(orders, it)))
+        } ?: specification
+
+        val content = createQuery(keysetSpecification)
+            .orderBy(getIdOrder())
+            .limit(size + 1L)
+            .fetch()
+
+        if (content.size <= size) {
+            return Slice(content, null)
+        }
+
+        val sliceContent = content.subList(0, size)
+        return Slice(sliceContent, KeysetSpecification.cursor(orders.map { getValue(sliceContent.last(), it.target) }))
+    }
+
+    override fun stream(specification: Specification<T>?): Stream<T> {
+        // The documents are read from a Database cursor while the Stream is consumed
+        return createQuery(specification).stream()
+    }
+
+    private fun createFacetPipeline(facetRequest: FacetRequest, propertyPath: PersistentPropertyPath<MongoPersistentProperty>, maxBuckets: Int): List<Document> {
+        val fieldName = propertyPath.toDotPath { it.fieldName }!!
+        val field = "\$$fieldName"
+        val pipeline = mutableListOf<Document>()
+
+        // The collections are unwound, so that each of their elements is grouped
+        var parentFieldName: String? = null
+        propertyPath.forEach { property ->
+            parentFieldName = parentFieldName?.let { "$it.${property.fieldName}" } ?: property.fieldName
+            if (property.isCollectionLike) {
+                pipeline.add(Document("\$unwind", "\$$parentFieldName"))
+            }
+        }
+        pipeline.add(Document("\$match", Document(fieldName, Document("\$ne", null))))
+
+        if (facetRequest.type == FacetType.STATS) {
+            pipeline.add(Document("\$group", Document("_id", null).append("count", Document("\$sum", 1)).append("min", Document("\$min", field)).append("max", Document("\$max", field))))
+            return pipeline
+        }
+
+        val key: Any = when (facetRequest.type) {
+            FacetType.HISTOGRAM -> {
+                val interval = facetRequest.interval!!.toDouble()
+                Document("\$multiply", listOf(Document("\$floor", Document("\$divide", listOf(field, interval))), interval))
+            }
+            FacetType.DATE_HISTOGRAM -> Document("\$dateToString", Document("format", DATE_KEY_FORMATS.getValue(facetRequest.dateInterval!!)).append("date", field))
+            else -> field
+        }
+        // Each document is counted once per bucket, even if several elements of a collection fall into the same bucket
+        pipeline.add(Document("\$group", Document("_id", Document("key", key).append("document", "\$_id"))))
+        pipeline.add(Document("\$group", Document("_id", "\$_id.key").append("count", Document("\$sum", 1))))
+        pipeline.add(Document("\$sort", if (facetRequest.type == FacetType.TERMS) Document("count", -1).append("_id", 1) else Document("_id", 1)))
+        pipeline.add(Document("\$limit", maxBuckets))
+        return pipeline
+    }
+
+    private fun toFacet(facetRequest: FacetRequest, documents: List<Document>): Facet {
+        if (facetRequest.type == FacetType.STATS) {
+            val stats = documents.firstOrNull()
+            return Facet(facetRequest.name, facetRequest.type, stats = FacetStats((stats?.get("count") as Number?)?.toLong() ?: 0L, stats?.get("min"), stats?.get("max")))
+        }
+        return Facet(facetRequest.name, facetRequest.type, documents.map { FacetBucket(it["_id"], (it["count"] as Number).toLong()) })
+    }
+
+    /**
+     * Returns the ordering by the identifier, appended to the orderings of the paginated queries:
+     * the documents having the same sorted values are always returned in the same order, so that the pages neither overlap nor skip documents.
+     */
+    private fun getIdOrder(): OrderSpecifier<*> {
+        return OrderSpecifier(Order.ASC, Expressions.comparablePath(Comparable::class.java, path, entityInformation.idAttribute))
+    }
+
+    /**
+     * Returns the orderings of the keyset: the orderings of the given [Specification], followed by the ordering by the identifier which makes the keyset unique.
+     *
+     * @throws ValidationException if the results are sorted by a field of an array
+     */
+    private fun getKeysetOrders(specification: Specification<T>?): List<OrderSpecifier<*>> {
+        val orders = applySpecification(MongoQuery(mongoOperations, entityInformation.javaType), specification).orders
+        if (orders.any { order -> getPropertyPath(order.target).any { it.isCollectionLike || it.isMap } }) {
+            throw KeysetSpecification.toManySortException()
+        }
+
+        // The identifier is typed, so that its value in the keyset can be converted
+        @Suppress("UNCHECKED_CAST")
+        val idPath = Expressions.path(entityInformation.idType, path, entityInformation.idAttribute) as Expression<Comparable<*>>
+        return if (orders.any { it.target == idPath }) orders else orders + OrderSpecifier(Order.ASC, idPath)
+    }
+
+    /**
+     * Returns the value of the given sorted field of the given document, or `null` if the field or one of its parents has no value.
+     */
+    private fun getValue(entity: T, sortedField: Expression<*>): Any? {
+        return getPropertyPath(sortedField).fold(entity as Any?) { value, property ->
+            value?.let { property.owner.getPropertyAccessor(it).getProperty(property) }
+        }
+    }
+
+    private fun getPropertyPath(sortedField: Expression<*>): PersistentPropertyPath<MongoPersistentProperty> {
+        val propertyNames = generateSequence(sortedField as Path<*>) { it.metadata.parent }
+            .takeWhile { it.metadata.parent != null }
+            .map { it.metadata.name }
+            .toList()
+        return mongoOperations.converter.mappingContext.getPersistentPropertyPath(propertyNames.asReversed().joinToString("."), entityInformation.javaType)
+    }
+
     /**
      * Creates a new [SpringDataMongodbQuery] for the given [Specification].
      *
@@ -42,12 +246,14 @@ open class MongoSpecificationExecutor<T>(
      * @return the Querydsl [SpringDataMongodbQuery].
      */
     protected fun createQuery(specification: Specification<T>?): SpringDataMongodbQuery<T> {
-        var query = doCreateQuery()
+        return applySpecification(doCreateQuery(), specification)
+    }
 
+    private fun <Q : SpringDataMongodbQuery<T>> applySpecification(query: Q, specification: Specification<T>?): Q {
         if (specification != null) {
             val predicate = specification.toPredicate(createQueryBuilder(query))
             if (predicate != Specification.NO_PREDICATE) {
-                query = query.where(predicate)
+                query.where(predicate)
             }
         }
 
@@ -63,4 +269,15 @@ open class MongoSpecificationExecutor<T>(
         return entityInformation
     }
 
-}
\ No newline at end of file
+    /**
+     * [SpringDataMongodbQuery] exposing the MongoDB [Query], so that it can be completed with the projected fields or used in an aggregation,
+     * and exposing the orderings added by the [Specification].
+     */
+    private class MongoQuery<T>(mongoOperations: MongoOperations, type: Class<T>) : SpringDataMongodbQuery<T>(mongoOperations, type) {
+        fun toMongoQuery(): Query = createQuery()
+
+        val orders: List<OrderSpecifier<*>>
+            get() = queryMixin.metadata.orderBy
+    }
+
+}
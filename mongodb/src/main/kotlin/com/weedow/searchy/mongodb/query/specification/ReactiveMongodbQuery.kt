@@ -0,0 +1,40 @@
+package com.weedow.searchy.mongodb.query.specification
+
+import org.springframework.data.mongodb.core.MongoOperations
+import org.springframework.data.mongodb.core.ReactiveMongoOperations
+import org.springframework.data.mongodb.core.query.Query
+import org.springframework.data.mongodb.repository.support.SpringDataMongodbQuery
+import reactor.core.publisher.Flux
+import reactor.core.publisher.Mono
+import reactor.core.scheduler.Schedulers
+
+/**
+ * [SpringDataMongodbQuery] which fetches the documents with the non-blocking [ReactiveMongoOperations].
+ *
+ * The Querydsl query is built as usual and converted to a MongoDB [Query], which is then executed by the [ReactiveMongoOperations].
+ *
+ * @param mongoOperations [MongoOperations] used to resolve the joins
+ * @param reactiveMongoOperations [ReactiveMongoOperations] used to fetch the documents
+ * @param entityClass Entity Class of the documents
+ */
+internal class ReactiveMongodbQuery<T>(
+    mongoOperations: MongoOperations,
+    private val reactiveMongoOperations: ReactiveMongoOperations,
+    private val entityClass: Class<T>
+) : SpringDataMongodbQuery<T>(mongoOperations, entityClass) {
+
+    /**
+     * Fetches the documents matching the query, as soon as they are read from the Database cursor.
+     */
+    fun fetchFlux(): Flux<T> {
+        val query = if (queryMixin.metadata.joins.isEmpty()) {
+            Mono.fromSupplier { createQuery() }
+        } else {
+            // The joins are resolved by fetching the identifiers of the joined documents with blocking calls
+            Mono.fromCallable { createQuery() }.subscribeOn(Schedulers.boundedElastic())
+        }
+
+        return query.flatMapMany { reactiveMongoOperations.find(it, entityClass) }
+    }
+
+}
@@ -2,6 +2,12 @@ package com.weedow.searchy.mongodb.repository
 
 import com.weedow.searchy.context.SearchyContext
 import com.weedow.searchy.mongodb.query.specification.MongoSpecificationExecutorFactory
+import com.weedow.searchy.query.facet.Facet
+import com.weedow.searchy.query.facet.FacetRequest
+import com.weedow.searchy.query.pagination.Cursor
+import com.weedow.searchy.query.pagination.PageRequest
+import com.weedow.searchy.query.pagination.Slice
+import com.weedow.searchy.query.projection.Projection
 import com.weedow.searchy.query.specification.Specification
 import com.weedow.searchy.query.specification.SpecificationExecutor
 import com.weedow.searchy.query.specification.SpecificationExecutorFactory
@@ -11,6 +17,7 @@ import org.springframework.data.mongodb.repository.query.MongoEntityInformation
 import org.springframework.data.mongodb.repository.support.SimpleMongoRepository
 import org.springframework.transaction.annotation.Transactional
 import java.io.Serializable
+import java.util.stream.Stream
 
 /**
  * Default MongoDB Searchy Repository implementation.
@@ -36,4 +43,32 @@ class MongoSearchyRepositoryImpl<T, ID : Serializable>(
         return specificationExecutor.findAll(specification)
     }
 
+    override fun findAll(specification: Specification<T>?, pageRequest: PageRequest): List<T> {
+        return specificationExecutor.findAll(specification, pageRequest)
+    }
+
+    override fun findAll(specification: Specification<T>?, projection: Projection, pageRequest: PageRequest?): List<Map<String, Any?>> {
+        return specificationExecutor.findAll(specification, projection, pageRequest)
+    }
+
+    override fun count(specification: Specification<T>?): Long {
+        return specificationExecutor.count(specification)
+    }
+
+    override fun exists(specification: Specification<T>?): Boolean {
+        return specificationExecutor.exists(specification)
+    }
+
+    override fun facets(specification: Specification<T>?, facetRequests: List<FacetRequest>, maxBuckets: Int): List<Facet> {
+        return specificationExecutor.facets(specification, facetRequests, maxBuckets)
+    }
+
+    override fun findSlice(specification: Specification<T>?, cursor: Cursor?, size: Int): Slice<T> {
+        return specificationExecutor.findSlice(specification, cursor, size)
+    }
+
+    override fun stream(specification: Specification<T>?): Stream<T> {
+        return specificationExecutor.stream(specification)
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,89 @@
+package com.weedow.searchy.mongodb.autoconfigure
+
+import com.nhaarman.mockitokotlin2.mock
+import com.weedow.searchy.context.SearchyContext
+import com.weedow.searchy.query.specification.ReactiveSpecificationExecutorFactory
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.springframework.boot.autoconfigure.AutoConfigurations
+import org.springframework.boot.test.context.FilteredClassLoader
+import org.springframework.boot.test.context.runner.ApplicationContextRunner
+import org.springframework.context.annotation.Bean
+import org.springframework.context.annotation.Configuration
+import org.springframework.data.mongodb.core.MongoOperations
+import org.springframework.data.mongodb.core.ReactiveMongoOperations
+import reactor.core.publisher.Flux
+
+internal class MongoReactiveSearchyAutoConfigurationTest {
+
+    @Test
+    fun initialize_mongodb_reactive_beans() {
+        ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(MongoReactiveSearchyAutoConfiguration::class.java))
+            .withUserConfiguration(TestMongoConfiguration::class.java, TestReactiveMongoConfiguration::class.java)
+            .run { context ->
+                assertThat(context).hasSingleBean(ReactiveSpecificationExecutorFactory::class.java)
+                assertThat(context).hasBean("mongoReactiveSpecificationExecutorFactory")
+            }
+    }
+
+    @Test
+    fun initialize_custom_mongodb_reactive_beans() {
+        ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(MongoReactiveSearchyAutoConfiguration::class.java))
+            .withUserConfiguration(TestMongoConfiguration::class.java, TestReactiveMongoConfiguration::class.java, TestCustomReactiveMongoConfiguration::class.java)
+            .run { context ->
+                assertThat(context).doesNotHaveBean("mongoReactiveSpecificationExecutorFactory")
+                assertThat(context).hasBean("customMongoReactiveSpecificationExecutorFactory")
+            }
+    }
+
+    @Test
+    fun mongodb_reactive_beans_not_initialized_without_ReactiveMongoOperations() {
+        ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(MongoReactiveSearchyAutoConfiguration::class.java))
+            .withUserConfiguration(TestMongoConfiguration::class.java)
+            .run { context ->
+                assertThat(context).doesNotHaveBean(ReactiveSpecificationExecutorFactory::class.java)
+            }
+    }
+
+    @Test
+    fun mongodb_reactive_beans_not_initialized_without_reactor() {
+        ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(MongoReactiveSearchyAutoConfiguration::class.java))
+            .withUserConfiguration(TestMongoConfiguration::class.java)
+            .withClassLoader(FilteredClassLoader(Flux::class.java))
+            .run { context ->
+                assertThat(context).doesNotHaveBean(ReactiveSpecificationExecutorFactory::class.java)
+            }
+    }
+
+    @Configuration
+    class TestMongoConfiguration {
+
+        @Bean
+        fun mongoOperations(): MongoOperations = mock()
+
+        @Bean
+        fun searchyContext(): SearchyContext = mock()
+
+    }
+
+    @Configuration
+    class TestReactiveMongoConfiguration {
+
+        @Bean
+        fun reactiveMongoOperations(): ReactiveMongoOperations = mock()
+
+    }
+
+    @Configuration
+    class TestCustomReactiveMongoConfiguration {
+
+        @Bean
+        fun customMongoReactiveSpecificationExecutorFactory(): ReactiveSpecificationExecutorFactory = mock()
+
+    }
+
+}
@@ -42,6 +42,7 @@ internal class MongoSearchyAutoConfigurationTest {
                 assertThat(context).hasBean("longIdAnnotationPrePersistEntityHandler")
                 assertThat(context).hasBean("longIdPrePersistEntityHandler")
                 assertThat(context).hasBean("isNewEntityMongoListener")
+                assertThat(context).hasBean("searchResultCacheMongoListener")
                 assertThat(context).hasBean("mongoSpecificationExecutorFactory")
                 assertThat(context).hasBean("mongoSearchyContext")
 
@@ -97,6 +98,7 @@ internal class MongoSearchyAutoConfigurationTest {
                 assertThat(context).hasBean("longIdAnnotationPrePersistEntityHandler")
                 assertThat(context).hasBean("longIdPrePersistEntityHandler")
                 assertThat(context).hasBean("isNewEntityMongoListener")
+                assertThat(context).hasBean("searchResultCacheMongoListener")
                 assertThat(context).doesNotHaveBean("mongoSpecificationExecutorFactory")
                 assertThat(context).doesNotHaveBean("mongoSearchyContext")
                 assertThat(context).hasBean("customMongoSpecificationExecutorFactory")
@@ -0,0 +1,40 @@
+package com.weedow.searchy.mongodb.event
+
+import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.verify
+import com.nhaarman.mockitokotlin2.verifyNoMoreInteractions
+import com.nhaarman.mockitokotlin2.whenever
+import com.weedow.searchy.cache.SearchResultCache
+import org.bson.Document
+import org.junit.jupiter.api.Test
+import org.springframework.beans.factory.ObjectProvider
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent
+
+internal class SearchResultCacheMongoListenerTest {
+
+    private val searchResultCache = mock<SearchResultCache>()
+
+    private val listener = SearchResultCacheMongoListener(mock<ObjectProvider<SearchResultCache>>().also {
+        whenever(it.ifAvailable).thenReturn(searchResultCache)
+    })
+
+    @Test
+    fun evict_the_results_touching_the_saved_entity() {
+        listener.onAfterSave(AfterSaveEvent<Any>(MyEntity(), Document(), "my_entity"))
+
+        verify(searchResultCache).evict(MyEntity::class.java)
+        verifyNoMoreInteractions(searchResultCache)
+    }
+
+    @Test
+    fun evict_the_results_touching_the_deleted_entities() {
+        listener.onApplicationEvent(AfterDeleteEvent(Document(), MyEntity::class.java, "my_entity"))
+
+        verify(searchResultCache).evict(MyEntity::class.java)
+        verifyNoMoreInteractions(searchResultCache)
+    }
+
+    internal class MyEntity
+
+}
@@ -4,6 +4,7 @@ import com.nhaarman.mockitokotlin2.*
 import com.querydsl.core.JoinType
 import com.querydsl.core.types.*
 import com.querydsl.core.types.dsl.*
+import com.querydsl.mongodb.MongodbOps
 import com.weedow.searchy.context.SearchyContext
 import com.weedow.searchy.mongodb.query.querytype.PathWrapper
 import com.weedow.searchy.mongodb.query.querytype.QEntityJoinImpl
@@ -59,6 +60,18 @@ internal class MongoQueryBuilderTest {
         verifyZeroInteractions(qEntityRoot)
     }
 
+    @Test
+    fun order_by() {
+        val path = Expressions.stringPath("lastName")
+
+        mongoQueryBuilder.orderBy(path, Order.DESC)
+
+        verify(query).orderBy(OrderSpecifier(Order.DESC, path))
+        verifyNoMoreInteractions(query)
+        verifyNoMoreInteractions(searchyContext)
+        verifyNoMoreInteractions(qEntityRoot)
+    }
+
     @ParameterizedTest
     @EnumSource(value = ElementType::class)
     fun join_without_join_annotation(elementType: ElementType) {
@@ -97,6 +110,73 @@ internal class MongoQueryBuilderTest {
         verifyZeroInteractions(qEntityRoot)
     }
 
+    @ParameterizedTest
+    @EnumSource(value = ElementType::class, names = ["SET", "LIST", "COLLECTION"])
+    fun exists_with_embedded_array(elementType: ElementType) {
+        val propertyInfos = mock<PropertyInfos> {
+            on { this.elementType }.thenReturn(elementType)
+            on { this.fieldName }.thenReturn("vehicles")
+            on { this.parameterizedTypes }.thenReturn(listOf(Any::class.java))
+            on { this.annotations }.thenReturn(emptyList())
+        }
+        val path = Expressions.listPath(String::class.java, StringPath::class.java, PathMetadataFactory.forVariable("vehicles"))
+        val qPath = mock<QPath<*>> {
+            on { this.propertyInfos }.thenReturn(propertyInfos)
+            on { this.path }.thenReturn(path)
+        }
+
+        val predicate = mock<Predicate>()
+
+        val result = mongoQueryBuilder.exists(qPath) { queryBuilder, element ->
+            assertThat(queryBuilder).isSameAs(mongoQueryBuilder)
+            assertThat(element).isInstanceOf(QEntityJoinImpl::class.java)
+            assertThat(element).extracting("propertyInfos").isSameAs(propertyInfos)
+            // The fields of the element are relative to the embedded array
+            assertThat(element.metadata).isEqualTo(PathMetadataFactory.forVariable("vehicles"))
+            predicate
+        }
+
+        assertThat(result).isEqualTo(Expressions.predicate(MongodbOps.ELEM_MATCH, path, predicate))
+
+        verifyNoMoreInteractions(query)
+        verify(searchyContext).getAllPropertyInfos(Any::class.java)
+        verifyNoMoreInteractions(searchyContext)
+        verifyNoMoreInteractions(qEntityRoot)
+    }
+
+    @Test
+    fun exists_with_embedded_map() {
+        val expectedType = Any::class.java
+
+        val propertyInfos = mock<PropertyInfos> {
+            on { this.elementType }.thenReturn(ElementType.MAP)
+            on { this.parameterizedTypes }.thenReturn(listOf(String::class.java, expectedType))
+            on { this.annotations }.thenReturn(emptyList())
+        }
+        val qPath = mock<QPath<*>> {
+            on { this.propertyInfos }.thenReturn(propertyInfos)
+        }
+
+        val qEntity = mock<QEntity<Any>>()
+        whenever(searchyContext.get(eq(expectedType), any())).doReturn(qEntity)
+
+        val predicate = mock<Predicate>()
+
+        val result = mongoQueryBuilder.exists(qPath) { queryBuilder, element ->
+            assertThat(queryBuilder).isSameAs(mongoQueryBuilder)
+            assertThat(element).isInstanceOf(QEntityJoinImpl::class.java)
+            assertThat(element).extracting("qEntity").isSameAs(qEntity)
+            predicate
+        }
+
+        assertThat(result).isSameAs(predicate)
+
+        verify(query).distinct()
+        verifyNoMoreInteractions(query)
+        verifyNoMoreInteractions(searchyContext)
+        verifyNoMoreInteractions(qEntityRoot)
+    }
+
     @ParameterizedTest
     @EnumSource(value = ElementType::class, mode = EnumSource.Mode.EXCLUDE, names = ["SET", "LIST", "COLLECTION", "ARRAY", "MAP", "ENTITY"])
     fun throw_exception_when_element_type_is_invalid_for_joined_field(elementType: ElementType) {
@@ -544,6 +624,43 @@ internal class MongoQueryBuilderTest {
         verifyZeroInteractions(qEntityRoot)
     }
 
+    @Test
+    fun startsWith() {
+        val expr = mock<Expression<String>>()
+        val predicate = mongoQueryBuilder.startsWith(expr, "MY.VALUE")
+
+        assertThat(predicate).isInstanceOf(BooleanOperation::class.java)
+
+        val booleanOperation = predicate as BooleanOperation
+        assertThat(booleanOperation.operator).isEqualTo(Ops.MATCHES)
+        assertThat(booleanOperation.args).hasSize(2)
+        assertThat(booleanOperation.args[0]).isSameAs(expr)
+        assertThat(booleanOperation.args[1]).extracting("constant").isEqualTo("^MY\\.VALUE")
+
+        verifyNoMoreInteractions(query)
+        verifyNoMoreInteractions(searchyContext)
+        verifyNoMoreInteractions(qEntityRoot)
+    }
+
+    @Test
+    fun ilikeWithCollation() {
+        val expr = mock<Expression<String>>()
+        val value = "MYVALUE*"
+        val predicate = mongoQueryBuilder.ilikeWithCollation(expr, value)
+
+        assertThat(predicate).isInstanceOf(BooleanOperation::class.java)
+
+        val booleanOperation = predicate as BooleanOperation
+        assertThat(booleanOperation.operator).isEqualTo(Ops.MATCHES_IC)
+        assertThat(booleanOperation.args).hasSize(2)
+        assertThat(booleanOperation.args[0]).isSameAs(expr)
+        assertThat(booleanOperation.args[1]).extracting("constant").isEqualTo("^myvalue.*")
+
+        verifyNoMoreInteractions(query)
+        verifyNoMoreInteractions(searchyContext)
+        verifyNoMoreInteractions(qEntityRoot)
+    }
+
     @Test
     fun lessThan() {
         val expr = mock<Expression<*>>()
@@ -0,0 +1,31 @@
+package com.weedow.searchy.sample.java.dto;
+
+import com.weedow.searchy.dto.BatchDtoMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that a Java class implements {@link BatchDtoMapper} with the {@code mapAll} method only.
+ */
+class BatchDtoMapperTests {
+
+    @Test
+    void map_with_the_default_method() {
+        LengthDtoMapper dtoMapper = new LengthDtoMapper();
+
+        assertThat(dtoMapper.map("John")).isEqualTo(4);
+        assertThat(dtoMapper.mapAll(List.of("John", "Jo"))).containsExactly(4, 2);
+    }
+
+    static class LengthDtoMapper implements BatchDtoMapper<String, Integer> {
+        @Override
+        public List<Integer> mapAll(List<String> entities) {
+            return entities.stream().map(String::length).collect(Collectors.toList());
+        }
+    }
+
+}
@@ -0,0 +1,31 @@
+package com.weedow.searchy.sample.java.dto;
+
+import com.weedow.searchy.dto.InitializationGraph;
+import com.weedow.searchy.dto.InitializationGraphDtoMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that a Java class implements {@link InitializationGraphDtoMapper} with the {@code map} method receiving the graph only.
+ */
+class InitializationGraphDtoMapperTests {
+
+    @Test
+    void map_with_the_default_methods() {
+        LengthDtoMapper dtoMapper = new LengthDtoMapper();
+
+        assertThat(dtoMapper.map("John")).isEqualTo(4);
+        assertThat(dtoMapper.mapAll(List.of("John", "Jo"), InitializationGraph.ALL)).containsExactly(4, 2);
+    }
+
+    static class LengthDtoMapper implements InitializationGraphDtoMapper<String, Integer> {
+        @Override
+        public Integer map(String source, InitializationGraph initializationGraph) {
+            return source.length();
+        }
+    }
+
+}